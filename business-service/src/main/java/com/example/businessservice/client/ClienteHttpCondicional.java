@@ -0,0 +1,135 @@
+package com.example.businessservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cliente HTTP de Feign que hace GET condicionales: guarda el cuerpo de las respuestas que traen ETag,
+ * envía ese ETag en {@code If-None-Match} en la siguiente petición a la misma URL y, si data-service
+ * responde 304, devuelve el cuerpo guardado como si fuera un 200.
+ * Las respuestas sin ETag (exportaciones en streaming, páginas) se devuelven tal cual, sin leerlas.
+ * El mapa se protege con un {@link ReentrantLock} en lugar de {@code synchronized} para no fijar el hilo
+ * virtual a su hilo portador.
+ */
+public class ClienteHttpCondicional implements Client {
+
+    private final Client delegado;
+    private final Map<String, RespuestaGuardada> respuestas;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * @param delegado Cliente que ejecuta las peticiones.
+     * @param maxEntradas Cantidad máxima de URLs con respuesta guardada; se descartan las menos usadas.
+     */
+    public ClienteHttpCondicional(Client delegado, int maxEntradas) {
+        this.delegado = delegado;
+        this.respuestas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RespuestaGuardada> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET || request.headers().containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            return delegado.execute(request, options);
+        }
+        String url = request.url();
+        RespuestaGuardada guardada = obtener(url);
+        Response response = delegado.execute(guardada == null ? request : conIfNoneMatch(request, guardada.etag()), options);
+
+        if (response.status() == HttpStatus.NOT_MODIFIED.value() && guardada != null) {
+            response.close();
+            return guardada.comoRespuesta(request);
+        }
+        String etag = primerValor(response.headers().get(HttpHeaders.ETAG));
+        if (response.status() != HttpStatus.OK.value() || etag == null || response.body() == null) {
+            descartar(url);
+            return response;
+        }
+        byte[] cuerpo;
+        try (response) {
+            cuerpo = Util.toByteArray(response.body().asInputStream());
+        }
+        RespuestaGuardada nueva = new RespuestaGuardada(etag, sinCodificacion(response.headers()), cuerpo);
+        guardar(url, nueva);
+        return nueva.comoRespuesta(request);
+    }
+
+    private RespuestaGuardada obtener(String url) {
+        lock.lock();
+        try {
+            return respuestas.get(url);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void guardar(String url, RespuestaGuardada respuesta) {
+        lock.lock();
+        try {
+            respuestas.put(url, respuesta);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void descartar(String url) {
+        lock.lock();
+        try {
+            respuestas.remove(url);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Request conIfNoneMatch(Request request, String etag) {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(request.headers());
+        headers.put(HttpHeaders.IF_NONE_MATCH, List.of(etag));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    /**
+     * El cuerpo guardado ya está descomprimido, por lo que no se conservan los headers de la versión comprimida.
+     */
+    private static Map<String, Collection<String>> sinCodificacion(Map<String, Collection<String>> headers) {
+        Map<String, Collection<String>> copia = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        copia.putAll(headers);
+        copia.remove(HttpHeaders.CONTENT_ENCODING);
+        copia.remove(HttpHeaders.CONTENT_LENGTH);
+        return copia;
+    }
+
+    private static String primerValor(Collection<String> valores) {
+        return valores == null || valores.isEmpty() ? null : valores.iterator().next();
+    }
+
+    private record RespuestaGuardada(String etag, Map<String, Collection<String>> headers, byte[] cuerpo) {
+
+        Response comoRespuesta(Request request) {
+            return Response.builder()
+                    .status(HttpStatus.OK.value())
+                    .reason(HttpStatus.OK.getReasonPhrase())
+                    .headers(headers)
+                    .body(cuerpo)
+                    .request(request)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.businessservice.client;
+
+import com.example.businessservice.dto.EstadisticasCoalescenciaDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las lecturas idénticas concurrentes ("single flight"): si llega una llamada con la misma operación y
+ * los mismos argumentos que otra todavía en curso, espera y devuelve el resultado (o la excepción) de esa otra
+ * en lugar de repetir la llamada a data-service. No es una cache: al terminar la llamada la clave se libera y la
+ * siguiente lectura vuelve a data-service.
+ * Los llamadores que comparten una llamada reciben la misma instancia del resultado, que no debe modificarse.
+ * Las lecturas de una petición que reenvía su última escritura ({@link UltimaEscritura}) no se agrupan: la llamada
+ * en curso puede haberse resuelto en la réplica, sin esa escritura. Tampoco las que tienen un {@link PlazoLlamada}:
+ * la espera de una llamada ajena no respeta el plazo, y el plazo propio cortaría la llamada de los demás.
+ */
+@Component
+public class CoalescedorLlamadas {
+
+    private final Map<List<Object>, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+    private final LongAdder lecturas = new LongAdder();
+    private final LongAdder compartidas = new LongAdder();
+    private final Map<String, LongAdder> compartidasPorOperacion = new ConcurrentHashMap<>();
+
+    /**
+     * Ejecuta la llamada, o se une a una idéntica que ya esté en curso.
+     *
+     * @param operacion Nombre de la operación del cliente.
+     * @param llamada   Llamada a data-service.
+     * @param argumentos Argumentos de la llamada; junto con la operación forman la clave.
+     * @return El resultado de la llamada propia o de la compartida.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String operacion, Supplier<T> llamada, Object... argumentos) {
+        lecturas.increment();
+        if (UltimaEscritura.actual() != null || PlazoLlamada.activo()) {
+            return llamada.get();
+        }
+        List<Object> clave = clave(operacion, argumentos);
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            compartidas.increment();
+            compartidasPorOperacion.computeIfAbsent(operacion, o -> new LongAdder()).increment();
+            return (T) esperar(existente);
+        }
+        try {
+            T resultado = llamada.get();
+            propia.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    /**
+     * @return Los contadores acumulados desde el arranque.
+     */
+    public EstadisticasCoalescenciaDTO obtenerEstadisticas() {
+        long totalLecturas = lecturas.sum();
+        long totalCompartidas = compartidas.sum();
+        Map<String, Long> porOperacion = new TreeMap<>();
+        compartidasPorOperacion.forEach((operacion, contador) -> porOperacion.put(operacion, contador.sum()));
+        return new EstadisticasCoalescenciaDTO(totalLecturas, totalLecturas - totalCompartidas, totalCompartidas,
+                totalLecturas == 0 ? 0 : (double) totalCompartidas / totalLecturas, porOperacion);
+    }
+
+    private static List<Object> clave(String operacion, Object[] argumentos) {
+        Object[] clave = new Object[argumentos.length + 1];
+        clave[0] = operacion;
+        System.arraycopy(argumentos, 0, clave, 1, argumentos.length);
+        return Arrays.asList(clave);
+    }
+
+    /**
+     * Espera la llamada en curso y relanza tal cual su excepción, para que los servicios la traduzcan igual
+     * que si la hubieran recibido del cliente Feign.
+     */
+    private static Object esperar(CompletableFuture<Object> enCurso) {
+        try {
+            return enCurso.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,21 +1,46 @@
 package com.example.businessservice.client;
 
+import com.example.businessservice.dto.AjusteStockDTO;
 import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
+import com.example.businessservice.dto.FiltroProductosDTO;
 import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaCambiosDTO;
+import com.example.businessservice.dto.PaginaDTO;
 import com.example.businessservice.dto.ProductoDTO;
 import com.example.businessservice.dto.ProductoRequest;
+import com.example.businessservice.dto.ResultadoFilaDTO;
+import com.example.businessservice.dto.ResumenActualizacionStockDTO;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.SpringQueryMap;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 
-
-@FeignClient(name = "data-service", url = "${data.service.url}")
+/**
+ * Cliente Feign de data-service. Los servicios de negocio reciben este tipo a través de
+ * {@link DataServiceClientCoalescente}, que agrupa las lecturas idénticas concurrentes, sobre
+ * {@link DataServiceClientProtegido}, que aplica bulkhead, circuit breaker y hedging por operación; el cliente
+ * Feign se inyecta con el calificador {@code dataServiceClientFeign}.
+ */
+@FeignClient(name = "data-service", url = "${data.service.url}", qualifiers = "dataServiceClientFeign", primary = false)
 public interface DataServiceClient {
 
     @GetMapping("/data/productos")
-    List<ProductoDTO> obtenerTodosLosProductos();
+    ResponseEntity<List<ProductoDTO>> obtenerTodosLosProductos();
+
+    @GetMapping("/data/productos")
+    PaginaDTO<ProductoDTO> obtenerPaginaDeProductos(@RequestParam(value = "after", required = false) Long after,
+                                                    @RequestParam("limit") int limit);
+
+    /**
+     * Exportación NDJSON del catálogo. Se devuelve la respuesta cruda para poder reenviar el cuerpo
+     * sin deserializarlo; quien la invoca debe verificar el estado y cerrar la respuesta.
+     */
+    @GetMapping(value = "/data/productos/export", produces = "application/x-ndjson")
+    Response exportarProductos();
 
     @GetMapping("/data/productos/{id}")
     ProductoDTO obtenerProductoPorId(@PathVariable Long id);
@@ -23,6 +48,9 @@ public interface DataServiceClient {
     @PostMapping("/data/productos")
     ProductoDTO crearProducto(@RequestBody ProductoRequest request);
 
+    @PostMapping("/data/productos/batch")
+    List<ResultadoFilaDTO> crearProductosEnLote(@RequestBody List<ProductoRequest> requests);
+
     @PutMapping("/data/productos/{id}")
     ProductoDTO actualizarProducto(@PathVariable Long id, @RequestBody ProductoRequest request);
 
@@ -33,10 +61,15 @@ public interface DataServiceClient {
     List<ProductoDTO> obtenerProductosPorCategoria(@PathVariable String nombre);
 
     @GetMapping("/data/productos/filtros")
-    List<ProductoDTO> obtenerProductosFiltrados();
+    List<ProductoDTO> obtenerProductosFiltrados(@SpringQueryMap FiltroProductosDTO filtro);
+
+    @GetMapping("/data/productos/buscar")
+    PaginaDTO<ProductoDTO> buscarProductos(@RequestParam("q") String q,
+                                           @RequestParam(value = "after", required = false) Long after,
+                                           @RequestParam("limit") int limit);
 
     @GetMapping("/data/categorias")
-    List<CategoriaDTO> obtenerTodasLasCategorias();
+    ResponseEntity<List<CategoriaDTO>> obtenerTodasLasCategorias();
 
     @GetMapping("/data/categorias/{id}")
     CategoriaDTO obtenerCategoriaPorId(@PathVariable("id") Long id);
@@ -51,10 +84,20 @@ public interface DataServiceClient {
     void eliminarCategoria(@PathVariable("id") Long id);
 
     @GetMapping("/data/categorias/{nombre}/estadisticas")
-    Map<String, Object> obtenerEstadisticasCategoria(@PathVariable("nombre") String nombre);
+    EstadisticasCategoriaDTO obtenerEstadisticasCategoria(@PathVariable("nombre") String nombre);
+
+    @GetMapping("/data/inventario")
+    PaginaDTO<InventarioDTO> obtenerPaginaDelInventario(@RequestParam(value = "after", required = false) Long after,
+                                                        @RequestParam("limit") int limit);
+
+    @GetMapping("/data/inventario/stock-bajo")
+    ResponseEntity<List<InventarioDTO>> obtenerProductosConStockBajo();
 
     @GetMapping("/data/inventario/stock-bajo")
-    List<InventarioDTO> obtenerProductosConStockBajo();
+    PaginaDTO<InventarioDTO> obtenerPaginaStockBajo(@RequestParam(value = "categoria", required = false) String categoria,
+                                                    @RequestParam(value = "orden", required = false) String orden,
+                                                    @RequestParam(value = "after", required = false) Long after,
+                                                    @RequestParam("limit") int limit);
 
     @GetMapping("/data/inventario/producto/{productoId}")
     InventarioDTO obtenerInventarioPorProductoId(@PathVariable("productoId") Long productoId);
@@ -63,6 +106,12 @@ public interface DataServiceClient {
     InventarioDTO actualizarCantidadInventario(@PathVariable("productoId") Long productoId,
                                                @RequestBody InventarioDTO payload);
 
+    @PutMapping("/data/inventario/stock")
+    ResumenActualizacionStockDTO actualizarStockEnLote(@RequestBody List<AjusteStockDTO> ajustes);
+
     @PostMapping("/data/inventario/movimientos")
     InventarioDTO registrarMovimientoInventario(@RequestBody InventarioDTO movimiento);
+
+    @GetMapping("/data/changes")
+    PaginaCambiosDTO obtenerCambios(@RequestParam("since") long since, @RequestParam("limit") int limit);
 }
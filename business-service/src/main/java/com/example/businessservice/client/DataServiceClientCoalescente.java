@@ -0,0 +1,169 @@
+package com.example.businessservice.client;
+
+import com.example.businessservice.dto.AjusteStockDTO;
+import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
+import com.example.businessservice.dto.FiltroProductosDTO;
+import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaCambiosDTO;
+import com.example.businessservice.dto.PaginaDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.dto.ProductoRequest;
+import com.example.businessservice.dto.ResultadoFilaDTO;
+import com.example.businessservice.dto.ResumenActualizacionStockDTO;
+import feign.Response;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * {@link DataServiceClient} que agrupa las lecturas idénticas concurrentes con {@link CoalescedorLlamadas}
+ * y delega todo en el cliente Feign. Las escrituras y la exportación en streaming (cuyo cuerpo solo puede leerse
+ * una vez) se delegan sin agrupar.
+ * Se registra como cliente principal en {@link com.example.businessservice.config.FeignConfig}.
+ */
+public class DataServiceClientCoalescente implements DataServiceClient {
+
+    private final DataServiceClient delegado;
+    private final CoalescedorLlamadas coalescedor;
+
+    /**
+     * @param delegado    Cliente Feign de data-service.
+     * @param coalescedor Agrupador de las lecturas en curso.
+     */
+    public DataServiceClientCoalescente(DataServiceClient delegado, CoalescedorLlamadas coalescedor) {
+        this.delegado = delegado;
+        this.coalescedor = coalescedor;
+    }
+
+    @Override
+    public ResponseEntity<List<ProductoDTO>> obtenerTodosLosProductos() {
+        return coalescedor.ejecutar("obtenerTodosLosProductos", delegado::obtenerTodosLosProductos);
+    }
+
+    @Override
+    public PaginaDTO<ProductoDTO> obtenerPaginaDeProductos(Long after, int limit) {
+        return coalescedor.ejecutar("obtenerPaginaDeProductos", () -> delegado.obtenerPaginaDeProductos(after, limit),
+                after, limit);
+    }
+
+    @Override
+    public Response exportarProductos() {
+        return delegado.exportarProductos();
+    }
+
+    @Override
+    public ProductoDTO obtenerProductoPorId(Long id) {
+        return coalescedor.ejecutar("obtenerProductoPorId", () -> delegado.obtenerProductoPorId(id), id);
+    }
+
+    @Override
+    public ProductoDTO crearProducto(ProductoRequest request) {
+        return delegado.crearProducto(request);
+    }
+
+    @Override
+    public List<ResultadoFilaDTO> crearProductosEnLote(List<ProductoRequest> requests) {
+        return delegado.crearProductosEnLote(requests);
+    }
+
+    @Override
+    public ProductoDTO actualizarProducto(Long id, ProductoRequest request) {
+        return delegado.actualizarProducto(id, request);
+    }
+
+    @Override
+    public void eliminarProducto(Long id) {
+        delegado.eliminarProducto(id);
+    }
+
+    @Override
+    public List<ProductoDTO> obtenerProductosPorCategoria(String nombre) {
+        return coalescedor.ejecutar("obtenerProductosPorCategoria", () -> delegado.obtenerProductosPorCategoria(nombre),
+                nombre);
+    }
+
+    @Override
+    public List<ProductoDTO> obtenerProductosFiltrados(FiltroProductosDTO filtro) {
+        return coalescedor.ejecutar("obtenerProductosFiltrados", () -> delegado.obtenerProductosFiltrados(filtro), filtro);
+    }
+
+    @Override
+    public PaginaDTO<ProductoDTO> buscarProductos(String q, Long after, int limit) {
+        return coalescedor.ejecutar("buscarProductos", () -> delegado.buscarProductos(q, after, limit), q, after, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<CategoriaDTO>> obtenerTodasLasCategorias() {
+        return coalescedor.ejecutar("obtenerTodasLasCategorias", delegado::obtenerTodasLasCategorias);
+    }
+
+    @Override
+    public CategoriaDTO obtenerCategoriaPorId(Long id) {
+        return coalescedor.ejecutar("obtenerCategoriaPorId", () -> delegado.obtenerCategoriaPorId(id), id);
+    }
+
+    @Override
+    public CategoriaDTO crearCategoria(CategoriaDTO request) {
+        return delegado.crearCategoria(request);
+    }
+
+    @Override
+    public CategoriaDTO actualizarCategoria(Long id, CategoriaDTO request) {
+        return delegado.actualizarCategoria(id, request);
+    }
+
+    @Override
+    public void eliminarCategoria(Long id) {
+        delegado.eliminarCategoria(id);
+    }
+
+    @Override
+    public EstadisticasCategoriaDTO obtenerEstadisticasCategoria(String nombre) {
+        return coalescedor.ejecutar("obtenerEstadisticasCategoria", () -> delegado.obtenerEstadisticasCategoria(nombre),
+                nombre);
+    }
+
+    @Override
+    public PaginaDTO<InventarioDTO> obtenerPaginaDelInventario(Long after, int limit) {
+        return coalescedor.ejecutar("obtenerPaginaDelInventario", () -> delegado.obtenerPaginaDelInventario(after, limit),
+                after, limit);
+    }
+
+    @Override
+    public ResponseEntity<List<InventarioDTO>> obtenerProductosConStockBajo() {
+        return coalescedor.ejecutar("obtenerProductosConStockBajo", delegado::obtenerProductosConStockBajo);
+    }
+
+    @Override
+    public PaginaDTO<InventarioDTO> obtenerPaginaStockBajo(String categoria, String orden, Long after, int limit) {
+        return coalescedor.ejecutar("obtenerPaginaStockBajo",
+                () -> delegado.obtenerPaginaStockBajo(categoria, orden, after, limit), categoria, orden, after, limit);
+    }
+
+    @Override
+    public InventarioDTO obtenerInventarioPorProductoId(Long productoId) {
+        return coalescedor.ejecutar("obtenerInventarioPorProductoId",
+                () -> delegado.obtenerInventarioPorProductoId(productoId), productoId);
+    }
+
+    @Override
+    public InventarioDTO actualizarCantidadInventario(Long productoId, InventarioDTO payload) {
+        return delegado.actualizarCantidadInventario(productoId, payload);
+    }
+
+    @Override
+    public ResumenActualizacionStockDTO actualizarStockEnLote(List<AjusteStockDTO> ajustes) {
+        return delegado.actualizarStockEnLote(ajustes);
+    }
+
+    @Override
+    public InventarioDTO registrarMovimientoInventario(InventarioDTO movimiento) {
+        return delegado.registrarMovimientoInventario(movimiento);
+    }
+
+    @Override
+    public PaginaCambiosDTO obtenerCambios(long since, int limit) {
+        return coalescedor.ejecutar("obtenerCambios", () -> delegado.obtenerCambios(since, limit), since, limit);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.businessservice.client;
+
+import com.example.businessservice.dto.AjusteStockDTO;
+import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
+import com.example.businessservice.dto.FiltroProductosDTO;
+import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaCambiosDTO;
+import com.example.businessservice.dto.PaginaDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.dto.ProductoRequest;
+import com.example.businessservice.dto.ResultadoFilaDTO;
+import com.example.businessservice.dto.ResumenActualizacionStockDTO;
+import feign.Response;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * {@link DataServiceClient} que ejecuta cada operación del cliente Feign con {@link ProteccionLlamadas}:
+ * bulkhead y circuit breaker por operación, y hedging en las lecturas que lo tengan configurado. Las escrituras
+ * y la exportación en streaming (cuya respuesta no puede descartarse sin cerrarla) nunca se repiten.
+ * Se compone en {@link com.example.businessservice.config.FeignConfig}, por debajo de la coalescencia.
+ */
+public class DataServiceClientProtegido implements DataServiceClient {
+
+    private final DataServiceClient delegado;
+    private final ProteccionLlamadas proteccion;
+
+    /**
+     * @param delegado   Cliente Feign de data-service.
+     * @param proteccion Bulkheads, circuitos y hedging por operación.
+     */
+    public DataServiceClientProtegido(DataServiceClient delegado, ProteccionLlamadas proteccion) {
+        this.delegado = delegado;
+        this.proteccion = proteccion;
+    }
+
+    @Override
+    public ResponseEntity<List<ProductoDTO>> obtenerTodosLosProductos() {
+        return proteccion.ejecutarIdempotente("obtenerTodosLosProductos", delegado::obtenerTodosLosProductos);
+    }
+
+    @Override
+    public PaginaDTO<ProductoDTO> obtenerPaginaDeProductos(Long after, int limit) {
+        return proteccion.ejecutarIdempotente("obtenerPaginaDeProductos",
+                () -> delegado.obtenerPaginaDeProductos(after, limit));
+    }
+
+    @Override
+    public Response exportarProductos() {
+        return proteccion.ejecutarEnStreaming("exportarProductos", delegado::exportarProductos);
+    }
+
+    @Override
+    public ProductoDTO obtenerProductoPorId(Long id) {
+        return proteccion.ejecutarIdempotente("obtenerProductoPorId", () -> delegado.obtenerProductoPorId(id));
+    }
+
+    @Override
+    public ProductoDTO crearProducto(ProductoRequest request) {
+        return proteccion.ejecutar("crearProducto", () -> delegado.crearProducto(request));
+    }
+
+    @Override
+    public List<ResultadoFilaDTO> crearProductosEnLote(List<ProductoRequest> requests) {
+        return proteccion.ejecutar("crearProductosEnLote", () -> delegado.crearProductosEnLote(requests));
+    }
+
+    @Override
+    public ProductoDTO actualizarProducto(Long id, ProductoRequest request) {
+        return proteccion.ejecutar("actualizarProducto", () -> delegado.actualizarProducto(id, request));
+    }
+
+    @Override
+    public void eliminarProducto(Long id) {
+        proteccion.ejecutar("eliminarProducto", () -> {
+            delegado.eliminarProducto(id);
+            return null;
+        });
+    }
+
+    @Override
+    public List<ProductoDTO> obtenerProductosPorCategoria(String nombre) {
+        return proteccion.ejecutarIdempotente("obtenerProductosPorCategoria",
+                () -> delegado.obtenerProductosPorCategoria(nombre));
+    }
+
+    @Override
+    public List<ProductoDTO> obtenerProductosFiltrados(FiltroProductosDTO filtro) {
+        return proteccion.ejecutarIdempotente("obtenerProductosFiltrados",
+                () -> delegado.obtenerProductosFiltrados(filtro));
+    }
+
+    @Override
+    public PaginaDTO<ProductoDTO> buscarProductos(String q, Long after, int limit) {
+        return proteccion.ejecutarIdempotente("buscarProductos", () -> delegado.buscarProductos(q, after, limit));
+    }
+
+    @Override
+    public ResponseEntity<List<CategoriaDTO>> obtenerTodasLasCategorias() {
+        return proteccion.ejecutarIdempotente("obtenerTodasLasCategorias", delegado::obtenerTodasLasCategorias);
+    }
+
+    @Override
+    public CategoriaDTO obtenerCategoriaPorId(Long id) {
+        return proteccion.ejecutarIdempotente("obtenerCategoriaPorId", () -> delegado.obtenerCategoriaPorId(id));
+    }
+
+    @Override
+    public CategoriaDTO crearCategoria(CategoriaDTO request) {
+        return proteccion.ejecutar("crearCategoria", () -> delegado.crearCategoria(request));
+    }
+
+    @Override
+    public CategoriaDTO actualizarCategoria(Long id, CategoriaDTO request) {
+        return proteccion.ejecutar("actualizarCategoria", () -> delegado.actualizarCategoria(id, request));
+    }
+
+    @Override
+    public void eliminarCategoria(Long id) {
+        proteccion.ejecutar("eliminarCategoria", () -> {
+            delegado.eliminarCategoria(id);
+            return null;
+        });
+    }
+
+    @Override
+    public EstadisticasCategoriaDTO obtenerEstadisticasCategoria(String nombre) {
+        return proteccion.ejecutarIdempotente("obtenerEstadisticasCategoria",
+                () -> delegado.obtenerEstadisticasCategoria(nombre));
+    }
+
+    @Override
+    public PaginaDTO<InventarioDTO> obtenerPaginaDelInventario(Long after, int limit) {
+        return proteccion.ejecutarIdempotente("obtenerPaginaDelInventario",
+                () -> delegado.obtenerPaginaDelInventario(after, limit));
+    }
+
+    @Override
+    public ResponseEntity<List<InventarioDTO>> obtenerProductosConStockBajo() {
+        return proteccion.ejecutarIdempotente("obtenerProductosConStockBajo", delegado::obtenerProductosConStockBajo);
+    }
+
+    @Override
+    public PaginaDTO<InventarioDTO> obtenerPaginaStockBajo(String categoria, String orden, Long after, int limit) {
+        return proteccion.ejecutarIdempotente("obtenerPaginaStockBajo",
+                () -> delegado.obtenerPaginaStockBajo(categoria, orden, after, limit));
+    }
+
+    @Override
+    public InventarioDTO obtenerInventarioPorProductoId(Long productoId) {
+        return proteccion.ejecutarIdempotente("obtenerInventarioPorProductoId",
+                () -> delegado.obtenerInventarioPorProductoId(productoId));
+    }
+
+    @Override
+    public InventarioDTO actualizarCantidadInventario(Long productoId, InventarioDTO payload) {
+        return proteccion.ejecutar("actualizarCantidadInventario",
+                () -> delegado.actualizarCantidadInventario(productoId, payload));
+    }
+
+    @Override
+    public ResumenActualizacionStockDTO actualizarStockEnLote(List<AjusteStockDTO> ajustes) {
+        return proteccion.ejecutar("actualizarStockEnLote", () -> delegado.actualizarStockEnLote(ajustes));
+    }
+
+    @Override
+    public InventarioDTO registrarMovimientoInventario(InventarioDTO movimiento) {
+        return proteccion.ejecutar("registrarMovimientoInventario",
+                () -> delegado.registrarMovimientoInventario(movimiento));
+    }
+
+    @Override
+    public PaginaCambiosDTO obtenerCambios(long since, int limit) {
+        return proteccion.ejecutarIdempotente("obtenerCambios", () -> delegado.obtenerCambios(since, limit));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.businessservice.client;
+
+import com.example.businessservice.dto.AjusteStockDTO;
+import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
+import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaCambiosDTO;
+import com.example.businessservice.dto.PaginaDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.dto.ProductoRequest;
+import com.example.businessservice.dto.ResultadoFilaDTO;
+import com.example.businessservice.dto.ResumenActualizacionStockDTO;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.DeleteExchange;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.PostExchange;
+import org.springframework.web.service.annotation.PutExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Cliente no bloqueante de data-service con las mismas operaciones que {@link DataServiceClient}, sobre WebClient.
+ * Las llamadas no ocupan un hilo mientras esperan la respuesta, por lo que varias llamadas independientes pueden
+ * estar en vuelo a la vez, y los listados se emiten elemento a elemento a medida que se decodifican.
+ * Los errores HTTP llegan como {@link org.springframework.web.reactive.function.client.WebClientResponseException}.
+ * Se configura en {@link com.example.businessservice.config.WebClientConfig}.
+ */
+public interface DataServiceReactiveClient {
+
+    @GetExchange("/data/productos")
+    Flux<ProductoDTO> obtenerTodosLosProductos();
+
+    @GetExchange("/data/productos")
+    Mono<PaginaDTO<ProductoDTO>> obtenerPaginaDeProductos(@RequestParam(value = "after", required = false) Long after,
+                                                          @RequestParam("limit") int limit);
+
+    /**
+     * Exportación NDJSON del catálogo como bytes crudos, para reenviarla sin deserializar los productos.
+     */
+    @GetExchange(value = "/data/productos/export", accept = "application/x-ndjson")
+    Flux<DataBuffer> exportarProductos();
+
+    @GetExchange("/data/productos/{id}")
+    Mono<ProductoDTO> obtenerProductoPorId(@PathVariable Long id);
+
+    @PostExchange("/data/productos")
+    Mono<ProductoDTO> crearProducto(@RequestBody ProductoRequest request);
+
+    @PostExchange("/data/productos/batch")
+    Flux<ResultadoFilaDTO> crearProductosEnLote(@RequestBody List<ProductoRequest> requests);
+
+    @PutExchange("/data/productos/{id}")
+    Mono<ProductoDTO> actualizarProducto(@PathVariable Long id, @RequestBody ProductoRequest request);
+
+    @DeleteExchange("/data/productos/{id}")
+    Mono<Void> eliminarProducto(@PathVariable Long id);
+
+    @GetExchange("/data/productos/categoria/{nombre}")
+    Flux<ProductoDTO> obtenerProductosPorCategoria(@PathVariable String nombre);
+
+    /**
+     * Mismos parámetros que {@link com.example.businessservice.dto.FiltroProductosDTO}; los nulos no se envían.
+     */
+    @GetExchange("/data/productos/filtros")
+    Flux<ProductoDTO> obtenerProductosFiltrados(@RequestParam(value = "precioMin", required = false) BigDecimal precioMin,
+                                                @RequestParam(value = "precioMax", required = false) BigDecimal precioMax,
+                                                @RequestParam(value = "categoria", required = false) String categoria,
+                                                @RequestParam(value = "stockBajo", required = false) Boolean stockBajo,
+                                                @RequestParam(value = "nombre", required = false) String nombre,
+                                                @RequestParam(value = "orden", required = false) String orden,
+                                                @RequestParam(value = "limit", required = false) Integer limit);
+
+    @GetExchange("/data/productos/buscar")
+    Mono<PaginaDTO<ProductoDTO>> buscarProductos(@RequestParam("q") String q,
+                                                 @RequestParam(value = "after", required = false) Long after,
+                                                 @RequestParam("limit") int limit);
+
+    @GetExchange("/data/categorias")
+    Flux<CategoriaDTO> obtenerTodasLasCategorias();
+
+    @GetExchange("/data/categorias/{id}")
+    Mono<CategoriaDTO> obtenerCategoriaPorId(@PathVariable("id") Long id);
+
+    @PostExchange("/data/categorias")
+    Mono<CategoriaDTO> crearCategoria(@RequestBody CategoriaDTO request);
+
+    @PutExchange("/data/categorias/{id}")
+    Mono<CategoriaDTO> actualizarCategoria(@PathVariable("id") Long id, @RequestBody CategoriaDTO request);
+
+    @DeleteExchange("/data/categorias/{id}")
+    Mono<Void> eliminarCategoria(@PathVariable("id") Long id);
+
+    @GetExchange("/data/categorias/{nombre}/estadisticas")
+    Mono<EstadisticasCategoriaDTO> obtenerEstadisticasCategoria(@PathVariable("nombre") String nombre);
+
+    @GetExchange("/data/inventario")
+    Mono<PaginaDTO<InventarioDTO>> obtenerPaginaDelInventario(@RequestParam(value = "after", required = false) Long after,
+                                                              @RequestParam("limit") int limit);
+
+    @GetExchange("/data/inventario/stock-bajo")
+    Flux<InventarioDTO> obtenerProductosConStockBajo();
+
+    @GetExchange("/data/inventario/stock-bajo")
+    Mono<PaginaDTO<InventarioDTO>> obtenerPaginaStockBajo(@RequestParam(value = "categoria", required = false) String categoria,
+                                                          @RequestParam(value = "orden", required = false) String orden,
+                                                          @RequestParam(value = "after", required = false) Long after,
+                                                          @RequestParam("limit") int limit);
+
+    @GetExchange("/data/inventario/producto/{productoId}")
+    Mono<InventarioDTO> obtenerInventarioPorProductoId(@PathVariable("productoId") Long productoId);
+
+    @PutExchange("/data/inventario/{productoId}/stock")
+    Mono<InventarioDTO> actualizarCantidadInventario(@PathVariable("productoId") Long productoId,
+                                                     @RequestBody InventarioDTO payload);
+
+    @PutExchange("/data/inventario/stock")
+    Mono<ResumenActualizacionStockDTO> actualizarStockEnLote(@RequestBody List<AjusteStockDTO> ajustes);
+
+    @PostExchange("/data/inventario/movimientos")
+    Mono<InventarioDTO> registrarMovimientoInventario(@RequestBody InventarioDTO movimiento);
+
+    @GetExchange("/data/changes")
+    Mono<PaginaCambiosDTO> obtenerCambios(@RequestParam("since") long since, @RequestParam("limit") int limit);
+}
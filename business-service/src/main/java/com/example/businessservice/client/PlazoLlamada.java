@@ -0,0 +1,106 @@
+package com.example.businessservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Plazo de las llamadas a data-service que hace el hilo actual. Quien deja de esperar una llamada al vencer su
+ * timeout no la detiene: la lectura bloqueante de Feign no responde a interrupciones y el hilo quedaría ocupado
+ * hasta el timeout de lectura general. Con un plazo, {@link Cliente} acota el timeout de conexión y de lectura
+ * de cada petición al tiempo que le queda.
+ */
+public final class PlazoLlamada {
+
+    private static final ThreadLocal<Long> VENCIMIENTO = new ThreadLocal<>();
+
+    private PlazoLlamada() {
+    }
+
+    /**
+     * Envuelve una llamada para que sus peticiones a data-service terminen, como máximo, al cumplirse el plazo
+     * contado desde ahora.
+     */
+    public static <T> Supplier<T> con(Duration plazo, Supplier<T> llamada) {
+        long vencimiento = System.nanoTime() + plazo.toNanos();
+        return conVencimiento(vencimiento, llamada);
+    }
+
+    /**
+     * Envuelve una llamada que correrá en otro hilo para que respete el plazo actual.
+     */
+    public static <T> Supplier<T> propagar(Supplier<T> llamada) {
+        Long vencimiento = VENCIMIENTO.get();
+        return vencimiento == null ? llamada : conVencimiento(vencimiento, llamada);
+    }
+
+    /**
+     * @return Si el hilo actual tiene un plazo.
+     */
+    public static boolean activo() {
+        return VENCIMIENTO.get() != null;
+    }
+
+    /**
+     * @return El tiempo que queda del plazo (negativo si ya venció), o null si no hay plazo.
+     */
+    static Duration restante() {
+        Long vencimiento = VENCIMIENTO.get();
+        return vencimiento == null ? null : Duration.ofNanos(vencimiento - System.nanoTime());
+    }
+
+    private static <T> Supplier<T> conVencimiento(long vencimiento, Supplier<T> llamada) {
+        return () -> {
+            Long anterior = VENCIMIENTO.get();
+            VENCIMIENTO.set(anterior == null ? vencimiento : Math.min(anterior, vencimiento));
+            try {
+                return llamada.get();
+            } finally {
+                if (anterior == null) {
+                    VENCIMIENTO.remove();
+                } else {
+                    VENCIMIENTO.set(anterior);
+                }
+            }
+        };
+    }
+
+    /**
+     * Cliente HTTP de Feign que aplica el plazo del hilo actual a los timeouts de cada petición. Sin plazo usa
+     * los timeouts configurados; con el plazo vencido falla sin enviar la petición.
+     */
+    public static class Cliente implements Client {
+
+        private final Client delegado;
+
+        /**
+         * @param delegado Cliente que ejecuta las peticiones.
+         */
+        public Cliente(Client delegado) {
+            this.delegado = delegado;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            Duration restante = restante();
+            if (restante == null) {
+                return delegado.execute(request, options);
+            }
+            long milis = restante.toMillis();
+            if (milis <= 0) {
+                throw new SocketTimeoutException("Plazo de la llamada vencido antes de enviar " + request.url());
+            }
+            Request.Options acotadas = new Request.Options(
+                    Math.min(options.connectTimeoutMillis(), milis), TimeUnit.MILLISECONDS,
+                    Math.min(options.readTimeoutMillis(), milis), TimeUnit.MILLISECONDS,
+                    options.isFollowRedirects());
+            return delegado.execute(request, acotadas);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.businessservice.client;
+
+import com.example.businessservice.config.ResilienciaProperties;
+import com.example.businessservice.exceptions.ServicioDatosNoDisponibleException;
+import feign.FeignException;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Aísla cada operación de data-service con un bulkhead y un circuit breaker propios, configurados en
+ * {@link ResilienciaProperties}.
+ * El bulkhead limita las llamadas en curso de cada operación, de modo que un reporte lento no acapare las
+ * conexiones que necesitan las consultas de productos. El circuito se abre cuando la operación falla o responde
+ * lento y, mientras está abierto, rechaza las llamadas sin esperar a data-service. Solo cuentan como fallos los
+ * errores 5xx y los de conexión o timeout; un 4xx es una respuesta válida.
+ * En las lecturas idempotentes con hedging, si el primer intento tarda más que el p95 de la operación se lanza un
+ * segundo y se devuelve el primero que responde bien. El segundo intento también ocupa un lugar en el bulkhead;
+ * si no hay lugar, se espera solo al primero.
+ */
+@Component
+@Slf4j
+public class ProteccionLlamadas {
+
+    static final double PERCENTIL_HEDGING = 0.95;
+    static final int MUESTRAS_LATENCIA = 200;
+    static final int MUESTRAS_MINIMAS_HEDGING = 20;
+
+    private final ResilienciaProperties propiedades;
+    private final Map<String, Operacion> operaciones = new ConcurrentHashMap<>();
+    private final ExecutorService intentos = Executors.newVirtualThreadPerTaskExecutor();
+
+    private record Operacion(String nombre, ResilienciaProperties.Operacion config, CircuitBreaker circuito,
+                             Bulkhead bulkhead, VentanaLatencias latencias) {
+    }
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param propiedades Configuración por operación.
+     * @throws IllegalStateException Si se configura una operación que DataServiceClient no tiene.
+     */
+    public ProteccionLlamadas(ResilienciaProperties propiedades) {
+        Set<String> conocidas = Arrays.stream(DataServiceClient.class.getMethods()).map(Method::getName)
+                .collect(Collectors.toSet());
+        for (String operacion : propiedades.getOperaciones().keySet()) {
+            if (!conocidas.contains(operacion)) {
+                throw new IllegalStateException("data.service.resiliencia.operaciones." + operacion
+                        + " no es una operación de DataServiceClient");
+            }
+        }
+        this.propiedades = propiedades;
+    }
+
+    /**
+     * Ejecuta la llamada dentro del circuito y del bulkhead de la operación.
+     *
+     * @param operacion Nombre del método de DataServiceClient.
+     * @param llamada   Llamada a data-service.
+     * @return El resultado de la llamada.
+     * @throws ServicioDatosNoDisponibleException Si el circuito está abierto o el bulkhead está lleno.
+     */
+    public <T> T ejecutar(String operacion, Supplier<T> llamada) {
+        Operacion op = operacion(operacion);
+        return proteger(op, () -> op.bulkhead().executeSupplier(llamada));
+    }
+
+    /**
+     * Como {@link #ejecutar}, con hedging si la operación lo tiene habilitado. Solo para lecturas que pueden
+     * repetirse sin efectos.
+     */
+    public <T> T ejecutarIdempotente(String operacion, Supplier<T> llamada) {
+        Operacion op = operacion(operacion);
+        if (!op.config().getHedging()) {
+            return proteger(op, () -> op.bulkhead().executeSupplier(llamada));
+        }
+        return proteger(op, () -> conHedging(op, llamada));
+    }
+
+    /**
+     * Como {@link #ejecutar}, para las respuestas cuyo cuerpo se lee en streaming después de devolverlas: el lugar
+     * en el bulkhead se conserva hasta que se cierra el cuerpo, y no al recibir los encabezados. El circuito solo
+     * mide la espera de los encabezados, no la duración de la transferencia.
+     *
+     * @param operacion Nombre del método de DataServiceClient.
+     * @param llamada   Llamada a data-service.
+     * @return La respuesta, cuyo cuerpo libera el bulkhead al cerrarse.
+     * @throws ServicioDatosNoDisponibleException Si el circuito está abierto o el bulkhead está lleno.
+     */
+    public Response ejecutarEnStreaming(String operacion, Supplier<Response> llamada) {
+        Operacion op = operacion(operacion);
+        return proteger(op, () -> {
+            op.bulkhead().acquirePermission();
+            Response response;
+            try {
+                response = llamada.get();
+            } catch (RuntimeException | Error e) {
+                op.bulkhead().onComplete();
+                throw e;
+            }
+            if (response.body() == null) {
+                op.bulkhead().onComplete();
+                return response;
+            }
+            return response.toBuilder().body(new CuerpoQueLibera(response.body(), op.bulkhead())).build();
+        });
+    }
+
+    private <T> T proteger(Operacion op, Supplier<T> llamada) {
+        try {
+            return op.circuito().executeSupplier(llamada);
+        } catch (CallNotPermittedException e) {
+            throw new ServicioDatosNoDisponibleException("Servicio de datos no disponible: circuito abierto en " + op.nombre());
+        } catch (BulkheadFullException e) {
+            throw new ServicioDatosNoDisponibleException("Servicio de datos no disponible: demasiadas llamadas en curso en "
+                    + op.nombre());
+        }
+    }
+
+    private <T> T conHedging(Operacion op, Supplier<T> llamada) {
+        Duration p95 = op.latencias().percentil(PERCENTIL_HEDGING, MUESTRAS_MINIMAS_HEDGING);
+        if (p95 == null) {
+            return op.bulkhead().executeSupplier(medida(op, llamada));
+        }
+        Duration retardo = p95.compareTo(op.config().getHedgingMinimo()) < 0 ? op.config().getHedgingMinimo() : p95;
+        // Los intentos corren en otros hilos y deben reenviar la última escritura y respetar el plazo de la petición
+        Supplier<T> intento = PlazoLlamada.propagar(UltimaEscritura.propagar(llamada));
+
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        AtomicInteger pendientes = new AtomicInteger(1);
+        op.bulkhead().acquirePermission();
+        lanzar(op, intento, resultado, pendientes);
+        CompletableFuture.delayedExecutor(retardo.toNanos(), TimeUnit.NANOSECONDS, intentos).execute(() -> {
+            if (resultado.isDone() || !op.bulkhead().tryAcquirePermission()) {
+                return;
+            }
+            if (pendientes.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) {
+                op.bulkhead().releasePermission();
+                return;
+            }
+            log.debug("Segundo intento de {} tras {} ms", op.nombre(), retardo.toMillis());
+            lanzar(op, intento, resultado, pendientes);
+        });
+        return esperar(resultado);
+    }
+
+    /**
+     * Lanza un intento que ya tiene su lugar en el bulkhead. El primero que responde bien completa el resultado;
+     * si todos fallan, el resultado falla con el error del último.
+     */
+    private <T> void lanzar(Operacion op, Supplier<T> llamada, CompletableFuture<T> resultado, AtomicInteger pendientes) {
+        Runnable intento = () -> {
+            try {
+                resultado.complete(medida(op, llamada).get());
+            } catch (Throwable e) {
+                if (pendientes.decrementAndGet() == 0) {
+                    resultado.completeExceptionally(e);
+                }
+            } finally {
+                op.bulkhead().onComplete();
+            }
+        };
+        try {
+            intentos.execute(intento);
+        } catch (RejectedExecutionException e) {
+            op.bulkhead().releasePermission();
+            if (pendientes.decrementAndGet() == 0) {
+                resultado.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static <T> Supplier<T> medida(Operacion op, Supplier<T> llamada) {
+        return () -> {
+            long inicio = System.nanoTime();
+            T valor = llamada.get();
+            op.latencias().registrar(System.nanoTime() - inicio);
+            return valor;
+        };
+    }
+
+    /**
+     * Espera el resultado y relanza tal cual la excepción del intento, para que los servicios la traduzcan igual
+     * que si la hubieran recibido del cliente Feign.
+     */
+    private static <T> T esperar(CompletableFuture<T> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cuerpo de respuesta que libera su lugar en el bulkhead al cerrarse, una sola vez.
+     */
+    private static final class CuerpoQueLibera implements Response.Body {
+
+        private final Response.Body cuerpo;
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        private CuerpoQueLibera(Response.Body cuerpo, Bulkhead bulkhead) {
+            this.cuerpo = cuerpo;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public Integer length() {
+            return cuerpo.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return cuerpo.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return cuerpo.asInputStream();
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return cuerpo.asReader(charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                cuerpo.close();
+            } finally {
+                if (liberado.compareAndSet(false, true)) {
+                    bulkhead.onComplete();
+                }
+            }
+        }
+    }
+
+    private Operacion operacion(String nombre) {
+        return operaciones.computeIfAbsent(nombre, this::crear);
+    }
+
+    private Operacion crear(String nombre) {
+        ResilienciaProperties.Operacion config = propiedades.configuracionDe(nombre);
+        CircuitBreaker circuito = CircuitBreaker.of("data-service." + nombre, CircuitBreakerConfig.custom()
+                .failureRateThreshold(config.getUmbralFallos())
+                .slowCallDurationThreshold(config.getLlamadaLenta())
+                .slowCallRateThreshold(config.getUmbralLentas())
+                .slidingWindowSize(config.getVentana())
+                .minimumNumberOfCalls(config.getLlamadasMinimas())
+                .waitDurationInOpenState(config.getEsperaAbierto())
+                .recordException(ProteccionLlamadas::esFalloDeDataService)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        circuito.getEventPublisher().onStateTransition(evento ->
+                log.warn("Circuito de data-service en {}: {}", nombre, evento.getStateTransition()));
+        Bulkhead bulkhead = Bulkhead.of("data-service." + nombre, BulkheadConfig.custom()
+                .maxConcurrentCalls(config.getMaxConcurrentes())
+                .maxWaitDuration(config.getEsperaMaxima())
+                .build());
+        return new Operacion(nombre, config, circuito, bulkhead, new VentanaLatencias(MUESTRAS_LATENCIA));
+    }
+
+    /**
+     * Errores del servidor y de conexión o timeout (Feign los informa con estado negativo).
+     */
+    static boolean esFalloDeDataService(Throwable e) {
+        return e instanceof FeignException feign && (feign.status() >= 500 || feign.status() < 0);
+    }
+
+    @PreDestroy
+    void cerrar() {
+        intentos.shutdownNow();
+    }
+}
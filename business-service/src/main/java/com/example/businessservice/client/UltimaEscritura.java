@@ -0,0 +1,126 @@
+package com.example.businessservice.client;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Instante de la última escritura conocida por la petición en curso, para que data-service resuelva sus lecturas
+ * en la base primaria mientras la réplica puede no tener ese cambio.
+ * El valor llega en el header {@value #HEADER} de la petición del cliente o de la respuesta de una escritura a
+ * data-service; se reenvía en cada llamada a data-service de la misma petición y se devuelve al cliente para que
+ * lo reenvíe en sus lecturas siguientes.
+ */
+public final class UltimaEscritura {
+
+    public static final String HEADER = "X-Ultima-Escritura";
+
+    private static final ThreadLocal<Long> VALOR = new ThreadLocal<>();
+    private static final ThreadLocal<Consumer<String>> AL_REGISTRAR = new ThreadLocal<>();
+
+    private UltimaEscritura() {
+    }
+
+    /**
+     * Abre el contexto de una petición.
+     * @param entrante Valor del header en la petición del cliente, o null.
+     * @param alRegistrar Recibe el valor cada vez que una escritura a data-service lo actualiza.
+     */
+    public static void iniciar(String entrante, Consumer<String> alRegistrar) {
+        VALOR.remove();
+        AL_REGISTRAR.set(alRegistrar);
+        registrar(entrante);
+    }
+
+    public static void limpiar() {
+        VALOR.remove();
+        AL_REGISTRAR.remove();
+    }
+
+    /**
+     * @return El instante de la última escritura (milisegundos desde epoch), o null si la petición no escribió
+     * ni recibió el header.
+     */
+    public static Long actual() {
+        return VALOR.get();
+    }
+
+    /**
+     * Registra el header de una respuesta; conserva el mayor de los valores vistos. Un valor inválido se ignora.
+     */
+    public static void registrar(String valor) {
+        if (valor == null) {
+            return;
+        }
+        long instante;
+        try {
+            instante = Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        Long anterior = VALOR.get();
+        if (anterior != null && anterior >= instante) {
+            return;
+        }
+        VALOR.set(instante);
+        Consumer<String> alRegistrar = AL_REGISTRAR.get();
+        if (alRegistrar != null) {
+            alRegistrar.accept(String.valueOf(instante));
+        }
+    }
+
+    /**
+     * Envuelve una llamada que correrá en otro hilo para que reenvíe el valor actual. Lo que registre ese hilo no
+     * vuelve a la petición.
+     */
+    public static <T> Supplier<T> propagar(Supplier<T> llamada) {
+        return con(actual(), llamada);
+    }
+
+    /**
+     * Envuelve una llamada para que reenvíe un valor leído antes en el hilo de la petición, cuando la llamada se
+     * arma en un hilo que ya no lo tiene (por ejemplo, al componer futuros).
+     * @param valor Valor de {@link #actual()} en el hilo de la petición, o null.
+     */
+    public static <T> Supplier<T> con(Long valor, Supplier<T> llamada) {
+        if (valor == null) {
+            return llamada;
+        }
+        return () -> {
+            Long anterior = VALOR.get();
+            VALOR.set(valor);
+            try {
+                return llamada.get();
+            } finally {
+                if (anterior == null) {
+                    VALOR.remove();
+                } else {
+                    VALOR.set(anterior);
+                }
+            }
+        };
+    }
+
+    /**
+     * Copia el valor actual al contexto de Reactor, de donde lo toma {@link #filtroReactivo()}. Se aplica con
+     * {@code contextWrite} al armar el flujo, en el hilo de la petición.
+     */
+    public static Function<Context, Context> enContexto() {
+        Long valor = actual();
+        return contexto -> valor == null ? contexto : contexto.put(HEADER, valor);
+    }
+
+    /**
+     * Filtro de WebClient que reenvía el valor guardado en el contexto de Reactor por {@link #enContexto()}.
+     */
+    public static ExchangeFilterFunction filtroReactivo() {
+        return (request, next) -> Mono.deferContextual(contexto -> next.exchange(contexto.hasKey(HEADER)
+                ? ClientRequest.from(request).header(HEADER, contexto.get(HEADER).toString()).build()
+                : request));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.businessservice.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Últimas latencias de una operación, de las que se calcula el percentil que decide cuándo lanzar el segundo
+ * intento de una lectura con hedging.
+ */
+class VentanaLatencias {
+
+    private final long[] muestras;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int siguiente;
+    private int cantidad;
+
+    VentanaLatencias(int capacidad) {
+        this.muestras = new long[capacidad];
+    }
+
+    void registrar(long nanos) {
+        lock.lock();
+        try {
+            muestras[siguiente] = nanos;
+            siguiente = (siguiente + 1) % muestras.length;
+            cantidad = Math.min(cantidad + 1, muestras.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param percentil     Percentil entre 0 y 1.
+     * @param muestrasMinimas Muestras necesarias para que el percentil sea representativo.
+     * @return La latencia del percentil, o null si todavía no hay suficientes muestras.
+     */
+    Duration percentil(double percentil, int muestrasMinimas) {
+        long[] copia;
+        lock.lock();
+        try {
+            if (cantidad < muestrasMinimas) {
+                return null;
+            }
+            copia = Arrays.copyOf(muestras, cantidad);
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(copia);
+        int posicion = Math.max(0, (int) Math.ceil(percentil * copia.length) - 1);
+        return Duration.ofNanos(copia[posicion]);
+    }
+}
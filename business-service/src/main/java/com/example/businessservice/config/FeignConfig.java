@@ -0,0 +1,108 @@
+package com.example.businessservice.config;
+
+import com.example.businessservice.client.ClienteHttpCondicional;
+import com.example.businessservice.client.CoalescedorLlamadas;
+import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.client.DataServiceClientCoalescente;
+import com.example.businessservice.client.DataServiceClientProtegido;
+import com.example.businessservice.client.PlazoLlamada;
+import com.example.businessservice.client.ProteccionLlamadas;
+import com.example.businessservice.client.UltimaEscritura;
+import feign.Client;
+import feign.RequestInterceptor;
+import feign.ResponseInterceptor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * Configuración compartida de los clientes Feign.
+ */
+@Configuration
+@EnableConfigurationProperties(ResilienciaProperties.class)
+public class FeignConfig {
+
+    /**
+     * Prefiere Smile, acepta JSON y deja pasar cualquier otro tipo (por ejemplo la exportación NDJSON).
+     */
+    static final String ACCEPT_PREFIERE_SMILE = "application/x-jackson-smile, application/json;q=0.9, */*;q=0.8";
+
+    /**
+     * Cliente HTTP de los clientes Feign: reutiliza la última respuesta con ETag de cada URL cuando
+     * data-service responde 304, y acota los timeouts de cada petición al {@link PlazoLlamada} del hilo.
+     */
+    @Bean
+    public Client feignClient(@Value("${data.service.respuestas-condicionales.max-entradas:256}") int maxEntradas) {
+        return new PlazoLlamada.Cliente(new ClienteHttpCondicional(new Client.Default(null, null), maxEntradas));
+    }
+
+    /**
+     * Pide las respuestas de data-service en Smile en lugar de JSON, salvo que el método ya declare el tipo
+     * esperado con {@code produces}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "data.service.formato-binario", havingValue = "true", matchIfMissing = true)
+    public RequestInterceptor preferirSmile() {
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, ACCEPT_PREFIERE_SMILE);
+            }
+        };
+    }
+
+    /**
+     * Reenvía a data-service el instante de la última escritura de la petición en curso, para que sus lecturas
+     * se resuelvan en la base primaria mientras la réplica puede no tenerla.
+     */
+    @Bean
+    public RequestInterceptor reenviarUltimaEscritura() {
+        return template -> {
+            Long ultimaEscritura = UltimaEscritura.actual();
+            if (ultimaEscritura != null) {
+                template.header(UltimaEscritura.HEADER, ultimaEscritura.toString());
+            }
+        };
+    }
+
+    /**
+     * Registra el instante que data-service informa en la respuesta de cada escritura.
+     */
+    @Bean
+    public ResponseInterceptor registrarUltimaEscritura() {
+        return (contexto, cadena) -> {
+            contexto.response().headers().getOrDefault(UltimaEscritura.HEADER, List.of())
+                    .forEach(UltimaEscritura::registrar);
+            return cadena.next(contexto);
+        };
+    }
+
+    /**
+     * Cliente que reciben los servicios de negocio: las lecturas idénticas concurrentes comparten una sola
+     * llamada, y esa llamada pasa por el bulkhead y el circuito de su operación. La coalescencia va por encima
+     * para que un grupo de lecturas idénticas ocupe un solo lugar en el bulkhead y se repita con hedging una sola vez.
+     */
+    @Bean
+    @Primary
+    public DataServiceClient dataServiceClientPrincipal(
+            @Qualifier("dataServiceClientFeign") DataServiceClient feign,
+            CoalescedorLlamadas coalescedorLlamadas,
+            ProteccionLlamadas proteccionLlamadas,
+            ResilienciaProperties resiliencia,
+            @Value("${data.service.coalescencia.habilitada:true}") boolean coalescencia) {
+        DataServiceClient cliente = feign;
+        if (resiliencia.isHabilitada()) {
+            cliente = new DataServiceClientProtegido(cliente, proteccionLlamadas);
+        }
+        if (coalescencia) {
+            cliente = new DataServiceClientCoalescente(cliente, coalescedorLlamadas);
+        }
+        return cliente;
+    }
+}
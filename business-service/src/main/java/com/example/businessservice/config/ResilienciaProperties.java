@@ -0,0 +1,72 @@
+package com.example.businessservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bulkhead, circuit breaker y hedging de cada operación de
+ * {@link com.example.businessservice.client.DataServiceClient}, bajo {@code data.service.resiliencia}.
+ * Las operaciones se configuran en {@code operaciones} por nombre de método; lo que no definen se toma de
+ * {@code por-defecto}.
+ */
+@Data
+@ConfigurationProperties(prefix = "data.service.resiliencia")
+public class ResilienciaProperties {
+
+    private boolean habilitada = true;
+    private Operacion porDefecto = new Operacion(50, Duration.ofMillis(100), 50, Duration.ofSeconds(5), 80, 20, 10,
+            Duration.ofSeconds(10), false, Duration.ofMillis(50));
+    private Map<String, Operacion> operaciones = new HashMap<>();
+
+    /**
+     * @param operacion Nombre del método de DataServiceClient.
+     * @return La configuración de la operación, completada con los valores de {@code por-defecto}.
+     */
+    public Operacion configuracionDe(String operacion) {
+        Operacion propia = operaciones.getOrDefault(operacion, new Operacion());
+        return new Operacion(
+                Objects.requireNonNullElse(propia.getMaxConcurrentes(), porDefecto.getMaxConcurrentes()),
+                Objects.requireNonNullElse(propia.getEsperaMaxima(), porDefecto.getEsperaMaxima()),
+                Objects.requireNonNullElse(propia.getUmbralFallos(), porDefecto.getUmbralFallos()),
+                Objects.requireNonNullElse(propia.getLlamadaLenta(), porDefecto.getLlamadaLenta()),
+                Objects.requireNonNullElse(propia.getUmbralLentas(), porDefecto.getUmbralLentas()),
+                Objects.requireNonNullElse(propia.getVentana(), porDefecto.getVentana()),
+                Objects.requireNonNullElse(propia.getLlamadasMinimas(), porDefecto.getLlamadasMinimas()),
+                Objects.requireNonNullElse(propia.getEsperaAbierto(), porDefecto.getEsperaAbierto()),
+                Objects.requireNonNullElse(propia.getHedging(), porDefecto.getHedging()),
+                Objects.requireNonNullElse(propia.getHedgingMinimo(), porDefecto.getHedgingMinimo()));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operacion {
+        /** Llamadas en curso a la vez (bulkhead). */
+        private Integer maxConcurrentes;
+        /** Cuánto espera una llamada un lugar en el bulkhead antes de rechazarse. */
+        private Duration esperaMaxima;
+        /** Porcentaje de fallos en la ventana a partir del cual se abre el circuito. */
+        private Integer umbralFallos;
+        /** Duración a partir de la cual una llamada cuenta como lenta. */
+        private Duration llamadaLenta;
+        /** Porcentaje de llamadas lentas en la ventana a partir del cual se abre el circuito. */
+        private Integer umbralLentas;
+        /** Cantidad de últimas llamadas que evalúa el circuito. */
+        private Integer ventana;
+        /** Llamadas que debe tener la ventana antes de evaluar los umbrales. */
+        private Integer llamadasMinimas;
+        /** Tiempo que el circuito queda abierto antes de dejar pasar llamadas de prueba. */
+        private Duration esperaAbierto;
+        /** Si el primer intento tarda más que el p95 de la operación, lanza un segundo (solo lecturas idempotentes). */
+        private Boolean hedging;
+        /** Espera mínima antes del segundo intento, aunque el p95 sea menor. */
+        private Duration hedgingMinimo;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.businessservice.config;
+
+import com.example.businessservice.client.UltimaEscritura;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lleva la lectura de las propias escrituras de data-service hasta el cliente. Toma el header
+ * {@value UltimaEscritura#HEADER} de la petición para reenviarlo en las llamadas a data-service, y devuelve en
+ * la respuesta el que informan las escrituras hechas durante la petición.
+ */
+@Component
+public class UltimaEscrituraFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        UltimaEscritura.iniciar(request.getHeader(UltimaEscritura.HEADER),
+                valor -> response.setHeader(UltimaEscritura.HEADER, valor));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            UltimaEscritura.limpiar();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.businessservice.config;
+
+import com.example.businessservice.client.DataServiceReactiveClient;
+import com.example.businessservice.client.UltimaEscritura;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuración del cliente no bloqueante de data-service.
+ * El pool de conexiones es acotado: como las llamadas no retienen un hilo, el límite de concurrencia contra
+ * data-service lo ponen las conexiones y la cola de espera por una conexión libre, no el pool de Tomcat.
+ */
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * Pool de conexiones hacia data-service; se libera al cerrar el contexto.
+     *
+     * @param maxConexiones Conexiones abiertas como máximo hacia data-service.
+     * @param maxPendientes Peticiones que pueden esperar una conexión libre; las siguientes fallan en el acto.
+     * @param esperaConexion Tiempo máximo de espera por una conexión libre.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider dataServiceConnectionProvider(
+            @Value("${data.service.reactivo.max-conexiones:100}") int maxConexiones,
+            @Value("${data.service.reactivo.max-pendientes:1000}") int maxPendientes,
+            @Value("${data.service.reactivo.espera-conexion:PT5S}") Duration esperaConexion) {
+        return ConnectionProvider.builder("data-service")
+                .maxConnections(maxConexiones)
+                .pendingAcquireMaxCount(maxPendientes)
+                .pendingAcquireTimeout(esperaConexion)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+    }
+
+    /**
+     * Cliente reactivo con las mismas operaciones que el cliente Feign, con los mismos timeouts y el mismo
+     * formato preferido (Smile) que este. Reenvía la última escritura que los servicios copian al contexto de
+     * Reactor con {@link UltimaEscritura#enContexto()}.
+     */
+    @Bean
+    public DataServiceReactiveClient dataServiceReactiveClient(
+            WebClient.Builder builder,
+            ConnectionProvider dataServiceConnectionProvider,
+            @Value("${data.service.url}") String url,
+            @Value("${data.service.reactivo.timeout-respuesta:PT10S}") Duration timeoutRespuesta,
+            @Value("${data.service.formato-binario:true}") boolean formatoBinario) {
+        HttpClient httpClient = HttpClient.create(dataServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5_000)
+                .responseTimeout(timeoutRespuesta);
+        builder.baseUrl(url).clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(UltimaEscritura.filtroReactivo());
+        if (formatoBinario) {
+            builder.defaultHeader(HttpHeaders.ACCEPT, FeignConfig.ACCEPT_PREFIERE_SMILE);
+        }
+        return HttpServiceProxyFactory.builderFor(WebClientAdapter.create(builder.build()))
+                .build()
+                .createClient(DataServiceReactiveClient.class);
+    }
+}
@@ -1,16 +1,33 @@
 package com.example.businessservice.controller;
 
+import com.example.businessservice.client.CoalescedorLlamadas;
+import com.example.businessservice.dto.AjusteStockDTO;
 import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.DetalleProductoDTO;
+import com.example.businessservice.dto.EstadisticasCacheDTO;
+import com.example.businessservice.dto.EstadisticasCoalescenciaDTO;
+import com.example.businessservice.dto.FiltroProductosDTO;
 import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaDTO;
 import com.example.businessservice.dto.ProductoDTO;
 import com.example.businessservice.dto.ProductoRequest;
+import com.example.businessservice.dto.ResultadoFilaDTO;
+import com.example.businessservice.dto.ResumenActualizacionStockDTO;
+import com.example.businessservice.service.CacheCatalogoService;
 import com.example.businessservice.service.CategoriaBusinessService;
+import com.example.businessservice.service.DetalleProductoBusinessService;
 import com.example.businessservice.service.InventarioBusinessService;
 import com.example.businessservice.service.ProductoBusinessService;
+import com.example.businessservice.service.ProductoLoteBusinessService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -25,6 +42,10 @@ public class BusinessController {
     private final ProductoBusinessService productoBusinessService;
     private final CategoriaBusinessService categoriaBusinessService;
     private final InventarioBusinessService inventarioBusinessService;
+    private final ProductoLoteBusinessService productoLoteBusinessService;
+    private final DetalleProductoBusinessService detalleProductoBusinessService;
+    private final CoalescedorLlamadas coalescedorLlamadas;
+    private final CacheCatalogoService cacheCatalogoService;
 
     /**
      * Constructor para la inyección de dependencias de los servicios de negocio.
@@ -32,23 +53,91 @@ public class BusinessController {
      * @param productoBusinessService   Servicio para gestión de productos.
      * @param categoriaBusinessService  Servicio para gestión de categorías.
      * @param inventarioBusinessService Servicio para gestión de inventario y reportes.
+     * @param productoLoteBusinessService Servicio para el alta masiva de productos.
+     * @param detalleProductoBusinessService Servicio que arma el detalle completo de un producto.
+     * @param coalescedorLlamadas Agrupador de lecturas hacia data-service, del que se exponen los contadores.
+     * @param cacheCatalogoService Cache de catálogo, de la que se exponen los contadores y el vaciado.
      */
     public BusinessController(ProductoBusinessService productoBusinessService,
                               CategoriaBusinessService categoriaBusinessService,
-                              InventarioBusinessService inventarioBusinessService) {
+                              InventarioBusinessService inventarioBusinessService,
+                              ProductoLoteBusinessService productoLoteBusinessService,
+                              DetalleProductoBusinessService detalleProductoBusinessService,
+                              CoalescedorLlamadas coalescedorLlamadas,
+                              CacheCatalogoService cacheCatalogoService) {
         this.productoBusinessService = productoBusinessService;
         this.categoriaBusinessService = categoriaBusinessService;
         this.inventarioBusinessService = inventarioBusinessService;
+        this.productoLoteBusinessService = productoLoteBusinessService;
+        this.detalleProductoBusinessService = detalleProductoBusinessService;
+        this.coalescedorLlamadas = coalescedorLlamadas;
+        this.cacheCatalogoService = cacheCatalogoService;
     }
 
     /**
      * Obtiene el catálogo completo de productos.
      *
-     * @return ResponseEntity con la lista de {@link ProductoDTO} y estado 200 OK.
+     * @return ResponseEntity con la lista de {@link ProductoDTO} y estado 200 OK, o 304 si el ETag enviado en
+     * {@code If-None-Match} sigue vigente.
      */
     @GetMapping("/productos")
     public ResponseEntity<List<ProductoDTO>> obtenerTodosLosProductos() {
-        return ResponseEntity.ok(productoBusinessService.obtenerTodosLosProductos());
+        return conETag(productoBusinessService.obtenerTodosLosProductos());
+    }
+
+    /**
+     * Obtiene una página del catálogo usando paginación por cursor.
+     * Si existe una página siguiente se informa su URL en el header {@code Link} con {@code rel="next"}.
+     *
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Cantidad máxima de productos por página.
+     * @return ResponseEntity con la {@link PaginaDTO} de productos y estado 200 OK.
+     */
+    @GetMapping(value = "/productos", params = "limit")
+    public ResponseEntity<PaginaDTO<ProductoDTO>> obtenerPaginaDeProductos(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam("limit") Integer limit) {
+        return conLinkSiguiente(productoBusinessService.obtenerPaginaDeProductos(after, limit));
+    }
+
+    /**
+     * Obtiene varios productos por ID en una sola petición; data-service se consulta en paralelo.
+     *
+     * @param ids Identificadores de los productos, separados por coma.
+     * @return Los {@link ProductoDTO} en el orden de los IDs recibidos, con estado 200 OK.
+     */
+    @GetMapping(value = "/productos", params = "ids")
+    public Flux<ProductoDTO> obtenerProductosPorIds(@RequestParam("ids") List<Long> ids) {
+        return productoBusinessService.obtenerProductosPorIds(ids);
+    }
+
+    /**
+     * Busca productos por texto en nombre y descripción, del más relevante al menos relevante.
+     * Si existe una página siguiente se informa su URL en el header {@code Link} con {@code rel="next"}.
+     *
+     * @param q     Términos a buscar.
+     * @param after Posición recibida en la página anterior (opcional).
+     * @param limit Cantidad máxima de productos por página (20 por defecto).
+     * @return ResponseEntity con la {@link PaginaDTO} de productos y estado 200 OK.
+     */
+    @GetMapping("/productos/buscar")
+    public ResponseEntity<PaginaDTO<ProductoDTO>> buscarProductos(
+            @RequestParam("q") String q,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", defaultValue = "20") Integer limit) {
+        return conLinkSiguiente(productoBusinessService.buscarProductos(q, after, limit));
+    }
+
+    /**
+     * Exporta el catálogo completo como NDJSON, reenviando en streaming la exportación de data-service.
+     *
+     * @return ResponseEntity con el cuerpo en streaming y estado 200 OK.
+     */
+    @GetMapping(value = "/productos/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarProductos() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productoBusinessService.exportarProductos());
     }
 
     /**
@@ -62,6 +151,19 @@ public class BusinessController {
         return ResponseEntity.ok(productoBusinessService.obtenerProductoPorId(id));
     }
 
+    /**
+     * Obtiene en una sola petición el producto, su inventario y las estadísticas de su categoría.
+     * Si el inventario o las estadísticas no llegan a tiempo, el detalle se devuelve igual y las partes
+     * ausentes se listan en {@code partesFaltantes}.
+     *
+     * @param id Identificador único del producto.
+     * @return ResponseEntity con el {@link DetalleProductoDTO} y estado 200 OK.
+     */
+    @GetMapping("/productos/{id}/detalle")
+    public ResponseEntity<DetalleProductoDTO> obtenerDetalleProducto(@PathVariable Long id) {
+        return ResponseEntity.ok(detalleProductoBusinessService.obtenerDetalle(id));
+    }
+
     /**
      * Crea un nuevo producto en el sistema.
      *
@@ -73,6 +175,18 @@ public class BusinessController {
         return new ResponseEntity<>(productoBusinessService.crearProducto(request), HttpStatus.CREATED);
     }
 
+    /**
+     * Crea un lote de productos. Cada fila se valida de forma independiente y el resultado
+     * informa, por fila, el producto creado o el motivo del rechazo.
+     *
+     * @param requests Lista de {@link ProductoRequest} a crear.
+     * @return ResponseEntity con un {@link ResultadoFilaDTO} por fila y estado 200 OK.
+     */
+    @PostMapping("/productos/batch")
+    public ResponseEntity<List<ResultadoFilaDTO>> crearProductosEnLote(@RequestBody List<ProductoRequest> requests) {
+        return ResponseEntity.ok(productoLoteBusinessService.crearProductos(requests));
+    }
+
     /**
      * Actualiza la información de un producto existente.
      *
@@ -111,27 +225,50 @@ public class BusinessController {
     }
 
     /**
-     * Realiza una búsqueda avanzada de productos filtrando por rango de precios.
+     * Realiza una búsqueda avanzada de productos por rango de precios, categoría, stock bajo y prefijo de nombre.
      *
      * @param minPrice Precio mínimo (opcional).
      * @param maxPrice Precio máximo (opcional).
+     * @param categoria Nombre de la categoría (opcional).
+     * @param stockBajo Si se indica, filtra por productos con o sin stock bajo.
+     * @param nombre Prefijo del nombre del producto (opcional).
+     * @param orden {@code precio}, {@code -precio}, {@code nombre}, {@code -nombre} o {@code id} (por defecto).
+     * @param limit Cantidad máxima de productos a devolver, hasta 500 (opcional; sin él se devuelven todos los que
+     *              cumplen el filtro).
      * @return ResponseEntity con la lista de productos filtrada y estado 200 OK.
      */
     @GetMapping("/productos/filtros")
-    public ResponseEntity<List<ProductoDTO>> obtenerProductosFiltradosPorPrecio(
+    public ResponseEntity<List<ProductoDTO>> obtenerProductosFiltrados(
             @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
-            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice) {
-        return ResponseEntity.ok(productoBusinessService.obtenerProductosFiltradosPorPrecio(minPrice, maxPrice));
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(value = "categoria", required = false) String categoria,
+            @RequestParam(value = "stockBajo", required = false) Boolean stockBajo,
+            @RequestParam(value = "nombre", required = false) String nombre,
+            @RequestParam(value = "orden", required = false) String orden,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        FiltroProductosDTO filtro = new FiltroProductosDTO(minPrice, maxPrice, categoria, stockBajo, nombre, orden, limit);
+        return ResponseEntity.ok(productoBusinessService.obtenerProductosFiltrados(filtro));
     }
 
     /**
      * Obtiene todas las categorías disponibles.
      *
-     * @return ResponseEntity con la lista de {@link CategoriaDTO} y estado 200 OK.
+     * @return ResponseEntity con la lista de {@link CategoriaDTO} y estado 200 OK, o 304 si el ETag enviado en
+     * {@code If-None-Match} sigue vigente.
      */
     @GetMapping("/categorias")
     public ResponseEntity<List<CategoriaDTO>> obtenerTodasLasCategorias() {
-        return ResponseEntity.ok(categoriaBusinessService.obtenerTodasLasCategorias());
+        return conETag(categoriaBusinessService.obtenerTodasLasCategorias());
+    }
+
+    /**
+     * Emite todas las categorías como NDJSON, una por línea, a medida que llegan de data-service.
+     *
+     * @return Flujo de {@link CategoriaDTO}.
+     */
+    @GetMapping(value = "/categorias/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CategoriaDTO> obtenerCategoriasEnStreaming() {
+        return categoriaBusinessService.obtenerCategoriasEnStreaming();
     }
 
     /**
@@ -198,11 +335,41 @@ public class BusinessController {
     /**
      * Reporte de productos que se encuentran por debajo del stock mínimo.
      *
-     * @return ResponseEntity con lista de {@link InventarioDTO} críticos y estado 200 OK.
+     * @return ResponseEntity con lista de {@link InventarioDTO} críticos y estado 200 OK, o 304 si el ETag enviado
+     * en {@code If-None-Match} sigue vigente.
      */
     @GetMapping("/reportes/stock-bajo")
     public ResponseEntity<List<InventarioDTO>> obtenerProductosConStockBajo() {
-        return ResponseEntity.ok(inventarioBusinessService.obtenerProductosConStockBajo());
+        return conETag(inventarioBusinessService.obtenerProductosConStockBajo());
+    }
+
+    /**
+     * Emite el reporte de stock bajo como NDJSON, un registro por línea, a medida que llega de data-service.
+     *
+     * @return Flujo de {@link InventarioDTO} críticos.
+     */
+    @GetMapping(value = "/reportes/stock-bajo/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<InventarioDTO> obtenerProductosConStockBajoEnStreaming() {
+        return inventarioBusinessService.obtenerProductosConStockBajoEnStreaming();
+    }
+
+    /**
+     * Página del reporte de stock bajo, ordenada por faltante o por ID y opcionalmente filtrada por categoría.
+     * Si existe una página siguiente se informa su URL en el header {@code Link} con {@code rel="next"}.
+     *
+     * @param categoria Nombre de la categoría a filtrar (opcional).
+     * @param orden {@code faltante} (por defecto) o {@code id}.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Cantidad máxima de registros por página.
+     * @return ResponseEntity con la {@link PaginaDTO} de inventario y estado 200 OK.
+     */
+    @GetMapping(value = "/reportes/stock-bajo", params = "limit")
+    public ResponseEntity<PaginaDTO<InventarioDTO>> obtenerPaginaStockBajo(
+            @RequestParam(value = "categoria", required = false) String categoria,
+            @RequestParam(value = "orden", required = false) String orden,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam("limit") Integer limit) {
+        return conLinkSiguiente(inventarioBusinessService.obtenerPaginaStockBajo(categoria, orden, after, limit));
     }
 
     /**
@@ -216,6 +383,17 @@ public class BusinessController {
         return ResponseEntity.ok(inventarioBusinessService.obtenerInventarioPorProductoId(productoId));
     }
 
+    /**
+     * Actualiza la cantidad de stock de varios productos en una sola operación.
+     *
+     * @param ajustes Lista de {@link AjusteStockDTO} con el producto y su nueva cantidad.
+     * @return ResponseEntity con el resumen de la actualización y estado 200 OK.
+     */
+    @PutMapping("/reportes/stock")
+    public ResponseEntity<ResumenActualizacionStockDTO> actualizarStockEnLote(@RequestBody List<AjusteStockDTO> ajustes) {
+        return ResponseEntity.ok(inventarioBusinessService.actualizarStockEnLote(ajustes));
+    }
+
     /**
      * Actualiza manualmente la cantidad de stock para un producto.
      *
@@ -246,12 +424,73 @@ public class BusinessController {
     /**
      * Registra un movimiento de inventario (entrada/salida) y actualiza el stock.
      *
-     * @param movimiento Objeto {@link InventarioDTO} con los detalles del movimiento.
+     * No se aplica {@code @Valid}: la cantidad es un delta y puede ser negativa (egresos).
+     *
+     * @param movimiento Objeto {@link InventarioDTO} con el producto y la cantidad a sumar.
      * @return ResponseEntity con el estado del inventario resultante y estado 201 Created.
      */
     @PostMapping("/reportes/movimientos")
-    public ResponseEntity<InventarioDTO> registrarMovimientoInventario(@Valid @RequestBody InventarioDTO movimiento) {
+    public ResponseEntity<InventarioDTO> registrarMovimientoInventario(@RequestBody InventarioDTO movimiento) {
         InventarioDTO registrado = inventarioBusinessService.registrarMovimientoInventario(movimiento);
         return ResponseEntity.status(HttpStatus.CREATED).body(registrado);
     }
-}
\ No newline at end of file
+
+    /**
+     * Contadores de la coalescencia de lecturas hacia data-service: cuántas lecturas compartieron una llamada
+     * idéntica en curso en lugar de repetirla.
+     *
+     * @return ResponseEntity con el {@link EstadisticasCoalescenciaDTO} y estado 200 OK.
+     */
+    @GetMapping("/coalescencia/estadisticas")
+    public ResponseEntity<EstadisticasCoalescenciaDTO> obtenerEstadisticasCoalescencia() {
+        return ResponseEntity.ok(coalescedorLlamadas.obtenerEstadisticas());
+    }
+
+    /**
+     * Contadores de la cache de catálogo: aciertos, desalojos y latencia media de carga de cada cache.
+     *
+     * @return ResponseEntity con un {@link EstadisticasCacheDTO} por cache y estado 200 OK.
+     */
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<Map<String, EstadisticasCacheDTO>> obtenerEstadisticasCache() {
+        return ResponseEntity.ok(cacheCatalogoService.obtenerEstadisticas());
+    }
+
+    /**
+     * Vacía la cache de catálogo; las lecturas siguientes se piden de nuevo a data-service.
+     *
+     * @return ResponseEntity vacío con estado 204 No Content.
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> vaciarCache() {
+        cacheCatalogoService.vaciar();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Responde la página con el header {@code Link} hacia la página siguiente, si existe.
+     */
+    private static <T> ResponseEntity<PaginaDTO<T>> conLinkSiguiente(PaginaDTO<T> pagina) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.getSiguienteCursor() != null) {
+            String siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", pagina.getSiguienteCursor())
+                    .toUriString();
+            respuesta.header(HttpHeaders.LINK, "<" + siguiente + ">; rel=\"next\"");
+        }
+        return respuesta.body(pagina);
+    }
+
+    /**
+     * Responde el listado con el ETag recibido de data-service. Como el ETag es la versión del catálogo,
+     * Spring responde 304 sin serializar el cuerpo cuando coincide con el {@code If-None-Match} del cliente.
+     */
+    private static <T> ResponseEntity<T> conETag(ResponseEntity<T> respuesta) {
+        ResponseEntity.BodyBuilder conVersion = ResponseEntity.ok();
+        String etag = respuesta.getHeaders().getETag();
+        if (etag != null) {
+            conVersion.eTag(etag);
+        }
+        return conVersion.body(respuesta.getBody());
+    }
+}
@@ -4,6 +4,7 @@ import com.example.businessservice.exceptions.CategoriaNoEncontradaException;
 import com.example.businessservice.exceptions.InventarioNoEncontradoException;
 import com.example.businessservice.exceptions.MicroserviceCommunicationException;
 import com.example.businessservice.exceptions.ProductoNoEncontradoException;
+import com.example.businessservice.exceptions.ServicioDatosNoDisponibleException;
 import com.example.businessservice.exceptions.ValidacionNegocioException;
 import feign.FeignException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -87,6 +88,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(body);
     }
 
+    /**
+     * Maneja los rechazos inmediatos de llamadas a data-service: circuito abierto o bulkhead lleno.
+     *
+     * @param ex      La excepción capturada.
+     * @param request La petición actual.
+     * @return ResponseEntity con estado 503 (Service Unavailable).
+     */
+    @ExceptionHandler(ServicioDatosNoDisponibleException.class)
+    public ResponseEntity<Map<String, Object>> handleServicioDatosNoDisponible(ServicioDatosNoDisponibleException ex, HttpServletRequest request) {
+        Map<String, Object> body = buildBody(request, HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
     /**
      * Maneja excepciones genéricas lanzadas por el cliente Feign.
      * Actúa como un fallback para errores de Feign no capturados específicamente.
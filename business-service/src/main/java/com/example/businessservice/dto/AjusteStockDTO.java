@@ -0,0 +1,22 @@
+package com.example.businessservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nueva cantidad absoluta de stock para un producto, usada en la actualización masiva de inventario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AjusteStockDTO {
+    @NotNull(message = "El id del producto es obligatorio")
+    private Long productoId;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    @Min(value = 0, message = "La cantidad no puede ser negativa")
+    private Integer cantidad;
+}
@@ -0,0 +1,25 @@
+package com.example.businessservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Documento con todo lo que muestra la página de un producto: el producto, su inventario y las estadísticas
+ * de su categoría. El inventario y las estadísticas pueden faltar si data-service no respondió a tiempo;
+ * en ese caso quedan en null y se nombran en {@code partesFaltantes}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleProductoDTO {
+    private ProductoDTO producto;
+    private InventarioDTO inventario;
+    /** Mismas claves que {@code GET /api/categorias/{nombre}/estadisticas}. */
+    private Map<String, Object> estadisticasCategoria;
+    /** {@code inventario} y/o {@code estadisticasCategoria}; vacía si el detalle está completo. */
+    private List<String> partesFaltantes;
+}
@@ -0,0 +1,23 @@
+package com.example.businessservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores acumulados de una de las caches de catálogo de business-service.
+ * Cada acierto es una llamada a data-service que no se hizo; las cargas incluyen las recargas en segundo plano.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCacheDTO {
+    private long aciertos;
+    private long fallos;
+    private double ratioAciertos;
+    private long desalojos;
+    private long cargas;
+    private long cargasFallidas;
+    private double latenciaMediaCargaMs;
+    private long entradas;
+}
@@ -0,0 +1,26 @@
+package com.example.businessservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Contadores de la coalescencia de lecturas hacia data-service, acumulados desde el arranque.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCoalescenciaDTO {
+    /** Lecturas pedidas por los servicios de negocio. */
+    private long lecturas;
+    /** Lecturas que se enviaron a data-service. */
+    private long llamadasRemotas;
+    /** Lecturas que reutilizaron el resultado de una llamada idéntica que ya estaba en curso. */
+    private long compartidas;
+    /** {@code compartidas / lecturas}; 0 si todavía no hubo lecturas. */
+    private double ratioCoalescencia;
+    /** Lecturas compartidas por operación del cliente. */
+    private Map<String, Long> compartidasPorOperacion;
+}
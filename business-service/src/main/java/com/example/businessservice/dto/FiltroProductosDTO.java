@@ -0,0 +1,26 @@
+package com.example.businessservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Criterios de búsqueda de productos, enviados a data-service como parámetros de consulta.
+ * Los criterios nulos no filtran.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroProductosDTO {
+    private BigDecimal precioMin;
+    private BigDecimal precioMax;
+    private String categoria;
+    private Boolean stockBajo;
+    /** Prefijo del nombre del producto. */
+    private String nombre;
+    /** {@code precio}, {@code -precio}, {@code nombre}, {@code -nombre} o {@code id} (por defecto). */
+    private String orden;
+    private Integer limit;
+}
@@ -0,0 +1,20 @@
+package com.example.businessservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida por cursor (keyset) desde data-service.
+ * {@code siguienteCursor} es el valor a enviar en {@code after} para pedir la próxima página,
+ * o {@code null} si no hay más resultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> contenido;
+    private Long siguienteCursor;
+}
@@ -0,0 +1,23 @@
+package com.example.businessservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una fila de una operación en lote.
+ * {@code indice} es la posición de la fila en la lista recibida.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoFilaDTO {
+    private Integer indice;
+    private Boolean exitoso;
+    private ProductoDTO producto;
+    private String error;
+
+    public static ResultadoFilaDTO fallo(int indice, String error) {
+        return new ResultadoFilaDTO(indice, false, null, error);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.businessservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resumen de una actualización masiva de stock devuelto por data-service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenActualizacionStockDTO {
+    private Integer solicitados;
+    private Integer actualizados;
+    private List<Long> productosNoEncontrados;
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,11 @@
+package com.example.businessservice.exceptions;
+
+/**
+ * Se lanza sin llamar a data-service cuando su circuito está abierto o la operación ya tiene todas sus
+ * llamadas permitidas en curso.
+ */
+public class ServicioDatosNoDisponibleException extends RuntimeException {
+    public ServicioDatosNoDisponibleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.businessservice.service;
+
+import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.dto.EstadisticasCacheDTO;
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Cache cercana de business-service para las lecturas de catálogo más repetidas: productos por ID, productos por
+ * categoría y estadísticas por categoría.
+ * Cada entrada vence a los {@code catalogo.cache.ttl} de cargada. Pasado {@code catalogo.cache.refresco}, la
+ * siguiente lectura devuelve el valor guardado y lo recarga en segundo plano (stale-while-revalidate); si la recarga
+ * falla se conserva el valor anterior hasta que vence, salvo que data-service responda 404: el recurso ya no existe
+ * y la entrada se descarta. Los errores de data-service no se guardan.
+ * Los servicios de negocio invalidan las entradas que afectan sus propias escrituras; los cambios hechos por otras
+ * instancias o directamente en data-service se ven, como mucho, al vencer la entrada.
+ * Las caches son asíncronas: Caffeine solo guarda bajo el lock del mapa el futuro de la carga, y la llamada a
+ * data-service la hace después, fuera del lock, el hilo que pidió la clave. Así un hilo virtual no queda fijado a su
+ * portador durante la llamada y conserva el plazo y la última escritura de su petición; quienes piden la misma clave
+ * mientras tanto esperan ese mismo futuro.
+ */
+@Service
+public class CacheCatalogoService {
+
+    static final String PRODUCTOS = "productos";
+    static final String PRODUCTOS_POR_CATEGORIA = "productosPorCategoria";
+    static final String ESTADISTICAS_CATEGORIA = "estadisticasCategoria";
+
+    private final ExecutorService recargas = Executors.newVirtualThreadPerTaskExecutor();
+    private final DataServiceClient dataServiceClient;
+    private final AsyncLoadingCache<Long, ProductoDTO> productos;
+    private final AsyncLoadingCache<String, List<ProductoDTO>> productosPorCategoria;
+    private final AsyncLoadingCache<String, EstadisticasCategoriaDTO> estadisticasCategoria;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param dataServiceClient Cliente de data-service con el que se cargan y recargan las entradas.
+     * @param maxEntradas       Entradas máximas de cada cache; al superarlas se desalojan las menos usadas.
+     * @param ttl               Tiempo máximo que una entrada se sirve desde la cache.
+     * @param refresco          Antigüedad a partir de la cual una lectura dispara la recarga en segundo plano.
+     */
+    public CacheCatalogoService(DataServiceClient dataServiceClient,
+                                @Value("${catalogo.cache.max-entradas:10000}") long maxEntradas,
+                                @Value("${catalogo.cache.ttl:PT5M}") Duration ttl,
+                                @Value("${catalogo.cache.refresco:PT30S}") Duration refresco) {
+        this.dataServiceClient = dataServiceClient;
+        this.productos = construir(maxEntradas, ttl, refresco, dataServiceClient::obtenerProductoPorId);
+        this.productosPorCategoria = construir(maxEntradas, ttl, refresco, dataServiceClient::obtenerProductosPorCategoria);
+        this.estadisticasCategoria = construir(maxEntradas, ttl, refresco, dataServiceClient::obtenerEstadisticasCategoria);
+    }
+
+    private <K, V> AsyncLoadingCache<K, V> construir(long maxEntradas, Duration ttl, Duration refresco, Function<K, V> carga) {
+        CacheLoader<K, V> cargador = new CacheLoader<>() {
+            @Override
+            public V load(K clave) {
+                return carga.apply(clave);
+            }
+
+            /**
+             * Una recarga que devuelve null hace que Caffeine quite la entrada en lugar de conservar el valor anterior.
+             */
+            @Override
+            public V reload(K clave, V anterior) {
+                try {
+                    return carga.apply(clave);
+                } catch (FeignException.NotFound e) {
+                    return null;
+                }
+            }
+        };
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refresco)
+                .executor(recargas)
+                .recordStats()
+                .buildAsync(cargador);
+    }
+
+    /**
+     * Devuelve el valor guardado o lo carga en el hilo actual, fuera del lock del mapa. Completar el futuro en este
+     * hilo deja registrada la carga en la cache antes de devolver el valor.
+     */
+    private static <K, V> V obtener(AsyncLoadingCache<K, V> cache, K clave, Function<K, V> carga) {
+        CompletableFuture<V> propia = new CompletableFuture<>();
+        CompletableFuture<V> valor = cache.get(clave, (k, executor) -> propia);
+        if (valor == propia) {
+            try {
+                propia.complete(carga.apply(clave));
+            } catch (RuntimeException | Error e) {
+                propia.completeExceptionally(e);
+            }
+        }
+        try {
+            return valor.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene un producto por su ID. Los errores de data-service (p. ej. {@code FeignException.NotFound}) se propagan
+     * sin cambios.
+     */
+    public ProductoDTO obtenerProducto(Long id) {
+        return obtener(productos, id, dataServiceClient::obtenerProductoPorId);
+    }
+
+    /**
+     * Obtiene los productos de una categoría por su nombre exacto.
+     */
+    public List<ProductoDTO> obtenerProductosDeCategoria(String nombre) {
+        return obtener(productosPorCategoria, nombre, dataServiceClient::obtenerProductosPorCategoria);
+    }
+
+    /**
+     * Obtiene las estadísticas agregadas de una categoría por su nombre exacto.
+     */
+    public EstadisticasCategoriaDTO obtenerEstadisticasCategoria(String nombre) {
+        return obtener(estadisticasCategoria, nombre, dataServiceClient::obtenerEstadisticasCategoria);
+    }
+
+    /**
+     * Descarta un producto y las entradas por categoría, que pueden incluir su precio o su stock.
+     */
+    public void invalidarProducto(Long id) {
+        productos.synchronous().invalidate(id);
+        invalidarCategorias();
+    }
+
+    /**
+     * Descarta varios productos y las entradas por categoría.
+     */
+    public void invalidarProductos(Collection<Long> ids) {
+        productos.synchronous().invalidateAll(ids);
+        invalidarCategorias();
+    }
+
+    /**
+     * Descarta los productos por categoría y las estadísticas de todas las categorías.
+     */
+    public void invalidarCategorias() {
+        productosPorCategoria.synchronous().invalidateAll();
+        estadisticasCategoria.synchronous().invalidateAll();
+    }
+
+    /**
+     * Descarta todas las entradas de todas las caches. Los contadores no se reinician.
+     */
+    public void vaciar() {
+        productos.synchronous().invalidateAll();
+        invalidarCategorias();
+    }
+
+    /**
+     * Obtiene los contadores acumulados desde el arranque de cada cache. Antes de leerlos se ejecuta el
+     * mantenimiento pendiente, de modo que los desalojos y el tamaño reflejan todas las cargas anteriores.
+     *
+     * @return Mapa con un {@link EstadisticasCacheDTO} por cache: productos, productosPorCategoria y estadisticasCategoria.
+     */
+    public Map<String, EstadisticasCacheDTO> obtenerEstadisticas() {
+        Map<String, EstadisticasCacheDTO> estadisticas = new LinkedHashMap<>();
+        estadisticas.put(PRODUCTOS, estadisticas(productos));
+        estadisticas.put(PRODUCTOS_POR_CATEGORIA, estadisticas(productosPorCategoria));
+        estadisticas.put(ESTADISTICAS_CATEGORIA, estadisticas(estadisticasCategoria));
+        return estadisticas;
+    }
+
+    private static EstadisticasCacheDTO estadisticas(AsyncLoadingCache<?, ?> asincrona) {
+        Cache<?, ?> cache = asincrona.synchronous();
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        return new EstadisticasCacheDTO(stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount(),
+                stats.loadSuccessCount(), stats.loadFailureCount(), stats.averageLoadPenalty() / 1_000_000.0,
+                cache.estimatedSize());
+    }
+
+    @PreDestroy
+    void cerrar() {
+        recargas.shutdownNow();
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.businessservice.service;
 
 import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.client.DataServiceReactiveClient;
+import com.example.businessservice.client.UltimaEscritura;
 import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
 import com.example.businessservice.dto.ProductoDTO;
 import com.example.businessservice.exceptions.CategoriaNoEncontradaException;
 import com.example.businessservice.exceptions.MicroserviceCommunicationException;
@@ -9,9 +12,10 @@ import com.example.businessservice.exceptions.ValidacionNegocioException;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Flux;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
 
 /**
@@ -23,22 +27,30 @@ import java.util.*;
 @Slf4j
 public class CategoriaBusinessService {
     private final DataServiceClient dataServiceClient;
+    private final DataServiceReactiveClient dataServiceReactiveClient;
+    private final CacheCatalogoService cacheCatalogo;
 
     /**
-     * Inyección de dependencias del cliente Feign.
+     * Inyección de dependencias de los clientes de data-service.
      * @param dataServiceClient Cliente para comunicar con data-service.
+     * @param dataServiceReactiveClient Cliente no bloqueante para los listados en streaming.
+     * @param cacheCatalogo Cache de productos por categoría y de estadísticas por categoría.
      */
-    public CategoriaBusinessService(DataServiceClient dataServiceClient) {
+    public CategoriaBusinessService(DataServiceClient dataServiceClient, DataServiceReactiveClient dataServiceReactiveClient,
+                                    CacheCatalogoService cacheCatalogo) {
         this.dataServiceClient = dataServiceClient;
+        this.dataServiceReactiveClient = dataServiceReactiveClient;
+        this.cacheCatalogo = cacheCatalogo;
     }
 
     /**
-     * Recupera el listado completo de categorías disponibles.
+     * Recupera el listado completo de categorías disponibles. Si data-service responde 304 se reutiliza la última
+     * lista recibida.
      *
-     * @return Lista de {@link CategoriaDTO}.
+     * @return Lista de {@link CategoriaDTO}, con el ETag de la versión del catálogo si data-service lo informa.
      * @throws MicroserviceCommunicationException Si hay error de conexión con data-service.
      */
-    public List<CategoriaDTO> obtenerTodasLasCategorias() {
+    public ResponseEntity<List<CategoriaDTO>> obtenerTodasLasCategorias() {
         try {
             return dataServiceClient.obtenerTodasLasCategorias();
         } catch (FeignException e) {
@@ -47,6 +59,21 @@ public class CategoriaBusinessService {
         }
     }
 
+    /**
+     * Recupera el listado completo de categorías a medida que data-service lo envía, sin esperar la lista completa.
+     * El flujo se consume con contrapresión: no se piden más categorías a la conexión de las que el cliente lee.
+     *
+     * @return Flujo de {@link CategoriaDTO}; termina con {@link MicroserviceCommunicationException} si falla la comunicación.
+     */
+    public Flux<CategoriaDTO> obtenerCategoriasEnStreaming() {
+        return dataServiceReactiveClient.obtenerTodasLasCategorias()
+                .onErrorMap(WebClientException.class, e -> {
+                    log.error("Error al obtener categorias en streaming del microservicio de datos", e);
+                    return new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+                })
+                .contextWrite(UltimaEscritura.enContexto());
+    }
+
     /**
      * Busca una categoría específica por su ID.
      *
@@ -87,6 +114,8 @@ public class CategoriaBusinessService {
         } catch (FeignException e) {
             log.error("Error al crear categoría en el microservicio de datos", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            cacheCatalogo.invalidarCategorias();
         }
     }
 
@@ -111,6 +140,9 @@ public class CategoriaBusinessService {
         } catch (FeignException e) {
             log.error("Error al actualizar categoría id={} en el microservicio de datos", id, e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            // Un cambio de nombre también cambia la categoría de sus productos
+            cacheCatalogo.vaciar();
         }
     }
 
@@ -130,6 +162,8 @@ public class CategoriaBusinessService {
         } catch (FeignException e) {
             log.error("Error al eliminar categoría id={} en el microservicio de datos", id, e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            cacheCatalogo.vaciar();
         }
     }
 
@@ -146,7 +180,7 @@ public class CategoriaBusinessService {
             throw new ValidacionNegocioException("El nombre de la categoría es obligatorio");
         }
         try {
-            return dataServiceClient.obtenerProductosPorCategoria(nombreCategoria.trim());
+            return cacheCatalogo.obtenerProductosDeCategoria(nombreCategoria.trim());
         } catch (FeignException.NotFound e) {
             throw new CategoriaNoEncontradaException("Categoría no encontrada o sin productos: " + nombreCategoria);
         } catch (FeignException e) {
@@ -156,12 +190,14 @@ public class CategoriaBusinessService {
     }
 
     /**
-     * Calcula métricas y estadísticas de negocio para una categoría específica.
+     * Obtiene métricas y estadísticas de negocio para una categoría específica.
+     * Las métricas se calculan en data-service con una única consulta agregada, sin descargar los productos,
+     * y se sirven desde {@link CacheCatalogoService}.
      * Las métricas incluyen: total de productos, stock total, valor monetario del inventario,
      * precios promedio/min/max y alertas de stock bajo.
      *
      * @param nombre Nombre de la categoría.
-     * @return Mapa con las claves: totalProductos, totalStock, valorTotalInventario,
+     * @return Mapa con las claves: categoriaNombre, totalProductos, totalStock, valorTotalInventario,
      * precioPromedio, precioMinimo, precioMaximo, productosConStockBajo, porcentajeProductosConStockBajo.
      * @throws ValidacionNegocioException Si el nombre es inválido.
      * @throws CategoriaNoEncontradaException Si la categoría no existe.
@@ -172,77 +208,18 @@ public class CategoriaBusinessService {
         }
 
         try {
-            List<ProductoDTO> productos = dataServiceClient.obtenerProductosPorCategoria(nombre.trim());
+            EstadisticasCategoriaDTO estadisticas = cacheCatalogo.obtenerEstadisticasCategoria(nombre.trim());
 
             Map<String, Object> resultado = new HashMap<>();
             resultado.put("categoriaNombre", nombre.trim());
-
-            if (productos == null || productos.isEmpty()) {
-                resultado.put("totalProductos", 0L);
-                resultado.put("totalStock", 0);
-                resultado.put("valorTotalInventario", BigDecimal.ZERO);
-                resultado.put("precioPromedio", BigDecimal.ZERO);
-                resultado.put("precioMinimo", BigDecimal.ZERO);
-                resultado.put("precioMaximo", BigDecimal.ZERO);
-                resultado.put("productosConStockBajo", 0L);
-                resultado.put("porcentajeProductosConStockBajo", 0.0);
-                return resultado;
-            }
-
-            long totalProductos = productos.size();
-
-            int totalStock = productos.stream()
-                    .filter(Objects::nonNull)
-                    .mapToInt(p -> p.getStock() == null ? 0 : p.getStock())
-                    .sum();
-
-            BigDecimal valorTotalInventario = productos.stream()
-                    .filter(Objects::nonNull)
-                    .map(p -> {
-                        BigDecimal precio = p.getPrecio() == null ? BigDecimal.ZERO : p.getPrecio();
-                        int stock = p.getStock() == null ? 0 : p.getStock();
-                        return precio.multiply(BigDecimal.valueOf(stock));
-                    })
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    .setScale(2, RoundingMode.HALF_UP);
-
-            List<BigDecimal> precios = productos.stream()
-                    .filter(Objects::nonNull)
-                    .map(ProductoDTO::getPrecio)
-                    .filter(Objects::nonNull)
-                    .toList();
-
-            BigDecimal precioPromedio = BigDecimal.ZERO;
-            BigDecimal precioMinimo = BigDecimal.ZERO;
-            BigDecimal precioMaximo = BigDecimal.ZERO;
-            if (!precios.isEmpty()) {
-                BigDecimal suma = precios.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-                precioPromedio = suma.divide(BigDecimal.valueOf(precios.size()), 2, RoundingMode.HALF_UP);
-                precioMinimo = precios.stream().min(Comparator.naturalOrder()).orElse(BigDecimal.ZERO);
-                precioMaximo = precios.stream().max(Comparator.naturalOrder()).orElse(BigDecimal.ZERO);
-            }
-
-            final int umbralDefault = 10;
-            long productosConStockBajo = productos.stream()
-                    .filter(Objects::nonNull)
-                    .filter(p -> {
-                        if (p.getStockBajo() != null) return p.getStockBajo();
-                        Integer stock = p.getStock();
-                        return stock != null && stock <= umbralDefault;
-                    })
-                    .count();
-
-            double porcentajeStockBajo = productosConStockBajo * 100.0 / (double) totalProductos;
-
-            resultado.put("totalProductos", totalProductos);
-            resultado.put("totalStock", totalStock);
-            resultado.put("valorTotalInventario", valorTotalInventario);
-            resultado.put("precioPromedio", precioPromedio);
-            resultado.put("precioMinimo", precioMinimo);
-            resultado.put("precioMaximo", precioMaximo);
-            resultado.put("productosConStockBajo", productosConStockBajo);
-            resultado.put("porcentajeProductosConStockBajo", Math.round(porcentajeStockBajo * 100.0) / 100.0); // 2 decimales
-
+            resultado.put("totalProductos", estadisticas.getTotalProductos());
+            resultado.put("totalStock", estadisticas.getTotalStock());
+            resultado.put("valorTotalInventario", estadisticas.getValorTotalInventario());
+            resultado.put("precioPromedio", estadisticas.getPrecioPromedio());
+            resultado.put("precioMinimo", estadisticas.getPrecioMinimo());
+            resultado.put("precioMaximo", estadisticas.getPrecioMaximo());
+            resultado.put("productosConStockBajo", estadisticas.getProductosConStockBajo());
+            resultado.put("porcentajeProductosConStockBajo", estadisticas.getPorcentajeProductosConStockBajo());
             return resultado;
         } catch (FeignException.NotFound e) {
             throw new CategoriaNoEncontradaException("Categoría no encontrada: " + nombre);
@@ -251,4 +228,4 @@ public class CategoriaBusinessService {
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.example.businessservice.service;
+
+import com.example.businessservice.client.PlazoLlamada;
+import com.example.businessservice.client.UltimaEscritura;
+import com.example.businessservice.dto.DetalleProductoDTO;
+import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.exceptions.MicroserviceCommunicationException;
+import com.example.businessservice.exceptions.ProductoNoEncontradoException;
+import com.example.businessservice.exceptions.ServicioDatosNoDisponibleException;
+import com.example.businessservice.exceptions.ValidacionNegocioException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Servicio de negocio que arma el detalle de un producto en una sola petición.
+ * Pide a data-service el producto y su inventario a la vez, y las estadísticas de la categoría apenas se conoce
+ * la categoría del producto. El producto es obligatorio; el inventario y las estadísticas se omiten si fallan o
+ * tardan más que su timeout, y el detalle se devuelve parcial.
+ * Las llamadas corren en un pool propio y acotado, de modo que una data-service lenta no acumule tareas sin límite.
+ */
+@Service
+@Slf4j
+public class DetalleProductoBusinessService {
+
+    static final String PARTE_INVENTARIO = "inventario";
+    static final String PARTE_ESTADISTICAS = "estadisticasCategoria";
+
+    private final ProductoBusinessService productoBusinessService;
+    private final InventarioBusinessService inventarioBusinessService;
+    private final CategoriaBusinessService categoriaBusinessService;
+    private final Duration timeoutProducto;
+    private final Duration timeoutPartes;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param productoBusinessService   Servicio para obtener el producto.
+     * @param inventarioBusinessService Servicio para obtener el inventario del producto.
+     * @param categoriaBusinessService  Servicio para calcular las estadísticas de la categoría.
+     * @param hilos                     Llamadas a data-service en curso a la vez, sumando todas las peticiones de detalle.
+     * @param cola                      Llamadas que pueden esperar un hilo libre; las siguientes se rechazan.
+     * @param timeoutProducto           Tiempo máximo de espera por el producto.
+     * @param timeoutPartes             Tiempo máximo de espera por el inventario y por las estadísticas.
+     */
+    public DetalleProductoBusinessService(ProductoBusinessService productoBusinessService,
+                                          InventarioBusinessService inventarioBusinessService,
+                                          CategoriaBusinessService categoriaBusinessService,
+                                          @Value("${detalle-producto.hilos:32}") int hilos,
+                                          @Value("${detalle-producto.cola:256}") int cola,
+                                          @Value("${detalle-producto.timeout-producto:PT2S}") Duration timeoutProducto,
+                                          @Value("${detalle-producto.timeout-partes:500ms}") Duration timeoutPartes) {
+        this.productoBusinessService = productoBusinessService;
+        this.inventarioBusinessService = inventarioBusinessService;
+        this.categoriaBusinessService = categoriaBusinessService;
+        this.timeoutProducto = timeoutProducto;
+        this.timeoutPartes = timeoutPartes;
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(cola),
+                new CustomizableThreadFactory("detalle-producto-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Obtiene el producto, su inventario y las estadísticas de su categoría.
+     *
+     * @param id Identificador del producto.
+     * @return El {@link DetalleProductoDTO}, con las partes que no llegaron a tiempo en {@code partesFaltantes}.
+     * @throws ValidacionNegocioException         Si el ID es nulo.
+     * @throws ProductoNoEncontradoException      Si el producto no existe.
+     * @throws MicroserviceCommunicationException Si el producto no se pudo obtener a tiempo.
+     * @throws ServicioDatosNoDisponibleException Si data-service rechazó la llamada por circuito abierto o bulkhead lleno.
+     */
+    public DetalleProductoDTO obtenerDetalle(Long id) {
+        if (id == null) throw new ValidacionNegocioException("El id del producto es obligatorio");
+
+        // Las estadísticas se arman en el hilo que completa el producto, que ya no tiene la última escritura
+        Long ultimaEscritura = UltimaEscritura.actual();
+        CompletableFuture<ProductoDTO> producto = enParalelo(() -> productoBusinessService.obtenerProductoPorId(id),
+                timeoutProducto, ultimaEscritura);
+        CompletableFuture<InventarioDTO> inventario = enParalelo(
+                () -> inventarioBusinessService.obtenerInventarioPorProductoId(id), timeoutPartes, ultimaEscritura);
+        CompletableFuture<Map<String, Object>> estadisticas = producto.thenCompose(p -> p.getCategoriaNombre() == null
+                ? CompletableFuture.completedFuture(null)
+                : enParalelo(() -> categoriaBusinessService.calcularEstadisticasCategoria(p.getCategoriaNombre()),
+                        timeoutPartes, ultimaEscritura));
+
+        ProductoDTO encontrado;
+        try {
+            encontrado = producto.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ProductoNoEncontradoException noEncontrado) {
+                throw noEncontrado;
+            }
+            if (e.getCause() instanceof MicroserviceCommunicationException comunicacion) {
+                throw comunicacion;
+            }
+            if (e.getCause() instanceof ServicioDatosNoDisponibleException noDisponible) {
+                throw noDisponible;
+            }
+            log.error("No se pudo obtener el producto id={} para su detalle", id, e.getCause());
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+
+        List<String> faltantes = new ArrayList<>();
+        return new DetalleProductoDTO(encontrado,
+                parteOpcional(inventario, PARTE_INVENTARIO, id, faltantes),
+                parteOpcional(estadisticas, PARTE_ESTADISTICAS, id, faltantes),
+                faltantes);
+    }
+
+    /**
+     * Ejecuta la llamada en el pool del servicio. Si el pool está saturado, el futuro queda fallido en lugar de
+     * bloquear la petición.
+     * El timeout también es el {@link PlazoLlamada} de las peticiones a data-service de la llamada, y al vencer se
+     * cancela la tarea: si todavía espera en la cola no llega a ejecutarse, y si está esperando lugar en el bulkhead
+     * se interrumpe. Así una parte que ya no se espera no sigue ocupando un hilo del pool.
+     */
+    private <T> CompletableFuture<T> enParalelo(Supplier<T> llamada, Duration timeout, Long ultimaEscritura) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        Supplier<T> conPlazo = PlazoLlamada.con(timeout, UltimaEscritura.con(ultimaEscritura, llamada));
+        Future<?> tarea;
+        try {
+            tarea = executor.submit(() -> {
+                try {
+                    resultado.complete(conPlazo.get());
+                } catch (Throwable e) {
+                    resultado.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        resultado.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((valor, error) -> {
+            if (error instanceof TimeoutException) {
+                tarea.cancel(true);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Espera una parte no crítica; si falló o venció su timeout la registra como faltante y devuelve null.
+     */
+    private static <T> T parteOpcional(CompletableFuture<T> parte, String nombre, Long id, List<String> faltantes) {
+        try {
+            return parte.join();
+        } catch (CompletionException e) {
+            log.warn("Detalle del producto id={} sin {}: {}", id, nombre, e.getCause().toString());
+            faltantes.add(nombre);
+            return null;
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        executor.shutdownNow();
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.businessservice.service;
 
 import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.client.DataServiceReactiveClient;
+import com.example.businessservice.client.UltimaEscritura;
+import com.example.businessservice.dto.AjusteStockDTO;
 import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaDTO;
 import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.dto.ResumenActualizacionStockDTO;
 import com.example.businessservice.exceptions.InventarioNoEncontradoException;
 import com.example.businessservice.exceptions.MicroserviceCommunicationException;
 import com.example.businessservice.exceptions.ValidacionNegocioException;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -20,32 +28,85 @@ import java.util.List;
 @Service
 @Slf4j
 public class InventarioBusinessService {
+    /** Header con el que data-service identifica las validaciones que hay que distinguir del resto de los 400. */
+    static final String HEADER_CODIGO_ERROR = "X-Codigo-Error";
+    static final String CODIGO_STOCK_INSUFICIENTE = "STOCK_INSUFICIENTE";
+
     private final DataServiceClient dataServiceClient;
+    private final DataServiceReactiveClient dataServiceReactiveClient;
+    private final CacheCatalogoService cacheCatalogo;
 
     /**
      * Inyección de dependencias.
      * @param dataServiceClient Cliente Feign para comunicación con data-service.
+     * @param dataServiceReactiveClient Cliente no bloqueante para los reportes en streaming.
+     * @param cacheCatalogo Cache de productos, que se invalida cuando cambia su stock.
      */
-    public InventarioBusinessService(DataServiceClient dataServiceClient) {
+    public InventarioBusinessService(DataServiceClient dataServiceClient, DataServiceReactiveClient dataServiceReactiveClient,
+                                     CacheCatalogoService cacheCatalogo) {
         this.dataServiceClient = dataServiceClient;
+        this.dataServiceReactiveClient = dataServiceReactiveClient;
+        this.cacheCatalogo = cacheCatalogo;
     }
 
     /**
-     * Obtiene la lista de productos que están por debajo del umbral de stock mínimo.
+     * Obtiene la lista de productos que están por debajo del umbral de stock mínimo. Si data-service responde 304
+     * se reutiliza la última lista recibida.
      *
-     * @return Lista de {@link InventarioDTO} con stock crítico.
+     * @return Lista de {@link InventarioDTO} con stock crítico, con el ETag de la versión del catálogo si data-service
+     * lo informa.
      * @throws MicroserviceCommunicationException Si falla la comunicación.
      */
-    public List<InventarioDTO> obtenerProductosConStockBajo() {
+    public ResponseEntity<List<InventarioDTO>> obtenerProductosConStockBajo() {
         try {
-            List<InventarioDTO> inventario = dataServiceClient.obtenerProductosConStockBajo();
-            return inventario;
+            return dataServiceClient.obtenerProductosConStockBajo();
         } catch (FeignException e) {
             log.error("Error al obtener los productos con stock bajo", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
         }
     }
 
+    /**
+     * Emite el reporte completo de stock bajo a medida que data-service lo envía, sin armar la lista en memoria.
+     * El flujo se consume con contrapresión: no se piden más registros a la conexión de los que el cliente lee.
+     *
+     * @return Flujo de {@link InventarioDTO} con stock crítico; termina con {@link MicroserviceCommunicationException}
+     * si falla la comunicación.
+     */
+    public Flux<InventarioDTO> obtenerProductosConStockBajoEnStreaming() {
+        return dataServiceReactiveClient.obtenerProductosConStockBajo()
+                .onErrorMap(WebClientException.class, e -> {
+                    log.error("Error al obtener los productos con stock bajo en streaming", e);
+                    return new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+                })
+                .contextWrite(UltimaEscritura.enContexto());
+    }
+
+    /**
+     * Obtiene una página del reporte de stock bajo, calculado y paginado en el servicio de datos.
+     *
+     * @param categoria Nombre de la categoría a filtrar (opcional).
+     * @param orden {@code faltante} (mayor faltante primero, por defecto) o {@code id}.
+     * @param after Cursor recibido en la página anterior. Puede ser null.
+     * @param limit Cantidad máxima de registros a devolver (debe ser mayor a cero).
+     * @return {@link PaginaDTO} con los registros de inventario y el cursor de la página siguiente.
+     * @throws ValidacionNegocioException Si el límite no es válido o el servicio de datos rechaza los parámetros.
+     * @throws MicroserviceCommunicationException Si falla la comunicación.
+     */
+    public PaginaDTO<InventarioDTO> obtenerPaginaStockBajo(String categoria, String orden, Long after, Integer limit) {
+        if (limit == null || limit <= 0) {
+            throw new ValidacionNegocioException("El límite de la página debe ser mayor a cero");
+        }
+        try {
+            return dataServiceClient.obtenerPaginaStockBajo(categoria, orden, after, limit);
+        } catch (FeignException.BadRequest e) {
+            throw new ValidacionNegocioException("Parámetros inválidos para el reporte de stock bajo");
+        } catch (FeignException e) {
+            log.error("Error al obtener la página de productos con stock bajo", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
     /**
      * Obtiene el registro de inventario asociado a un producto específico.
      *
@@ -91,16 +152,50 @@ public class InventarioBusinessService {
         } catch (FeignException e) {
             log.error("Error al actualizar inventario para producto id={} en el microservicio de datos", productoId, e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            cacheCatalogo.invalidarProducto(productoId);
+        }
+    }
+
+    /**
+     * Actualiza el stock de varios productos en una sola llamada al servicio de datos,
+     * que los aplica con sentencias UPDATE por conjunto.
+     *
+     * @param ajustes Lista de productos con su nueva cantidad absoluta (debe ser >= 0).
+     * @return Resumen con la cantidad de registros actualizados y los productos no encontrados.
+     * @throws ValidacionNegocioException Si la lista está vacía, falta algún ID o alguna cantidad es negativa.
+     * @throws MicroserviceCommunicationException Si falla la comunicación.
+     */
+    public ResumenActualizacionStockDTO actualizarStockEnLote(List<AjusteStockDTO> ajustes) {
+        if (ajustes == null || ajustes.isEmpty()) {
+            throw new ValidacionNegocioException("La lista de ajustes de stock no puede estar vacía");
+        }
+        for (AjusteStockDTO ajuste : ajustes) {
+            if (ajuste == null || ajuste.getProductoId() == null) {
+                throw new ValidacionNegocioException("El id del producto es obligatorio");
+            }
+            if (ajuste.getCantidad() == null || ajuste.getCantidad() < 0) {
+                throw new ValidacionNegocioException("La nueva cantidad debe ser >= 0 para el producto id: " + ajuste.getProductoId());
+            }
+        }
+        try {
+            return dataServiceClient.actualizarStockEnLote(ajustes);
+        } catch (FeignException e) {
+            log.error("Error al actualizar stock en lote ({} ajustes) en el microservicio de datos", ajustes.size(), e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            cacheCatalogo.invalidarProductos(ajustes.stream().map(AjusteStockDTO::getProductoId).toList());
         }
     }
 
     /**
      * Registra un movimiento de inventario (entradas o salidas).
-     * Se espera que el DTO contenga la referencia al producto y la cantidad a ajustar.
+     * Se espera que el DTO contenga la referencia al producto y la cantidad a ajustar: positiva para
+     * ingresos y negativa para egresos. El servicio de datos la aplica de forma atómica sobre el stock actual.
      *
      * @param movimiento Objeto {@link InventarioDTO} con los datos del movimiento.
      * @return El estado del inventario tras aplicar el movimiento.
-     * @throws ValidacionNegocioException Si el movimiento no contiene el ID del producto.
+     * @throws ValidacionNegocioException Si falta el ID del producto, la cantidad es cero o el stock no alcanza.
      * @throws InventarioNoEncontradoException Si el producto no existe.
      */
     public InventarioDTO registrarMovimientoInventario(InventarioDTO movimiento) {
@@ -109,13 +204,29 @@ public class InventarioBusinessService {
                 || movimiento.getProducto().getId() == null) {
             throw new ValidacionNegocioException("Movimiento de inventario inválido: producto.id obligatorio");
         }
+        if (movimiento.getCantidad() == null || movimiento.getCantidad() == 0) {
+            throw new ValidacionNegocioException("Movimiento de inventario inválido: la cantidad debe ser distinta de cero");
+        }
         try {
             return dataServiceClient.registrarMovimientoInventario(movimiento);
+        } catch (FeignException.BadRequest e) {
+            if (esStockInsuficiente(e)) {
+                throw new ValidacionNegocioException("Movimiento rechazado: stock insuficiente para producto id: "
+                        + movimiento.getProducto().getId());
+            }
+            throw new ValidacionNegocioException("Movimiento rechazado por datos inválidos para producto id: "
+                    + movimiento.getProducto().getId());
         } catch (FeignException.NotFound e) {
             throw new InventarioNoEncontradoException("Producto no encontrado para registrar movimiento, id: " + movimiento.getProducto().getId());
         } catch (FeignException e) {
             log.error("Error al registrar movimiento de inventario en el microservicio de datos", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            cacheCatalogo.invalidarProducto(movimiento.getProducto().getId());
         }
     }
-}
\ No newline at end of file
+
+    private static boolean esStockInsuficiente(FeignException e) {
+        return e.responseHeaders().getOrDefault(HEADER_CODIGO_ERROR, List.of()).contains(CODIGO_STOCK_INSUFICIENTE);
+    }
+}
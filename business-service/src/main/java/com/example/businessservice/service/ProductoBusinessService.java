@@ -1,19 +1,31 @@
 package com.example.businessservice.service;
 
 import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.client.DataServiceReactiveClient;
+import com.example.businessservice.client.UltimaEscritura;
+import com.example.businessservice.dto.FiltroProductosDTO;
+import com.example.businessservice.dto.PaginaDTO;
 import com.example.businessservice.dto.ProductoDTO;
 import com.example.businessservice.dto.ProductoRequest;
 import com.example.businessservice.exceptions.MicroserviceCommunicationException;
 import com.example.businessservice.exceptions.ProductoNoEncontradoException;
 import com.example.businessservice.exceptions.ValidacionNegocioException;
 import feign.FeignException;
+import feign.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * Servicio de negocio encargado de la gestión de Productos.
@@ -24,24 +36,38 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductoBusinessService {
 
+    static final int MAX_IDS_POR_CONSULTA = 100;
+
     private final DataServiceClient dataServiceClient;
+    private final DataServiceReactiveClient dataServiceReactiveClient;
+    private final CacheCatalogoService cacheCatalogo;
+    private final int concurrencia;
 
     /**
      * Constructor para la inyección de dependencias.
      *
-     * @param dataServiceClient Cliente Feign para comunicación con Data Service.
+     * @param dataServiceClient         Cliente Feign para comunicación con Data Service.
+     * @param dataServiceReactiveClient Cliente no bloqueante para las consultas que combinan varias llamadas.
+     * @param cacheCatalogo             Cache de productos por ID y por categoría.
+     * @param concurrencia              Llamadas a data-service en vuelo a la vez por cada consulta combinada.
      */
-    public ProductoBusinessService(DataServiceClient dataServiceClient) {
+    public ProductoBusinessService(DataServiceClient dataServiceClient,
+                                   DataServiceReactiveClient dataServiceReactiveClient,
+                                   CacheCatalogoService cacheCatalogo,
+                                   @Value("${data.service.reactivo.concurrencia:8}") int concurrencia) {
         this.dataServiceClient = dataServiceClient;
+        this.dataServiceReactiveClient = dataServiceReactiveClient;
+        this.cacheCatalogo = cacheCatalogo;
+        this.concurrencia = concurrencia;
     }
 
     /**
-     * Recupera el listado completo de productos.
+     * Recupera el listado completo de productos. Si data-service responde 304 se reutiliza la última lista recibida.
      *
-     * @return Lista de {@link ProductoDTO} disponibles.
+     * @return Lista de {@link ProductoDTO} disponibles, con el ETag de la versión del catálogo si data-service lo informa.
      * @throws MicroserviceCommunicationException Si falla la conexión con el servicio de datos.
      */
-    public List<ProductoDTO> obtenerTodosLosProductos() {
+    public ResponseEntity<List<ProductoDTO>> obtenerTodosLosProductos() {
         try {
             return dataServiceClient.obtenerTodosLosProductos();
         } catch (FeignException e) {
@@ -51,7 +77,83 @@ public class ProductoBusinessService {
     }
 
     /**
-     * Busca un producto específico por su identificador.
+     * Recupera una página del catálogo usando paginación por cursor.
+     *
+     * @param after Cursor recibido en la página anterior (ID del último producto). Puede ser null.
+     * @param limit Cantidad máxima de productos a devolver (debe ser mayor a cero).
+     * @return {@link PaginaDTO} con los productos y el cursor de la página siguiente.
+     * @throws ValidacionNegocioException         Si el límite no es válido.
+     * @throws MicroserviceCommunicationException Si falla la conexión con el servicio de datos.
+     */
+    public PaginaDTO<ProductoDTO> obtenerPaginaDeProductos(Long after, Integer limit) {
+        if (limit == null || limit <= 0) {
+            throw new ValidacionNegocioException("El límite de la página debe ser mayor a cero");
+        }
+        try {
+            return dataServiceClient.obtenerPaginaDeProductos(after, limit);
+        } catch (FeignException e) {
+            log.error("Error al obtener página de productos del microservicio de datos", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
+    /**
+     * Busca productos por texto en nombre y descripción, ordenados por relevancia.
+     * La búsqueda se resuelve en data-service sobre su índice de texto completo.
+     *
+     * @param q     Términos a buscar (obligatorio).
+     * @param after Posición recibida en la página anterior. Puede ser null.
+     * @param limit Cantidad máxima de productos a devolver (debe ser mayor a cero).
+     * @return {@link PaginaDTO} con los productos encontrados y la posición de la página siguiente.
+     * @throws ValidacionNegocioException         Si el texto o el límite no son válidos.
+     * @throws MicroserviceCommunicationException Si falla la conexión con el servicio de datos.
+     */
+    public PaginaDTO<ProductoDTO> buscarProductos(String q, Long after, Integer limit) {
+        if (q == null || q.isBlank()) {
+            throw new ValidacionNegocioException("El texto de búsqueda es obligatorio");
+        }
+        if (limit == null || limit <= 0) {
+            throw new ValidacionNegocioException("El límite de la página debe ser mayor a cero");
+        }
+        try {
+            return dataServiceClient.buscarProductos(q, after, limit);
+        } catch (FeignException.BadRequest e) {
+            throw new ValidacionNegocioException("Parámetros inválidos para la búsqueda de productos");
+        } catch (FeignException e) {
+            log.error("Error al buscar productos en el microservicio de datos", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
+    /**
+     * Abre la exportación NDJSON del catálogo en data-service y la devuelve como cuerpo en streaming.
+     * Los bytes se reenvían tal cual llegan, sin deserializar los productos.
+     *
+     * @return {@link StreamingResponseBody} que copia la exportación a la respuesta y libera la conexión al terminar.
+     * @throws MicroserviceCommunicationException Si data-service no responde o responde con error.
+     */
+    public StreamingResponseBody exportarProductos() {
+        Response response;
+        try {
+            response = dataServiceClient.exportarProductos();
+        } catch (FeignException e) {
+            log.error("Error al abrir la exportación de productos del microservicio de datos", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+        if (response.status() != 200 || response.body() == null) {
+            log.error("Exportación de productos rechazada por el microservicio de datos, estado={}", response.status());
+            response.close();
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+        return salida -> {
+            try (response; InputStream entrada = response.body().asInputStream()) {
+                entrada.transferTo(salida);
+            }
+        };
+    }
+
+    /**
+     * Busca un producto específico por su identificador. El producto se sirve desde {@link CacheCatalogoService}.
      *
      * @param id Identificador único del producto.
      * @return El {@link ProductoDTO} encontrado.
@@ -60,7 +162,7 @@ public class ProductoBusinessService {
      */
     public ProductoDTO obtenerProductoPorId(Long id) {
         try {
-            return dataServiceClient.obtenerProductoPorId(id);
+            return cacheCatalogo.obtenerProducto(id);
         } catch (FeignException.NotFound e) {
             throw new ProductoNoEncontradoException("Producto no encontrado con ID: " + id);
         } catch (FeignException e) {
@@ -69,6 +171,37 @@ public class ProductoBusinessService {
         }
     }
 
+    /**
+     * Busca varios productos por su identificador. Las consultas a data-service se hacen en paralelo, con hasta
+     * {@code data.service.reactivo.concurrencia} llamadas en vuelo, y los productos se emiten en el orden de los
+     * IDs recibidos. Los IDs repetidos se consultan una sola vez.
+     *
+     * @param ids Identificadores de los productos (entre 1 y {@value #MAX_IDS_POR_CONSULTA}).
+     * @return Flujo de {@link ProductoDTO}; termina con {@link ProductoNoEncontradoException} si algún producto
+     * no existe, o con {@link MicroserviceCommunicationException} si falla la comunicación.
+     * @throws ValidacionNegocioException Si la lista está vacía, es demasiado larga o contiene IDs nulos.
+     */
+    public Flux<ProductoDTO> obtenerProductosPorIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidacionNegocioException("Debe indicar al menos un id de producto");
+        }
+        if (ids.size() > MAX_IDS_POR_CONSULTA) {
+            throw new ValidacionNegocioException("No se pueden consultar más de " + MAX_IDS_POR_CONSULTA + " productos a la vez");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ValidacionNegocioException("Los ids de producto no pueden ser nulos");
+        }
+        return Flux.fromIterable(new LinkedHashSet<>(ids))
+                .flatMapSequential(id -> dataServiceReactiveClient.obtenerProductoPorId(id)
+                        .onErrorMap(WebClientResponseException.NotFound.class,
+                                e -> new ProductoNoEncontradoException("Producto no encontrado con ID: " + id)), concurrencia)
+                .onErrorMap(WebClientException.class, e -> {
+                    log.error("Error al obtener productos por id del microservicio de datos", e);
+                    return new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+                })
+                .contextWrite(UltimaEscritura.enContexto());
+    }
+
     /**
      * Crea un nuevo producto aplicando validaciones de negocio.
      *
@@ -85,6 +218,8 @@ public class ProductoBusinessService {
         } catch (FeignException e) {
             log.error("Error al crear producto en el microservicio de datos", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            cacheCatalogo.invalidarCategorias();
         }
     }
 
@@ -95,7 +230,7 @@ public class ProductoBusinessService {
      * @param crear   Indica si la validación es para creación (requiere nombre) o actualización.
      * @throws ValidacionNegocioException Si alguna regla de validación falla.
      */
-    private void validarProducto(ProductoRequest request, boolean crear) {
+    static void validarProducto(ProductoRequest request, boolean crear) {
         if (request == null) throw new ValidacionNegocioException("Request de producto vacío");
         if (crear && (request.getNombre() == null || request.getNombre().trim().isEmpty())) {
             throw new ValidacionNegocioException("El nombre del producto es obligatorio");
@@ -112,7 +247,7 @@ public class ProductoBusinessService {
     }
 
     /**
-     * Obtiene los productos asociados a una categoría específica.
+     * Obtiene los productos asociados a una categoría específica. La lista se sirve desde {@link CacheCatalogoService}.
      *
      * @param nombre Nombre de la categoría.
      * @return Lista de productos pertenecientes a esa categoría.
@@ -126,7 +261,7 @@ public class ProductoBusinessService {
         }
 
         try {
-            return dataServiceClient.obtenerProductosPorCategoria(nombre.trim());
+            return cacheCatalogo.obtenerProductosDeCategoria(nombre.trim());
         } catch (FeignException.NotFound e) {
             throw new ProductoNoEncontradoException("No se encontraron productos para la categoría: " + nombre);
         } catch (FeignException e) {
@@ -155,6 +290,8 @@ public class ProductoBusinessService {
         } catch (FeignException e) {
             log.error("Error al actualizar producto en el microservicio de datos", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            cacheCatalogo.invalidarProducto(id);
         }
     }
 
@@ -175,36 +312,32 @@ public class ProductoBusinessService {
         } catch (FeignException e) {
             log.error("Error al eliminar producto en el microservicio de datos", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        } finally {
+            cacheCatalogo.invalidarProducto(id);
         }
     }
 
     /**
-     * Filtra los productos existentes basándose en un rango de precios.
-     * <p>
-     * Nota: Este filtrado se realiza en memoria después de obtener todos los productos.
-     * </p>
+     * Busca productos por rango de precios, categoría, stock bajo y prefijo de nombre.
+     * El filtrado, el orden y el límite se resuelven en data-service con una única consulta indexada.
      *
-     * @param minPrecio Precio mínimo (inclusive). Puede ser null.
-     * @param maxPrecio Precio máximo (inclusive). Puede ser null.
-     * @return Lista de productos que cumplen con el criterio de precio.
-     * @throws ValidacionNegocioException Si el precio mínimo es mayor que el máximo.
+     * @param filtro Criterios de búsqueda; los criterios nulos no filtran.
+     * @return Lista de productos que cumplen con todos los criterios.
+     * @throws ValidacionNegocioException Si el precio mínimo es mayor que el máximo o los parámetros son inválidos.
+     * @throws MicroserviceCommunicationException Error técnico.
      */
-    public List<ProductoDTO> obtenerProductosFiltradosPorPrecio(BigDecimal minPrecio, BigDecimal maxPrecio) {
-        if (minPrecio != null && maxPrecio != null && minPrecio.compareTo(maxPrecio) > 0) {
+    public List<ProductoDTO> obtenerProductosFiltrados(FiltroProductosDTO filtro) {
+        if (filtro.getPrecioMin() != null && filtro.getPrecioMax() != null
+                && filtro.getPrecioMin().compareTo(filtro.getPrecioMax()) > 0) {
             throw new ValidacionNegocioException("El precio mínimo no puede ser mayor que el máximo");
         }
-
-        List<ProductoDTO> todos = obtenerTodosLosProductos();
-
-        return todos.stream()
-                .filter(Objects::nonNull)
-                .filter(p -> {
-                    BigDecimal precio = p.getPrecio();
-                    if (precio == null) return false;
-                    if (minPrecio != null && precio.compareTo(minPrecio) < 0) return false;
-                    if (maxPrecio != null && precio.compareTo(maxPrecio) > 0) return false;
-                    return true;
-                })
-                .collect(Collectors.toList());
+        try {
+            return dataServiceClient.obtenerProductosFiltrados(filtro);
+        } catch (FeignException.BadRequest e) {
+            throw new ValidacionNegocioException("Parámetros inválidos para el filtrado de productos");
+        } catch (FeignException e) {
+            log.error("Error al filtrar productos en el microservicio de datos", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.example.businessservice.service;
+
+import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.dto.ProductoRequest;
+import com.example.businessservice.dto.ResultadoFilaDTO;
+import com.example.businessservice.exceptions.MicroserviceCommunicationException;
+import com.example.businessservice.exceptions.ValidacionNegocioException;
+import feign.FeignException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Servicio de negocio para el alta masiva de productos.
+ * Valida todas las filas en paralelo (Bean Validation y reglas de negocio), envía solo las filas válidas
+ * a data-service en una única llamada y combina ambos resultados en un reporte por fila.
+ */
+@Service
+@Slf4j
+public class ProductoLoteBusinessService {
+
+    static final int TAMANIO_MAXIMO_LOTE = 5_000;
+
+    private final DataServiceClient dataServiceClient;
+    private final Validator validator;
+    private final CacheCatalogoService cacheCatalogo;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param dataServiceClient Cliente Feign para comunicación con Data Service.
+     * @param validator         Validador de Bean Validation para las filas del lote.
+     * @param cacheCatalogo     Cache de productos por categoría, que se invalida al crear el lote.
+     */
+    public ProductoLoteBusinessService(DataServiceClient dataServiceClient, Validator validator,
+                                       CacheCatalogoService cacheCatalogo) {
+        this.dataServiceClient = dataServiceClient;
+        this.validator = validator;
+        this.cacheCatalogo = cacheCatalogo;
+    }
+
+    /**
+     * Crea un lote de productos. Las filas inválidas se informan sin impedir la creación de las demás.
+     *
+     * @param requests Lista de productos a crear.
+     * @return Un {@link ResultadoFilaDTO} por fila, en el mismo orden que la lista recibida.
+     * @throws ValidacionNegocioException         Si el lote está vacío o supera el tamaño máximo.
+     * @throws MicroserviceCommunicationException Si falla la comunicación con el servicio de datos.
+     */
+    public List<ResultadoFilaDTO> crearProductos(List<ProductoRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ValidacionNegocioException("El lote de productos no puede estar vacío");
+        }
+        if (requests.size() > TAMANIO_MAXIMO_LOTE) {
+            throw new ValidacionNegocioException("El lote no puede superar " + TAMANIO_MAXIMO_LOTE + " productos");
+        }
+
+        ResultadoFilaDTO[] resultados = new ResultadoFilaDTO[requests.size()];
+        IntStream.range(0, requests.size()).parallel().forEach(i -> {
+            String error = validar(requests.get(i));
+            if (error != null) {
+                resultados[i] = ResultadoFilaDTO.fallo(i, error);
+            }
+        });
+
+        List<Integer> indicesValidos = new ArrayList<>();
+        List<ProductoRequest> validos = new ArrayList<>();
+        for (int i = 0; i < resultados.length; i++) {
+            if (resultados[i] == null) {
+                indicesValidos.add(i);
+                validos.add(requests.get(i));
+            }
+        }
+
+        if (!validos.isEmpty()) {
+            List<ResultadoFilaDTO> remotos;
+            try {
+                remotos = dataServiceClient.crearProductosEnLote(validos);
+            } catch (FeignException e) {
+                log.error("Error al crear lote de productos en el microservicio de datos", e);
+                throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+            } finally {
+                cacheCatalogo.invalidarCategorias();
+            }
+            for (ResultadoFilaDTO remoto : remotos) {
+                int indiceOriginal = indicesValidos.get(remoto.getIndice());
+                remoto.setIndice(indiceOriginal);
+                resultados[indiceOriginal] = remoto;
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Valida una fila con las anotaciones de {@link ProductoRequest} y las reglas de negocio.
+     *
+     * @return El mensaje de error, o null si la fila es válida.
+     */
+    private String validar(ProductoRequest request) {
+        if (request == null) {
+            return "Request de producto vacío";
+        }
+        var violaciones = validator.validate(request);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            ProductoBusinessService.validarProducto(request, true);
+            return null;
+        } catch (ValidacionNegocioException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.businessservice.client;
+
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
+import com.example.businessservice.dto.EstadisticasCoalescenciaDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.dto.ProductoRequest;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataServiceClientCoalescenteTest {
+
+    private static final int LLAMADORES = 50;
+
+    @Mock
+    private DataServiceClient feign;
+
+    private CoalescedorLlamadas coalescedor;
+    private DataServiceClientCoalescente cliente;
+
+    @BeforeEach
+    void setUp() {
+        coalescedor = new CoalescedorLlamadas();
+        cliente = new DataServiceClientCoalescente(feign, coalescedor);
+    }
+
+    @Test
+    @DisplayName("Lecturas idénticas concurrentes comparten una sola llamada a data-service y su resultado")
+    void lecturasConcurrentes_UnaSolaLlamada() throws Exception {
+        List<ProductoDTO> productos = List.of(new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.TEN, "Tech", 5, false));
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(feign.obtenerProductosPorCategoria("Tech")).thenAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return productos;
+        });
+
+        List<List<ProductoDTO>> resultados = concurrentes(() -> cliente.obtenerProductosPorCategoria("Tech"), liberar);
+
+        verify(feign, times(1)).obtenerProductosPorCategoria("Tech");
+        assertTrue(resultados.stream().allMatch(resultado -> resultado == productos));
+        EstadisticasCoalescenciaDTO estadisticas = coalescedor.obtenerEstadisticas();
+        assertEquals(LLAMADORES, estadisticas.getLecturas());
+        assertEquals(1, estadisticas.getLlamadasRemotas());
+        assertEquals(LLAMADORES - 1, estadisticas.getCompartidas());
+        assertEquals((double) (LLAMADORES - 1) / LLAMADORES, estadisticas.getRatioCoalescencia(), 1e-9);
+        assertEquals(Map.of("obtenerProductosPorCategoria", (long) LLAMADORES - 1), estadisticas.getCompartidasPorOperacion());
+    }
+
+    @Test
+    @DisplayName("Un error de data-service se entrega a todos los llamadores que compartían la llamada")
+    void errorRemoto_SeEntregaATodos() throws Exception {
+        FeignException.NotFound noEncontrada = new FeignException.NotFound("Not Found",
+                Request.create(Request.HttpMethod.GET, "url", Collections.emptyMap(), null, new RequestTemplate()), null, null);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(feign.obtenerEstadisticasCategoria("Nada")).thenAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            throw noEncontrada;
+        });
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<EstadisticasCategoriaDTO>> futuros = new ArrayList<>();
+        for (int i = 0; i < LLAMADORES; i++) {
+            futuros.add(executor.submit(() -> cliente.obtenerEstadisticasCategoria("Nada")));
+        }
+        esperarLlamadores();
+        liberar.countDown();
+
+        for (Future<EstadisticasCategoriaDTO> futuro : futuros) {
+            ExecutionException e = assertThrows(ExecutionException.class, futuro::get);
+            assertSame(noEncontrada, e.getCause());
+        }
+        executor.close();
+        verify(feign, times(1)).obtenerEstadisticasCategoria("Nada");
+    }
+
+    @Test
+    @DisplayName("Las lecturas sucesivas y las de argumentos distintos no se agrupan")
+    void lecturasSucesivasOArgumentosDistintos_NoSeAgrupan() {
+        when(feign.obtenerProductoPorId(anyLong())).thenAnswer(inv -> new ProductoDTO(inv.getArgument(0), "P", "D",
+                BigDecimal.ONE, "Tech", 1, false));
+
+        cliente.obtenerProductoPorId(1L);
+        cliente.obtenerProductoPorId(1L);
+        cliente.obtenerProductoPorId(2L);
+
+        verify(feign, times(2)).obtenerProductoPorId(1L);
+        verify(feign, times(1)).obtenerProductoPorId(2L);
+        assertEquals(0, coalescedor.obtenerEstadisticas().getCompartidas());
+    }
+
+    @Test
+    @DisplayName("Las escrituras se delegan sin agrupar ni contar como lecturas")
+    void escrituras_SeDeleganSinAgrupar() {
+        ProductoRequest request = new ProductoRequest("Mouse", "Desc", BigDecimal.TEN, "Tech", 5);
+
+        cliente.crearProducto(request);
+        cliente.crearProducto(request);
+
+        verify(feign, times(2)).crearProducto(request);
+        assertEquals(0, coalescedor.obtenerEstadisticas().getLecturas());
+    }
+
+    /**
+     * Lanza {@link #LLAMADORES} lecturas a la vez y libera la llamada remota cuando todas quedaron esperando.
+     */
+    private <T> List<T> concurrentes(Supplier<T> lectura, CountDownLatch liberar) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futuros = new ArrayList<>();
+            for (int i = 0; i < LLAMADORES; i++) {
+                futuros.add(executor.submit(lectura::get));
+            }
+            esperarLlamadores();
+            liberar.countDown();
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get(5, TimeUnit.SECONDS));
+            }
+            return resultados;
+        }
+    }
+
+    private void esperarLlamadores() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescedor.obtenerEstadisticas().getLecturas() < LLAMADORES && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+    }
+}
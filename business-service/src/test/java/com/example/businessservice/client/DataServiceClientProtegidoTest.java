@@ -0,0 +1,208 @@
+package com.example.businessservice.client;
+
+import com.example.businessservice.config.ResilienciaProperties;
+import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.exceptions.ServicioDatosNoDisponibleException;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import feign.FeignException;
+import feign.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulkheads, circuitos y hedging contra WireMock con demoras inyectadas. La coalescencia se desactiva para que
+ * las llamadas idénticas concurrentes lleguen por separado a la protección.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "data.service.coalescencia.habilitada=false",
+        "data.service.resiliencia.operaciones.obtenerProductosConStockBajo.max-concurrentes=2",
+        "data.service.resiliencia.operaciones.obtenerProductosConStockBajo.espera-maxima=0ms",
+        "data.service.resiliencia.operaciones.exportarProductos.max-concurrentes=1",
+        "data.service.resiliencia.operaciones.exportarProductos.espera-maxima=0ms",
+        "data.service.resiliencia.operaciones.obtenerCategoriaPorId.ventana=4",
+        "data.service.resiliencia.operaciones.obtenerCategoriaPorId.llamadas-minimas=4",
+        "data.service.resiliencia.operaciones.obtenerCategoriaPorId.espera-abierto=PT1M",
+        "data.service.resiliencia.operaciones.obtenerProductosPorCategoria.ventana=4",
+        "data.service.resiliencia.operaciones.obtenerProductosPorCategoria.llamadas-minimas=4",
+        "data.service.resiliencia.operaciones.obtenerProductoPorId.hedging-minimo=100ms"
+})
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+class DataServiceClientProtegidoTest {
+
+    @Autowired
+    private DataServiceClient dataServiceClient;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("data.service.url", () -> "http://localhost:${wiremock.server.port}");
+    }
+
+    private static String productoJson(long id) {
+        return """
+                {"id": %d, "nombre": "Producto %d", "precio": 10.00, "categoriaNombre": "Tech", "stock": 5, "stockBajo": false}
+                """.formatted(id, id);
+    }
+
+    @Test
+    @DisplayName("Bulkhead: un reporte lento no admite más llamadas que su límite ni bloquea las consultas de productos")
+    void bulkhead_ReporteLento_RechazaExcedenteYNoFrenaProductos() throws Exception {
+        stubFor(WireMock.get(urlEqualTo("/data/inventario/stock-bajo"))
+                .willReturn(aResponse().withStatus(200).withFixedDelay(1_500)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("[]")));
+        stubFor(WireMock.get(urlEqualTo("/data/productos/1"))
+                .willReturn(aResponse().withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(productoJson(1))));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResponseEntity<List<InventarioDTO>>>> reportes = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                reportes.add(executor.submit(() -> dataServiceClient.obtenerProductosConStockBajo()));
+            }
+            Thread.sleep(300);
+
+            long inicio = System.nanoTime();
+            ProductoDTO producto = dataServiceClient.obtenerProductoPorId(1L);
+            long millis = (System.nanoTime() - inicio) / 1_000_000;
+            assertEquals(1L, producto.getId());
+            assertTrue(millis < 1_000, "La consulta del producto tardó " + millis + " ms");
+
+            int rechazados = 0;
+            for (Future<ResponseEntity<List<InventarioDTO>>> reporte : reportes) {
+                try {
+                    assertEquals(200, reporte.get().getStatusCode().value());
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ServicioDatosNoDisponibleException.class, e.getCause());
+                    rechazados++;
+                }
+            }
+            assertEquals(1, rechazados);
+        }
+        verify(2, getRequestedFor(urlEqualTo("/data/inventario/stock-bajo")));
+    }
+
+    @Test
+    @DisplayName("Bulkhead: una exportación ocupa su lugar hasta que se cierra el cuerpo, no al recibir los encabezados")
+    void bulkhead_Exportacion_LiberaAlCerrarElCuerpo() throws Exception {
+        stubFor(WireMock.get(urlEqualTo("/data/productos/export"))
+                .willReturn(aResponse().withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                        .withBody(productoJson(1))));
+
+        Response primera = dataServiceClient.exportarProductos();
+        assertThrows(ServicioDatosNoDisponibleException.class, () -> dataServiceClient.exportarProductos());
+        primera.close();
+        primera.close();
+
+        try (Response segunda = dataServiceClient.exportarProductos()) {
+            assertEquals(200, segunda.status());
+        }
+        try (Response tercera = dataServiceClient.exportarProductos()) {
+            assertEquals(200, tercera.status());
+        }
+    }
+
+    @Test
+    @DisplayName("Circuit breaker: tras los 5xx el circuito se abre y rechaza sin llamar a data-service")
+    void circuito_Errores5xx_SeAbreYRechaza() {
+        stubFor(WireMock.get(urlEqualTo("/data/categorias/7"))
+                .willReturn(aResponse().withStatus(500)));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.InternalServerError.class, () -> dataServiceClient.obtenerCategoriaPorId(7L));
+        }
+        assertThrows(ServicioDatosNoDisponibleException.class, () -> dataServiceClient.obtenerCategoriaPorId(7L));
+
+        verify(4, getRequestedFor(urlEqualTo("/data/categorias/7")));
+    }
+
+    @Test
+    @DisplayName("Circuit breaker: los 404 son respuestas válidas y no abren el circuito")
+    void circuito_Errores404_NoSeAbre() {
+        stubFor(WireMock.get(urlEqualTo("/data/productos/categoria/Nada"))
+                .willReturn(aResponse().withStatus(404)));
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(FeignException.NotFound.class, () -> dataServiceClient.obtenerProductosPorCategoria("Nada"));
+        }
+
+        verify(6, getRequestedFor(urlEqualTo("/data/productos/categoria/Nada")));
+    }
+
+    @Test
+    @DisplayName("Hedging: si la lectura tarda más que el p95 se lanza un segundo intento y gana el más rápido")
+    void hedging_PrimerIntentoLento_GanaElSegundo() {
+        stubFor(WireMock.get(urlEqualTo("/data/productos/3"))
+                .willReturn(aResponse().withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(productoJson(3))));
+        for (int i = 0; i < 25; i++) {
+            dataServiceClient.obtenerProductoPorId(3L);
+        }
+        stubFor(WireMock.get(urlEqualTo("/data/productos/4")).inScenario("hedging").whenScenarioStateIs(STARTED)
+                .willSetStateTo("segundo")
+                .willReturn(aResponse().withStatus(200).withFixedDelay(3_000)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(productoJson(4))));
+        stubFor(WireMock.get(urlEqualTo("/data/productos/4")).inScenario("hedging").whenScenarioStateIs("segundo")
+                .willReturn(aResponse().withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(productoJson(4))));
+
+        long inicio = System.nanoTime();
+        ProductoDTO producto = dataServiceClient.obtenerProductoPorId(4L);
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(4L, producto.getId());
+        assertTrue(millis < 1_500, "La lectura con hedging tardó " + millis + " ms");
+        verify(2, getRequestedFor(urlEqualTo("/data/productos/4")));
+    }
+
+    @Test
+    @DisplayName("Hedging: las lecturas sin hedging configurado no se repiten aunque tarden")
+    void hedging_NoConfigurado_UnSoloIntento() {
+        stubFor(WireMock.get(urlEqualTo("/data/productos/categoria/Lenta"))
+                .willReturn(aResponse().withStatus(200).withFixedDelay(300)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("[]")));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(dataServiceClient.obtenerProductosPorCategoria("Lenta").isEmpty());
+        }
+
+        verify(3, getRequestedFor(urlEqualTo("/data/productos/categoria/Lenta")));
+    }
+
+    @Test
+    @DisplayName("Configuración: una operación que DataServiceClient no tiene impide el arranque")
+    void configuracion_OperacionDesconocida_LanzaExcepcion() {
+        ResilienciaProperties propiedades = new ResilienciaProperties();
+        propiedades.setOperaciones(Map.of("obtenerProductoPorCodigo", new ResilienciaProperties.Operacion()));
+
+        assertThrows(IllegalStateException.class, () -> new ProteccionLlamadas(propiedades));
+    }
+}
@@ -2,8 +2,12 @@ package com.example.businessservice.client;
 
 import com.example.businessservice.dto.CategoriaDTO;
 import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaCambiosDTO;
 import com.example.businessservice.dto.ProductoDTO;
 import com.example.businessservice.dto.ProductoRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import feign.FeignException;
 import org.junit.jupiter.api.DisplayName;
@@ -12,12 +16,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
@@ -53,7 +62,7 @@ class DataServiceClientTest {
                         """)));
 
         // Act
-        List<ProductoDTO> productos = dataServiceClient.obtenerTodosLosProductos();
+        List<ProductoDTO> productos = dataServiceClient.obtenerTodosLosProductos().getBody();
 
         // Assert
         assertNotNull(productos);
@@ -65,6 +74,58 @@ class DataServiceClientTest {
         verify(getRequestedFor(urlEqualTo("/data/productos")));
     }
 
+    @Test
+    @DisplayName("obtenerTodasLasCategorias: Envía If-None-Match con el último ETag y reutiliza el cuerpo ante un 304")
+    void obtenerTodasLasCategorias_304_ReutilizaUltimoCuerpo() {
+        // Arrange
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/categorias"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.ETAG, "\"5\"")
+                        .withBody("[{\"id\": 1, \"nombre\": \"Tech\"}]")));
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/categorias"))
+                .atPriority(1)
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"5\""))
+                .willReturn(aResponse().withStatus(304).withHeader(HttpHeaders.ETAG, "\"5\"")));
+
+        // Act
+        ResponseEntity<List<CategoriaDTO>> primera = dataServiceClient.obtenerTodasLasCategorias();
+        ResponseEntity<List<CategoriaDTO>> segunda = dataServiceClient.obtenerTodasLasCategorias();
+
+        // Assert
+        assertEquals("Tech", primera.getBody().get(0).getNombre());
+        assertEquals(HttpStatus.OK, segunda.getStatusCode());
+        assertEquals("\"5\"", segunda.getHeaders().getETag());
+        assertEquals("Tech", segunda.getBody().get(0).getNombre());
+        verify(1, getRequestedFor(urlEqualTo("/data/categorias")).withoutHeader(HttpHeaders.IF_NONE_MATCH));
+        verify(1, getRequestedFor(urlEqualTo("/data/categorias")).withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"5\"")));
+    }
+
+    @Test
+    @DisplayName("obtenerProductosConStockBajo: Pide Smile y deserializa la respuesta binaria")
+    void obtenerProductosConStockBajo_Smile() throws Exception {
+        // Arrange
+        InventarioDTO inventario = new InventarioDTO();
+        inventario.setCantidad(2);
+        inventario.setFechaActualizacion(LocalDateTime.of(2024, 5, 1, 10, 30));
+        inventario.setProducto(new ProductoDTO(1L, "Laptop", "Gamer", new BigDecimal("1500.50"), "Tech", 2, true));
+        byte[] smile = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule())
+                .writeValueAsBytes(List.of(inventario));
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/inventario/stock-bajo"))
+                .withHeader(HttpHeaders.ACCEPT, containing("application/x-jackson-smile"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile")
+                        .withBody(smile)));
+
+        // Act
+        List<InventarioDTO> resultado = dataServiceClient.obtenerProductosConStockBajo().getBody();
+
+        // Assert
+        assertEquals(List.of(inventario), resultado);
+    }
+
     @Test
     @DisplayName("crearProducto: Serializa Request y Deserializa Response")
     void crearProducto_Ok() {
@@ -87,6 +148,53 @@ class DataServiceClientTest {
         assertEquals(10L, response.getId());
     }
 
+    @Test
+    @DisplayName("X-Ultima-Escritura: se registra al escribir y se reenvía en las lecturas siguientes de la petición")
+    void ultimaEscritura_EscrituraLuegoLectura_ReenviaHeader() {
+        stubFor(WireMock.post(WireMock.urlEqualTo("/data/productos"))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(UltimaEscritura.HEADER, "1700000000000")
+                        .withBody("{\"id\": 11, \"nombre\": \"Teclado\"}")));
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/productos/11"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"id\": 11, \"nombre\": \"Teclado\"}")));
+        List<String> devueltos = new ArrayList<>();
+
+        UltimaEscritura.iniciar(null, devueltos::add);
+        try {
+            dataServiceClient.crearProducto(new ProductoRequest("Teclado", "Mecánico", BigDecimal.TEN, "Accesorios", 1));
+            dataServiceClient.obtenerProductoPorId(11L);
+        } finally {
+            UltimaEscritura.limpiar();
+        }
+
+        assertEquals(List.of("1700000000000"), devueltos);
+        verify(postRequestedFor(urlEqualTo("/data/productos")).withoutHeader(UltimaEscritura.HEADER));
+        verify(getRequestedFor(urlEqualTo("/data/productos/11")).withHeader(UltimaEscritura.HEADER, equalTo("1700000000000")));
+    }
+
+    @Test
+    @DisplayName("PlazoLlamada: la petición se corta al vencer el plazo aunque el timeout de lectura sea mayor")
+    void plazoLlamada_RespuestaLenta_CortaAlVencer() {
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/inventario/producto/1"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(3_000)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{\"id\": 1, \"cantidad\": 5}")));
+
+        long inicio = System.nanoTime();
+        assertThrows(FeignException.class, () -> PlazoLlamada.con(Duration.ofMillis(200),
+                () -> dataServiceClient.obtenerInventarioPorProductoId(1L)).get());
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertTrue(millis < 1_500, "La petición tardó " + millis + " ms");
+    }
+
     @Test
     @DisplayName("actualizarCantidadInventario: Verifica la URL y payload correctos")
     void actualizarCantidadInventario_Ok() {
@@ -109,6 +217,39 @@ class DataServiceClientTest {
         assertEquals(50, result.getCantidad());
     }
 
+    @Test
+    @DisplayName("obtenerCambios: Envía since/limit y deserializa upserts y borrados")
+    void obtenerCambios_Ok() {
+        // Arrange
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/changes?since=10&limit=50"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                            {
+                                "cambios": [
+                                    {"secuencia": 11, "entidad": "INVENTARIO", "entidadId": 4, "tipo": "UPSERT",
+                                     "fecha": "2024-05-01T10:00:00", "inventario": {"id": 4, "cantidad": 7, "producto": {"id": 1, "nombre": "Laptop"}}},
+                                    {"secuencia": 12, "entidad": "PRODUCTO", "entidadId": 2, "tipo": "BORRADO", "fecha": "2024-05-01T10:00:01"}
+                                ],
+                                "ultimaSecuencia": 12,
+                                "hayMas": false
+                            }
+                        """)));
+
+        // Act
+        PaginaCambiosDTO pagina = dataServiceClient.obtenerCambios(10, 50);
+
+        // Assert
+        assertEquals(2, pagina.getCambios().size());
+        assertEquals(7, pagina.getCambios().get(0).getInventario().getCantidad());
+        assertEquals("Laptop", pagina.getCambios().get(0).getInventario().getProducto().getNombre());
+        assertEquals("BORRADO", pagina.getCambios().get(1).getTipo());
+        assertNull(pagina.getCambios().get(1).getProducto());
+        assertEquals(12L, pagina.getUltimaSecuencia());
+        assertFalse(pagina.isHayMas());
+    }
+
     @Test
     @DisplayName("obtenerProductoPorId: Lanza FeignException.NotFound en 404")
     void obtenerProductoPorId_404() {
@@ -0,0 +1,142 @@
+package com.example.businessservice.client;
+
+import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.service.ProductoBusinessService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+class DataServiceReactiveClientTest {
+
+    @Autowired
+    private DataServiceReactiveClient dataServiceReactiveClient;
+
+    @Autowired
+    private ProductoBusinessService productoBusinessService;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("data.service.url", () -> "http://localhost:${wiremock.server.port}");
+    }
+
+    @Test
+    @DisplayName("obtenerTodosLosProductos: Emite un elemento por cada producto del arreglo JSON")
+    void obtenerTodosLosProductos_Ok() {
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/productos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                            [
+                                {"id": 1, "nombre": "Laptop", "precio": 1500.00, "categoriaNombre": "Tech", "stock": 5, "stockBajo": true},
+                                {"id": 2, "nombre": "Mouse", "precio": 20.00, "categoriaNombre": "Tech", "stock": 50, "stockBajo": false}
+                            ]
+                        """)));
+
+        List<ProductoDTO> productos = dataServiceReactiveClient.obtenerTodosLosProductos().collectList().block();
+
+        assertNotNull(productos);
+        assertEquals(2, productos.size());
+        assertEquals("Laptop", productos.get(0).getNombre());
+        assertTrue(productos.get(0).getStockBajo());
+    }
+
+    @Test
+    @DisplayName("obtenerTodasLasCategorias: Pide Smile y decodifica la respuesta binaria")
+    void obtenerTodasLasCategorias_Smile() throws Exception {
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(List.of(
+                new CategoriaDTO(1L, "Tech", "Tecnología"), new CategoriaDTO(2L, "Hogar", "Casa")));
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/categorias"))
+                .withHeader(HttpHeaders.ACCEPT, containing("application/x-jackson-smile"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile")
+                        .withBody(smile)));
+
+        List<CategoriaDTO> categorias = dataServiceReactiveClient.obtenerTodasLasCategorias().collectList().block();
+
+        assertEquals(List.of(new CategoriaDTO(1L, "Tech", "Tecnología"), new CategoriaDTO(2L, "Hogar", "Casa")), categorias);
+    }
+
+    @Test
+    @DisplayName("obtenerProductoPorId: 404 de data-service llega como WebClientResponseException.NotFound")
+    void obtenerProductoPorId_404() {
+        stubFor(WireMock.get(WireMock.urlEqualTo("/data/productos/99"))
+                .willReturn(aResponse().withStatus(404)));
+
+        assertThrows(WebClientResponseException.NotFound.class,
+                () -> dataServiceReactiveClient.obtenerProductoPorId(99L).block());
+    }
+
+    @Test
+    @DisplayName("obtenerProductosPorIds: Las consultas a data-service se hacen en paralelo y se respeta el orden pedido")
+    void obtenerProductosPorIds_ConsultasEnParalelo() {
+        for (long id = 1; id <= 4; id++) {
+            stubFor(WireMock.get(WireMock.urlEqualTo("/data/productos/" + id))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withFixedDelay(500)
+                            .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .withBody("""
+                                {"id": %d, "nombre": "Producto %d", "precio": 10.00, "categoriaNombre": "Tech", "stock": 5, "stockBajo": false}
+                            """.formatted(id, id))));
+        }
+
+        long inicio = System.nanoTime();
+        List<ProductoDTO> productos = productoBusinessService.obtenerProductosPorIds(List.of(4L, 2L, 3L, 1L))
+                .collectList().block();
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(List.of(4L, 2L, 3L, 1L), productos.stream().map(ProductoDTO::getId).toList());
+        assertTrue(millis < 1_500, "Las 4 consultas de 500 ms tardaron " + millis + " ms");
+        assertEquals(new BigDecimal("10.00"), productos.get(0).getPrecio());
+    }
+
+    @Test
+    @DisplayName("obtenerProductosPorIds: Reenvía la última escritura de la petición en cada consulta")
+    void obtenerProductosPorIds_ReenviaUltimaEscritura() {
+        for (long id = 5; id <= 6; id++) {
+            stubFor(WireMock.get(WireMock.urlEqualTo("/data/productos/" + id))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .withBody("""
+                                {"id": %d, "nombre": "Producto %d", "precio": 10.00, "categoriaNombre": "Tech", "stock": 5, "stockBajo": false}
+                            """.formatted(id, id))));
+        }
+
+        UltimaEscritura.iniciar("1700000000000", valor -> { });
+        Flux<ProductoDTO> productos;
+        try {
+            productos = productoBusinessService.obtenerProductosPorIds(List.of(5L, 6L));
+        } finally {
+            UltimaEscritura.limpiar();
+        }
+        assertEquals(2, productos.collectList().block().size());
+
+        verify(getRequestedFor(urlEqualTo("/data/productos/5")).withHeader(UltimaEscritura.HEADER, equalTo("1700000000000")));
+        verify(getRequestedFor(urlEqualTo("/data/productos/6")).withHeader(UltimaEscritura.HEADER, equalTo("1700000000000")));
+    }
+}
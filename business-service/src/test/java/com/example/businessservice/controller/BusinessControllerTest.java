@@ -1,22 +1,40 @@
 package com.example.businessservice.controller;
 
+import com.example.businessservice.client.CoalescedorLlamadas;
+import com.example.businessservice.dto.AjusteStockDTO;
 import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.DetalleProductoDTO;
+import com.example.businessservice.dto.EstadisticasCacheDTO;
+import com.example.businessservice.dto.EstadisticasCoalescenciaDTO;
+import com.example.businessservice.dto.FiltroProductosDTO;
 import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaDTO;
 import com.example.businessservice.dto.ProductoDTO;
 import com.example.businessservice.dto.ProductoRequest;
+import com.example.businessservice.dto.ResultadoFilaDTO;
+import com.example.businessservice.dto.ResumenActualizacionStockDTO;
+import com.example.businessservice.exceptions.ServicioDatosNoDisponibleException;
+import com.example.businessservice.service.CacheCatalogoService;
 import com.example.businessservice.service.CategoriaBusinessService;
+import com.example.businessservice.service.DetalleProductoBusinessService;
 import com.example.businessservice.service.InventarioBusinessService;
 import com.example.businessservice.service.ProductoBusinessService;
+import com.example.businessservice.service.ProductoLoteBusinessService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +42,7 @@ import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
@@ -49,13 +68,25 @@ class BusinessControllerTest {
     @MockBean
     private InventarioBusinessService inventarioBusinessService;
 
+    @MockBean
+    private ProductoLoteBusinessService productoLoteBusinessService;
+
+    @MockBean
+    private DetalleProductoBusinessService detalleProductoBusinessService;
+
+    @MockBean
+    private CoalescedorLlamadas coalescedorLlamadas;
+
+    @MockBean
+    private CacheCatalogoService cacheCatalogoService;
+
     // --- Tests de Productos ---
 
     @Test
     @DisplayName("GET /api/productos: Retorna lista de productos")
     void obtenerTodosLosProductos_RetornaLista() throws Exception {
         ProductoDTO p1 = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.valueOf(1000), "Tech", 10, false);
-        when(productoBusinessService.obtenerTodosLosProductos()).thenReturn(List.of(p1));
+        when(productoBusinessService.obtenerTodosLosProductos()).thenReturn(ResponseEntity.ok(List.of(p1)));
 
         mockMvc.perform(get("/api/productos"))
                 .andExpect(status().isOk())
@@ -63,6 +94,61 @@ class BusinessControllerTest {
                 .andExpect(jsonPath("$[0].nombre", is("Laptop")));
     }
 
+    @Test
+    @DisplayName("GET /api/productos: Reenvía el ETag de data-service y responde 304 si el cliente ya lo tiene")
+    void obtenerTodosLosProductos_ConETag_RespondeNotModified() throws Exception {
+        ProductoDTO p1 = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.valueOf(1000), "Tech", 10, false);
+        when(productoBusinessService.obtenerTodosLosProductos())
+                .thenReturn(ResponseEntity.ok().eTag("42").header(HttpHeaders.CONTENT_LENGTH, "999").body(List.of(p1)));
+
+        mockMvc.perform(get("/api/productos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/productos").header(HttpHeaders.IF_NONE_MATCH, "\"42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /api/productos?limit=: Retorna página y header Link con la siguiente")
+    void obtenerPaginaDeProductos_RetornaPaginaYLink() throws Exception {
+        ProductoDTO p1 = new ProductoDTO(7L, "Laptop", "Desc", BigDecimal.valueOf(1000), "Tech", 10, false);
+        when(productoBusinessService.obtenerPaginaDeProductos(null, 1)).thenReturn(new PaginaDTO<>(List.of(p1), 7L));
+
+        mockMvc.perform(get("/api/productos?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(jsonPath("$.siguienteCursor", is(7)))
+                .andExpect(header().string("Link", "<http://localhost/api/productos?limit=1&after=7>; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/productos?limit=: Sin header Link en la última página")
+    void obtenerPaginaDeProductos_UltimaPagina_SinLink() throws Exception {
+        when(productoBusinessService.obtenerPaginaDeProductos(7L, 1)).thenReturn(new PaginaDTO<>(List.of(), null));
+
+        mockMvc.perform(get("/api/productos").param("after", "7").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    @DisplayName("POST /api/productos/batch: Retorna un resultado por fila")
+    void crearProductosEnLote_RetornaResultados() throws Exception {
+        List<ProductoRequest> requests = List.of(new ProductoRequest("Mouse", "Optico", BigDecimal.valueOf(20), "Tech", 50));
+        ProductoDTO creado = new ProductoDTO(1L, "Mouse", "Optico", BigDecimal.valueOf(20), "Tech", 50, false);
+        when(productoLoteBusinessService.crearProductos(any())).thenReturn(List.of(new ResultadoFilaDTO(0, true, creado, null)));
+
+        mockMvc.perform(post("/api/productos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].exitoso", is(true)))
+                .andExpect(jsonPath("$[0].producto.nombre", is("Mouse")));
+    }
+
     @Test
     @DisplayName("POST /api/productos: Crea producto y retorna 201")
     void crearProducto_RetornaCreated() throws Exception {
@@ -79,20 +165,25 @@ class BusinessControllerTest {
     }
 
     @Test
-    @DisplayName("GET /api/productos/filtros: Pasa parámetros de precio correctamente")
+    @DisplayName("GET /api/productos/filtros: Pasa todos los criterios al servicio")
     void obtenerProductosFiltrados_PasaParams() throws Exception {
-        BigDecimal min = BigDecimal.valueOf(100);
-        BigDecimal max = BigDecimal.valueOf(500);
+        FiltroProductosDTO esperado = new FiltroProductosDTO(BigDecimal.valueOf(100), BigDecimal.valueOf(500),
+                "Tecno", true, "Mo", "-precio", 20);
 
-        when(productoBusinessService.obtenerProductosFiltradosPorPrecio(min, max))
+        when(productoBusinessService.obtenerProductosFiltrados(esperado))
                 .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/productos/filtros")
                         .param("minPrice", "100")
-                        .param("maxPrice", "500"))
+                        .param("maxPrice", "500")
+                        .param("categoria", "Tecno")
+                        .param("stockBajo", "true")
+                        .param("nombre", "Mo")
+                        .param("orden", "-precio")
+                        .param("limit", "20"))
                 .andExpect(status().isOk());
 
-        verify(productoBusinessService).obtenerProductosFiltradosPorPrecio(min, max);
+        verify(productoBusinessService).obtenerProductosFiltrados(esperado);
     }
 
     @Test
@@ -147,6 +238,20 @@ class BusinessControllerTest {
         verify(inventarioBusinessService).actualizarCantidadInventario(prodId, nuevaCantidad);
     }
 
+    @Test
+    @DisplayName("PUT /api/reportes/stock: Actualiza stock en lote y retorna resumen")
+    void actualizarStockEnLote_RetornaResumen() throws Exception {
+        List<AjusteStockDTO> ajustes = List.of(new AjusteStockDTO(1L, 5), new AjusteStockDTO(2L, 7));
+        when(inventarioBusinessService.actualizarStockEnLote(any()))
+                .thenReturn(new ResumenActualizacionStockDTO(2, 2, List.of(), LocalDateTime.now()));
+
+        mockMvc.perform(put("/api/reportes/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ajustes)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actualizados", is(2)));
+    }
+
     @Test
     @DisplayName("POST /api/reportes/movimientos: Registra movimiento")
     void registrarMovimiento_RetornaCreated() throws Exception {
@@ -167,4 +272,163 @@ class BusinessControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated()); // Ahora debería pasar
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST /api/reportes/movimientos: Acepta egresos con cantidad negativa")
+    void registrarMovimiento_Egreso_RetornaCreated() throws Exception {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(1L);
+        InventarioDTO request = new InventarioDTO(null, producto, -3, null, null);
+        InventarioDTO resultado = new InventarioDTO(10L, producto, 7, 5, null);
+        when(inventarioBusinessService.registrarMovimientoInventario(any(InventarioDTO.class))).thenReturn(resultado);
+
+        mockMvc.perform(post("/api/reportes/movimientos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.cantidad", is(7)));
+    }
+
+    @Test
+    @DisplayName("GET /api/reportes/stock-bajo?limit=: Retorna la página del reporte con header Link")
+    void obtenerPaginaStockBajo_RetornaPaginaYLink() throws Exception {
+        when(inventarioBusinessService.obtenerPaginaStockBajo("Tech", null, null, 2))
+                .thenReturn(new PaginaDTO<>(List.of(new InventarioDTO()), 2L));
+
+        mockMvc.perform(get("/api/reportes/stock-bajo?categoria=Tech&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(header().string("Link", "<http://localhost/api/reportes/stock-bajo?categoria=Tech&limit=2&after=2>; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/productos/buscar: Devuelve la página y el link a la siguiente")
+    void buscarProductos_DevuelveLinkSiguiente() throws Exception {
+        when(productoBusinessService.buscarProductos("mouse", null, 1))
+                .thenReturn(new PaginaDTO<>(List.of(new ProductoDTO()), 20L));
+
+        mockMvc.perform(get("/api/productos/buscar?q=mouse&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(header().string("Link", "<http://localhost/api/productos/buscar?q=mouse&limit=1&after=20>; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/productos?ids=: Devuelve los productos pedidos como arreglo JSON")
+    void obtenerProductosPorIds_RetornaLista() throws Exception {
+        ProductoDTO p1 = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.valueOf(1000), "Tech", 10, false);
+        ProductoDTO p3 = new ProductoDTO(3L, "Mouse", "Desc", BigDecimal.TEN, "Tech", 4, true);
+        when(productoBusinessService.obtenerProductosPorIds(List.of(3L, 1L))).thenReturn(Flux.just(p3, p1));
+
+        MvcResult resultado = mockMvc.perform(get("/api/productos?ids=3,1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(jsonPath("$[1].id", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /api/reportes/stock-bajo/stream: Emite un registro de inventario por línea (NDJSON)")
+    void obtenerProductosConStockBajoEnStreaming_EmiteNdjson() throws Exception {
+        InventarioDTO inv1 = new InventarioDTO();
+        inv1.setId(1L);
+        InventarioDTO inv2 = new InventarioDTO();
+        inv2.setId(2L);
+        when(inventarioBusinessService.obtenerProductosConStockBajoEnStreaming()).thenReturn(Flux.just(inv1, inv2));
+
+        MvcResult resultado = mockMvc.perform(get("/api/reportes/stock-bajo/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+        String[] lineas = resultado.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals(1L, objectMapper.readValue(lineas[0], InventarioDTO.class).getId());
+        assertEquals(2L, objectMapper.readValue(lineas[1], InventarioDTO.class).getId());
+    }
+
+    @Test
+    @DisplayName("GET /api/categorias/stream: Emite una categoría por línea (NDJSON)")
+    void obtenerCategoriasEnStreaming_EmiteNdjson() throws Exception {
+        when(categoriaBusinessService.obtenerCategoriasEnStreaming())
+                .thenReturn(Flux.just(new CategoriaDTO(1L, "Tech", "Desc"), new CategoriaDTO(2L, "Hogar", "Desc")));
+
+        MvcResult resultado = mockMvc.perform(get("/api/categorias/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk());
+        String[] lineas = resultado.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("Hogar", objectMapper.readValue(lineas[1], CategoriaDTO.class).getNombre());
+    }
+
+    @Test
+    @DisplayName("GET /api/productos/{id}/detalle: Devuelve el detalle parcial con las partes faltantes")
+    void obtenerDetalleProducto_Parcial() throws Exception {
+        ProductoDTO producto = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.valueOf(1000), "Tech", 10, false);
+        when(detalleProductoBusinessService.obtenerDetalle(1L)).thenReturn(new DetalleProductoDTO(producto, null,
+                Map.of("categoriaNombre", "Tech", "totalProductos", 3), List.of("inventario")));
+
+        mockMvc.perform(get("/api/productos/1/detalle"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.producto.nombre", is("Laptop")))
+                .andExpect(jsonPath("$.inventario").doesNotExist())
+                .andExpect(jsonPath("$.estadisticasCategoria.totalProductos", is(3)))
+                .andExpect(jsonPath("$.partesFaltantes[0]", is("inventario")));
+    }
+
+    @Test
+    @DisplayName("GET /api/coalescencia/estadisticas: Devuelve los contadores de lecturas compartidas")
+    void obtenerEstadisticasCoalescencia_RetornaContadores() throws Exception {
+        when(coalescedorLlamadas.obtenerEstadisticas()).thenReturn(new EstadisticasCoalescenciaDTO(100, 20, 80, 0.8,
+                Map.of("obtenerProductosPorCategoria", 80L)));
+
+        mockMvc.perform(get("/api/coalescencia/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.llamadasRemotas", is(20)))
+                .andExpect(jsonPath("$.ratioCoalescencia", is(0.8)))
+                .andExpect(jsonPath("$.compartidasPorOperacion.obtenerProductosPorCategoria", is(80)));
+    }
+
+    @Test
+    @DisplayName("GET /api/cache/estadisticas: Devuelve los contadores de cada cache de catálogo")
+    void obtenerEstadisticasCache_RetornaContadores() throws Exception {
+        when(cacheCatalogoService.obtenerEstadisticas()).thenReturn(Map.of(
+                "productos", new EstadisticasCacheDTO(90, 10, 0.9, 2, 12, 1, 4.5, 8)));
+
+        mockMvc.perform(get("/api/cache/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productos.ratioAciertos", is(0.9)))
+                .andExpect(jsonPath("$.productos.desalojos", is(2)))
+                .andExpect(jsonPath("$.productos.latenciaMediaCargaMs", is(4.5)));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/cache: Vacía la cache de catálogo y retorna 204")
+    void vaciarCache_Retorna204() throws Exception {
+        mockMvc.perform(delete("/api/cache"))
+                .andExpect(status().isNoContent());
+
+        verify(cacheCatalogoService).vaciar();
+    }
+
+    @Test
+    @DisplayName("GET /api/productos/{id}: Circuito abierto hacia data-service retorna 503")
+    void obtenerProductoPorId_CircuitoAbierto_Retorna503() throws Exception {
+        when(productoBusinessService.obtenerProductoPorId(1L)).thenThrow(
+                new ServicioDatosNoDisponibleException("Servicio de datos no disponible: circuito abierto en obtenerProductoPorId"));
+
+        mockMvc.perform(get("/api/productos/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status", is(503)))
+                .andExpect(jsonPath("$.path", is("/api/productos/1")));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.businessservice.controller;
+
+import com.example.businessservice.BusinessServiceApplication;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de carga de business-service con 2.000 peticiones en vuelo a la vez contra un data-service simulado
+ * que tarda {@link #LATENCIA_DATA_SERVICE} en responder. Levanta la aplicación con el pool de hilos de plataforma
+ * de Tomcat (200 hilos) y con hilos virtuales, compara el throughput y registra con JFR los eventos
+ * {@code jdk.VirtualThreadPinned} para detectar I/O bajo {@code synchronized} en el camino de Feign y de la cache
+ * de catálogo. Cada petición usa un ID distinto, así todas pasan por la carga de la cache hasta data-service, y el
+ * bulkhead y el umbral de llamadas lentas de {@code obtenerProductoPorId} se amplían para que ninguna reciba 503.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class CargaConcurrenteBenchmarkTest {
+
+    private static final int CONCURRENCIA = 2_000;
+    private static final int RONDAS = 3;
+    private static final Duration LATENCIA_DATA_SERVICE = Duration.ofSeconds(1);
+
+    private static HttpServer dataService;
+    private static HttpClient httpClient;
+    private final AtomicLong siguienteId = new AtomicLong();
+
+    @BeforeAll
+    static void iniciarDataService() throws IOException {
+        dataService = HttpServer.create(new InetSocketAddress("localhost", 0), 4_096);
+        dataService.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        dataService.createContext("/data/productos/", exchange -> {
+            String id = exchange.getRequestURI().getPath().substring("/data/productos/".length());
+            byte[] cuerpo = """
+                    {"id":%s,"nombre":"Producto %s","descripcion":"Desc","precio":10.50,"categoriaNombre":"Tecno","stock":7,"stockBajo":false}
+                    """.formatted(id, id).getBytes(StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(LATENCIA_DATA_SERVICE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = exchange.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        dataService.start();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @AfterAll
+    static void detenerDataService() {
+        httpClient.close();
+        dataService.stop(0);
+    }
+
+    @Test
+    @DisplayName("Hilos virtuales vs pool de plataforma con 2.000 peticiones concurrentes")
+    void hilosVirtuales_VsPoolDePlataforma() throws Exception {
+        Resultado plataforma = medir(false);
+        Set<String> pinsEnFeign = ConcurrentHashMap.newKeySet();
+        Resultado virtuales;
+        try (RecordingStream jfr = new RecordingStream()) {
+            jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            jfr.onEvent("jdk.VirtualThreadPinned", evento -> pinsEnFeign.addAll(framesDeFeign(evento)));
+            jfr.startAsync();
+            virtuales = medir(true);
+        }
+
+        System.out.printf("%n[benchmark] %d peticiones en vuelo, data-service con %d ms de latencia (mejor de %d rondas)%n",
+                CONCURRENCIA, LATENCIA_DATA_SERVICE.toMillis(), RONDAS);
+        imprimir("hilos de plataforma", plataforma);
+        imprimir("hilos virtuales    ", virtuales);
+        System.out.printf("[benchmark] pinning en el camino de Feign y la cache: %s%n", pinsEnFeign.isEmpty() ? "ninguno" : pinsEnFeign);
+
+        assertTrue(virtuales.peticionesPorSegundo() > plataforma.peticionesPorSegundo());
+        assertTrue(pinsEnFeign.isEmpty(), () -> "Hilos virtuales fijados en: " + pinsEnFeign);
+    }
+
+    private Resultado medir(boolean hilosVirtuales) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(BusinessServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--server.tomcat.accept-count=" + CONCURRENCIA,
+                        "--spring.threads.virtual.enabled=" + hilosVirtuales,
+                        // Que el bulkhead admita todas las peticiones en vuelo y su segundo intento por hedging en
+                        // lugar de responder 503, y que la cola de 2.000 llamadas a la vez no cuente como llamadas
+                        // lentas y abra el circuito
+                        "--data.service.resiliencia.operaciones.obtenerProductoPorId.max-concurrentes=" + 2 * CONCURRENCIA,
+                        "--data.service.resiliencia.operaciones.obtenerProductoPorId.llamada-lenta=PT1M",
+                        "--data.service.url=http://localhost:" + dataService.getAddress().getPort())) {
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+            // Calentamiento de JIT, conexiones y pools
+            ronda(puerto, 200);
+            Resultado mejor = null;
+            for (int i = 0; i < RONDAS; i++) {
+                Resultado resultado = ronda(puerto, CONCURRENCIA);
+                mejor = mejor == null || resultado.millis() < mejor.millis() ? resultado : mejor;
+            }
+            return mejor;
+        }
+    }
+
+    private Resultado ronda(int puerto, int cantidad) {
+        long primerId = siguienteId.getAndAdd(cantidad) + 1;
+        long inicio = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> respuestas = IntStream.range(0, cantidad)
+                .mapToObj(i -> HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/productos/" + (primerId + i)))
+                        .timeout(Duration.ofMinutes(1))
+                        .build())
+                .map(request -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        Map<Integer, Long> estados = respuestas.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.groupingBy(HttpResponse::statusCode, Collectors.counting()));
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(Map.of(200, (long) cantidad), estados, "Respuestas por código de estado");
+        return new Resultado(cantidad, millis);
+    }
+
+    /**
+     * Frames de Feign, de Caffeine o de business-service presentes en la pila donde el hilo virtual quedó fijado.
+     */
+    private static List<String> framesDeFeign(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return List.of();
+        }
+        return evento.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(metodo -> metodo.getType().getName() + "." + metodo.getName())
+                .filter(nombre -> nombre.startsWith("feign.") || nombre.startsWith("com.github.benmanes.caffeine.")
+                        || nombre.startsWith("com.example.businessservice."))
+                .toList();
+    }
+
+    private static void imprimir(String modo, Resultado resultado) {
+        System.out.printf("[benchmark] %s: %6d ms, %7.0f peticiones/s%n", modo, resultado.millis(),
+                resultado.peticionesPorSegundo());
+    }
+
+    private record Resultado(int peticiones, long millis) {
+
+        double peticionesPorSegundo() {
+            return peticiones * 1000.0 / Math.max(1, millis);
+        }
+    }
+}
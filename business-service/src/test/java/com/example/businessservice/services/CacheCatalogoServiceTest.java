@@ -0,0 +1,212 @@
+package com.example.businessservice.services;
+
+import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.dto.EstadisticasCacheDTO;
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.service.CacheCatalogoService;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheCatalogoServiceTest {
+
+    @Mock
+    private DataServiceClient dataServiceClient;
+
+    private CacheCatalogoService cache;
+
+    private final ProductoDTO laptop = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.TEN, "Tech", 5, false);
+    private final ProductoDTO laptopRebajada = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.ONE, "Tech", 5, false);
+
+    private CacheCatalogoService crear(long maxEntradas, Duration ttl, Duration refresco) {
+        return new CacheCatalogoService(dataServiceClient, maxEntradas, ttl, refresco);
+    }
+
+    private FeignException crearFeignNotFound() {
+        return new FeignException.NotFound("No encontrado",
+                Request.create(Request.HttpMethod.GET, "url", Collections.emptyMap(), null, new RequestTemplate()), null, null);
+    }
+
+    private FeignException crearFeignInternalServerError() {
+        return new FeignException.InternalServerError("Error",
+                Request.create(Request.HttpMethod.GET, "url", Collections.emptyMap(), null, new RequestTemplate()), null, null);
+    }
+
+    @Test
+    @DisplayName("obtenerProducto: Las lecturas repetidas se sirven desde la cache y se cuentan como aciertos")
+    void obtenerProducto_LecturasRepetidas_UnaSolaLlamada() {
+        cache = crear(100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(laptop);
+
+        assertEquals(laptop, cache.obtenerProducto(1L));
+        assertEquals(laptop, cache.obtenerProducto(1L));
+        assertEquals(laptop, cache.obtenerProducto(1L));
+
+        verify(dataServiceClient, times(1)).obtenerProductoPorId(1L);
+        EstadisticasCacheDTO productos = cache.obtenerEstadisticas().get("productos");
+        assertEquals(2, productos.getAciertos());
+        assertEquals(1, productos.getFallos());
+        assertEquals(2.0 / 3, productos.getRatioAciertos(), 1e-9);
+        assertEquals(1, productos.getCargas());
+        assertEquals(1, productos.getEntradas());
+    }
+
+    @Test
+    @DisplayName("obtenerProducto: Pasado el refresco devuelve el valor guardado y lo recarga en segundo plano")
+    void obtenerProducto_PasadoElRefresco_SirveValorViejoYRecarga() throws Exception {
+        cache = crear(100, Duration.ofMinutes(5), Duration.ofMillis(50));
+        CountDownLatch liberarRecarga = new CountDownLatch(1);
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(laptop).thenAnswer(inv -> {
+            liberarRecarga.await(2, TimeUnit.SECONDS);
+            return laptopRebajada;
+        });
+
+        assertEquals(laptop, cache.obtenerProducto(1L));
+        Thread.sleep(100);
+
+        assertEquals(laptop, cache.obtenerProducto(1L));
+        assertEquals(laptop, cache.obtenerProducto(1L));
+        liberarRecarga.countDown();
+        esperar(() -> laptopRebajada.equals(cache.obtenerProducto(1L)));
+        verify(dataServiceClient, times(2)).obtenerProductoPorId(1L);
+    }
+
+    @Test
+    @DisplayName("obtenerProducto: Si la recarga falla se sigue sirviendo el valor anterior")
+    void obtenerProducto_RecargaFallida_ConservaValorAnterior() throws Exception {
+        cache = crear(100, Duration.ofMinutes(5), Duration.ofMillis(50));
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(laptop).thenThrow(crearFeignInternalServerError());
+
+        cache.obtenerProducto(1L);
+        Thread.sleep(100);
+        cache.obtenerProducto(1L);
+        esperar(() -> cache.obtenerEstadisticas().get("productos").getCargasFallidas() == 1);
+
+        assertEquals(laptop, cache.obtenerProducto(1L));
+    }
+
+    @Test
+    @DisplayName("obtenerProducto: Si la recarga responde 404 se descarta la entrada")
+    void obtenerProducto_RecargaNoEncontrada_DescartaEntrada() throws Exception {
+        cache = crear(100, Duration.ofMinutes(5), Duration.ofMillis(50));
+        FeignException noEncontrado = crearFeignNotFound();
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(laptop).thenThrow(noEncontrado);
+
+        cache.obtenerProducto(1L);
+        Thread.sleep(100);
+        assertEquals(laptop, cache.obtenerProducto(1L));
+        esperar(() -> cache.obtenerEstadisticas().get("productos").getEntradas() == 0);
+
+        assertSame(noEncontrado, assertThrows(FeignException.NotFound.class, () -> cache.obtenerProducto(1L)));
+    }
+
+    @Test
+    @DisplayName("obtenerProducto: Vencido el TTL la lectura espera el valor nuevo")
+    void obtenerProducto_VencidoElTtl_CargaDeNuevo() throws Exception {
+        cache = crear(100, Duration.ofMillis(100), Duration.ofMillis(50));
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(laptop, laptopRebajada);
+
+        cache.obtenerProducto(1L);
+        Thread.sleep(200);
+
+        assertEquals(laptopRebajada, cache.obtenerProducto(1L));
+    }
+
+    @Test
+    @DisplayName("obtenerProducto: Los errores de data-service se propagan y no se guardan")
+    void obtenerProducto_Error_NoSeGuarda() {
+        cache = crear(100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        FeignException noEncontrado = crearFeignNotFound();
+        when(dataServiceClient.obtenerProductoPorId(9L)).thenThrow(noEncontrado);
+
+        assertSame(noEncontrado, assertThrows(FeignException.NotFound.class, () -> cache.obtenerProducto(9L)));
+        assertThrows(FeignException.NotFound.class, () -> cache.obtenerProducto(9L));
+
+        verify(dataServiceClient, times(2)).obtenerProductoPorId(9L);
+    }
+
+    @Test
+    @DisplayName("invalidarProducto: Descarta el producto y las entradas por categoría, pero no los demás productos")
+    void invalidarProducto_DescartaProductoYCategorias() {
+        cache = crear(100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        ProductoDTO mouse = new ProductoDTO(2L, "Mouse", "Desc", BigDecimal.ONE, "Tech", 50, false);
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(laptop);
+        when(dataServiceClient.obtenerProductoPorId(2L)).thenReturn(mouse);
+        when(dataServiceClient.obtenerProductosPorCategoria("Tech")).thenReturn(List.of(laptop, mouse));
+        when(dataServiceClient.obtenerEstadisticasCategoria("Tech")).thenReturn(new EstadisticasCategoriaDTO());
+        cache.obtenerProducto(1L);
+        cache.obtenerProducto(2L);
+        cache.obtenerProductosDeCategoria("Tech");
+        cache.obtenerEstadisticasCategoria("Tech");
+
+        cache.invalidarProducto(1L);
+        cache.obtenerProducto(1L);
+        cache.obtenerProducto(2L);
+        cache.obtenerProductosDeCategoria("Tech");
+        cache.obtenerEstadisticasCategoria("Tech");
+
+        verify(dataServiceClient, times(2)).obtenerProductoPorId(1L);
+        verify(dataServiceClient, times(1)).obtenerProductoPorId(2L);
+        verify(dataServiceClient, times(2)).obtenerProductosPorCategoria("Tech");
+        verify(dataServiceClient, times(2)).obtenerEstadisticasCategoria("Tech");
+    }
+
+    @Test
+    @DisplayName("obtenerProducto: La carga corre en el hilo que pide la clave y queda registrada")
+    void obtenerProducto_SinEntrada_CargaEnElHiloQueLaPide() {
+        cache = crear(100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        Thread pide = Thread.currentThread();
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenAnswer(inv -> {
+            assertSame(pide, Thread.currentThread());
+            return new ProductoDTO(1L, "P", "D", BigDecimal.ONE, "Tech", 1, false);
+        });
+
+        assertEquals(1L, cache.obtenerProducto(1L).getId());
+        assertEquals(1, cache.obtenerEstadisticas().get("productos").getCargas());
+    }
+
+    @Test
+    @DisplayName("obtenerEstadisticas: Al superar el máximo de entradas se desalojan y se cuentan")
+    void obtenerEstadisticas_SuperadoElMaximo_CuentaDesalojos() {
+        cache = crear(2, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        when(dataServiceClient.obtenerProductoPorId(anyLong())).thenAnswer(inv -> new ProductoDTO(inv.getArgument(0),
+                "P", "D", BigDecimal.ONE, "Tech", 1, false));
+
+        for (long id = 1; id <= 10; id++) {
+            cache.obtenerProducto(id);
+        }
+
+        EstadisticasCacheDTO estadisticas = cache.obtenerEstadisticas().get("productos");
+        assertEquals(8, estadisticas.getDesalojos());
+        assertEquals(2, estadisticas.getEntradas());
+    }
+
+    /**
+     * Espera hasta 2 segundos a que se cumpla la condición; las recargas son asíncronas.
+     */
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -1,23 +1,30 @@
 package com.example.businessservice.services;
 
 import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.client.DataServiceReactiveClient;
 import com.example.businessservice.dto.CategoriaDTO;
+import com.example.businessservice.dto.EstadisticasCategoriaDTO;
 import com.example.businessservice.dto.ProductoDTO;
 import com.example.businessservice.exceptions.CategoriaNoEncontradaException;
 import com.example.businessservice.exceptions.MicroserviceCommunicationException;
 import com.example.businessservice.exceptions.ValidacionNegocioException;
+import com.example.businessservice.service.CacheCatalogoService;
 import com.example.businessservice.service.CategoriaBusinessService;
 import feign.FeignException;
 import feign.Request;
 import feign.RequestTemplate;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -31,9 +38,17 @@ class CategoriaBusinessServiceTest {
     @Mock
     private DataServiceClient dataServiceClient;
 
-    @InjectMocks
+    @Mock
+    private DataServiceReactiveClient dataServiceReactiveClient;
+
     private CategoriaBusinessService categoriaService;
 
+    @BeforeEach
+    void setUp() {
+        categoriaService = new CategoriaBusinessService(dataServiceClient, dataServiceReactiveClient,
+                new CacheCatalogoService(dataServiceClient, 100, Duration.ofMinutes(5), Duration.ofSeconds(30)));
+    }
+
     private FeignException crearFeignNotFound() {
         return new FeignException.NotFound("No encontrado",
                 Request.create(Request.HttpMethod.GET, "url", Collections.emptyMap(), null, new RequestTemplate()),
@@ -48,37 +63,34 @@ class CategoriaBusinessServiceTest {
 
 
     @Test
-    @DisplayName("calcularEstadisticas: Debe calcular métricas correctamente con productos mixtos")
-    void calcularEstadisticas_ConProductos_CalculaCorrectamente() {
+    @DisplayName("calcularEstadisticas: Delega el cálculo en data-service y conserva las claves del reporte")
+    void calcularEstadisticas_ConProductos_DelegaEnDataService() {
         // Arrange
         String categoria = "Tecnologia";
-        ProductoDTO p1 = new ProductoDTO(); p1.setPrecio(BigDecimal.valueOf(100)); p1.setStock(10); p1.setStockBajo(true);
-        ProductoDTO p2 = new ProductoDTO(); p2.setPrecio(BigDecimal.valueOf(200)); p2.setStock(20); p2.setStockBajo(false);
-
-        when(dataServiceClient.obtenerProductosPorCategoria(categoria)).thenReturn(List.of(p1, p2));
+        EstadisticasCategoriaDTO agregados = new EstadisticasCategoriaDTO(categoria, 2L, 30L, new BigDecimal("5000.00"),
+                new BigDecimal("150.00"), new BigDecimal("100"), new BigDecimal("200"), 1L, 50.0);
+        when(dataServiceClient.obtenerEstadisticasCategoria(categoria)).thenReturn(agregados);
 
         // Act
-        Map<String, Object> stats = categoriaService.calcularEstadisticasCategoria(categoria);
+        Map<String, Object> stats = categoriaService.calcularEstadisticasCategoria(" " + categoria + " ");
 
         // Assert
+        assertEquals(categoria, stats.get("categoriaNombre"));
         assertEquals(2L, stats.get("totalProductos"));
-        assertEquals(30, stats.get("totalStock"));
-        // Valor: (100*10) + (200*20) = 1000 + 4000 = 5000
+        assertEquals(30L, stats.get("totalStock"));
         assertEquals(0, BigDecimal.valueOf(5000).compareTo((BigDecimal) stats.get("valorTotalInventario")));
         assertEquals(0, BigDecimal.valueOf(150).compareTo((BigDecimal) stats.get("precioPromedio")));
         assertEquals(1L, stats.get("productosConStockBajo"));
         assertEquals(50.0, stats.get("porcentajeProductosConStockBajo"));
+        verify(dataServiceClient, never()).obtenerProductosPorCategoria(any());
     }
 
     @Test
-    @DisplayName("calcularEstadisticas: Retorna ceros si no hay productos")
-    void calcularEstadisticas_SinProductos_RetornaCeros() {
-        when(dataServiceClient.obtenerProductosPorCategoria("Vacia")).thenReturn(Collections.emptyList());
+    @DisplayName("calcularEstadisticas: Lanza excepción si la categoría no existe en data-service")
+    void calcularEstadisticas_CategoriaInexistente_LanzaExcepcion() {
+        when(dataServiceClient.obtenerEstadisticasCategoria("Vacia")).thenThrow(crearFeignNotFound());
 
-        Map<String, Object> stats = categoriaService.calcularEstadisticasCategoria("Vacia");
-
-        assertEquals(0L, stats.get("totalProductos"));
-        assertEquals(BigDecimal.ZERO, stats.get("valorTotalInventario"));
+        assertThrows(CategoriaNoEncontradaException.class, () -> categoriaService.calcularEstadisticasCategoria("Vacia"));
     }
 
 
@@ -119,4 +131,15 @@ class CategoriaBusinessServiceTest {
 
         assertThrows(MicroserviceCommunicationException.class, () -> categoriaService.crearCategoria(dto));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("obtenerCategoriasEnStreaming: Error de data-service termina con MicroserviceCommunicationException")
+    void obtenerCategoriasEnStreaming_ErrorRemoto_LanzaCustomException() {
+        when(dataServiceReactiveClient.obtenerTodasLasCategorias()).thenReturn(Flux.concat(
+                Flux.just(new CategoriaDTO(1L, "Tech", "Desc")),
+                Flux.error(WebClientResponseException.create(500, "Error", HttpHeaders.EMPTY, new byte[0], null))));
+
+        assertThrows(MicroserviceCommunicationException.class,
+                () -> categoriaService.obtenerCategoriasEnStreaming().collectList().block());
+    }
+}
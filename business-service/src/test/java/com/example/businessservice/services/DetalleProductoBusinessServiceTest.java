@@ -0,0 +1,206 @@
+package com.example.businessservice.services;
+
+import com.example.businessservice.client.PlazoLlamada;
+import com.example.businessservice.client.UltimaEscritura;
+import com.example.businessservice.dto.DetalleProductoDTO;
+import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.exceptions.CategoriaNoEncontradaException;
+import com.example.businessservice.exceptions.MicroserviceCommunicationException;
+import com.example.businessservice.exceptions.ProductoNoEncontradoException;
+import com.example.businessservice.service.CategoriaBusinessService;
+import com.example.businessservice.service.DetalleProductoBusinessService;
+import com.example.businessservice.service.InventarioBusinessService;
+import com.example.businessservice.service.ProductoBusinessService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DetalleProductoBusinessServiceTest {
+
+    @Mock
+    private ProductoBusinessService productoBusinessService;
+
+    @Mock
+    private InventarioBusinessService inventarioBusinessService;
+
+    @Mock
+    private CategoriaBusinessService categoriaBusinessService;
+
+    private DetalleProductoBusinessService detalleService;
+
+    private final ProductoDTO producto = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.TEN, "Tech", 5, false);
+    private final InventarioDTO inventario = new InventarioDTO();
+    private final Map<String, Object> estadisticas = Map.of("categoriaNombre", "Tech", "totalProductos", 3L);
+
+    @BeforeEach
+    void setUp() {
+        detalleService = new DetalleProductoBusinessService(productoBusinessService, inventarioBusinessService,
+                categoriaBusinessService, 4, 8, Duration.ofSeconds(2), Duration.ofMillis(300));
+        inventario.setCantidad(5);
+    }
+
+    @Test
+    @DisplayName("obtenerDetalle: Combina producto, inventario y estadísticas de la categoría del producto")
+    void obtenerDetalle_Completo() {
+        when(productoBusinessService.obtenerProductoPorId(1L)).thenReturn(producto);
+        when(inventarioBusinessService.obtenerInventarioPorProductoId(1L)).thenReturn(inventario);
+        when(categoriaBusinessService.calcularEstadisticasCategoria("Tech")).thenReturn(estadisticas);
+
+        DetalleProductoDTO detalle = detalleService.obtenerDetalle(1L);
+
+        assertEquals(producto, detalle.getProducto());
+        assertEquals(inventario, detalle.getInventario());
+        assertEquals(estadisticas, detalle.getEstadisticasCategoria());
+        assertTrue(detalle.getPartesFaltantes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("obtenerDetalle: El producto y el inventario se piden a la vez")
+    void obtenerDetalle_ProductoEInventarioEnParalelo() {
+        when(productoBusinessService.obtenerProductoPorId(1L)).thenAnswer(inv -> {
+            Thread.sleep(200);
+            return producto;
+        });
+        when(inventarioBusinessService.obtenerInventarioPorProductoId(1L)).thenAnswer(inv -> {
+            Thread.sleep(200);
+            return inventario;
+        });
+        when(categoriaBusinessService.calcularEstadisticasCategoria("Tech")).thenReturn(estadisticas);
+
+        long inicio = System.nanoTime();
+        DetalleProductoDTO detalle = detalleService.obtenerDetalle(1L);
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertTrue(detalle.getPartesFaltantes().isEmpty());
+        assertTrue(millis < 380, "El detalle tardó " + millis + " ms");
+    }
+
+    @Test
+    @DisplayName("obtenerDetalle: Un inventario lento se omite y el detalle se devuelve parcial")
+    void obtenerDetalle_InventarioLento_DetalleParcial() {
+        when(productoBusinessService.obtenerProductoPorId(1L)).thenReturn(producto);
+        when(inventarioBusinessService.obtenerInventarioPorProductoId(1L)).thenAnswer(inv -> {
+            Thread.sleep(1_000);
+            return inventario;
+        });
+        when(categoriaBusinessService.calcularEstadisticasCategoria("Tech")).thenReturn(estadisticas);
+
+        long inicio = System.nanoTime();
+        DetalleProductoDTO detalle = detalleService.obtenerDetalle(1L);
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertNull(detalle.getInventario());
+        assertEquals(estadisticas, detalle.getEstadisticasCategoria());
+        assertEquals(List.of("inventario"), detalle.getPartesFaltantes());
+        assertTrue(millis < 900, "El detalle tardó " + millis + " ms");
+    }
+
+    @Test
+    @DisplayName("obtenerDetalle: Una parte vencida se cancela y no sigue ocupando su hilo")
+    void obtenerDetalle_InventarioLento_CancelaLaTarea() throws Exception {
+        CountDownLatch interrumpida = new CountDownLatch(1);
+        AtomicBoolean conPlazo = new AtomicBoolean();
+        when(productoBusinessService.obtenerProductoPorId(1L)).thenReturn(producto);
+        when(inventarioBusinessService.obtenerInventarioPorProductoId(1L)).thenAnswer(inv -> {
+            conPlazo.set(PlazoLlamada.activo());
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrumpida.countDown();
+                throw e;
+            }
+            return inventario;
+        });
+        when(categoriaBusinessService.calcularEstadisticasCategoria("Tech")).thenReturn(estadisticas);
+
+        DetalleProductoDTO detalle = detalleService.obtenerDetalle(1L);
+
+        assertEquals(List.of("inventario"), detalle.getPartesFaltantes());
+        assertTrue(interrumpida.await(1, TimeUnit.SECONDS), "La llamada vencida siguió en curso");
+        assertTrue(conPlazo.get());
+    }
+
+    @Test
+    @DisplayName("obtenerDetalle: Todas las partes, también las estadísticas, reenvían la última escritura de la petición")
+    void obtenerDetalle_UltimaEscritura_LlegaATodasLasPartes() {
+        List<Long> vistas = new CopyOnWriteArrayList<>();
+        when(productoBusinessService.obtenerProductoPorId(1L)).thenAnswer(inv -> {
+            vistas.add(UltimaEscritura.actual());
+            return producto;
+        });
+        when(inventarioBusinessService.obtenerInventarioPorProductoId(1L)).thenAnswer(inv -> {
+            vistas.add(UltimaEscritura.actual());
+            return inventario;
+        });
+        when(categoriaBusinessService.calcularEstadisticasCategoria("Tech")).thenAnswer(inv -> {
+            vistas.add(UltimaEscritura.actual());
+            return estadisticas;
+        });
+
+        UltimaEscritura.iniciar("1700000000000", valor -> { });
+        try {
+            assertTrue(detalleService.obtenerDetalle(1L).getPartesFaltantes().isEmpty());
+        } finally {
+            UltimaEscritura.limpiar();
+        }
+
+        assertEquals(List.of(1700000000000L, 1700000000000L, 1700000000000L), vistas);
+    }
+
+    @Test
+    @DisplayName("obtenerDetalle: Un error en las estadísticas se omite y el detalle se devuelve parcial")
+    void obtenerDetalle_ErrorEstadisticas_DetalleParcial() {
+        when(productoBusinessService.obtenerProductoPorId(1L)).thenReturn(producto);
+        when(inventarioBusinessService.obtenerInventarioPorProductoId(1L)).thenReturn(inventario);
+        when(categoriaBusinessService.calcularEstadisticasCategoria("Tech"))
+                .thenThrow(new CategoriaNoEncontradaException("Categoría no encontrada: Tech"));
+
+        DetalleProductoDTO detalle = detalleService.obtenerDetalle(1L);
+
+        assertEquals(inventario, detalle.getInventario());
+        assertNull(detalle.getEstadisticasCategoria());
+        assertEquals(List.of("estadisticasCategoria"), detalle.getPartesFaltantes());
+    }
+
+    @Test
+    @DisplayName("obtenerDetalle: Producto inexistente lanza ProductoNoEncontradoException")
+    void obtenerDetalle_ProductoNoEncontrado_LanzaExcepcion() {
+        when(productoBusinessService.obtenerProductoPorId(9L))
+                .thenThrow(new ProductoNoEncontradoException("Producto no encontrado con ID: 9"));
+        lenient().when(inventarioBusinessService.obtenerInventarioPorProductoId(9L)).thenReturn(inventario);
+
+        assertThrows(ProductoNoEncontradoException.class, () -> detalleService.obtenerDetalle(9L));
+        verifyNoInteractions(categoriaBusinessService);
+    }
+
+    @Test
+    @DisplayName("obtenerDetalle: Si el producto no llega a tiempo lanza MicroserviceCommunicationException")
+    void obtenerDetalle_ProductoLento_LanzaCustomException() {
+        DetalleProductoBusinessService conTimeoutCorto = new DetalleProductoBusinessService(productoBusinessService,
+                inventarioBusinessService, categoriaBusinessService, 4, 8, Duration.ofMillis(100), Duration.ofMillis(100));
+        when(productoBusinessService.obtenerProductoPorId(1L)).thenAnswer(inv -> {
+            Thread.sleep(1_000);
+            return producto;
+        });
+        lenient().when(inventarioBusinessService.obtenerInventarioPorProductoId(1L)).thenReturn(inventario);
+
+        assertThrows(MicroserviceCommunicationException.class, () -> conTimeoutCorto.obtenerDetalle(1L));
+    }
+}
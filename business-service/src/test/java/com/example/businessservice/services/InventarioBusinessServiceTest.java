@@ -1,26 +1,41 @@
 package com.example.businessservice.services;
 
 import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.client.DataServiceReactiveClient;
+import com.example.businessservice.dto.AjusteStockDTO;
 import com.example.businessservice.dto.InventarioDTO;
+import com.example.businessservice.dto.PaginaDTO;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.dto.ResumenActualizacionStockDTO;
 import com.example.businessservice.exceptions.InventarioNoEncontradoException;
+import com.example.businessservice.exceptions.MicroserviceCommunicationException;
 import com.example.businessservice.exceptions.ValidacionNegocioException;
+import com.example.businessservice.service.CacheCatalogoService;
 import com.example.businessservice.service.InventarioBusinessService;
 import feign.FeignException;
 import feign.Request;
 import feign.RequestTemplate;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,9 +44,17 @@ class InventarioBusinessServiceTest {
     @Mock
     private DataServiceClient dataServiceClient;
 
-    @InjectMocks
+    @Mock
+    private DataServiceReactiveClient dataServiceReactiveClient;
+
     private InventarioBusinessService inventarioService;
 
+    @BeforeEach
+    void setUp() {
+        inventarioService = new InventarioBusinessService(dataServiceClient, dataServiceReactiveClient,
+                new CacheCatalogoService(dataServiceClient, 100, Duration.ofMinutes(5), Duration.ofSeconds(30)));
+    }
+
     private FeignException crearFeignNotFound() {
         return new FeignException.NotFound("No encontrado",
                 Request.create(Request.HttpMethod.GET, "url", Collections.emptyMap(), null, new RequestTemplate()), null, null);
@@ -80,4 +103,104 @@ class InventarioBusinessServiceTest {
         assertThrows(InventarioNoEncontradoException.class,
                 () -> inventarioService.obtenerInventarioPorProductoId(99L));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("actualizarStockEnLote: Envía todos los ajustes en una sola llamada")
+    void actualizarStockEnLote_Valido_UnaSolaLlamada() {
+        List<AjusteStockDTO> ajustes = List.of(new AjusteStockDTO(1L, 5), new AjusteStockDTO(2L, 0));
+        ResumenActualizacionStockDTO resumen = new ResumenActualizacionStockDTO(2, 2, List.of(), LocalDateTime.now());
+        when(dataServiceClient.actualizarStockEnLote(ajustes)).thenReturn(resumen);
+
+        assertEquals(resumen, inventarioService.actualizarStockEnLote(ajustes));
+        verify(dataServiceClient).actualizarStockEnLote(ajustes);
+    }
+
+    @Test
+    @DisplayName("actualizarStockEnLote: Lanza validación si alguna cantidad es negativa")
+    void actualizarStockEnLote_CantidadNegativa_LanzaValidacion() {
+        List<AjusteStockDTO> ajustes = List.of(new AjusteStockDTO(1L, 5), new AjusteStockDTO(2L, -3));
+
+        assertThrows(ValidacionNegocioException.class, () -> inventarioService.actualizarStockEnLote(ajustes));
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    @Test
+    @DisplayName("registrarMovimientoInventario: Mapea BadRequest (stock insuficiente) a validación de negocio")
+    void registrarMovimiento_StockInsuficiente_LanzaValidacion() {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(1L);
+        InventarioDTO mov = new InventarioDTO(null, producto, -50, null, null);
+        when(dataServiceClient.registrarMovimientoInventario(mov)).thenThrow(new FeignException.BadRequest("Stock insuficiente",
+                Request.create(Request.HttpMethod.POST, "url", Collections.emptyMap(), null, new RequestTemplate()), null,
+                Map.of("X-Codigo-Error", List.of("STOCK_INSUFICIENTE"))));
+
+        ValidacionNegocioException excepcion = assertThrows(ValidacionNegocioException.class,
+                () -> inventarioService.registrarMovimientoInventario(mov));
+        assertTrue(excepcion.getMessage().contains("stock insuficiente"));
+    }
+
+    @Test
+    @DisplayName("registrarMovimientoInventario: Un BadRequest sin código de stock insuficiente es una validación genérica")
+    void registrarMovimiento_OtroBadRequest_LanzaValidacionGenerica() {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(1L);
+        InventarioDTO mov = new InventarioDTO(null, producto, -50, null, null);
+        when(dataServiceClient.registrarMovimientoInventario(mov)).thenThrow(new FeignException.BadRequest("Bad Request",
+                Request.create(Request.HttpMethod.POST, "url", Collections.emptyMap(), null, new RequestTemplate()), null, null));
+
+        ValidacionNegocioException excepcion = assertThrows(ValidacionNegocioException.class,
+                () -> inventarioService.registrarMovimientoInventario(mov));
+        assertFalse(excepcion.getMessage().contains("stock insuficiente"));
+        assertTrue(excepcion.getMessage().contains("datos inválidos"));
+    }
+
+    @Test
+    @DisplayName("registrarMovimientoInventario: Lanza validación si la cantidad es cero")
+    void registrarMovimiento_CantidadCero_LanzaValidacion() {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(1L);
+        InventarioDTO mov = new InventarioDTO(null, producto, 0, null, null);
+
+        assertThrows(ValidacionNegocioException.class, () -> inventarioService.registrarMovimientoInventario(mov));
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    @Test
+    @DisplayName("obtenerPaginaStockBajo: Delega filtros, orden y cursor en el servicio de datos")
+    void obtenerPaginaStockBajo_Valido_DelegaEnCliente() {
+        PaginaDTO<InventarioDTO> pagina = new PaginaDTO<>(List.of(new InventarioDTO()), 50L);
+        when(dataServiceClient.obtenerPaginaStockBajo("Tech", "faltante", null, 50)).thenReturn(pagina);
+
+        assertSame(pagina, inventarioService.obtenerPaginaStockBajo("Tech", "faltante", null, 50));
+    }
+
+    @Test
+    @DisplayName("obtenerPaginaStockBajo: Lanza excepción si el límite no es positivo")
+    void obtenerPaginaStockBajo_LimiteInvalido_LanzaValidacion() {
+        assertThrows(ValidacionNegocioException.class,
+                () -> inventarioService.obtenerPaginaStockBajo(null, null, null, 0));
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    @Test
+    @DisplayName("obtenerProductosConStockBajoEnStreaming: Emite los registros tal como llegan de data-service")
+    void obtenerProductosConStockBajoEnStreaming_EmiteRegistros() {
+        InventarioDTO inv1 = new InventarioDTO();
+        inv1.setCantidad(1);
+        InventarioDTO inv2 = new InventarioDTO();
+        inv2.setCantidad(2);
+        when(dataServiceReactiveClient.obtenerProductosConStockBajo()).thenReturn(Flux.just(inv1, inv2));
+
+        assertEquals(List.of(inv1, inv2), inventarioService.obtenerProductosConStockBajoEnStreaming().collectList().block());
+    }
+
+    @Test
+    @DisplayName("obtenerProductosConStockBajoEnStreaming: Error de data-service termina con MicroserviceCommunicationException")
+    void obtenerProductosConStockBajoEnStreaming_ErrorRemoto_LanzaCustomException() {
+        when(dataServiceReactiveClient.obtenerProductosConStockBajo()).thenReturn(
+                Flux.error(WebClientResponseException.create(503, "Unavailable", HttpHeaders.EMPTY, new byte[0], null)));
+
+        assertThrows(MicroserviceCommunicationException.class,
+                () -> inventarioService.obtenerProductosConStockBajoEnStreaming().collectList().block());
+    }
+}
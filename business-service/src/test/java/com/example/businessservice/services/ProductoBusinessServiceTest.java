@@ -1,23 +1,38 @@
 package com.example.businessservice.services;
 
 import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.client.DataServiceReactiveClient;
+import com.example.businessservice.dto.FiltroProductosDTO;
+import com.example.businessservice.dto.PaginaDTO;
 import com.example.businessservice.dto.ProductoDTO;
 import com.example.businessservice.dto.ProductoRequest;
 import com.example.businessservice.exceptions.MicroserviceCommunicationException;
 import com.example.businessservice.exceptions.ProductoNoEncontradoException;
 import com.example.businessservice.exceptions.ValidacionNegocioException;
+import com.example.businessservice.service.CacheCatalogoService;
 import com.example.businessservice.service.ProductoBusinessService;
 import feign.FeignException;
 import feign.Request;
 import feign.RequestTemplate;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayOutputStream;
+import java.net.ConnectException;
+import java.net.URI;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -31,35 +46,66 @@ class ProductoBusinessServiceTest {
     @Mock
     private DataServiceClient dataServiceClient;
 
-    @InjectMocks
+    @Mock
+    private DataServiceReactiveClient dataServiceReactiveClient;
+
     private ProductoBusinessService productoService;
 
+    @BeforeEach
+    void setUp() {
+        productoService = new ProductoBusinessService(dataServiceClient, dataServiceReactiveClient,
+                new CacheCatalogoService(dataServiceClient, 100, Duration.ofMinutes(5), Duration.ofSeconds(30)), 4);
+    }
+
 
     @Test
-    @DisplayName("filtrarPorPrecio: Lanza excepción si min > max")
-    void filtrarPorPrecio_RangoInvalido_LanzaExcepcion() {
-        assertThrows(ValidacionNegocioException.class,
-                () -> productoService.obtenerProductosFiltradosPorPrecio(BigDecimal.valueOf(100), BigDecimal.valueOf(50)));
+    @DisplayName("obtenerProductosFiltrados: Lanza excepción si min > max sin llamar al cliente")
+    void obtenerProductosFiltrados_RangoInvalido_LanzaExcepcion() {
+        FiltroProductosDTO filtro = new FiltroProductosDTO(BigDecimal.valueOf(100), BigDecimal.valueOf(50), null, null, null, null, null);
+
+        assertThrows(ValidacionNegocioException.class, () -> productoService.obtenerProductosFiltrados(filtro));
+        verifyNoInteractions(dataServiceClient);
     }
 
     @Test
-    @DisplayName("filtrarPorPrecio: Filtra correctamente la lista devuelta por el cliente")
-    void filtrarPorPrecio_FiltraCorrectamente() {
-        // Arrange
-        ProductoDTO p1 = new ProductoDTO(); p1.setPrecio(BigDecimal.valueOf(10));
+    @DisplayName("obtenerProductosFiltrados: Delega el filtrado en el servicio de datos")
+    void obtenerProductosFiltrados_DelegaEnServicioDeDatos() {
+        FiltroProductosDTO filtro = new FiltroProductosDTO(BigDecimal.valueOf(40), BigDecimal.valueOf(60), "Tecno", null, null, "precio", 10);
         ProductoDTO p2 = new ProductoDTO(); p2.setPrecio(BigDecimal.valueOf(50));
-        ProductoDTO p3 = new ProductoDTO(); p3.setPrecio(BigDecimal.valueOf(100));
+        when(dataServiceClient.obtenerProductosFiltrados(filtro)).thenReturn(List.of(p2));
 
-        when(dataServiceClient.obtenerTodosLosProductos()).thenReturn(Arrays.asList(p1, p2, p3));
+        List<ProductoDTO> filtrados = productoService.obtenerProductosFiltrados(filtro);
 
-        // Act
-        List<ProductoDTO> filtrados = productoService.obtenerProductosFiltradosPorPrecio(BigDecimal.valueOf(40), BigDecimal.valueOf(60));
-
-        // Assert
         assertEquals(1, filtrados.size());
         assertEquals(BigDecimal.valueOf(50), filtrados.get(0).getPrecio());
+        verify(dataServiceClient, never()).obtenerTodosLosProductos();
+    }
+
+    @Test
+    @DisplayName("obtenerProductosFiltrados: Traduce 400 del servicio de datos a ValidacionNegocioException")
+    void obtenerProductosFiltrados_OrdenInvalido_LanzaValidacion() {
+        FiltroProductosDTO filtro = new FiltroProductosDTO(null, null, null, null, null, "stock", null);
+        when(dataServiceClient.obtenerProductosFiltrados(filtro)).thenThrow(new FeignException.BadRequest("Orden inválido",
+                Request.create(Request.HttpMethod.GET, "url", Collections.emptyMap(), null, new RequestTemplate()), null, null));
+
+        assertThrows(ValidacionNegocioException.class, () -> productoService.obtenerProductosFiltrados(filtro));
+    }
+
+    @Test
+    @DisplayName("buscarProductos: Delega la búsqueda en el servicio de datos")
+    void buscarProductos_DelegaEnServicioDeDatos() {
+        PaginaDTO<ProductoDTO> pagina = new PaginaDTO<>(List.of(new ProductoDTO()), 20L);
+        when(dataServiceClient.buscarProductos("mouse", null, 20)).thenReturn(pagina);
+
+        assertSame(pagina, productoService.buscarProductos("mouse", null, 20));
     }
 
+    @Test
+    @DisplayName("buscarProductos: Lanza excepción si el texto está vacío sin llamar al cliente")
+    void buscarProductos_TextoVacio_LanzaValidacion() {
+        assertThrows(ValidacionNegocioException.class, () -> productoService.buscarProductos(" ", null, 20));
+        verifyNoInteractions(dataServiceClient);
+    }
 
     @Test
     @DisplayName("crearProducto: Valida precio negativo")
@@ -99,6 +145,24 @@ class ProductoBusinessServiceTest {
         verify(dataServiceClient).crearProducto(req);
     }
 
+    @Test
+    @DisplayName("actualizarProducto: La lectura siguiente no se sirve desde la cache")
+    void actualizarProducto_InvalidaCache() {
+        ProductoRequest req = new ProductoRequest();
+        req.setPrecio(BigDecimal.ONE);
+        ProductoDTO antes = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.TEN, "Tech", 5, false);
+        ProductoDTO despues = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.ONE, "Tech", 5, false);
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(antes, despues);
+        when(dataServiceClient.actualizarProducto(1L, req)).thenReturn(despues);
+
+        assertEquals(antes, productoService.obtenerProductoPorId(1L));
+        assertEquals(antes, productoService.obtenerProductoPorId(1L));
+        productoService.actualizarProducto(1L, req);
+
+        assertEquals(despues, productoService.obtenerProductoPorId(1L));
+        verify(dataServiceClient, times(2)).obtenerProductoPorId(1L);
+    }
+
 
     @Test
     @DisplayName("obtenerTodos: Envuelve FeignException en MicroserviceCommunicationException")
@@ -108,4 +172,96 @@ class ProductoBusinessServiceTest {
 
         assertThrows(MicroserviceCommunicationException.class, () -> productoService.obtenerTodosLosProductos());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("obtenerPaginaDeProductos: Valida límite no positivo")
+    void obtenerPagina_LimiteInvalido_LanzaValidacion() {
+        assertThrows(ValidacionNegocioException.class, () -> productoService.obtenerPaginaDeProductos(null, 0));
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    @Test
+    @DisplayName("obtenerPaginaDeProductos: Delega cursor y límite al cliente")
+    void obtenerPagina_Valido_LlamaCliente() {
+        PaginaDTO<ProductoDTO> pagina = new PaginaDTO<>(List.of(new ProductoDTO()), 20L);
+        when(dataServiceClient.obtenerPaginaDeProductos(10L, 5)).thenReturn(pagina);
+
+        PaginaDTO<ProductoDTO> resultado = productoService.obtenerPaginaDeProductos(10L, 5);
+
+        assertEquals(20L, resultado.getSiguienteCursor());
+        verify(dataServiceClient).obtenerPaginaDeProductos(10L, 5);
+    }
+
+    @Test
+    @DisplayName("exportarProductos: Reenvía los bytes de data-service sin deserializarlos")
+    void exportarProductos_ReenviaCuerpo() throws Exception {
+        String ndjson = "{\"id\":1}\n{\"id\":2}\n";
+        Response response = Response.builder()
+                .status(200)
+                .request(Request.create(Request.HttpMethod.GET, "url", Collections.emptyMap(), null, new RequestTemplate()))
+                .body(ndjson, StandardCharsets.UTF_8)
+                .build();
+        when(dataServiceClient.exportarProductos()).thenReturn(response);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        productoService.exportarProductos().writeTo(salida);
+
+        assertEquals(ndjson, salida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("exportarProductos: Estado distinto de 200 lanza MicroserviceCommunicationException")
+    void exportarProductos_ErrorRemoto_LanzaCustomException() {
+        Response response = Response.builder()
+                .status(500)
+                .request(Request.create(Request.HttpMethod.GET, "url", Collections.emptyMap(), null, new RequestTemplate()))
+                .build();
+        when(dataServiceClient.exportarProductos()).thenReturn(response);
+
+        assertThrows(MicroserviceCommunicationException.class, () -> productoService.exportarProductos());
+    }
+
+    @Test
+    @DisplayName("obtenerProductosPorIds: Emite los productos en el orden pedido y consulta una vez cada id repetido")
+    void obtenerProductosPorIds_OrdenYSinRepetidos() {
+        ProductoDTO p1 = new ProductoDTO(1L, "Laptop", "Desc", BigDecimal.TEN, "Tech", 5, false);
+        ProductoDTO p2 = new ProductoDTO(2L, "Mouse", "Desc", BigDecimal.ONE, "Tech", 50, false);
+        when(dataServiceReactiveClient.obtenerProductoPorId(2L)).thenReturn(Mono.just(p2));
+        when(dataServiceReactiveClient.obtenerProductoPorId(1L)).thenReturn(Mono.just(p1));
+
+        List<ProductoDTO> productos = productoService.obtenerProductosPorIds(List.of(2L, 1L, 2L)).collectList().block();
+
+        assertEquals(List.of(p2, p1), productos);
+        verify(dataServiceReactiveClient, times(1)).obtenerProductoPorId(2L);
+    }
+
+    @Test
+    @DisplayName("obtenerProductosPorIds: 404 de algún producto termina con ProductoNoEncontradoException")
+    void obtenerProductosPorIds_NoEncontrado_LanzaCustomException() {
+        when(dataServiceReactiveClient.obtenerProductoPorId(1L)).thenReturn(Mono.just(new ProductoDTO()));
+        when(dataServiceReactiveClient.obtenerProductoPorId(9L)).thenReturn(Mono.error(
+                WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], null)));
+
+        ProductoNoEncontradoException ex = assertThrows(ProductoNoEncontradoException.class,
+                () -> productoService.obtenerProductosPorIds(List.of(1L, 9L)).collectList().block());
+        assertTrue(ex.getMessage().contains("9"));
+    }
+
+    @Test
+    @DisplayName("obtenerProductosPorIds: Error de conexión termina con MicroserviceCommunicationException")
+    void obtenerProductosPorIds_ErrorConexion_LanzaCustomException() {
+        when(dataServiceReactiveClient.obtenerProductoPorId(1L)).thenReturn(Mono.error(new WebClientRequestException(
+                new ConnectException(), HttpMethod.GET, URI.create("http://data-service/data/productos/1"), HttpHeaders.EMPTY)));
+
+        assertThrows(MicroserviceCommunicationException.class,
+                () -> productoService.obtenerProductosPorIds(List.of(1L)).collectList().block());
+    }
+
+    @Test
+    @DisplayName("obtenerProductosPorIds: Lista vacía o con ids nulos lanza excepción sin llamar al cliente")
+    void obtenerProductosPorIds_IdsInvalidos_LanzaExcepcion() {
+        assertThrows(ValidacionNegocioException.class, () -> productoService.obtenerProductosPorIds(List.of()));
+        assertThrows(ValidacionNegocioException.class, () -> productoService.obtenerProductosPorIds(Arrays.asList(1L, null)));
+        verifyNoInteractions(dataServiceReactiveClient);
+    }
+}
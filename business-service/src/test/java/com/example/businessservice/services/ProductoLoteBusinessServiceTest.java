@@ -0,0 +1,93 @@
+package com.example.businessservice.services;
+
+import com.example.businessservice.client.DataServiceClient;
+import com.example.businessservice.dto.ProductoDTO;
+import com.example.businessservice.dto.ProductoRequest;
+import com.example.businessservice.dto.ResultadoFilaDTO;
+import com.example.businessservice.exceptions.ValidacionNegocioException;
+import com.example.businessservice.service.CacheCatalogoService;
+import com.example.businessservice.service.ProductoLoteBusinessService;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductoLoteBusinessServiceTest {
+
+    @Mock
+    private DataServiceClient dataServiceClient;
+
+    private ValidatorFactory validatorFactory;
+
+    private ProductoLoteBusinessService loteService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        loteService = new ProductoLoteBusinessService(dataServiceClient, validatorFactory.getValidator(),
+                new CacheCatalogoService(dataServiceClient, 100, Duration.ofMinutes(5), Duration.ofSeconds(30)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @DisplayName("crearProductos: Solo envía las filas válidas y reubica los índices remotos")
+    void crearProductos_FilasMixtas_CombinaResultados() {
+        ProductoRequest invalida = new ProductoRequest("", "Desc", BigDecimal.TEN, "Tech", 5);
+        ProductoRequest valida1 = new ProductoRequest("A", "Desc", BigDecimal.TEN, "Tech", 5);
+        ProductoRequest precioCero = new ProductoRequest("B", "Desc", BigDecimal.ZERO, "Tech", 5);
+        ProductoRequest valida2 = new ProductoRequest("C", "Desc", BigDecimal.TEN, "Tech", 5);
+
+        ProductoDTO creado = new ProductoDTO();
+        creado.setId(10L);
+        when(dataServiceClient.crearProductosEnLote(List.of(valida1, valida2))).thenReturn(List.of(
+                new ResultadoFilaDTO(0, true, creado, null),
+                new ResultadoFilaDTO(1, false, null, "No se encontro la categoria")));
+
+        List<ResultadoFilaDTO> resultados = loteService.crearProductos(List.of(invalida, valida1, precioCero, valida2));
+
+        assertEquals(4, resultados.size());
+        assertFalse(resultados.get(0).getExitoso());
+        assertTrue(resultados.get(0).getError().contains("nombre"));
+        assertTrue(resultados.get(1).getExitoso());
+        assertEquals(1, resultados.get(1).getIndice());
+        assertEquals(10L, resultados.get(1).getProducto().getId());
+        assertFalse(resultados.get(2).getExitoso());
+        assertFalse(resultados.get(3).getExitoso());
+        assertEquals(3, resultados.get(3).getIndice());
+        verify(dataServiceClient).crearProductosEnLote(List.of(valida1, valida2));
+    }
+
+    @Test
+    @DisplayName("crearProductos: Sin filas válidas no llama al servicio de datos")
+    void crearProductos_TodasInvalidas_NoLlamaCliente() {
+        List<ResultadoFilaDTO> resultados = loteService.crearProductos(
+                List.of(new ProductoRequest(null, null, null, null, null)));
+
+        assertFalse(resultados.get(0).getExitoso());
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    @Test
+    @DisplayName("crearProductos: Lote vacío lanza ValidacionNegocioException")
+    void crearProductos_LoteVacio_LanzaValidacion() {
+        assertThrows(ValidacionNegocioException.class, () -> loteService.crearProductos(Collections.emptyList()));
+    }
+}
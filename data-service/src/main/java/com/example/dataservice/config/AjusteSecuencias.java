@@ -0,0 +1,116 @@
+package com.example.dataservice.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Al arrancar, adelanta cada secuencia de IDs por encima del mayor ID de su tabla.
+ * Con {@code ddl-auto: update} sobre una base que ya tenía datos, Hibernate crea las secuencias (en MySQL, las
+ * tablas que las emulan) empezando en 1, y las primeras altas chocarían con los IDs existentes. Una secuencia que
+ * ya está por encima no se toca, por lo que puede ejecutarse en cada arranque y desde varias instancias.
+ */
+@Component
+@ConditionalOnProperty(name = "catalogo.secuencias.ajustar-al-iniciar", havingValue = "true")
+@Slf4j
+public class AjusteSecuencias implements ApplicationRunner {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param entityManagerFactory Fábrica de JPA, de la que se toman las entidades y el dialecto.
+     * @param jdbcTemplate Acceso JDBC a la base primaria.
+     */
+    public AjusteSecuencias(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ajustar();
+    }
+
+    /**
+     * Adelanta las secuencias de todas las entidades con {@link SequenceGenerator} que quedaron por debajo de los
+     * IDs de su tabla.
+     */
+    public void ajustar() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        for (EntityType<?> entidad : entityManagerFactory.getMetamodel().getEntities()) {
+            Optional<SequenceGenerator> generador = generador(entidad.getJavaType());
+            if (generador.isEmpty()) {
+                continue;
+            }
+            AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(entidad.getJavaType());
+            Long maximo = jdbcTemplate.queryForObject("SELECT MAX(" + persister.getIdentifierColumnNames()[0]
+                    + ") FROM " + persister.getTableName(), Long.class);
+            if (maximo != null) {
+                ajustar(dialect, generador.get().sequenceName(), maximo, generador.get().allocationSize());
+            }
+        }
+    }
+
+    /**
+     * Con el optimizador pooled, el valor que devuelve la secuencia es el último ID del bloque que Hibernate
+     * reserva; el bloque empieza {@code incremento - 1} IDs antes. Por eso el próximo valor debe ser al menos
+     * {@code maximo + incremento}.
+     */
+    private void ajustar(Dialect dialect, String secuencia, long maximo, int incremento) {
+        long minimo = maximo + incremento;
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            Long siguiente = siguienteValor(dialect, secuencia, incremento);
+            if (siguiente != null && siguiente >= minimo) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + minimo);
+        } else if (jdbcTemplate.update("UPDATE " + secuencia + " SET next_val = ? WHERE next_val < ?", minimo, minimo) == 0) {
+            return;
+        }
+        log.info("Secuencia {} adelantada a {} (mayor ID existente: {})", secuencia, minimo, maximo);
+    }
+
+    /**
+     * Próximo valor que devolverá la secuencia. En H2 y PostgreSQL se lee del catálogo sin avanzarla; en los demás
+     * dialectos se pide un valor, que se pierde, y el próximo es ese más el incremento.
+     */
+    private Long siguienteValor(Dialect dialect, String secuencia, int incremento) {
+        if (dialect instanceof H2Dialect) {
+            return jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES"
+                    + " WHERE UPPER(SEQUENCE_NAME) = UPPER(?)", Long.class, secuencia);
+        }
+        if (dialect instanceof PostgreSQLDialect) {
+            return jdbcTemplate.queryForObject("SELECT COALESCE(last_value + increment_by, start_value)"
+                    + " FROM pg_sequences WHERE sequencename = ?", Long.class, secuencia);
+        }
+        Long actual = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(secuencia), Long.class);
+        return actual == null ? null : actual + incremento;
+    }
+
+    private static Optional<SequenceGenerator> generador(Class<?> entidad) {
+        return Arrays.stream(entidad.getDeclaredFields())
+                .map(campo -> campo.getAnnotation(SequenceGenerator.class))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+}
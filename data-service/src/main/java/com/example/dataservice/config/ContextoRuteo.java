@@ -0,0 +1,44 @@
+package com.example.dataservice.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Permite forzar que las transacciones de solo lectura del hilo actual se resuelvan en la base primaria,
+ * para leer los propios cambios cuando la réplica todavía no los recibió.
+ */
+public final class ContextoRuteo {
+
+    private static final ThreadLocal<Boolean> PRIMARIA_FORZADA = new ThreadLocal<>();
+
+    private ContextoRuteo() {
+    }
+
+    /**
+     * Ejecuta la operación leyendo siempre de la base primaria.
+     * @param operacion Operación a ejecutar; debe abrir sus transacciones dentro de esta llamada.
+     * @return El resultado de la operación.
+     */
+    public static <T> T enPrimaria(Supplier<T> operacion) {
+        boolean anterior = esPrimariaForzada();
+        PRIMARIA_FORZADA.set(true);
+        try {
+            return operacion.get();
+        } finally {
+            if (!anterior) {
+                PRIMARIA_FORZADA.remove();
+            }
+        }
+    }
+
+    static void forzarPrimaria() {
+        PRIMARIA_FORZADA.set(true);
+    }
+
+    static void limpiar() {
+        PRIMARIA_FORZADA.remove();
+    }
+
+    static boolean esPrimariaForzada() {
+        return Boolean.TRUE.equals(PRIMARIA_FORZADA.get());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.dataservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Garantiza la lectura de las propias escrituras pese al retraso de la réplica.
+ * Las escrituras responden con {@value #HEADER_ULTIMA_ESCRITURA} (milisegundos desde epoch); las lecturas que
+ * reenvían ese header dentro del retraso máximo de la réplica se resuelven en la base primaria.
+ */
+class LecturaConsistenteFilter extends OncePerRequestFilter {
+
+    static final String HEADER_ULTIMA_ESCRITURA = "X-Ultima-Escritura";
+
+    private static final Set<String> METODOS_DE_LECTURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration retrasoMaximo;
+    private final Clock reloj;
+
+    LecturaConsistenteFilter(Duration retrasoMaximo, Clock reloj) {
+        this.retrasoMaximo = retrasoMaximo;
+        this.reloj = reloj;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!METODOS_DE_LECTURA.contains(request.getMethod())) {
+            response.setHeader(HEADER_ULTIMA_ESCRITURA, String.valueOf(reloj.millis()));
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!escrituraReciente(request.getHeader(HEADER_ULTIMA_ESCRITURA))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ContextoRuteo.forzarPrimaria();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContextoRuteo.limpiar();
+        }
+    }
+
+    /**
+     * Un valor inválido se ignora: la lectura va a la réplica.
+     */
+    private boolean escrituraReciente(String ultimaEscritura) {
+        if (ultimaEscritura == null) {
+            return false;
+        }
+        try {
+            return reloj.millis() - Long.parseLong(ultimaEscritura.trim()) < retrasoMaximo.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.dataservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a la réplica y todo lo demás a la primaria.
+ * Debe envolverse en un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: así la
+ * conexión se pide recién en la primera sentencia, cuando la transacción ya quedó marcada como de solo lectura.
+ */
+class RuteoDataSource extends AbstractRoutingDataSource {
+
+    enum Destino {
+        PRIMARIA,
+        REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ContextoRuteo.esPrimariaForzada()) {
+            return Destino.REPLICA;
+        }
+        return Destino.PRIMARIA;
+    }
+}
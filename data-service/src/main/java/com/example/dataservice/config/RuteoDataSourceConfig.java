@@ -0,0 +1,87 @@
+package com.example.dataservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Separa lecturas y escrituras cuando se configura una réplica ({@code datasource.replica.jdbc-url}).
+ * La primaria se arma con {@code spring.datasource.*} como lo haría Spring Boot; la réplica se configura con las
+ * propiedades de Hikari bajo {@code datasource.replica.*}. Sin réplica, Spring Boot crea el DataSource de siempre.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "jdbc-url")
+public class RuteoDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        HikariDataSource primaria = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaria.setPoolName("primaria");
+        return primaria;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * DataSource usado por JPA: rutea por transacción y pide la conexión física recién en la primera sentencia.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primariaDataSource") DataSource primaria,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        RuteoDataSource ruteo = new RuteoDataSource();
+        ruteo.setTargetDataSources(Map.of(
+                RuteoDataSource.Destino.PRIMARIA, primaria,
+                RuteoDataSource.Destino.REPLICA, replica));
+        ruteo.setDefaultTargetDataSource(primaria);
+        ruteo.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(ruteo);
+    }
+
+    /**
+     * Gestor de transacciones de JPA con {@link RuteoJpaDialect}. El dialecto se fija después de
+     * {@code afterPropertiesSet}, que si no lo reemplaza por el de la fábrica de EntityManagers.
+     */
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        RuteoJpaDialect dialecto = new RuteoJpaDialect();
+        JpaTransactionManager transactionManager = new JpaTransactionManager() {
+            @Override
+            public void afterPropertiesSet() {
+                super.afterPropertiesSet();
+                setJpaDialect(dialecto);
+            }
+        };
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
+        return transactionManager;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LecturaConsistenteFilter> lecturaConsistenteFilter(
+            @Value("${datasource.replica.retraso-maximo:PT5S}") Duration retrasoMaximo) {
+        return new FilterRegistrationBean<>(new LecturaConsistenteFilter(retrasoMaximo, Clock.systemUTC()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.dataservice.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Evita que lo leído en la réplica entre a la cache de segundo nivel, compartida con las transacciones de la
+ * primaria. Las transacciones de solo lectura que van a la réplica consultan la cache pero no la llenan: una
+ * entidad o consulta cargada antes de que llegue un cambio seguiría sirviéndose desde la cache, también a las
+ * lecturas forzadas a la primaria, hasta su vencimiento.
+ * Hibernate toma el modo de {@code find} de la propiedad de JPA {@value #STORE_MODE}, que pasa a
+ * {@link CacheStoreMode#BYPASS}; las consultas toman el {@link CacheMode} de la sesión, que pasa a
+ * {@link CacheMode#IGNORE} porque con {@code GET} Hibernate igual guarda el resultado nuevo cuando el que tenía
+ * estaba vencido.
+ */
+class RuteoJpaDialect extends HibernateJpaDialect {
+
+    static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    private record DatosTransaccion(Object original, Session sesion, Object storeModeAnterior,
+                                    CacheMode cacheModeAnterior) {
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object original = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || ContextoRuteo.esPrimariaForzada()) {
+            return original;
+        }
+        // Con open-in-view el EntityManager sigue abierto tras la transacción: se restaura el modo al terminar
+        Session sesion = entityManager.unwrap(Session.class);
+        DatosTransaccion datos = new DatosTransaccion(original, sesion,
+                sesion.getProperties().getOrDefault(STORE_MODE, CacheStoreMode.USE), sesion.getCacheMode());
+        sesion.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        sesion.setCacheMode(CacheMode.IGNORE);
+        return datos;
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof DatosTransaccion datos) {
+            if (datos.sesion().isOpen()) {
+                datos.sesion().setProperty(STORE_MODE, datos.storeModeAnterior());
+                datos.sesion().setCacheMode(datos.cacheModeAnterior());
+            }
+            super.cleanupTransaction(datos.original());
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+}
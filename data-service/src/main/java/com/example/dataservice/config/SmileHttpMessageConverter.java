@@ -0,0 +1,31 @@
+package com.example.dataservice.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversor de Smile ({@code application/x-jackson-smile}), el formato binario de Jackson, usado en las llamadas
+ * entre business-service y data-service.
+ * Reemplaza al conversor de Smile por defecto de Spring MVC en su misma posición, detrás del de JSON: solo se usa
+ * cuando el cliente lo pide en {@code Accept}, y los demás siguen recibiendo JSON.
+ * Se construye con la configuración de Jackson de Spring Boot; además envía como referencia los nombres de campo y
+ * los textos cortos que se repiten, y escribe las fechas como números en lugar de texto ISO.
+ */
+@Component
+public class SmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param builder Builder de ObjectMapper configurado por Spring Boot.
+     */
+    public SmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        super(builder.createXmlMapper(false)
+                .factory(new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES))
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+}
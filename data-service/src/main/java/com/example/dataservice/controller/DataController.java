@@ -1,16 +1,40 @@
 package com.example.dataservice.controller;
 
+import com.example.dataservice.dto.AjusteStockDTO;
+import com.example.dataservice.dto.CategoriaDTO;
+import com.example.dataservice.dto.EstadisticasCacheDTO;
+import com.example.dataservice.dto.EstadisticasCategoriaDTO;
+import com.example.dataservice.dto.FiltroProductosDTO;
 import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.PaginaCambiosDTO;
+import com.example.dataservice.dto.PaginaDTO;
 import com.example.dataservice.dto.ProductoDTO;
 import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.dto.ResultadoFilaDTO;
+import com.example.dataservice.dto.ResumenActualizacionStockDTO;
+import com.example.dataservice.dto.StockEnFechaDTO;
+import com.example.dataservice.exception.ValidacionNegocioException;
+import com.example.dataservice.service.CambiosCatalogoService;
 import com.example.dataservice.service.CategoriaService;
+import com.example.dataservice.service.EstadisticasCacheService;
+import com.example.dataservice.service.HistorialInventarioService;
 import com.example.dataservice.service.InventarioService;
+import com.example.dataservice.service.ProductoExportacionService;
+import com.example.dataservice.service.ProductoLoteService;
 import com.example.dataservice.service.ProductoService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Controlador REST para la capa de datos del sistema de microservicios.
@@ -22,27 +46,72 @@ public class DataController {
     private final ProductoService productoService;
     private final CategoriaService categoriaService;
     private final InventarioService inventarioService;
+    private final ProductoExportacionService productoExportacionService;
+    private final ProductoLoteService productoLoteService;
+    private final HistorialInventarioService historialInventarioService;
+    private final EstadisticasCacheService estadisticasCacheService;
+    private final CambiosCatalogoService cambiosCatalogoService;
 
     /**
      * Constructor para inyección de dependencias.
      * @param productoService
      * @param categoriaService
      * @param inventarioService
+     * @param productoExportacionService
+     * @param productoLoteService
+     * @param historialInventarioService
+     * @param estadisticasCacheService
+     * @param cambiosCatalogoService
      */
 
-    public DataController(ProductoService productoService, CategoriaService categoriaService, InventarioService inventarioService) {
+    public DataController(ProductoService productoService, CategoriaService categoriaService, InventarioService inventarioService,
+                          ProductoExportacionService productoExportacionService, ProductoLoteService productoLoteService,
+                          HistorialInventarioService historialInventarioService,
+                          EstadisticasCacheService estadisticasCacheService,
+                          CambiosCatalogoService cambiosCatalogoService) {
         this.productoService = productoService;
         this.categoriaService = categoriaService;
         this.inventarioService = inventarioService;
+        this.productoExportacionService = productoExportacionService;
+        this.productoLoteService = productoLoteService;
+        this.historialInventarioService = historialInventarioService;
+        this.estadisticasCacheService = estadisticasCacheService;
+        this.cambiosCatalogoService = cambiosCatalogoService;
     }
 
     /**
      * Obtiene todos los productos almacenados en la base de datos.
+     * @param request Petición, para evaluar el encabezado If-None-Match
      * @return Lista de DTO de Producto
      */
     @GetMapping("/productos")
-    public List<ProductoDTO> obtenerTodosLosProductos() {
-        return productoService.obtenerTodos();
+    public ResponseEntity<List<ProductoDTO>> obtenerTodosLosProductos(WebRequest request) {
+        return listadoCondicional(request, productoService::obtenerTodos);
+    }
+
+    /**
+     * Obtiene una página de productos ordenados por ID usando paginación por cursor.
+     * @param after ID del último producto recibido (opcional)
+     * @param limit Cantidad máxima de productos a devolver
+     * @return Página de DTO de Producto con el cursor siguiente
+     */
+    @GetMapping(value = "/productos", params = "limit")
+    public PaginaDTO<ProductoDTO> obtenerPaginaDeProductos(@RequestParam(value = "after", required = false) Long after,
+                                                           @RequestParam("limit") int limit) {
+        return productoService.obtenerPagina(after, limit);
+    }
+
+    /**
+     * Exporta el catálogo completo como NDJSON (un producto por línea), escribiendo a medida que se lee
+     * de la base de datos sin materializar la lista en memoria.
+     * @return Cuerpo de respuesta en streaming
+     */
+    @GetMapping(value = "/productos/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarProductos() {
+        StreamingResponseBody cuerpo = productoExportacionService::exportarProductos;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
     }
 
     /**
@@ -51,8 +120,9 @@ public class DataController {
      * @return DTO de producto
      */
     @GetMapping("/productos/{id}")
-    public ProductoDTO obtenerProductoPorId(@PathVariable Long id) {
-        return productoService.buscarPorId(id);
+    public ResponseEntity<ProductoDTO> obtenerProductoPorId(@PathVariable Long id) {
+        ProductoDTO producto = productoService.buscarPorId(id);
+        return ResponseEntity.ok().eTag(String.valueOf(producto.getVersion())).body(producto);
     }
 
 
@@ -67,15 +137,29 @@ public class DataController {
     }
 
 
+    /**
+     * Crea un lote de productos. Las filas inválidas no impiden la creación de las demás.
+     * @param productos Lista de productos a crear
+     * @return Resultado de cada fila, en el mismo orden recibido
+     */
+    @PostMapping("/productos/batch")
+    public List<ResultadoFilaDTO> crearProductosEnLote(@RequestBody List<ProductoRequest> productos) {
+        return productoLoteService.crearProductos(productos);
+    }
+
+
     /**
      * Actualiza un producto existente
      * @param id Identificador del producto
      * @param producto datos actualizados del producto
-     * @return
+     * @param ifMatch ETag leído por el cliente; si se envía, solo se actualiza cuando coincide con la versión actual
+     * @return DTO de producto actualizado, con su nuevo ETag
      */
     @PutMapping("/productos/{id}")
-    public ProductoDTO actualizarProducto(@PathVariable Long id, @RequestBody ProductoRequest producto) {
-        return productoService.actualizarProducto(id, producto);
+    public ResponseEntity<ProductoDTO> actualizarProducto(@PathVariable Long id, @RequestBody ProductoRequest producto,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductoDTO actualizado = productoService.actualizarProducto(id, producto, versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(actualizado.getVersion())).body(actualizado);
     }
 
     /**
@@ -100,13 +184,77 @@ public class DataController {
     }
 
 
+    /**
+     * Busca productos por rango de precio, categoría, stock bajo y prefijo de nombre, con orden y límite.
+     * Parámetros: {@code precioMin}, {@code precioMax}, {@code categoria}, {@code stockBajo}, {@code nombre},
+     * {@code orden} ({@code id}, {@code precio}, {@code -precio}, {@code nombre}, {@code -nombre}) y {@code limit}
+     * (hasta 500; sin él se devuelven todos los productos que cumplen el filtro).
+     * @param filtro criterios de búsqueda recibidos como parámetros de consulta
+     * @return Lista de DTO de productos que cumplen todos los criterios
+     */
+    @GetMapping("/productos/filtros")
+    public List<ProductoDTO> obtenerProductosFiltrados(FiltroProductosDTO filtro) {
+        return productoService.filtrarProductos(filtro);
+    }
+
+    /**
+     * Busca productos por texto en nombre y descripción, ordenados por relevancia
+     * @param q términos a buscar
+     * @param after posición recibida en {@code siguienteCursor} de la página anterior (opcional)
+     * @param limit cantidad máxima de productos a devolver
+     * @return Página de DTO de productos y el cursor siguiente
+     */
+    @GetMapping("/productos/buscar")
+    public PaginaDTO<ProductoDTO> buscarProductos(@RequestParam("q") String q,
+                                                  @RequestParam(value = "after", required = false) Long after,
+                                                  @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return productoService.buscarProductos(q, after, limit);
+    }
+
+    /**
+     * Calcula las métricas de una categoría (totales, precios y stock bajo) con una única consulta agregada.
+     * @param nombre nombre de la categoría
+     * @return DTO con las estadísticas de la categoría
+     */
+    @GetMapping("/categorias/{nombre}/estadisticas")
+    public EstadisticasCategoriaDTO obtenerEstadisticasCategoria(@PathVariable String nombre) {
+        return categoriaService.obtenerEstadisticas(nombre);
+    }
+
+    /**
+     * Obtiene todas las categorías.
+     * @param request Petición, para evaluar el encabezado If-None-Match
+     * @return Lista de DTO de categoría
+     */
+    @GetMapping("/categorias")
+    public ResponseEntity<List<CategoriaDTO>> obtenerTodasLasCategorias(WebRequest request) {
+        return listadoCondicional(request, categoriaService::obtenerTodas);
+    }
+
     /**
      * Obtiene el inventario de productos con stock bajo según criterios establecidos
+     * @param request Petición, para evaluar el encabezado If-None-Match
      * @return Lista de DTO de inventario con stock bajo
      */
     @GetMapping("/inventario/stock-bajo")
-    public List<InventarioDTO> obtenerProductosConStockBajo() {
-        return inventarioService.obtenerProductosConStockBajo();
+    public ResponseEntity<List<InventarioDTO>> obtenerProductosConStockBajo(WebRequest request) {
+        return listadoCondicional(request, inventarioService::obtenerProductosConStockBajo);
+    }
+
+    /**
+     * Obtiene una página del reporte de stock bajo, opcionalmente filtrado por categoría.
+     * @param categoria nombre de la categoría a filtrar (opcional)
+     * @param orden {@code faltante} (mayor faltante primero, por defecto) o {@code id}
+     * @param after posición recibida en {@code siguienteCursor} de la página anterior (opcional)
+     * @param limit cantidad máxima de registros a devolver
+     * @return Página de Inventario DTO con stock bajo y el cursor siguiente
+     */
+    @GetMapping(value = "/inventario/stock-bajo", params = "limit")
+    public PaginaDTO<InventarioDTO> obtenerPaginaStockBajo(@RequestParam(value = "categoria", required = false) String categoria,
+                                                           @RequestParam(value = "orden", required = false) String orden,
+                                                           @RequestParam(value = "after", required = false) Long after,
+                                                           @RequestParam("limit") int limit) {
+        return inventarioService.obtenerPaginaStockBajo(categoria, orden, after, limit);
     }
 
     /**
@@ -118,14 +266,125 @@ public class DataController {
         return inventarioService.obtenerTodo();
     }
 
+    /**
+     * Obtiene una página del inventario ordenado por ID usando paginación por cursor.
+     * @param after ID del último registro recibido (opcional)
+     * @param limit Cantidad máxima de registros a devolver
+     * @return Página de Inventario DTO con el cursor siguiente
+     */
+    @GetMapping(value = "/inventario", params = "limit")
+    public PaginaDTO<InventarioDTO> obtenerPaginaDelInventario(@RequestParam(value = "after", required = false) Long after,
+                                                               @RequestParam("limit") int limit) {
+        return inventarioService.obtenerPagina(after, limit);
+    }
+
     /**
      * Actualiza la cantidad de stock de un producto y retorna el DTO actualizado.
      * @param id identificador del producto a actualizar
      * @param nuevoStock nueva cantidad de stock del producto
-     * @return DTO de Inventario actualizado
+     * @param ifMatch ETag del inventario leído por el cliente; si se envía, solo se actualiza cuando coincide
+     * @return DTO de Inventario actualizado, con su nuevo ETag
      */
     @PutMapping("/inventario/{id}/stock")
-    public InventarioDTO actualizarStock(@PathVariable Long id, @RequestBody Integer nuevoStock) {
-        return inventarioService.actualizarStock(id, nuevoStock);
+    public ResponseEntity<InventarioDTO> actualizarStock(@PathVariable Long id, @RequestBody Integer nuevoStock,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        InventarioDTO actualizado = inventarioService.actualizarStock(id, nuevoStock, versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(actualizado.getVersion())).body(actualizado);
+    }
+
+    /**
+     * Obtiene el inventario de un producto.
+     * @param productoId identificador del producto
+     * @return DTO de Inventario, con su versión como ETag para actualizarlo con If-Match
+     */
+    @GetMapping("/inventario/producto/{productoId}")
+    public ResponseEntity<InventarioDTO> obtenerInventarioPorProductoId(@PathVariable Long productoId) {
+        InventarioDTO inventario = inventarioService.obtenerPorProductoId(productoId);
+        return ResponseEntity.ok().eTag(String.valueOf(inventario.getVersion())).body(inventario);
+    }
+
+    /**
+     * Obtiene el stock que tenía un producto en una fecha pasada, reconstruido desde el historial de movimientos.
+     * @param id identificador del producto
+     * @param fecha fecha a consultar (ISO-8601, por ejemplo 2024-05-01T10:00:00)
+     * @return DTO con el stock del producto en esa fecha
+     */
+    @GetMapping("/inventario/{id}/stock")
+    public StockEnFechaDTO obtenerStockEnFecha(@PathVariable Long id,
+                                               @RequestParam("fecha") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
+        return historialInventarioService.obtenerStockEnFecha(id, fecha);
+    }
+
+    /**
+     * Actualiza el stock de varios productos en una sola operación.
+     * @param ajustes lista de productos con su nueva cantidad de stock
+     * @return resumen con la cantidad de registros actualizados y los productos no encontrados
+     */
+    @PutMapping("/inventario/stock")
+    public ResumenActualizacionStockDTO actualizarStockEnLote(@RequestBody List<AjusteStockDTO> ajustes) {
+        return inventarioService.actualizarStockEnLote(ajustes);
+    }
+
+    /**
+     * Registra un movimiento de inventario (ingreso o egreso) sobre el stock actual.
+     * @param movimiento DTO con el producto y la cantidad a sumar (negativa para egresos)
+     * @return DTO de Inventario con la cantidad resultante
+     */
+    @PostMapping("/inventario/movimientos")
+    public InventarioDTO registrarMovimiento(@RequestBody InventarioDTO movimiento) {
+        Long productoId = movimiento.getProducto() != null ? movimiento.getProducto().getId() : null;
+        return inventarioService.registrarMovimiento(productoId, movimiento.getCantidad());
+    }
+
+    /**
+     * Obtiene los aciertos y fallos de la cache de segundo nivel y de consultas.
+     * @return DTO con las estadísticas de cache
+     */
+    @GetMapping("/cache/estadisticas")
+    public EstadisticasCacheDTO obtenerEstadisticasCache() {
+        return estadisticasCacheService.obtenerEstadisticas();
+    }
+
+    /**
+     * Obtiene los cambios del catálogo posteriores a una secuencia, para que los consumidores
+     * sincronicen su copia local sin volver a descargar el catálogo completo.
+     * @param since Última secuencia ya aplicada por el consumidor (0 para empezar desde el inicio)
+     * @param limit Cantidad máxima de cambios a devolver
+     * @return Página de cambios con la secuencia a usar en la siguiente consulta
+     */
+    @GetMapping("/changes")
+    public PaginaCambiosDTO obtenerCambios(@RequestParam(value = "since", defaultValue = "0") long since,
+                                           @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return cambiosCatalogoService.obtenerCambios(since, limit);
+    }
+
+    /**
+     * Responde un listado completo con la versión del catálogo como ETag. Si el cliente ya tiene esa versión
+     * (If-None-Match) se responde 304 sin ejecutar la consulta del listado.
+     */
+    private <T> ResponseEntity<T> listadoCondicional(WebRequest request, Supplier<T> listado) {
+        String etag = String.valueOf(cambiosCatalogoService.obtenerVersionCatalogo());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(listado.get());
+    }
+
+    /**
+     * Convierte el encabezado If-Match en la versión esperada; ausente o {@code *} aceptan cualquier versión.
+     */
+    private static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        try {
+            return Long.valueOf(valor.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ValidacionNegocioException("Encabezado If-Match inválido: " + ifMatch);
+        }
     }
-}
\ No newline at end of file
+}
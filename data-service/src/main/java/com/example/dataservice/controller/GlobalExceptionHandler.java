@@ -1,8 +1,13 @@
 package com.example.dataservice.controller;
 
 import com.example.dataservice.exception.CategoriaNoEncontradaException;
+import com.example.dataservice.exception.ConflictoDeVersionException;
+import com.example.dataservice.exception.InventarioNoEncontradoException;
 import com.example.dataservice.exception.ProductoNoEncontradoException;
+import com.example.dataservice.exception.StockInsuficienteException;
+import com.example.dataservice.exception.ValidacionNegocioException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -16,11 +21,18 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Código de error de las validaciones que los clientes necesitan distinguir; va en un header porque el
+     * cuerpo puede estar en Smile.
+     */
+    public static final String HEADER_CODIGO_ERROR = "X-Codigo-Error";
+
     /**
      * Maneja excepciones de recursos no encontrados.
      * Mapea ProductoNoEncontradoException a HTTP 404 NOT_FOUND.
      */
-    @ExceptionHandler({ProductoNoEncontradoException.class, CategoriaNoEncontradaException.class})
+    @ExceptionHandler({ProductoNoEncontradoException.class, CategoriaNoEncontradaException.class,
+            InventarioNoEncontradoException.class})
     public ResponseEntity<Object> handleResourceNotFoundException(
             RuntimeException ex, WebRequest request) {
 
@@ -34,6 +46,65 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Maneja errores de validación de reglas de negocio.
+     * Mapea ValidacionNegocioException a HTTP 400 BAD_REQUEST; el stock insuficiente lleva además su código en
+     * {@value #HEADER_CODIGO_ERROR}.
+     */
+    @ExceptionHandler(ValidacionNegocioException.class)
+    public ResponseEntity<Object> handleValidacionNegocio(
+            ValidacionNegocioException ex, WebRequest request) {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.status(HttpStatus.BAD_REQUEST);
+        if (ex instanceof StockInsuficienteException) {
+            respuesta.header(HEADER_CODIGO_ERROR, StockInsuficienteException.CODIGO);
+        }
+        return respuesta.body(body);
+    }
+
+    /**
+     * Maneja actualizaciones condicionales cuyo If-Match no coincide con la versión actual.
+     * Mapea ConflictoDeVersionException a HTTP 412 PRECONDITION_FAILED.
+     */
+    @ExceptionHandler(ConflictoDeVersionException.class)
+    public ResponseEntity<Object> handleConflictoDeVersion(
+            ConflictoDeVersionException ex, WebRequest request) {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.PRECONDITION_FAILED.value());
+        body.put("error", "Precondition Failed");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Maneja conflictos de escritura concurrente que persisten tras agotar los reintentos.
+     * Mapea OptimisticLockingFailureException a HTTP 409 CONFLICT.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLocking(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Conflict");
+        body.put("message", "El recurso fue modificado concurrentemente, reintente la operación");
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
     /**
      * Maneja excepciones de violación de integridad de datos
      * Mapea DataIntegrityViolationException (SQL) a HTTP 400 BAD_REQUEST.
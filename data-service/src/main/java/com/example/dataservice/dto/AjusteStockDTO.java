@@ -0,0 +1,16 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nueva cantidad absoluta de stock para un producto, usada en la actualización masiva de inventario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AjusteStockDTO {
+    private Long productoId;
+    private Integer cantidad;
+}
@@ -0,0 +1,28 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un cambio del feed {@code /data/changes}. En los {@code UPSERT} se incluye el estado actual de la entidad en el
+ * campo que corresponde a {@code entidad}; en los {@code BORRADO}, o si la entidad ya no existe (el borrado llega
+ * más adelante en el feed), los tres campos quedan en null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioDTO {
+    private Long secuencia;
+    /** {@code PRODUCTO}, {@code INVENTARIO} o {@code CATEGORIA}. */
+    private String entidad;
+    private Long entidadId;
+    /** {@code UPSERT} o {@code BORRADO}. */
+    private String tipo;
+    private LocalDateTime fecha;
+    private ProductoDTO producto;
+    private InventarioDTO inventario;
+    private CategoriaDTO categoria;
+}
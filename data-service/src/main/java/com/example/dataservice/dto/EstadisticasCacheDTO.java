@@ -0,0 +1,22 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores acumulados de la cache de segundo nivel y de la cache de consultas de Hibernate.
+ * Cada acierto es una consulta a la base de datos que no se ejecutó.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCacheDTO {
+    private long aciertosEntidades;
+    private long fallosEntidades;
+    private long escriturasEntidades;
+    private long aciertosConsultas;
+    private long fallosConsultas;
+    private long escriturasConsultas;
+    private long sentenciasEjecutadas;
+}
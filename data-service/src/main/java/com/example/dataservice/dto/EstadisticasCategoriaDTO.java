@@ -0,0 +1,25 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Métricas de una categoría: cantidad de productos, stock, valor del inventario, precios y stock bajo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCategoriaDTO {
+    private String categoriaNombre;
+    private Long totalProductos;
+    private Long totalStock;
+    private BigDecimal valorTotalInventario;
+    private BigDecimal precioPromedio;
+    private BigDecimal precioMinimo;
+    private BigDecimal precioMaximo;
+    private Long productosConStockBajo;
+    private Double porcentajeProductosConStockBajo;
+}
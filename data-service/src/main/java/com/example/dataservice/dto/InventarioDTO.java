@@ -15,4 +15,5 @@ public class InventarioDTO {
     private Integer cantidad;
     private Integer stockMinimo;
     private LocalDateTime fechaActualizacion;
+    private Long version;
 }
@@ -0,0 +1,20 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Tramo del feed de cambios. {@code ultimaSecuencia} es el valor a enviar en {@code since} en la próxima consulta
+ * (se mantiene el recibido si no hubo cambios); {@code hayMas} indica que ya hay más cambios disponibles.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCambiosDTO {
+    private List<CambioDTO> cambios;
+    private Long ultimaSecuencia;
+    private boolean hayMas;
+}
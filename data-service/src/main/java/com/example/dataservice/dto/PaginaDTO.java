@@ -0,0 +1,20 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida por cursor (keyset).
+ * {@code siguienteCursor} es el valor a enviar en {@code after} para pedir la próxima página,
+ * o {@code null} si no hay más resultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> contenido;
+    private Long siguienteCursor;
+}
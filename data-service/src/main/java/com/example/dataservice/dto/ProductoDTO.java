@@ -17,4 +17,5 @@ public class ProductoDTO {
     private String categoriaNombre;
     private Integer stock;
     private Boolean stockBajo;
+    private Long version;
 }
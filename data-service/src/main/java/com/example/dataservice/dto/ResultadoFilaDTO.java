@@ -0,0 +1,27 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una fila de una operación en lote.
+ * {@code indice} es la posición de la fila en la lista recibida.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoFilaDTO {
+    private Integer indice;
+    private Boolean exitoso;
+    private ProductoDTO producto;
+    private String error;
+
+    public static ResultadoFilaDTO exito(int indice, ProductoDTO producto) {
+        return new ResultadoFilaDTO(indice, true, producto, null);
+    }
+
+    public static ResultadoFilaDTO fallo(int indice, String error) {
+        return new ResultadoFilaDTO(indice, false, null, error);
+    }
+}
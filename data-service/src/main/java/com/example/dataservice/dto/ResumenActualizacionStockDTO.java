@@ -0,0 +1,22 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resumen de una actualización masiva de stock.
+ * Solo se informan los productos que no pudieron actualizarse, no el inventario completo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenActualizacionStockDTO {
+    private Integer solicitados;
+    private Integer actualizados;
+    private List<Long> productosNoEncontrados;
+    private LocalDateTime fechaActualizacion;
+}
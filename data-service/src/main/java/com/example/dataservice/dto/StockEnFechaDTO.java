@@ -0,0 +1,20 @@
+package com.example.dataservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock de un producto reconstruido desde el historial de movimientos para una fecha dada. La cantidad es null
+ * cuando la fecha es anterior al historial de un producto cargado antes de que existiera.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockEnFechaDTO {
+    private Long productoId;
+    private LocalDateTime fecha;
+    private Integer cantidad;
+}
@@ -0,0 +1,47 @@
+package com.example.dataservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro inmutable de una escritura sobre productos, inventario o categorías, en la misma transacción que la
+ * escritura. La secuencia crece con cada cambio y es el cursor del feed {@code /data/changes}: la secuencia usa
+ * {@code allocationSize = 1} para que dos instancias no intercalen bloques de IDs reservados de antemano.
+ */
+@Entity
+@Table(name = "cambios_catalogo")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioCatalogo {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cambios_catalogo_seq")
+    @SequenceGenerator(name = "cambios_catalogo_seq", sequenceName = "cambios_catalogo_seq", allocationSize = 1)
+    private Long secuencia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private EntidadCambio entidad;
+
+    @Column(name = "entidad_id", nullable = false, updatable = false)
+    private Long entidadId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private TipoCambio tipo;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fecha;
+
+    public static CambioCatalogo upsert(EntidadCambio entidad, Long entidadId) {
+        return new CambioCatalogo(null, entidad, entidadId, TipoCambio.UPSERT, LocalDateTime.now());
+    }
+
+    public static CambioCatalogo borrado(EntidadCambio entidad, Long entidadId) {
+        return new CambioCatalogo(null, entidad, entidadId, TipoCambio.BORRADO, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.dataservice.entity;
+
+/**
+ * Entidad afectada por un {@link CambioCatalogo}.
+ */
+public enum EntidadCambio {
+    PRODUCTO,
+    INVENTARIO,
+    CATEGORIA
+}
@@ -4,17 +4,20 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventario")
+@Table(name = "inventario",
+        indexes = @Index(name = "idx_inventario_stock_bajo", columnList = "stock_bajo"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Inventario {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventario_seq")
+    @SequenceGenerator(name = "inventario_seq", sequenceName = "inventario_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -30,4 +33,21 @@ public class Inventario {
     @Column(name = "fecha_actualizacion")
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime fechaActualizacion;
-}
\ No newline at end of file
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    /**
+     * Marca mantenida de {@code cantidad < stockMinimo}, indexada para que el reporte de stock bajo no recorra
+     * toda la tabla. Las sentencias UPDATE masivas del repositorio la recalculan en la misma sentencia.
+     */
+    @Column(name = "stock_bajo")
+    private Boolean stockBajo;
+
+    @PrePersist
+    @PreUpdate
+    void actualizarStockBajo() {
+        stockBajo = cantidad != null && stockMinimo != null && cantidad < stockMinimo;
+    }
+}
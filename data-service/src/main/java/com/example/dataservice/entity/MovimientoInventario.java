@@ -0,0 +1,43 @@
+package com.example.dataservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro inmutable de un cambio de stock. La tabla solo recibe inserciones; el stock de un producto en
+ * cualquier momento es la suma de sus deltas, partiendo del último {@link SnapshotInventario} anterior.
+ * Guarda el ID del producto y no la relación para no cargar ni bloquear el producto al insertar.
+ */
+@Entity
+@Table(name = "movimientos_inventario",
+        indexes = @Index(name = "idx_movimientos_producto_fecha", columnList = "producto_id, fecha"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoInventario {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_inventario_seq")
+    @SequenceGenerator(name = "movimientos_inventario_seq", sequenceName = "movimientos_inventario_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false, updatable = false)
+    private Long productoId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private TipoMovimiento tipo;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fecha;
+
+    public static MovimientoInventario de(Long productoId, int delta, TipoMovimiento tipo, LocalDateTime fecha) {
+        return new MovimientoInventario(null, productoId, delta, tipo, fecha);
+    }
+}
@@ -4,17 +4,22 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+        @Index(name = "idx_productos_precio", columnList = "precio"),
+        @Index(name = "idx_productos_categoria_precio", columnList = "categoria_id, precio")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Producto {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -32,4 +37,8 @@ public class Producto {
 
     @OneToOne(mappedBy = "producto", cascade = CascadeType.ALL)
     private Inventario inventario;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -0,0 +1,34 @@
+package com.example.dataservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock acumulado de un producto hasta {@code fechaCorte}, generado por la compactación del historial.
+ * Permite calcular el stock en una fecha sumando solo los movimientos posteriores al corte.
+ */
+@Entity
+@Table(name = "snapshots_inventario",
+        indexes = @Index(name = "idx_snapshots_producto_corte", columnList = "producto_id, fecha_corte"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotInventario {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "snapshots_inventario_seq")
+    @SequenceGenerator(name = "snapshots_inventario_seq", sequenceName = "snapshots_inventario_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false, updatable = false)
+    private Long productoId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer cantidad;
+
+    @Column(name = "fecha_corte", nullable = false, updatable = false)
+    private LocalDateTime fechaCorte;
+}
@@ -0,0 +1,11 @@
+package com.example.dataservice.entity;
+
+/**
+ * Tipo de un {@link CambioCatalogo}.
+ */
+public enum TipoCambio {
+    /** La entidad se creó o modificó; el feed entrega su estado actual. */
+    UPSERT,
+    /** La entidad se eliminó. */
+    BORRADO
+}
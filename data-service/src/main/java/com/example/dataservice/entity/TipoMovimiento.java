@@ -0,0 +1,13 @@
+package com.example.dataservice.entity;
+
+/**
+ * Origen de un cambio de stock registrado en el historial de inventario.
+ */
+public enum TipoMovimiento {
+    /** Stock inicial al crear el producto. */
+    ALTA,
+    /** Fijación de una cantidad absoluta (actualización de producto, de stock o recuento masivo). */
+    AJUSTE,
+    /** Ingreso o egreso registrado como delta sobre el stock actual. */
+    MOVIMIENTO
+}
@@ -0,0 +1,27 @@
+package com.example.dataservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila única con la secuencia del último cambio confirmado del catálogo. Cada transacción que registra cambios la
+ * bloquea antes de tomar sus secuencias y la actualiza en el mismo commit, de modo que las secuencias del feed
+ * quedan en el orden en que confirman las transacciones.
+ */
+@Entity
+@Table(name = "version_catalogo")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionCatalogo {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long secuencia;
+}
@@ -0,0 +1,7 @@
+package com.example.dataservice.exception;
+
+public class ConflictoDeVersionException extends RuntimeException {
+    public ConflictoDeVersionException(String message) {
+        super(message);
+    }
+}
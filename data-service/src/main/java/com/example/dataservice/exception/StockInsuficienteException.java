@@ -0,0 +1,14 @@
+package com.example.dataservice.exception;
+
+/**
+ * Egreso de inventario mayor que el stock disponible. Se responde como las demás validaciones (400), con el
+ * header {@code X-Codigo-Error: STOCK_INSUFICIENTE} para que los clientes la distingan sin leer el cuerpo.
+ */
+public class StockInsuficienteException extends ValidacionNegocioException {
+
+    public static final String CODIGO = "STOCK_INSUFICIENTE";
+
+    public StockInsuficienteException(String message) {
+        super(message);
+    }
+}
@@ -22,6 +22,7 @@ public class InventarioMapper {
         dto.setCantidad(inventario.getCantidad());
         dto.setStockMinimo(inventario.getStockMinimo());
         dto.setFechaActualizacion(inventario.getFechaActualizacion());
+        dto.setVersion(inventario.getVersion());
 
         if (inventario.getProducto() != null) {
             dto.setProducto(productoMapper.toDTO(inventario.getProducto()));
@@ -33,7 +33,23 @@ public class ProductoMapper {
             dto.setStock(0);
             dto.setStockBajo(false);
         }
+        dto.setVersion(versionDe(producto));
 
         return dto;
     }
+
+    /**
+     * Versión de la representación de un producto. El DTO incluye el stock, por lo que combina la versión
+     * del producto con la de su inventario; como ambas solo crecen, la suma cambia con cada modificación.
+     * @param producto Producto con su inventario.
+     * @return Versión combinada, usada como ETag.
+     */
+    public static Long versionDe(Producto producto) {
+        long version = producto.getVersion() != null ? producto.getVersion() : 0L;
+        Inventario inventario = producto.getInventario();
+        if (inventario != null && inventario.getVersion() != null) {
+            version += inventario.getVersion();
+        }
+        return version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.entity.CambioCatalogo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Los cambios se registran con {@link CambioCatalogoRepositoryCustom#registrar}, no con {@code save}, para que sus
+ * secuencias respeten el orden de confirmación.
+ */
+@Repository
+public interface CambioCatalogoRepository extends JpaRepository<CambioCatalogo, Long>, CambioCatalogoRepositoryCustom {
+
+    /**
+     * Obtiene los cambios posteriores a una secuencia, en orden.
+     * @param secuencia Última secuencia ya recibida por el consumidor.
+     * @param limit Cantidad máxima de cambios a devolver.
+     * @return Lista de cambios ordenada por secuencia.
+     */
+    List<CambioCatalogo> findBySecuenciaGreaterThanOrderBySecuenciaAsc(Long secuencia, Limit limit);
+}
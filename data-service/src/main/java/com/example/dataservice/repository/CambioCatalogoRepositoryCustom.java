@@ -0,0 +1,40 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.entity.CambioCatalogo;
+import com.example.dataservice.entity.VersionCatalogo;
+
+import java.util.List;
+
+/**
+ * Registro de los cambios del catálogo en el orden en que confirman sus transacciones.
+ */
+public interface CambioCatalogoRepositoryCustom {
+
+    /**
+     * Registra un cambio de la transacción en curso; ver {@link #registrar(List)}.
+     * @param cambio Cambio a registrar.
+     */
+    void registrar(CambioCatalogo cambio);
+
+    /**
+     * Registra cambios de la transacción en curso. No se guardan en el momento sino justo antes del commit, con
+     * la fila de {@link VersionCatalogo} bloqueada hasta que la transacción confirma: una transacción larga no
+     * puede confirmar después una secuencia menor que otra ya visible en el feed. Si la transacción se revierte,
+     * los cambios se descartan.
+     * @param cambios Cambios a registrar, en orden.
+     * @throws IllegalStateException si no hay una transacción en curso.
+     */
+    void registrar(List<CambioCatalogo> cambios);
+
+    /**
+     * Crea la fila de {@link VersionCatalogo} con la secuencia del último cambio, si todavía no existe.
+     */
+    void crearVersionSiFalta();
+
+    /**
+     * Obtiene la secuencia guardada en {@link VersionCatalogo}. Se actualiza en el mismo commit que registra los
+     * cambios, así que solo refleja transacciones ya confirmadas.
+     * @return La secuencia del último cambio confirmado, o 0 si todavía no hay fila de versión.
+     */
+    long obtenerVersion();
+}
@@ -0,0 +1,94 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.entity.CambioCatalogo;
+import com.example.dataservice.entity.VersionCatalogo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementación de {@link CambioCatalogoRepositoryCustom}, detectada por Spring Data por el sufijo {@code Impl}.
+ * Los cambios de cada transacción se acumulan en una {@link TransactionSynchronization} propia, que las
+ * transacciones anidadas con {@code REQUIRES_NEW} no comparten.
+ */
+class CambioCatalogoRepositoryImpl implements CambioCatalogoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void registrar(CambioCatalogo cambio) {
+        registrar(List.of(cambio));
+    }
+
+    @Override
+    public void registrar(List<CambioCatalogo> cambios) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Los cambios del catálogo solo se registran dentro de una transacción");
+        }
+        Publicacion publicacion = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(Publicacion.class::isInstance)
+                .map(Publicacion.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    Publicacion nueva = new Publicacion();
+                    TransactionSynchronizationManager.registerSynchronization(nueva);
+                    return nueva;
+                });
+        publicacion.pendientes.addAll(cambios);
+    }
+
+    @Override
+    public void crearVersionSiFalta() {
+        if (entityManager.find(VersionCatalogo.class, VersionCatalogo.ID) == null) {
+            crearVersion();
+        }
+    }
+
+    @Override
+    public long obtenerVersion() {
+        VersionCatalogo version = entityManager.find(VersionCatalogo.class, VersionCatalogo.ID);
+        return version == null ? 0L : version.getSecuencia();
+    }
+
+    private VersionCatalogo crearVersion() {
+        Long ultima = entityManager.createQuery("SELECT MAX(c.secuencia) FROM CambioCatalogo c", Long.class)
+                .getSingleResult();
+        VersionCatalogo version = new VersionCatalogo(VersionCatalogo.ID, ultima == null ? 0L : ultima);
+        entityManager.persist(version);
+        entityManager.flush();
+        return version;
+    }
+
+    private class Publicacion implements TransactionSynchronization {
+
+        private final List<CambioCatalogo> pendientes = new ArrayList<>();
+
+        /**
+         * Primero se envían las escrituras de la transacción, para que ninguna espere un bloqueo de fila mientras
+         * se tiene la versión: así la versión se bloquea siempre en último lugar y no puede haber deadlocks por ella.
+         */
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            entityManager.flush();
+            VersionCatalogo version = entityManager.find(VersionCatalogo.class, VersionCatalogo.ID,
+                    LockModeType.PESSIMISTIC_WRITE);
+            if (version == null) {
+                version = crearVersion();
+            }
+            for (CambioCatalogo cambio : pendientes) {
+                entityManager.persist(cambio);
+            }
+            version.setSecuencia(pendientes.get(pendientes.size() - 1).getSecuencia());
+            entityManager.flush();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Camino de lectura alternativo para los listados del catálogo: arma los DTOs directamente desde las filas del
+ * JOIN, sin entidades administradas, sin contexto de persistencia y sin pasar por los mappers.
+ * Se activa con {@code catalogo.lectura.jdbc=true}; los servicios consultan {@link #habilitado()}.
+ * Dentro de una transacción JPA usa la misma conexión, por lo que respeta el ruteo a la réplica.
+ */
+@Repository
+public class CatalogoJdbcRepository {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_PRODUCTOS = """
+            SELECT p.id, p.nombre, p.descripcion, p.precio, p.version, c.nombre AS categoria_nombre,
+                   i.cantidad, i.stock_minimo, i.version AS inventario_version
+            FROM productos p
+            LEFT JOIN categorias c ON c.id = p.categoria_id
+            LEFT JOIN inventario i ON i.producto_id = p.id
+            """;
+
+    private static final String SELECT_INVENTARIO = """
+            SELECT i.id AS inventario_id, i.cantidad, i.stock_minimo, i.fecha_actualizacion,
+                   i.version AS inventario_version, p.id, p.nombre, p.descripcion, p.precio, p.version,
+                   c.nombre AS categoria_nombre
+            FROM inventario i
+            LEFT JOIN productos p ON p.id = i.producto_id
+            LEFT JOIN categorias c ON c.id = p.categoria_id
+            ORDER BY i.id
+            """;
+
+    private static final RowMapper<ProductoDTO> PRODUCTO = (rs, fila) -> producto(rs);
+
+    private static final RowMapper<InventarioDTO> INVENTARIO = (rs, fila) -> new InventarioDTO(
+            rs.getLong("inventario_id"),
+            rs.getObject("id") != null ? producto(rs) : null,
+            rs.getObject("cantidad", Integer.class),
+            rs.getObject("stock_minimo", Integer.class),
+            rs.getObject("fecha_actualizacion", LocalDateTime.class),
+            rs.getObject("inventario_version", Long.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param dataSource DataSource de la aplicación (el ruteado, si hay réplica).
+     * @param habilitado Si los listados deben leerse por este camino en lugar de JPA.
+     */
+    public CatalogoJdbcRepository(DataSource dataSource, @Value("${catalogo.lectura.jdbc:false}") boolean habilitado) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.habilitado = habilitado;
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Lista todos los productos con su categoría y stock, ordenados por ID.
+     * @return Lista de DTOs de productos.
+     */
+    public List<ProductoDTO> listarProductos() {
+        return jdbcTemplate.query(SELECT_PRODUCTOS + "ORDER BY p.id", PRODUCTO);
+    }
+
+    /**
+     * Lista los productos de una categoría con su stock, ordenados por ID.
+     * @param nombreCategoria El nombre de la categoría.
+     * @return Lista de DTOs de productos.
+     */
+    public List<ProductoDTO> listarProductosPorCategoria(String nombreCategoria) {
+        return jdbcTemplate.query(SELECT_PRODUCTOS + "WHERE c.nombre = ? ORDER BY p.id", PRODUCTO, nombreCategoria);
+    }
+
+    /**
+     * Lista todos los registros de inventario con su producto, ordenados por ID.
+     * @return Lista de DTOs de inventario.
+     */
+    public List<InventarioDTO> listarInventario() {
+        return jdbcTemplate.query(SELECT_INVENTARIO, INVENTARIO);
+    }
+
+    /**
+     * Mismas reglas que {@link com.example.dataservice.mapper.ProductoMapper#toDTO}: sin inventario el stock es 0,
+     * y la versión combina la del producto con la de su inventario.
+     */
+    private static ProductoDTO producto(ResultSet rs) throws SQLException {
+        Integer cantidad = rs.getObject("cantidad", Integer.class);
+        Integer stockMinimo = rs.getObject("stock_minimo", Integer.class);
+        long version = rs.getLong("version") + rs.getLong("inventario_version");
+        return new ProductoDTO(
+                rs.getLong("id"),
+                rs.getString("nombre"),
+                rs.getString("descripcion"),
+                rs.getBigDecimal("precio"),
+                rs.getString("categoria_nombre"),
+                cantidad != null ? cantidad : 0,
+                cantidad != null && stockMinimo != null && cantidad < stockMinimo,
+                version);
+    }
+}
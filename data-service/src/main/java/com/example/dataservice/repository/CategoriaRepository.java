@@ -1,18 +1,75 @@
 package com.example.dataservice.repository;
 
 import com.example.dataservice.entity.Categoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
+
+    /** Región de la cache de consultas para las búsquedas de categorías. */
+    String REGION_CONSULTAS = "categorias-consultas";
+
+    /**
+     * Obtiene todas las categorías. El resultado se guarda en la cache de consultas y Hibernate
+     * lo invalida cuando se escribe la tabla de categorías.
+     * @return Lista de todas las Categorias.
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_CONSULTAS)
+    })
+    List<Categoria> findAll();
+
+    /**
+     * Obtiene todas las categorías leyendo siempre la base de datos, sin la cache de consultas.
+     * La cache es propia de cada instancia y solo ve a tiempo las escrituras de esa instancia; el listado
+     * condicional, cuyo ETag es la versión del catálogo, no puede servir desde ella lo que escribió otra.
+     * @return Lista de todas las Categorias.
+     */
+    @Query("SELECT c FROM Categoria c")
+    List<Categoria> buscarTodasSinCache();
+
     /**
-     * Busca una categoría por su nombre.
+     * Busca una categoría por su nombre. El resultado se guarda en la cache de consultas y Hibernate
+     * lo invalida cuando se escribe la tabla de categorías.
      * @param nombre El nombre de la categoría.
      * @return Un Optional que contiene la Categoria si se encuentra.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_CONSULTAS)
+    })
     Optional<Categoria> findByNombre(String nombre);
 
+    /**
+     * Busca en una sola consulta todas las categorías cuyos nombres estén en la colección.
+     * @param nombres Los nombres de las categorías.
+     * @return Lista de las Categorias encontradas.
+     */
+    List<Categoria> findByNombreIn(Collection<String> nombres);
+
+    /**
+     * Calcula en una sola consulta agregada las métricas de los productos de una categoría.
+     * El LEFT JOIN devuelve una fila aunque la categoría no tenga productos.
+     * @param nombre El nombre de la categoría.
+     * @return Los agregados de la categoría, o vacío si la categoría no existe.
+     */
+    @Query("SELECT c.nombre AS categoriaNombre, COUNT(p) AS totalProductos, SUM(i.cantidad) AS totalStock, " +
+            "SUM(p.precio * i.cantidad) AS valorTotalInventario, SUM(p.precio) AS sumaPrecios, " +
+            "COUNT(p.precio) AS productosConPrecio, MIN(p.precio) AS precioMinimo, MAX(p.precio) AS precioMaximo, " +
+            "SUM(CASE WHEN i.stockBajo = true THEN 1 ELSE 0 END) AS productosConStockBajo " +
+            "FROM Categoria c LEFT JOIN c.productos p LEFT JOIN p.inventario i " +
+            "WHERE c.nombre = :nombre GROUP BY c.id, c.nombre")
+    Optional<EstadisticasCategoriaProyeccion> calcularEstadisticas(String nombre);
+
 }
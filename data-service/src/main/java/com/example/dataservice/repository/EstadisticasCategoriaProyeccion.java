@@ -0,0 +1,28 @@
+package com.example.dataservice.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Agregados de una categoría calculados por {@link CategoriaRepository#calcularEstadisticas(String)}.
+ * Los valores pueden ser null cuando la categoría no tiene productos.
+ */
+public interface EstadisticasCategoriaProyeccion {
+
+    String getCategoriaNombre();
+
+    Long getTotalProductos();
+
+    Long getTotalStock();
+
+    BigDecimal getValorTotalInventario();
+
+    BigDecimal getSumaPrecios();
+
+    Long getProductosConPrecio();
+
+    BigDecimal getPrecioMinimo();
+
+    BigDecimal getPrecioMaximo();
+
+    Long getProductosConStockBajo();
+}
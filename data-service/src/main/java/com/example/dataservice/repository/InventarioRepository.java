@@ -1,27 +1,102 @@
 package com.example.dataservice.repository;
 
 import com.example.dataservice.entity.Inventario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventarioRepository extends JpaRepository<Inventario, Long> {
+public interface InventarioRepository extends JpaRepository<Inventario, Long>, InventarioRepositoryCustom {
 
     /**
-     * Busca en el inventario productos donde la cantidad sea menor al stock mínimo.
+     * Obtiene todo el inventario junto con el producto y su categoría en una única consulta.
+     * @return Lista de Inventario con sus asociaciones inicializadas.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
+    List<Inventario> findAll();
+
+    /**
+     * Obtiene una página de inventario por cursor: los registros con ID mayor a {@code after}, ordenados por ID.
+     * @param after ID del último registro de la página anterior.
+     * @param limit Cantidad máxima de registros a devolver.
+     * @return Lista de Inventario con sus asociaciones inicializadas.
+     */
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
+    List<Inventario> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Obtiene los registros de inventario con los IDs indicados, con producto y categoría, en una única consulta.
+     * @param ids IDs de los registros de inventario.
+     * @return Lista de Inventario encontrados, sin orden garantizado.
+     */
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
+    List<Inventario> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Busca en el inventario productos donde la cantidad sea menor al stock mínimo, usando la marca indexada
+     * {@code stock_bajo}. El producto y su categoría se traen en la misma consulta.
      * @return Lista de Inventario con stock bajo.
      */
-    @Query("SELECT i FROM Inventario i WHERE i.cantidad < i.stockMinimo")
+    @Query("SELECT i FROM Inventario i JOIN FETCH i.producto p LEFT JOIN FETCH p.categoria " +
+            "WHERE i.stockBajo = true")
     List<Inventario> findProductosConStockBajo();
 
+    /**
+     * Calcula la marca de stock bajo de los registros que todavía no la tienen
+     * (filas creadas antes de que existiera la columna).
+     * @return Cantidad de filas actualizadas.
+     */
+    @Modifying
+    @Query("UPDATE Inventario i SET i.stockBajo = CASE WHEN i.cantidad < i.stockMinimo THEN true ELSE false END " +
+            "WHERE i.stockBajo IS NULL")
+    int completarStockBajo();
+
     /**
      * Busca un registro de inventario por el ID del producto asociado.
      * @param productoId El ID del producto.
+     * El producto y su categoría se traen en la misma consulta.
      * @return Un Optional que contiene el Inventario si se encuentra.
      */
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
     Optional<Inventario> findByProductoId(Long productoId);
+
+    /**
+     * Suma {@code delta} a la cantidad de un producto en una única sentencia, sin leerla antes.
+     * La condición evita que el stock quede negativo; como la base bloquea la fila durante el UPDATE,
+     * dos movimientos concurrentes sobre el mismo producto nunca pierden actualizaciones.
+     * Incrementa la versión para que las escrituras optimistas en curso detecten el cambio.
+     * La marca de stock bajo se asigna primero y a partir de la cantidad previa, porque algunas bases
+     * (MySQL) evalúan las asignaciones del SET en orden usando los valores ya actualizados.
+     * @param productoId El ID del producto.
+     * @param delta Cantidad a sumar (negativa para egresos).
+     * @param fechaActualizacion Fecha del movimiento.
+     * @return 1 si se aplicó el movimiento; 0 si el producto no existe o el stock no alcanza.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventario i SET i.stockBajo = CASE WHEN i.cantidad + :delta < i.stockMinimo THEN true ELSE false END, " +
+            "i.cantidad = i.cantidad + :delta, i.fechaActualizacion = :fechaActualizacion, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.producto.id = :productoId AND i.cantidad + :delta >= 0")
+    int aplicarMovimiento(Long productoId, int delta, LocalDateTime fechaActualizacion);
+
+    /**
+     * Obtiene y bloquea los registros de inventario de los productos indicados, para conocer la cantidad
+     * previa a una actualización masiva sin que otra transacción la cambie en el medio.
+     * @param productoIds IDs de producto a actualizar.
+     * @return Registros de inventario existentes, bloqueados hasta el fin de la transacción.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventario i WHERE i.producto.id IN :productoIds")
+    List<Inventario> findParaActualizarPorProductoIds(Collection<Long> productoIds);
 }
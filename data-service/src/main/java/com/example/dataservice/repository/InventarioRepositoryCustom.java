@@ -0,0 +1,34 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.entity.Inventario;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operaciones de inventario que no pueden expresarse como métodos derivados o {@code @Query}.
+ */
+public interface InventarioRepositoryCustom {
+
+    /**
+     * Actualiza la cantidad de varios productos con una única sentencia UPDATE
+     * ({@code SET cantidad = CASE producto_id WHEN ... END}), incrementando la versión de cada fila
+     * y recalculando su marca de stock bajo.
+     * @param cantidadesPorProducto Nueva cantidad indexada por ID de producto.
+     * @param fechaActualizacion Fecha a registrar en todas las filas actualizadas.
+     * @return Cantidad de filas actualizadas.
+     */
+    int actualizarCantidades(Map<Long, Integer> cantidadesPorProducto, LocalDateTime fechaActualizacion);
+
+    /**
+     * Obtiene un tramo del reporte de stock bajo, filtrando por la marca indexada {@code stock_bajo}
+     * y trayendo producto y categoría en la misma consulta.
+     * @param categoria Nombre de la categoría a filtrar, o null para todas.
+     * @param porFaltante true para ordenar por faltante ({@code stockMinimo - cantidad}) descendente; false para ordenar por ID.
+     * @param posicion Cantidad de filas a saltear.
+     * @param cantidad Cantidad máxima de filas a devolver.
+     * @return Registros de inventario con stock bajo, en el orden pedido.
+     */
+    List<Inventario> buscarStockBajo(String categoria, boolean porFaltante, int posicion, int cantidad);
+}
@@ -0,0 +1,79 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.entity.Inventario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación de {@link InventarioRepositoryCustom}, detectada por Spring Data por el sufijo {@code Impl}.
+ */
+class InventarioRepositoryImpl implements InventarioRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int actualizarCantidades(Map<Long, Integer> cantidadesPorProducto, LocalDateTime fechaActualizacion) {
+        if (cantidadesPorProducto.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Inventario> update = cb.createCriteriaUpdate(Inventario.class);
+        Root<Inventario> inventario = update.from(Inventario.class);
+        Path<Long> productoId = inventario.get("producto").get("id");
+        Path<Integer> cantidad = inventario.get("cantidad");
+        Path<Long> version = inventario.get("version");
+        Path<Integer> stockMinimo = inventario.get("stockMinimo");
+
+        // La marca de stock bajo se calcula desde las cantidades nuevas recibidas, no desde la columna,
+        // para no depender del orden en que la base evalúa las asignaciones del SET.
+        Expression<Boolean> stockBajo = cb.<Boolean>selectCase()
+                .when(cb.lessThan(nuevaCantidad(cb, productoId, cantidadesPorProducto, cantidad), stockMinimo), true)
+                .otherwise(false);
+
+        update.set(inventario.<Boolean>get("stockBajo"), stockBajo)
+                .set(cantidad, nuevaCantidad(cb, productoId, cantidadesPorProducto, cantidad))
+                .set(inventario.<LocalDateTime>get("fechaActualizacion"), fechaActualizacion)
+                .set(version, cb.sum(version, 1L))
+                .where(productoId.in(cantidadesPorProducto.keySet()));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * Arma {@code CASE producto_id WHEN ... THEN ... ELSE cantidad END} con la nueva cantidad de cada producto.
+     */
+    private static Expression<Integer> nuevaCantidad(CriteriaBuilder cb, Path<Long> productoId,
+                                                     Map<Long, Integer> cantidadesPorProducto, Path<Integer> cantidad) {
+        CriteriaBuilder.SimpleCase<Long, Integer> nuevaCantidad = cb.selectCase(productoId);
+        cantidadesPorProducto.forEach(nuevaCantidad::when);
+        return nuevaCantidad.otherwise(cantidad);
+    }
+
+    @Override
+    public List<Inventario> buscarStockBajo(String categoria, boolean porFaltante, int posicion, int cantidad) {
+        StringBuilder jpql = new StringBuilder("SELECT i FROM Inventario i JOIN FETCH i.producto p LEFT JOIN FETCH p.categoria c " +
+                "WHERE i.stockBajo = true");
+        if (categoria != null) {
+            jpql.append(" AND c.nombre = :categoria");
+        }
+        jpql.append(porFaltante ? " ORDER BY i.stockMinimo - i.cantidad DESC, i.id" : " ORDER BY i.id");
+
+        TypedQuery<Inventario> query = entityManager.createQuery(jpql.toString(), Inventario.class);
+        if (categoria != null) {
+            query.setParameter("categoria", categoria);
+        }
+        return query.setFirstResult(posicion)
+                .setMaxResults(cantidad)
+                .getResultList();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.entity.MovimientoInventario;
+import com.example.dataservice.entity.TipoMovimiento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MovimientoInventarioRepository extends JpaRepository<MovimientoInventario, Long> {
+
+    /**
+     * Suma los deltas de un producto en el intervalo (desde, hasta].
+     * @param productoId El ID del producto.
+     * @param desde Fecha de corte del snapshot de partida (excluida).
+     * @param hasta Fecha consultada (incluida).
+     * @return La suma de los deltas, o 0 si no hay movimientos.
+     */
+    @Query("SELECT COALESCE(SUM(m.delta), 0) FROM MovimientoInventario m " +
+            "WHERE m.productoId = :productoId AND m.fecha > :desde AND m.fecha <= :hasta")
+    long sumarDeltas(Long productoId, LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Agrupa por producto los movimientos posteriores al último snapshot de cada uno y anteriores o iguales al corte.
+     * @param corte Fecha hasta la que se compacta (incluida).
+     * @param inicio Corte previo a usar para los productos que todavía no tienen snapshot.
+     * @return Filas {@code [productoId, sumaDeltas]}.
+     */
+    @Query("SELECT m.productoId, SUM(m.delta) FROM MovimientoInventario m " +
+            "WHERE m.fecha <= :corte AND m.fecha > COALESCE(" +
+            "(SELECT MAX(s.fechaCorte) FROM SnapshotInventario s WHERE s.productoId = m.productoId), :inicio) " +
+            "GROUP BY m.productoId")
+    List<Object[]> sumarDeltasPendientesDeCompactar(LocalDateTime corte, LocalDateTime inicio);
+
+    /**
+     * Indica si el historial de un producto empieza con su alta, es decir, si registra todo su stock.
+     * @param productoId El ID del producto.
+     * @param tipo Tipo de movimiento buscado.
+     * @return true si el producto tiene algún movimiento de ese tipo.
+     */
+    boolean existsByProductoIdAndTipo(Long productoId, TipoMovimiento tipo);
+
+    /**
+     * Obtiene los productos cuyo stock es anterior al historial: sin movimiento de alta ni snapshots. La cantidad
+     * actual y los deltas se leen en la misma sentencia para que un movimiento concurrente no quede a medias.
+     * @return Filas {@code [productoId, cantidadActual, sumaDeltas, fechaPrimerMovimiento]}; la fecha es null si
+     * el producto no tiene movimientos.
+     */
+    @Query("SELECT i.producto.id, i.cantidad, COALESCE(SUM(m.delta), 0), MIN(m.fecha) FROM Inventario i " +
+            "LEFT JOIN MovimientoInventario m ON m.productoId = i.producto.id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM SnapshotInventario s WHERE s.productoId = i.producto.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM MovimientoInventario a WHERE a.productoId = i.producto.id " +
+            "AND a.tipo = com.example.dataservice.entity.TipoMovimiento.ALTA) " +
+            "GROUP BY i.producto.id, i.cantidad")
+    List<Object[]> buscarStockSinApertura();
+}
@@ -1,18 +1,73 @@
 package com.example.dataservice.repository;
 
 import com.example.dataservice.entity.Producto;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends JpaRepository<Producto, Long>, JpaSpecificationExecutor<Producto>,
+        ProductoRepositoryCustom {
+
+    int FETCH_SIZE_EXPORTACION = 500;
+
+    /**
+     * Obtiene todos los productos junto con su categoría e inventario en una única consulta.
+     * @return Lista de todos los Productos con sus asociaciones inicializadas.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
+    List<Producto> findAll();
+
+    /**
+     * Obtiene una página de productos por cursor: los productos con ID mayor a {@code after}, ordenados por ID.
+     * El costo no depende de la posición de la página (a diferencia de OFFSET).
+     * @param after ID del último producto de la página anterior.
+     * @param limit Cantidad máxima de productos a devolver.
+     * @return Lista de Productos con sus asociaciones inicializadas.
+     */
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
+    List<Producto> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Recorre todo el catálogo ordenado por ID como un cursor de base de datos, leyendo de a
+     * {@link #FETCH_SIZE_EXPORTACION} filas. Debe consumirse dentro de una transacción y cerrarse al terminar.
+     * @return Stream de Productos con categoría e inventario inicializados.
+     */
+    @Query("SELECT p FROM Producto p LEFT JOIN FETCH p.categoria LEFT JOIN FETCH p.inventario ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACION),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Producto> streamTodosOrdenadosPorId();
 
     /**
      * Busca todos los productos que pertenecen a una categoría específica por su nombre.
+     * La categoría y el inventario se traen en la misma consulta.
      * @param nombreCategoria El nombre de la categoría.
      * @return Una lista de Productos.
      */
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
     List<Producto> findByCategoriaNombre(String nombreCategoria);
+
+    /**
+     * Obtiene los productos con los IDs indicados, junto con su categoría e inventario, en una única consulta.
+     * No garantiza ningún orden.
+     * @param ids IDs de los productos.
+     * @return Lista de Productos encontrados.
+     */
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
+    List<Producto> findByIdIn(Collection<Long> ids);
 }
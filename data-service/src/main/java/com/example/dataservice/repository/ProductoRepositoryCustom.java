@@ -0,0 +1,25 @@
+package com.example.dataservice.repository;
+
+import java.util.List;
+
+/**
+ * Búsqueda de texto sobre productos, que depende del motor de base de datos y no puede expresarse en JPQL.
+ */
+public interface ProductoRepositoryCustom {
+
+    /**
+     * Busca productos cuyo nombre o descripción contengan los términos del texto, ordenados por relevancia
+     * (el ID desempata).
+     * @param texto Texto de búsqueda, no vacío.
+     * @param posicion Cantidad de resultados a saltear.
+     * @param cantidad Cantidad máxima de resultados a devolver.
+     * @return IDs de los productos encontrados, del más relevante al menos relevante.
+     */
+    List<Long> buscarIdsPorTexto(String texto, int posicion, int cantidad);
+
+    /**
+     * Crea, si todavía no existe, el índice de texto completo sobre nombre y descripción.
+     * La base lo mantiene actualizado en cada alta, modificación o baja de productos.
+     */
+    void crearIndiceBusqueda();
+}
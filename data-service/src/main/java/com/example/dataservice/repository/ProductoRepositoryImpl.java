@@ -0,0 +1,105 @@
+package com.example.dataservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementación de {@link ProductoRepositoryCustom}, detectada por Spring Data por el sufijo {@code Impl}.
+ * El motor se elige con {@code productos.busqueda.motor}:
+ * <ul>
+ *     <li>{@code postgres}: índice GIN sobre {@code to_tsvector} y ranking con {@code ts_rank}, con más peso en el nombre.</li>
+ *     <li>{@code mysql}: índice {@code FULLTEXT} y ranking con {@code MATCH ... AGAINST}.</li>
+ *     <li>{@code h2} (por defecto): sin índice; cada término suma 2 si aparece en el nombre y 1 si aparece en la descripción.</li>
+ * </ul>
+ */
+class ProductoRepositoryImpl implements ProductoRepositoryCustom {
+
+    static final String INDICE_BUSQUEDA = "idx_productos_busqueda";
+
+    /** Cantidad máxima de términos considerados por el motor H2, para acotar el tamaño de la sentencia. */
+    static final int MAXIMO_TERMINOS = 10;
+
+    /** Debe coincidir exactamente entre la consulta y el índice para que Postgres use el índice. */
+    private static final String DOCUMENTO_POSTGRES =
+            "to_tsvector('spanish', coalesce(nombre, '') || ' ' || coalesce(descripcion, ''))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${productos.busqueda.motor:h2}")
+    private String motor;
+
+    @Override
+    public List<Long> buscarIdsPorTexto(String texto, int posicion, int cantidad) {
+        Query query = switch (motor) {
+            case "postgres" -> entityManager.createNativeQuery(
+                            "SELECT id FROM productos, websearch_to_tsquery('spanish', :texto) consulta"
+                                    + " WHERE " + DOCUMENTO_POSTGRES + " @@ consulta"
+                                    + " ORDER BY ts_rank(setweight(to_tsvector('spanish', coalesce(nombre, '')), 'A')"
+                                    + " || setweight(to_tsvector('spanish', coalesce(descripcion, '')), 'B'), consulta) DESC, id",
+                            Long.class)
+                    .setParameter("texto", texto);
+            case "mysql" -> entityManager.createNativeQuery(
+                            "SELECT p.id FROM productos p"
+                                    + " WHERE MATCH (p.nombre, p.descripcion) AGAINST (:texto IN NATURAL LANGUAGE MODE)"
+                                    + " ORDER BY MATCH (p.nombre, p.descripcion) AGAINST (:texto IN NATURAL LANGUAGE MODE) DESC, p.id",
+                            Long.class)
+                    .setParameter("texto", texto);
+            case "h2" -> consultaPorTerminos(texto);
+            default -> throw new IllegalStateException("Motor de búsqueda no soportado: " + motor);
+        };
+        return query.setFirstResult(posicion).setMaxResults(cantidad).getResultList();
+    }
+
+    /**
+     * Arma la consulta del motor H2: un LIKE por término sobre nombre y descripción, sumando la relevancia.
+     */
+    private Query consultaPorTerminos(String texto) {
+        List<String> terminos = Arrays.stream(texto.toLowerCase(Locale.ROOT).trim().split("\\s+"))
+                .distinct()
+                .limit(MAXIMO_TERMINOS)
+                .toList();
+        StringBuilder relevancia = new StringBuilder("0");
+        for (int i = 0; i < terminos.size(); i++) {
+            relevancia.append(" + CASE WHEN LOWER(p.nombre) LIKE :t").append(i).append(" ESCAPE '\\' THEN 2 ELSE 0 END")
+                    .append(" + CASE WHEN LOWER(p.descripcion) LIKE :t").append(i).append(" ESCAPE '\\' THEN 1 ELSE 0 END");
+        }
+        Query query = entityManager.createNativeQuery(
+                "SELECT r.id FROM (SELECT p.id, " + relevancia + " AS relevancia FROM productos p) r"
+                        + " WHERE r.relevancia > 0 ORDER BY r.relevancia DESC, r.id",
+                Long.class);
+        for (int i = 0; i < terminos.size(); i++) {
+            query.setParameter("t" + i, "%" + ProductoSpecifications.escaparComodines(terminos.get(i)) + "%");
+        }
+        return query;
+    }
+
+    @Override
+    public void crearIndiceBusqueda() {
+        switch (motor) {
+            case "postgres" -> entityManager.createNativeQuery(
+                    "CREATE INDEX IF NOT EXISTS " + INDICE_BUSQUEDA + " ON productos USING GIN ("
+                            + DOCUMENTO_POSTGRES + ")").executeUpdate();
+            case "mysql" -> {
+                Number existentes = (Number) entityManager.createNativeQuery(
+                                "SELECT COUNT(*) FROM information_schema.statistics"
+                                        + " WHERE table_schema = DATABASE() AND table_name = 'productos' AND index_name = :indice")
+                        .setParameter("indice", INDICE_BUSQUEDA)
+                        .getSingleResult();
+                if (existentes.intValue() == 0) {
+                    entityManager.createNativeQuery(
+                            "CREATE FULLTEXT INDEX " + INDICE_BUSQUEDA + " ON productos (nombre, descripcion)").executeUpdate();
+                }
+            }
+            default -> {
+                // El motor H2 recorre la tabla: no hay índice que crear
+            }
+        }
+    }
+}
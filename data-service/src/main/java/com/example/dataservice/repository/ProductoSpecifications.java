@@ -0,0 +1,68 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.entity.Producto;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Criterios de búsqueda de productos para {@link ProductoRepository#findBy}.
+ * Cada criterio nulo devuelve una especificación vacía, de modo que pueden combinarse libremente.
+ */
+public final class ProductoSpecifications {
+
+    private ProductoSpecifications() {
+    }
+
+    /**
+     * Trae la categoría y el inventario en la misma consulta. No se aplica a las consultas de conteo.
+     */
+    public static Specification<Producto> conCategoriaEInventario() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("categoria", JoinType.LEFT);
+                root.fetch("inventario", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Producto> precioDesde(BigDecimal precioMin) {
+        return (root, query, cb) -> precioMin == null ? null : cb.greaterThanOrEqualTo(root.get("precio"), precioMin);
+    }
+
+    public static Specification<Producto> precioHasta(BigDecimal precioMax) {
+        return (root, query, cb) -> precioMax == null ? null : cb.lessThanOrEqualTo(root.get("precio"), precioMax);
+    }
+
+    public static Specification<Producto> deCategoria(String nombreCategoria) {
+        return (root, query, cb) -> nombreCategoria == null ? null
+                : cb.equal(root.get("categoria").get("nombre"), nombreCategoria);
+    }
+
+    public static Specification<Producto> conStockBajo(Boolean stockBajo) {
+        return (root, query, cb) -> stockBajo == null ? null
+                : cb.equal(root.get("inventario").get("stockBajo"), stockBajo);
+    }
+
+    /**
+     * Filtra por prefijo del nombre; los comodines de LIKE recibidos se tratan como texto.
+     */
+    public static Specification<Producto> nombreEmpiezaCon(String prefijo) {
+        return (root, query, cb) -> {
+            if (prefijo == null || prefijo.isEmpty()) {
+                return null;
+            }
+            String patron = escaparComodines(prefijo) + "%";
+            return cb.like(root.get("nombre"), patron, '\\');
+        };
+    }
+
+    /**
+     * Escapa los comodines de LIKE con {@code \} como carácter de escape.
+     */
+    static String escaparComodines(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.dataservice.repository;
+
+import com.example.dataservice.entity.SnapshotInventario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SnapshotInventarioRepository extends JpaRepository<SnapshotInventario, Long> {
+
+    /**
+     * Busca el último snapshot de un producto con corte anterior o igual a la fecha indicada.
+     * @param productoId El ID del producto.
+     * @param fecha Fecha consultada.
+     * @return El snapshot más reciente que no supera la fecha, si existe.
+     */
+    Optional<SnapshotInventario> findFirstByProductoIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(
+            Long productoId, LocalDateTime fecha);
+
+    /**
+     * Obtiene el snapshot más reciente de cada uno de los productos indicados.
+     * @param productoIds IDs de producto.
+     * @return Un snapshot por producto que tenga alguno.
+     */
+    @Query("SELECT s FROM SnapshotInventario s WHERE s.productoId IN :productoIds AND s.fechaCorte = " +
+            "(SELECT MAX(s2.fechaCorte) FROM SnapshotInventario s2 WHERE s2.productoId = s.productoId)")
+    List<SnapshotInventario> findUltimosPorProducto(Collection<Long> productoIds);
+}
@@ -0,0 +1,151 @@
+package com.example.dataservice.service;
+
+import com.example.dataservice.dto.CambioDTO;
+import com.example.dataservice.dto.CategoriaDTO;
+import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.PaginaCambiosDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.entity.CambioCatalogo;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.EntidadCambio;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.entity.TipoCambio;
+import com.example.dataservice.exception.ValidacionNegocioException;
+import com.example.dataservice.mapper.CategoriaMapper;
+import com.example.dataservice.mapper.InventarioMapper;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Feed incremental de cambios del catálogo, para que los consumidores sincronicen una copia local
+ * transfiriendo solo lo que cambió desde la última secuencia recibida.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CambiosCatalogoService {
+
+    private final CambioCatalogoRepository cambioCatalogoRepository;
+    private final ProductoRepository productoRepository;
+    private final InventarioRepository inventarioRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ProductoMapper productoMapper;
+    private final InventarioMapper inventarioMapper;
+    private final CategoriaMapper categoriaMapper;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param cambioCatalogoRepository Repositorio del registro de cambios.
+     * @param productoRepository Repositorio JPA para la entidad Producto.
+     * @param inventarioRepository Repositorio JPA para la entidad Inventario.
+     * @param categoriaRepository Repositorio JPA para la entidad Categoria.
+     * @param productoMapper Mapper de productos.
+     * @param inventarioMapper Mapper de inventario.
+     * @param categoriaMapper Mapper de categorías.
+     */
+    public CambiosCatalogoService(CambioCatalogoRepository cambioCatalogoRepository, ProductoRepository productoRepository,
+                                  InventarioRepository inventarioRepository, CategoriaRepository categoriaRepository,
+                                  ProductoMapper productoMapper, InventarioMapper inventarioMapper,
+                                  CategoriaMapper categoriaMapper) {
+        this.cambioCatalogoRepository = cambioCatalogoRepository;
+        this.productoRepository = productoRepository;
+        this.inventarioRepository = inventarioRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.productoMapper = productoMapper;
+        this.inventarioMapper = inventarioMapper;
+        this.categoriaMapper = categoriaMapper;
+    }
+
+    /**
+     * Crea al arrancar la fila de versión del catálogo que ordenan las escrituras, antes de que dos de ellas
+     * intenten crearla a la vez.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void crearVersionSiFalta() {
+        cambioCatalogoRepository.crearVersionSiFalta();
+    }
+
+    /**
+     * Obtiene, en orden, los cambios posteriores a una secuencia. El estado de las entidades de los upserts se
+     * carga con una consulta por tipo de entidad, no una por cambio.
+     * Las secuencias se asignan en el orden en que confirman las transacciones (ver
+     * {@link CambioCatalogoRepository#registrar}): un cambio que todavía no es visible siempre recibirá una
+     * secuencia mayor que las ya entregadas, por lo que avanzar {@code since} nunca lo saltea.
+     * @param since Última secuencia recibida (0 para empezar desde el principio).
+     * @param limit Cantidad máxima de cambios a devolver (se acota a [1, 500]).
+     * @return Cambios, la secuencia desde la que continuar y si ya hay más cambios disponibles.
+     * @throws ValidacionNegocioException si la secuencia es negativa.
+     */
+    public PaginaCambiosDTO obtenerCambios(long since, int limit) {
+        if (since < 0) {
+            throw new ValidacionNegocioException("La secuencia no puede ser negativa: " + since);
+        }
+        int limite = Paginacion.normalizarLimite(limit);
+        List<CambioCatalogo> filas = cambioCatalogoRepository.findBySecuenciaGreaterThanOrderBySecuenciaAsc(
+                since, Limit.of(limite + 1));
+        boolean hayMas = filas.size() > limite;
+        List<CambioCatalogo> cambios = hayMas ? filas.subList(0, limite) : filas;
+
+        Map<Long, ProductoDTO> productos = productoRepository.findByIdIn(ids(cambios, EntidadCambio.PRODUCTO)).stream()
+                .collect(Collectors.toMap(Producto::getId, productoMapper::toDTO));
+        Map<Long, InventarioDTO> inventarios = inventarioRepository.findByIdIn(ids(cambios, EntidadCambio.INVENTARIO)).stream()
+                .collect(Collectors.toMap(Inventario::getId, inventarioMapper::toDTO));
+        Map<Long, CategoriaDTO> categorias = categoriaRepository.findAllById(ids(cambios, EntidadCambio.CATEGORIA)).stream()
+                .collect(Collectors.toMap(Categoria::getId, categoriaMapper::toDTO));
+
+        List<CambioDTO> dtos = cambios.stream()
+                .map(cambio -> new CambioDTO(cambio.getSecuencia(), cambio.getEntidad().name(), cambio.getEntidadId(),
+                        cambio.getTipo().name(), cambio.getFecha(),
+                        estado(cambio, EntidadCambio.PRODUCTO, productos::get),
+                        estado(cambio, EntidadCambio.INVENTARIO, inventarios::get),
+                        estado(cambio, EntidadCambio.CATEGORIA, categorias::get)))
+                .toList();
+        long ultimaSecuencia = cambios.isEmpty() ? since : cambios.get(cambios.size() - 1).getSecuencia();
+        return new PaginaCambiosDTO(dtos, ultimaSecuencia, hayMas);
+    }
+
+    /**
+     * Obtiene la versión actual del catálogo: la secuencia del último cambio confirmado. Cualquier escritura de
+     * productos, inventario o categorías la incrementa, por lo que sirve de ETag de los listados completos sin
+     * consultarlos.
+     * Se lee de {@link com.example.dataservice.entity.VersionCatalogo}, que cada transacción actualiza en su propio
+     * commit: una transacción que todavía no confirmó no puede dejar la versión por delante de lo que un listado
+     * leído a continuación llega a ver.
+     * @return La secuencia del último cambio confirmado (0 si no hubo cambios).
+     */
+    public long obtenerVersionCatalogo() {
+        return cambioCatalogoRepository.obtenerVersion();
+    }
+
+    /**
+     * IDs de las entidades de un tipo con upserts en el tramo.
+     */
+    private static Set<Long> ids(List<CambioCatalogo> cambios, EntidadCambio entidad) {
+        return cambios.stream()
+                .filter(cambio -> cambio.getEntidad() == entidad && cambio.getTipo() == TipoCambio.UPSERT)
+                .map(CambioCatalogo::getEntidadId)
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> T estado(CambioCatalogo cambio, EntidadCambio entidad, Function<Long, T> estados) {
+        if (cambio.getEntidad() != entidad || cambio.getTipo() != TipoCambio.UPSERT) {
+            return null;
+        }
+        return estados.apply(cambio.getEntidadId());
+    }
+}
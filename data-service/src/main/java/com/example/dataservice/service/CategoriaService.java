@@ -2,16 +2,25 @@ package com.example.dataservice.service;
 
 import com.example.dataservice.dto.CategoriaDTO;
 import com.example.dataservice.dto.CategoriaRequest;
+import com.example.dataservice.dto.EstadisticasCategoriaDTO;
+import com.example.dataservice.entity.CambioCatalogo;
 import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.EntidadCambio;
+import com.example.dataservice.entity.Producto;
 import com.example.dataservice.exception.CategoriaNoEncontradaException;
 import com.example.dataservice.exception.ValidacionNegocioException;
 import com.example.dataservice.mapper.CategoriaMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
 import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.EstadisticasCategoriaProyeccion;
 import com.example.dataservice.repository.ProductoRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,25 +30,32 @@ public class CategoriaService {
     private final CategoriaRepository categoriaRepository;
     private final CategoriaMapper categoriaMapper;
     private final ProductoRepository productoRepository;
+    private final CambioCatalogoRepository cambioCatalogoRepository;
 
     /**
      * Constructor para la inyección de dependencias.
      * @param categoriaRepository Repositorio JPA para la entidad Categoria.
      * @param categoriaMapper Mapper para convertir entre entidades y DTOs.
      * @param productoRepository Repositorio JPA para verificar la existencia de productos asociados.
+     * @param cambioCatalogoRepository Registro de cambios que alimenta el feed {@code /data/changes}.
      */
-    public CategoriaService(CategoriaRepository categoriaRepository, CategoriaMapper categoriaMapper, ProductoRepository productoRepository) {
+    public CategoriaService(CategoriaRepository categoriaRepository, CategoriaMapper categoriaMapper, ProductoRepository productoRepository,
+                            CambioCatalogoRepository cambioCatalogoRepository) {
         this.categoriaRepository = categoriaRepository;
         this.categoriaMapper = categoriaMapper;
         this.productoRepository = productoRepository;
+        this.cambioCatalogoRepository = cambioCatalogoRepository;
     }
 
     /**
-     * Obtiene todas las categorias almacenadas en la base de datos
+     * Obtiene todas las categorias almacenadas en la base de datos, sin pasar por la cache de consultas: el
+     * listado se responde con la versión del catálogo como ETag y debe reflejar también lo escrito por otras
+     * instancias.
      * @return lista de todos los registros de categoria y los convierte a DTO
      */
+    @Transactional(readOnly = true)
     public List<CategoriaDTO> obtenerTodas() {
-        return categoriaRepository.findAll()
+        return categoriaRepository.buscarTodasSinCache()
                 .stream()
                 .map(categoriaMapper::toDTO)
                 .collect(Collectors.toList());
@@ -51,12 +67,43 @@ public class CategoriaService {
      * @return Categoría encontrada convertida a DTO.
      * @throws CategoriaNoEncontradaException si la categoría no existe.
      */
+    @Transactional(readOnly = true)
     public CategoriaDTO buscarPorId(Long id) {
         return categoriaRepository.findById(id)
                 .map(categoriaMapper::toDTO)
                 .orElseThrow(() -> new CategoriaNoEncontradaException("Categoría no encontrada con ID: " + id));
     }
 
+    /**
+     * Calcula las métricas de una categoría con una única consulta agregada en la base de datos.
+     * @param nombre Nombre de la categoría.
+     * @return DTO con totales, precios (promedio redondeado a 2 decimales) y productos con stock bajo.
+     * @throws CategoriaNoEncontradaException si la categoría no existe.
+     */
+    @Transactional(readOnly = true)
+    public EstadisticasCategoriaDTO obtenerEstadisticas(String nombre) {
+        EstadisticasCategoriaProyeccion agregados = categoriaRepository.calcularEstadisticas(nombre)
+                .orElseThrow(() -> new CategoriaNoEncontradaException("Categoría no encontrada con nombre: " + nombre));
+
+        long totalProductos = agregados.getTotalProductos();
+        long productosConPrecio = Objects.requireNonNullElse(agregados.getProductosConPrecio(), 0L);
+        long productosConStockBajo = Objects.requireNonNullElse(agregados.getProductosConStockBajo(), 0L);
+        BigDecimal precioPromedio = productosConPrecio == 0 ? BigDecimal.ZERO
+                : agregados.getSumaPrecios().divide(BigDecimal.valueOf(productosConPrecio), 2, RoundingMode.HALF_UP);
+        double porcentajeStockBajo = totalProductos == 0 ? 0.0 : productosConStockBajo * 100.0 / totalProductos;
+
+        return new EstadisticasCategoriaDTO(
+                agregados.getCategoriaNombre(),
+                totalProductos,
+                Objects.requireNonNullElse(agregados.getTotalStock(), 0L),
+                Objects.requireNonNullElse(agregados.getValorTotalInventario(), BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP),
+                precioPromedio,
+                Objects.requireNonNullElse(agregados.getPrecioMinimo(), BigDecimal.ZERO),
+                Objects.requireNonNullElse(agregados.getPrecioMaximo(), BigDecimal.ZERO),
+                productosConStockBajo,
+                Math.round(porcentajeStockBajo * 100.0) / 100.0);
+    }
+
     /**
      * Crea una categoría nueva.
      * Realiza una validación de negocio para asegurar que el nombre no exista previamente.
@@ -74,12 +121,15 @@ public class CategoriaService {
         categoria.setDescripcion(request.getDescripcion());
 
         Categoria categoriaGuardada = categoriaRepository.save(categoria);
+        cambioCatalogoRepository.registrar(CambioCatalogo.upsert(EntidadCambio.CATEGORIA, categoriaGuardada.getId()));
         return categoriaMapper.toDTO(categoriaGuardada);
     }
 
     /**
      * Actualiza una categoría existente identificada por su ID.
      * Realiza validaciones de existencia (por ID) y unicidad (por nombre) antes de actualizar.
+     * Si cambia el nombre, también registra en el feed de cambios los productos de la categoría, cuyo estado
+     * incluye el nombre de la categoría.
      * @param id Identificador de la categoría a actualizar.
      * @param request DTO con los nuevos datos (nombre y descripción).
      * @return Categoría actualizada, convertida a DTO.
@@ -95,10 +145,17 @@ public class CategoriaService {
             }
         });
 
+        String nombreAnterior = categoria.getNombre();
+        List<Producto> productosRenombrados = nombreAnterior.equals(request.getNombre())
+                ? List.of() : productoRepository.findByCategoriaNombre(nombreAnterior);
         categoria.setNombre(request.getNombre());
         categoria.setDescripcion(request.getDescripcion());
 
         Categoria categoriaActualizada = categoriaRepository.save(categoria);
+        cambioCatalogoRepository.registrar(CambioCatalogo.upsert(EntidadCambio.CATEGORIA, id));
+        cambioCatalogoRepository.registrar(productosRenombrados.stream()
+                .map(producto -> CambioCatalogo.upsert(EntidadCambio.PRODUCTO, producto.getId()))
+                .toList());
         return categoriaMapper.toDTO(categoriaActualizada);
     }
 
@@ -116,6 +173,7 @@ public class CategoriaService {
             throw new ValidacionNegocioException("No se puede eliminar la categoría ID " + id + ". Existen productos asociados a ella.");
         }
         categoriaRepository.deleteById(id);
+        cambioCatalogoRepository.registrar(CambioCatalogo.borrado(EntidadCambio.CATEGORIA, id));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.example.dataservice.service;
+
+import com.example.dataservice.dto.EstadisticasCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+/**
+ * Expone las estadísticas de la cache de segundo nivel y de consultas de Hibernate.
+ * Requiere {@code hibernate.generate_statistics=true}.
+ */
+@Service
+public class EstadisticasCacheService {
+
+    private final Statistics statistics;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param entityManagerFactory Fábrica de EntityManager de la que se obtienen las estadísticas de Hibernate.
+     */
+    public EstadisticasCacheService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Obtiene los aciertos, fallos y escrituras acumulados desde el arranque.
+     * @return DTO con los contadores de cache.
+     */
+    public EstadisticasCacheDTO obtenerEstadisticas() {
+        return new EstadisticasCacheDTO(
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(),
+                statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.dataservice.service;
+
+import com.example.dataservice.dto.StockEnFechaDTO;
+import com.example.dataservice.entity.SnapshotInventario;
+import com.example.dataservice.entity.TipoMovimiento;
+import com.example.dataservice.exception.ValidacionNegocioException;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import com.example.dataservice.repository.SnapshotInventarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consultas y mantenimiento del historial de movimientos de stock.
+ * El historial nunca se modifica: la compactación agrega snapshots con el stock acumulado hasta un corte,
+ * de modo que reconstruir el stock en una fecha solo suma los movimientos posteriores al último snapshot.
+ * El stock cargado antes de que existiera el historial no tiene movimiento de alta: al arrancar se le crea un
+ * snapshot de apertura, y las fechas anteriores a él no se pueden reconstruir.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class HistorialInventarioService {
+
+    /** Corte previo de los productos que todavía no tienen snapshot; anterior a cualquier movimiento. */
+    static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final int TAMANIO_TRAMO = 1_000;
+
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final SnapshotInventarioRepository snapshotInventarioRepository;
+    private final Duration margenCompactacion;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param movimientoInventarioRepository Repositorio del historial de movimientos de stock.
+     * @param snapshotInventarioRepository Repositorio de snapshots de stock.
+     * @param margenCompactacion Antigüedad mínima de un movimiento para compactarlo; cubre las transacciones
+     *                           que confirman después de haber tomado la fecha del movimiento.
+     */
+    public HistorialInventarioService(MovimientoInventarioRepository movimientoInventarioRepository,
+                                      SnapshotInventarioRepository snapshotInventarioRepository,
+                                      @Value("${inventario.historial.compactacion.margen:PT1H}") Duration margenCompactacion) {
+        this.movimientoInventarioRepository = movimientoInventarioRepository;
+        this.snapshotInventarioRepository = snapshotInventarioRepository;
+        this.margenCompactacion = margenCompactacion;
+    }
+
+    /**
+     * Calcula el stock que tenía un producto en una fecha: el último snapshot anterior más los deltas posteriores.
+     * @param productoId El ID del producto.
+     * @param fecha Fecha a consultar.
+     * @return El stock del producto en esa fecha (0 si todavía no se había dado de alta), o cantidad null si la
+     * fecha es anterior al historial de un producto cargado antes de que existiera.
+     * @throws ValidacionNegocioException si falta el producto o la fecha.
+     */
+    public StockEnFechaDTO obtenerStockEnFecha(Long productoId, LocalDateTime fecha) {
+        if (productoId == null || fecha == null) {
+            throw new ValidacionNegocioException("El id del producto y la fecha son obligatorios");
+        }
+        SnapshotInventario snapshot = snapshotInventarioRepository
+                .findFirstByProductoIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(productoId, fecha)
+                .orElse(null);
+        if (snapshot == null && !movimientoInventarioRepository.existsByProductoIdAndTipo(productoId, TipoMovimiento.ALTA)) {
+            return new StockEnFechaDTO(productoId, fecha, null);
+        }
+        long base = snapshot != null ? snapshot.getCantidad() : 0;
+        LocalDateTime desde = snapshot != null ? snapshot.getFechaCorte() : INICIO;
+        long cantidad = base + movimientoInventarioRepository.sumarDeltas(productoId, desde, fecha);
+        return new StockEnFechaDTO(productoId, fecha, Math.toIntExact(cantidad));
+    }
+
+    /**
+     * Crea el snapshot de apertura de los productos cuyo stock es anterior al historial, con corte justo antes de
+     * su primer movimiento (o ahora, si no tienen) y la cantidad actual menos los deltas registrados desde entonces.
+     * Solo considera productos sin alta ni snapshots, por lo que puede ejecutarse en cada arranque.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void crearSnapshotsDeApertura() {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<SnapshotInventario> aperturas = movimientoInventarioRepository.buscarStockSinApertura().stream()
+                .map(fila -> {
+                    LocalDateTime primerMovimiento = (LocalDateTime) fila[3];
+                    int cantidad = Math.toIntExact(((Number) fila[1]).longValue() - ((Number) fila[2]).longValue());
+                    return new SnapshotInventario(null, (Long) fila[0], cantidad,
+                            primerMovimiento != null ? primerMovimiento.minus(1, ChronoUnit.MICROS) : ahora);
+                })
+                .toList();
+        snapshotInventarioRepository.saveAll(aperturas);
+        if (!aperturas.isEmpty()) {
+            log.info("Historial de inventario: {} snapshots de apertura para stock anterior al historial", aperturas.size());
+        }
+    }
+
+    /**
+     * Compacta periódicamente los movimientos más antiguos que el margen configurado.
+     */
+    @Scheduled(fixedDelayString = "${inventario.historial.compactacion.intervalo:PT1H}",
+            initialDelayString = "${inventario.historial.compactacion.intervalo:PT1H}")
+    @Transactional
+    public void compactarPeriodicamente() {
+        int creados = compactar(LocalDateTime.now().minus(margenCompactacion));
+        log.info("Compactación del historial de inventario: {} snapshots creados", creados);
+    }
+
+    /**
+     * Crea, para cada producto con movimientos entre su último snapshot y el corte, un snapshot nuevo
+     * con el stock acumulado hasta el corte. Los movimientos se conservan.
+     * @param corte Fecha hasta la que se compacta (incluida).
+     * @return Cantidad de snapshots creados.
+     */
+    @Transactional
+    public int compactar(LocalDateTime corte) {
+        Map<Long, Long> pendientes = movimientoInventarioRepository.sumarDeltasPendientesDeCompactar(corte, INICIO).stream()
+                .collect(Collectors.toMap(fila -> (Long) fila[0], fila -> ((Number) fila[1]).longValue()));
+        List<Long> productoIds = new ArrayList<>(pendientes.keySet());
+        for (int desde = 0; desde < productoIds.size(); desde += TAMANIO_TRAMO) {
+            List<Long> tramo = productoIds.subList(desde, Math.min(desde + TAMANIO_TRAMO, productoIds.size()));
+            Map<Long, SnapshotInventario> ultimos = snapshotInventarioRepository.findUltimosPorProducto(tramo).stream()
+                    .collect(Collectors.toMap(SnapshotInventario::getProductoId, Function.identity()));
+            List<SnapshotInventario> nuevos = new ArrayList<>(tramo.size());
+            for (Long productoId : tramo) {
+                SnapshotInventario ultimo = ultimos.get(productoId);
+                long base = ultimo != null ? ultimo.getCantidad() : 0;
+                nuevos.add(new SnapshotInventario(null, productoId, Math.toIntExact(base + pendientes.get(productoId)), corte));
+            }
+            snapshotInventarioRepository.saveAll(nuevos);
+        }
+        return productoIds.size();
+    }
+}
@@ -1,70 +1,309 @@
 package com.example.dataservice.service;
 
+import com.example.dataservice.dto.AjusteStockDTO;
 import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.PaginaDTO;
+import com.example.dataservice.dto.ResumenActualizacionStockDTO;
+import com.example.dataservice.entity.CambioCatalogo;
+import com.example.dataservice.entity.EntidadCambio;
 import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.MovimientoInventario;
+import com.example.dataservice.entity.TipoMovimiento;
+import com.example.dataservice.exception.ConflictoDeVersionException;
+import com.example.dataservice.exception.InventarioNoEncontradoException;
 import com.example.dataservice.exception.ProductoNoEncontradoException;
+import com.example.dataservice.exception.StockInsuficienteException;
+import com.example.dataservice.exception.ValidacionNegocioException;
 import com.example.dataservice.mapper.InventarioMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
 import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class InventarioService {
+
+    /** Cantidad máxima de productos por sentencia UPDATE, acotada por el límite de parámetros de los drivers. */
+    static final int TAMANIO_TRAMO_STOCK = 1_000;
+    static final String ORDEN_FALTANTE = "faltante";
+    static final String ORDEN_ID = "id";
+
     private final InventarioRepository inventarioRepository;
     private final InventarioMapper inventarioMapper;
+    private final ReintentoOptimista reintentoOptimista;
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final CambioCatalogoRepository cambioCatalogoRepository;
+    private final CatalogoJdbcRepository catalogoJdbcRepository;
 
     /**
      * Constructor para la inyección de dependencias.
      * @param inventarioRepository Repositorio JPA para la entidad Inventario.
      * @param inventarioMapper Mapper para convertir entre entidades y DTOs.
+     * @param reintentoOptimista Ejecutor de escrituras con reintento ante conflictos de versión.
+     * @param movimientoInventarioRepository Repositorio del historial de movimientos de stock.
+     * @param cambioCatalogoRepository Registro de cambios que alimenta el feed {@code /data/changes}.
+     * @param catalogoJdbcRepository Camino de lectura por JDBC para los listados, si está habilitado.
      */
-    public InventarioService(InventarioRepository inventarioRepository, InventarioMapper inventarioMapper) {
+    public InventarioService(InventarioRepository inventarioRepository, InventarioMapper inventarioMapper,
+                             ReintentoOptimista reintentoOptimista,
+                             MovimientoInventarioRepository movimientoInventarioRepository,
+                             CambioCatalogoRepository cambioCatalogoRepository,
+                             CatalogoJdbcRepository catalogoJdbcRepository) {
         this.inventarioRepository = inventarioRepository;
         this.inventarioMapper = inventarioMapper;
+        this.reintentoOptimista = reintentoOptimista;
+        this.movimientoInventarioRepository = movimientoInventarioRepository;
+        this.cambioCatalogoRepository = cambioCatalogoRepository;
+        this.catalogoJdbcRepository = catalogoJdbcRepository;
     }
 
     /**
      * Obtiene todos los registros de inventario de la base de datos.
      * @return Lista de todos los registros de inventario convertidos a DTOs.
      */
+    @Transactional(readOnly = true)
     public List<InventarioDTO> obtenerTodo() {
+        if (catalogoJdbcRepository.habilitado()) {
+            return catalogoJdbcRepository.listarInventario();
+        }
         return inventarioRepository.findAll()
                 .stream()
                 .map(inventarioMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene una página del inventario usando paginación por cursor (keyset) sobre el ID.
+     * @param after ID del último registro recibido; null para empezar desde el principio.
+     * @param limit Cantidad máxima de registros de la página (se acota a [1, 500]).
+     * @return Página de registros de inventario convertidos a DTOs y el cursor de la página siguiente.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<InventarioDTO> obtenerPagina(Long after, int limit) {
+        int limite = Paginacion.normalizarLimite(limit);
+        List<Inventario> filas = inventarioRepository.findByIdGreaterThanOrderByIdAsc(
+                Paginacion.normalizarCursor(after), Limit.of(limite + 1));
+        return Paginacion.armarPagina(filas, limite, Inventario::getId, inventarioMapper::toDTO);
+    }
+
+    /**
+     * Obtiene el registro de inventario asociado a un producto.
+     * @param productoId El ID del producto.
+     * @return El registro de inventario convertido a DTO.
+     * @throws InventarioNoEncontradoException si el producto no tiene inventario.
+     */
+    @Transactional(readOnly = true)
+    public InventarioDTO obtenerPorProductoId(Long productoId) {
+        return inventarioRepository.findByProductoId(productoId)
+                .map(inventarioMapper::toDTO)
+                .orElseThrow(() -> new InventarioNoEncontradoException("Inventario no encontrado para producto ID: " + productoId));
+    }
+
     /**
      * Actualiza la cantidad de stock de un producto específico.
+     * Si otra transacción modifica el inventario al mismo tiempo, la actualización se reintenta.
      * @param productoId El ID del producto asociado al inventario a actualizar.
      * @param cantidad La nueva cantidad de stock.
      * @return El registro de Inventario actualizado, convertido a DTO.
      * @throws ProductoNoEncontradoException si el registro de inventario asociado al productoId no existe.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InventarioDTO actualizarStock(Long productoId, Integer cantidad) {
+        return actualizarStock(productoId, cantidad, null);
+    }
+
+    /**
+     * Actualiza la cantidad de stock solo si la versión actual del inventario coincide con la esperada.
+     * Sin versión esperada, los conflictos con escrituras concurrentes se reintentan.
+     * @param productoId El ID del producto asociado al inventario a actualizar.
+     * @param cantidad La nueva cantidad de stock.
+     * @param versionEsperada Versión del inventario leída por el cliente (ETag), o null para no verificarla.
+     * @return El registro de Inventario actualizado, convertido a DTO.
+     * @throws ConflictoDeVersionException si la versión actual no coincide con la esperada.
+     * @throws ProductoNoEncontradoException si el registro de inventario asociado al productoId no existe.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventarioDTO actualizarStock(Long productoId, Integer cantidad, Long versionEsperada) {
+        return reintentoOptimista.ejecutar(() -> aplicarStock(productoId, cantidad, versionEsperada));
+    }
+
+    private InventarioDTO aplicarStock(Long productoId, Integer cantidad, Long versionEsperada) {
         Inventario inventario = inventarioRepository.findByProductoId(productoId)
                 .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado con ID: " + productoId));
+        if (versionEsperada != null && !versionEsperada.equals(inventario.getVersion())) {
+            throw new ConflictoDeVersionException("El inventario del producto " + productoId + " fue modificado: versión actual "
+                    + inventario.getVersion() + ", esperada " + versionEsperada);
+        }
+        LocalDateTime fecha = LocalDateTime.now();
+        int delta = cantidad - Objects.requireNonNullElse(inventario.getCantidad(), 0);
         inventario.setCantidad(cantidad);
-        inventario.setFechaActualizacion(LocalDateTime.now());
+        inventario.setFechaActualizacion(fecha);
 
         Inventario inventarioGuardado = inventarioRepository.save(inventario);
+        if (delta != 0) {
+            movimientoInventarioRepository.save(MovimientoInventario.de(productoId, delta, TipoMovimiento.AJUSTE, fecha));
+        }
+        cambioCatalogoRepository.registrar(CambioCatalogo.upsert(EntidadCambio.INVENTARIO, inventario.getId()));
+        try {
+            inventarioRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            if (versionEsperada != null) {
+                throw new ConflictoDeVersionException("El inventario del producto " + productoId + " fue modificado por otra operación");
+            }
+            throw e;
+        }
 
         return inventarioMapper.toDTO(inventarioGuardado);
     }
 
+    /**
+     * Actualiza el stock de varios productos con sentencias UPDATE por conjunto, de a
+     * {@link #TAMANIO_TRAMO_STOCK} productos, registrando la misma fecha de actualización en todos.
+     * Las filas de cada tramo se bloquean antes del UPDATE para registrar en el historial el delta exacto.
+     * Si un producto aparece repetido se aplica la última cantidad recibida.
+     * @param ajustes Lista de productos con su nueva cantidad absoluta.
+     * @return Resumen con la cantidad de filas actualizadas y los productos sin inventario.
+     * @throws ValidacionNegocioException si la lista está vacía o alguna fila no tiene producto o tiene cantidad negativa.
+     */
+    public ResumenActualizacionStockDTO actualizarStockEnLote(List<AjusteStockDTO> ajustes) {
+        if (ajustes == null || ajustes.isEmpty()) {
+            throw new ValidacionNegocioException("La lista de ajustes de stock no puede estar vacía");
+        }
+        Map<Long, Integer> cantidadesPorProducto = new LinkedHashMap<>();
+        for (AjusteStockDTO ajuste : ajustes) {
+            if (ajuste == null || ajuste.getProductoId() == null) {
+                throw new ValidacionNegocioException("El id del producto es obligatorio en cada ajuste");
+            }
+            if (ajuste.getCantidad() == null || ajuste.getCantidad() < 0) {
+                throw new ValidacionNegocioException("La cantidad debe ser >= 0 para el producto " + ajuste.getProductoId());
+            }
+            cantidadesPorProducto.put(ajuste.getProductoId(), ajuste.getCantidad());
+        }
+
+        LocalDateTime fechaActualizacion = LocalDateTime.now();
+        List<Long> productoIds = new ArrayList<>(cantidadesPorProducto.keySet());
+        List<Long> noEncontrados = new ArrayList<>();
+        int actualizados = 0;
+        for (int desde = 0; desde < productoIds.size(); desde += TAMANIO_TRAMO_STOCK) {
+            List<Long> tramo = productoIds.subList(desde, Math.min(desde + TAMANIO_TRAMO_STOCK, productoIds.size()));
+            Map<Long, Inventario> inventariosPrevios = inventarioRepository.findParaActualizarPorProductoIds(tramo).stream()
+                    .collect(Collectors.toMap(i -> i.getProducto().getId(), Function.identity()));
+            Map<Long, Integer> cantidades = new LinkedHashMap<>();
+            List<MovimientoInventario> movimientos = new ArrayList<>();
+            List<CambioCatalogo> cambios = new ArrayList<>();
+            for (Long productoId : tramo) {
+                Inventario previo = inventariosPrevios.get(productoId);
+                if (previo == null) {
+                    noEncontrados.add(productoId);
+                    continue;
+                }
+                int previa = previo.getCantidad();
+                int nueva = cantidadesPorProducto.get(productoId);
+                cantidades.put(productoId, nueva);
+                cambios.add(CambioCatalogo.upsert(EntidadCambio.INVENTARIO, previo.getId()));
+                if (nueva != previa) {
+                    movimientos.add(MovimientoInventario.de(productoId, nueva - previa, TipoMovimiento.AJUSTE, fechaActualizacion));
+                }
+            }
+            actualizados += inventarioRepository.actualizarCantidades(cantidades, fechaActualizacion);
+            movimientoInventarioRepository.saveAll(movimientos);
+            cambioCatalogoRepository.registrar(cambios);
+        }
+        return new ResumenActualizacionStockDTO(ajustes.size(), actualizados, noEncontrados, fechaActualizacion);
+    }
+
+    /**
+     * Registra un movimiento de inventario sumando {@code delta} a la cantidad actual de forma atómica.
+     * El stock nunca queda negativo y los movimientos concurrentes sobre el mismo producto no se pisan.
+     * @param productoId El ID del producto.
+     * @param delta Cantidad a sumar (positiva para ingresos, negativa para egresos); no puede ser cero.
+     * @return El registro de Inventario resultante, convertido a DTO.
+     * @throws ValidacionNegocioException si falta algún dato o el delta es cero.
+     * @throws StockInsuficienteException si el stock no alcanza para el egreso.
+     * @throws ProductoNoEncontradoException si el producto no tiene registro de inventario.
+     */
+    public InventarioDTO registrarMovimiento(Long productoId, Integer delta) {
+        if (productoId == null) {
+            throw new ValidacionNegocioException("El id del producto es obligatorio");
+        }
+        if (delta == null || delta == 0) {
+            throw new ValidacionNegocioException("La cantidad del movimiento debe ser distinta de cero");
+        }
+        LocalDateTime fecha = LocalDateTime.now();
+        if (inventarioRepository.aplicarMovimiento(productoId, delta, fecha) == 0) {
+            Inventario inventario = inventarioRepository.findByProductoId(productoId)
+                    .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado con ID: " + productoId));
+            throw new StockInsuficienteException("Stock insuficiente para el producto " + productoId
+                    + ": disponible " + inventario.getCantidad() + ", solicitado " + (-delta));
+        }
+        movimientoInventarioRepository.save(MovimientoInventario.de(productoId, delta, TipoMovimiento.MOVIMIENTO, fecha));
+        // La fila sigue bloqueada por el UPDATE hasta el commit, por lo que la lectura refleja este movimiento.
+        Inventario inventario = inventarioRepository.findByProductoId(productoId)
+                .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado con ID: " + productoId));
+        cambioCatalogoRepository.registrar(CambioCatalogo.upsert(EntidadCambio.INVENTARIO, inventario.getId()));
+        return inventarioMapper.toDTO(inventario);
+    }
+
     /**
      * Obtiene una lista de productos cuyo stock es menor o igual al stock mínimo configurado.
      * @return Lista de registros de inventario con stock bajo, convertidos a DTOs.
      */
+    @Transactional(readOnly = true)
     public List<InventarioDTO> obtenerProductosConStockBajo() {
         return inventarioRepository.findProductosConStockBajo()
                 .stream()
                 .map(inventarioMapper::toDTO)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Obtiene una página del reporte de stock bajo. Como el orden por faltante no es único por ID,
+     * el cursor es la posición de la siguiente fila.
+     * @param categoria Nombre de la categoría a filtrar, o null para todas.
+     * @param orden {@code faltante} (por defecto, mayor faltante primero) o {@code id}.
+     * @param after Posición recibida en la página anterior; null para empezar desde el principio.
+     * @param limit Cantidad máxima de registros a devolver.
+     * @return Página de registros de inventario con stock bajo y la posición siguiente.
+     * @throws ValidacionNegocioException si el orden o la posición no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<InventarioDTO> obtenerPaginaStockBajo(String categoria, String orden, Long after, int limit) {
+        boolean porFaltante = orden == null || orden.equals(ORDEN_FALTANTE);
+        if (!porFaltante && !orden.equals(ORDEN_ID)) {
+            throw new ValidacionNegocioException("Orden inválido: " + orden + " (valores posibles: faltante, id)");
+        }
+        long posicion = Paginacion.normalizarCursor(after);
+        if (posicion < 0 || posicion > Integer.MAX_VALUE) {
+            throw new ValidacionNegocioException("Posición inválida: " + after);
+        }
+        int limite = Paginacion.normalizarLimite(limit);
+        List<Inventario> filas = inventarioRepository.buscarStockBajo(categoria, porFaltante, (int) posicion, limite + 1);
+        return Paginacion.armarPaginaPorPosicion(filas, limite, posicion, inventarioMapper::toDTO);
+    }
+
+    /**
+     * Completa al arrancar la marca de stock bajo de los registros creados antes de que existiera la columna.
+     * Después de la primera ejecución no encuentra filas pendientes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarStockBajo() {
+        inventarioRepository.completarStockBajo();
+    }
 }
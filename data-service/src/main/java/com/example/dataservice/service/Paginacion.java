@@ -0,0 +1,62 @@
+package com.example.dataservice.service;
+
+import com.example.dataservice.dto.PaginaDTO;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilidades comunes para la paginación por cursor de los servicios.
+ */
+final class Paginacion {
+
+    static final int LIMITE_MAXIMO = 500;
+
+    private Paginacion() {
+    }
+
+    /**
+     * Acota el límite pedido por el cliente al rango [1, LIMITE_MAXIMO].
+     */
+    static int normalizarLimite(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+
+    /**
+     * Normaliza el cursor recibido: sin cursor se empieza desde el principio.
+     */
+    static long normalizarCursor(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    /**
+     * Arma la página a partir de las filas leídas. Se espera que el repositorio haya leído
+     * {@code limite + 1} filas: la fila extra sólo indica que existe una página siguiente.
+     * @param filas Filas leídas ordenadas por ID.
+     * @param limite Tamaño de página solicitado.
+     * @param id Función que extrae el ID (cursor) de cada fila.
+     * @param mapper Función de conversión de entidad a DTO.
+     * @return Página con el contenido y el cursor siguiente (o null si es la última).
+     */
+    static <E, T> PaginaDTO<T> armarPagina(List<E> filas, int limite, Function<E, Long> id, Function<E, T> mapper) {
+        boolean hayMas = filas.size() > limite;
+        List<E> pagina = hayMas ? filas.subList(0, limite) : filas;
+        Long siguienteCursor = hayMas ? id.apply(pagina.get(pagina.size() - 1)) : null;
+        return new PaginaDTO<>(pagina.stream().map(mapper).toList(), siguienteCursor);
+    }
+
+    /**
+     * Arma una página cuyo cursor es la posición de la siguiente fila, para los listados que no se
+     * ordenan por ID. Se espera que el repositorio haya leído {@code limite + 1} filas desde {@code posicion}.
+     * @param filas Filas leídas a partir de la posición.
+     * @param limite Tamaño de página solicitado.
+     * @param posicion Posición de la primera fila leída.
+     * @param mapper Función de conversión de entidad a DTO.
+     * @return Página con el contenido y la posición siguiente (o null si es la última).
+     */
+    static <E, T> PaginaDTO<T> armarPaginaPorPosicion(List<E> filas, int limite, long posicion, Function<E, T> mapper) {
+        boolean hayMas = filas.size() > limite;
+        List<E> pagina = hayMas ? filas.subList(0, limite) : filas;
+        return new PaginaDTO<>(pagina.stream().map(mapper).toList(), hayMas ? posicion + limite : null);
+    }
+}
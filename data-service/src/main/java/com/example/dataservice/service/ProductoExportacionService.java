@@ -0,0 +1,77 @@
+package com.example.dataservice.service;
+
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.ProductoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de exportación completa del catálogo en formato NDJSON (un producto JSON por línea).
+ * Recorre los productos con un cursor de base de datos y vacía el contexto de persistencia cada
+ * {@link #TAMANIO_LOTE} filas, por lo que el uso de memoria no depende del tamaño de la tabla.
+ */
+@Service
+public class ProductoExportacionService {
+
+    static final int TAMANIO_LOTE = ProductoRepository.FETCH_SIZE_EXPORTACION;
+
+    private final ProductoRepository productoRepository;
+    private final ProductoMapper productoMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter productoWriter;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param productoRepository Repositorio JPA para la entidad Producto.
+     * @param productoMapper Mapper para convertir entre entidades y DTOs.
+     * @param entityManager EntityManager usado para liberar las entidades ya exportadas.
+     * @param objectMapper ObjectMapper de la aplicación para serializar cada línea.
+     */
+    public ProductoExportacionService(ProductoRepository productoRepository, ProductoMapper productoMapper,
+                                      EntityManager entityManager, ObjectMapper objectMapper) {
+        this.productoRepository = productoRepository;
+        this.productoMapper = productoMapper;
+        this.entityManager = entityManager;
+        this.productoWriter = objectMapper.writerFor(ProductoDTO.class);
+    }
+
+    /**
+     * Escribe todos los productos, ordenados por ID, como NDJSON en el stream de salida.
+     * @param salida Stream donde se escribe la exportación. No se cierra al terminar.
+     * @return Cantidad de productos exportados.
+     * @throws UncheckedIOException si falla la escritura en la salida.
+     */
+    @Transactional(readOnly = true)
+    public long exportarProductos(OutputStream salida) {
+        BufferedOutputStream buffer = new BufferedOutputStream(salida);
+        long exportados = 0;
+        try (Stream<Producto> productos = productoRepository.streamTodosOrdenadosPorId()) {
+            Iterator<Producto> iterador = productos.iterator();
+            while (iterador.hasNext()) {
+                buffer.write(productoWriter.writeValueAsBytes(productoMapper.toDTO(iterador.next())));
+                buffer.write('\n');
+                exportados++;
+                if (exportados % TAMANIO_LOTE == 0) {
+                    entityManager.clear();
+                    buffer.flush();
+                }
+            }
+            buffer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir la exportación de productos", e);
+        }
+        return exportados;
+    }
+}
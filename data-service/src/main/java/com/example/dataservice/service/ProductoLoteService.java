@@ -0,0 +1,166 @@
+package com.example.dataservice.service;
+
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.dto.ResultadoFilaDTO;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de alta masiva de productos.
+ * Resuelve cada categoría distinta una sola vez, valida todas las filas y persiste las válidas en
+ * transacciones de {@link #TAMANIO_LOTE} productos, de modo que un error no aborta el lote completo.
+ */
+@Service
+public class ProductoLoteService {
+
+    static final int TAMANIO_LOTE = 500;
+
+    private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ProductoMapper productoMapper;
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final CambioCatalogoRepository cambioCatalogoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param productoRepository Repositorio JPA para la entidad Producto.
+     * @param categoriaRepository Repositorio JPA para resolver las categorías del lote.
+     * @param productoMapper Mapper para convertir entre entidades y DTOs.
+     * @param movimientoInventarioRepository Repositorio del historial de movimientos de stock.
+     * @param cambioCatalogoRepository Registro de cambios que alimenta el feed {@code /data/changes}.
+     * @param transactionManager Gestor de transacciones usado para abrir una transacción por tramo.
+     */
+    public ProductoLoteService(ProductoRepository productoRepository, CategoriaRepository categoriaRepository,
+                               ProductoMapper productoMapper, MovimientoInventarioRepository movimientoInventarioRepository,
+                               CambioCatalogoRepository cambioCatalogoRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.productoRepository = productoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.productoMapper = productoMapper;
+        this.movimientoInventarioRepository = movimientoInventarioRepository;
+        this.cambioCatalogoRepository = cambioCatalogoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Crea un lote de productos junto con sus registros de inventario.
+     * @param requests Lista de productos a crear.
+     * @return Un resultado por fila, en el mismo orden que la lista recibida.
+     */
+    public List<ResultadoFilaDTO> crearProductos(List<ProductoRequest> requests) {
+        ResultadoFilaDTO[] resultados = new ResultadoFilaDTO[requests.size()];
+        Map<String, Categoria> categorias = resolverCategorias(requests);
+
+        List<Integer> validos = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validar(requests.get(i), categorias);
+            if (error == null) {
+                validos.add(i);
+            } else {
+                resultados[i] = ResultadoFilaDTO.fallo(i, error);
+            }
+        }
+
+        for (int desde = 0; desde < validos.size(); desde += TAMANIO_LOTE) {
+            List<Integer> tramo = validos.subList(desde, Math.min(desde + TAMANIO_LOTE, validos.size()));
+            persistirTramo(tramo, requests, categorias, resultados);
+        }
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Busca en una sola consulta todas las categorías distintas referenciadas por el lote.
+     */
+    private Map<String, Categoria> resolverCategorias(List<ProductoRequest> requests) {
+        Set<String> nombres = requests.stream()
+                .filter(Objects::nonNull)
+                .map(ProductoRequest::getCategoriaNombre)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (nombres.isEmpty()) {
+            return Map.of();
+        }
+        return categoriaRepository.findByNombreIn(nombres).stream()
+                .collect(Collectors.toMap(Categoria::getNombre, Function.identity()));
+    }
+
+    /**
+     * Aplica las mismas reglas que el alta individual.
+     * @return El mensaje de error, o null si la fila es válida.
+     */
+    private String validar(ProductoRequest request, Map<String, Categoria> categorias) {
+        if (request == null) {
+            return "Request de producto vacío";
+        }
+        if (request.getNombre() == null || request.getNombre().isBlank()) {
+            return "El nombre del producto es obligatorio";
+        }
+        if (request.getPrecio() == null) {
+            return "El precio del producto es obligatorio";
+        }
+        if (request.getStock() == null) {
+            return "El stock es obligatorio";
+        }
+        if (request.getStock() < 0) {
+            return "El stock no puede ser negativo";
+        }
+        if (!categorias.containsKey(request.getCategoriaNombre())) {
+            return "No se encontro la categoria con el nombre: " + request.getCategoriaNombre();
+        }
+        return null;
+    }
+
+    /**
+     * Persiste un tramo en su propia transacción. Si la transacción falla, el tramo se reintenta
+     * fila por fila para aislar las filas con error sin descartar las demás.
+     */
+    private void persistirTramo(List<Integer> indices, List<ProductoRequest> requests,
+                                Map<String, Categoria> categorias, ResultadoFilaDTO[] resultados) {
+        try {
+            List<ProductoDTO> creados = transactionTemplate.execute(status -> {
+                List<Producto> productos = indices.stream()
+                        .map(i -> ProductoService.construirProducto(requests.get(i),
+                                categorias.get(requests.get(i).getCategoriaNombre())))
+                        .toList();
+                List<Producto> guardados = productoRepository.saveAll(productos);
+                movimientoInventarioRepository.saveAll(guardados.stream().map(ProductoService::movimientoDeAlta).toList());
+                cambioCatalogoRepository.registrar(guardados.stream().flatMap(p -> ProductoService.cambiosDeAlta(p).stream()).toList());
+                return guardados.stream()
+                        .map(productoMapper::toDTO)
+                        .toList();
+            });
+            for (int k = 0; k < indices.size(); k++) {
+                resultados[indices.get(k)] = ResultadoFilaDTO.exito(indices.get(k), creados.get(k));
+            }
+        } catch (RuntimeException e) {
+            if (indices.size() == 1) {
+                resultados[indices.get(0)] = ResultadoFilaDTO.fallo(indices.get(0),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            for (Integer indice : indices) {
+                persistirTramo(List.of(indice), requests, categorias, resultados);
+            }
+        }
+    }
+}
@@ -1,60 +1,127 @@
 package com.example.dataservice.service;
 
+import com.example.dataservice.dto.FiltroProductosDTO;
+import com.example.dataservice.dto.PaginaDTO;
 import com.example.dataservice.dto.ProductoDTO;
 import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.entity.CambioCatalogo;
 import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.EntidadCambio;
 import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.MovimientoInventario;
 import com.example.dataservice.entity.Producto;
+import com.example.dataservice.entity.TipoMovimiento;
 import com.example.dataservice.exception.CategoriaNoEncontradaException;
+import com.example.dataservice.exception.ConflictoDeVersionException;
 import com.example.dataservice.exception.ProductoNoEncontradoException;
 import com.example.dataservice.exception.ValidacionNegocioException;
 import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
 import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
 import com.example.dataservice.repository.ProductoRepository;
+import com.example.dataservice.repository.ProductoSpecifications;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductoService {
+    static final int STOCK_MINIMO_POR_DEFECTO = 10;
+    static final int LONGITUD_MAXIMA_BUSQUEDA = 200;
+
+    /** Órdenes admitidos por la búsqueda filtrada; el ID desempata para que el orden sea estable. */
+    private static final Map<String, Sort> ORDENES_FILTRO = Map.of(
+            "id", Sort.by("id"),
+            "precio", Sort.by("precio", "id"),
+            "-precio", Sort.by(Sort.Order.desc("precio"), Sort.Order.asc("id")),
+            "nombre", Sort.by("nombre", "id"),
+            "-nombre", Sort.by(Sort.Order.desc("nombre"), Sort.Order.asc("id")));
+
     private final ProductoRepository productoRepository;
     private final ProductoMapper productoMapper;
     private final CategoriaRepository categoriaRepository;
+    private final ReintentoOptimista reintentoOptimista;
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final CambioCatalogoRepository cambioCatalogoRepository;
+    private final CatalogoJdbcRepository catalogoJdbcRepository;
 
     /**
      * Constructor para la inyección de dependencias.
      * @param productoRepository Repositorio JPA para la entidad Producto.
      * @param productoMapper Mapper para convertir entre entidades y DTOs.
      * @param categoriaRepository Repositorio JPA para buscar la categoría asociada.
+     * @param reintentoOptimista Ejecutor de escrituras con reintento ante conflictos de versión.
+     * @param movimientoInventarioRepository Repositorio del historial de movimientos de stock.
+     * @param cambioCatalogoRepository Registro de cambios que alimenta el feed {@code /data/changes}.
+     * @param catalogoJdbcRepository Camino de lectura por JDBC para los listados, si está habilitado.
      */
     public ProductoService(ProductoRepository productoRepository,
-                           ProductoMapper productoMapper, CategoriaRepository categoriaRepository) {
+                           ProductoMapper productoMapper, CategoriaRepository categoriaRepository,
+                           ReintentoOptimista reintentoOptimista,
+                           MovimientoInventarioRepository movimientoInventarioRepository,
+                           CambioCatalogoRepository cambioCatalogoRepository,
+                           CatalogoJdbcRepository catalogoJdbcRepository) {
         this.productoRepository = productoRepository;
         this.productoMapper = productoMapper;
         this.categoriaRepository = categoriaRepository;
+        this.reintentoOptimista = reintentoOptimista;
+        this.movimientoInventarioRepository = movimientoInventarioRepository;
+        this.cambioCatalogoRepository = cambioCatalogoRepository;
+        this.catalogoJdbcRepository = catalogoJdbcRepository;
     }
 
     /**
      * Obtiene todos los productos almacenados en la base de datos.
      * @return Lista de todos los productos convertidos a DTOs.
      */
+    @Transactional(readOnly = true)
     public List<ProductoDTO> obtenerTodos() {
+        if (catalogoJdbcRepository.habilitado()) {
+            return catalogoJdbcRepository.listarProductos();
+        }
         return productoRepository.findAll()
                 .stream()
                 .map(productoMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene una página de productos usando paginación por cursor (keyset) sobre el ID.
+     * @param after ID del último producto recibido; null para empezar desde el principio.
+     * @param limit Cantidad máxima de productos de la página (se acota a [1, 500]).
+     * @return Página de productos convertidos a DTOs y el cursor de la página siguiente.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<ProductoDTO> obtenerPagina(Long after, int limit) {
+        int limite = Paginacion.normalizarLimite(limit);
+        List<Producto> filas = productoRepository.findByIdGreaterThanOrderByIdAsc(
+                Paginacion.normalizarCursor(after), Limit.of(limite + 1));
+        return Paginacion.armarPagina(filas, limite, Producto::getId, productoMapper::toDTO);
+    }
+
     /**
      * Busca un producto por su identificador único.
      * @param id Identificador del producto buscado.
      * @return Producto encontrado convertido a DTO.
      * @throws ProductoNoEncontradoException si el producto no existe.
      */
+    @Transactional(readOnly = true)
     public ProductoDTO buscarPorId(Long id) {
         return productoRepository.findById(id)
                 .map(productoMapper::toDTO)
@@ -66,13 +133,92 @@ public class ProductoService {
      * @param nombreCategoria Nombre de la categoría a buscar.
      * @return Lista de productos que pertenecen a la categoría, convertidos a DTOs.
      */
+    @Transactional(readOnly = true)
     public List<ProductoDTO> buscarPorCategoria(String nombreCategoria) {
+        if (catalogoJdbcRepository.habilitado()) {
+            return catalogoJdbcRepository.listarProductosPorCategoria(nombreCategoria);
+        }
         return productoRepository.findByCategoriaNombre(nombreCategoria)
                 .stream()
                 .map(productoMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca productos por rango de precio, categoría, stock bajo y prefijo de nombre, resolviendo el filtro,
+     * el orden y el límite en la base de datos (índices sobre {@code precio} y {@code (categoria_id, precio)}).
+     * La categoría y el inventario se traen en la misma consulta.
+     * Sin {@code limit} devuelve todos los productos que cumplen el filtro, como antes de que existiera el
+     * parámetro; con {@code limit} se acota a [1, 500].
+     * @param filtro Criterios de búsqueda; los nulos no filtran.
+     * @return Los productos que cumplen el filtro, hasta {@code limit} si se indica, en el orden pedido.
+     * @throws ValidacionNegocioException si el rango de precios o el orden no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoDTO> filtrarProductos(FiltroProductosDTO filtro) {
+        if (filtro.getPrecioMin() != null && filtro.getPrecioMax() != null
+                && filtro.getPrecioMin().compareTo(filtro.getPrecioMax()) > 0) {
+            throw new ValidacionNegocioException("El precio mínimo no puede ser mayor que el máximo");
+        }
+        Sort orden = ORDENES_FILTRO.get(Objects.requireNonNullElse(filtro.getOrden(), "id"));
+        if (orden == null) {
+            throw new ValidacionNegocioException("Orden inválido: " + filtro.getOrden()
+                    + " (valores posibles: id, precio, -precio, nombre, -nombre)");
+        }
+
+        Specification<Producto> criterios = Specification.allOf(
+                ProductoSpecifications.conCategoriaEInventario(),
+                ProductoSpecifications.precioDesde(filtro.getPrecioMin()),
+                ProductoSpecifications.precioHasta(filtro.getPrecioMax()),
+                ProductoSpecifications.deCategoria(filtro.getCategoria()),
+                ProductoSpecifications.conStockBajo(filtro.getStockBajo()),
+                ProductoSpecifications.nombreEmpiezaCon(filtro.getNombre()));
+        return productoRepository.findBy(criterios, consulta -> filtro.getLimit() == null
+                        ? consulta.sortBy(orden).all()
+                        : consulta.sortBy(orden).limit(Paginacion.normalizarLimite(filtro.getLimit())).all())
+                .stream()
+                .map(productoMapper::toDTO)
+                .toList();
+    }
+
+    /**
+     * Busca productos por texto en el nombre y la descripción, del más relevante al menos relevante.
+     * Como la relevancia no es única por ID, el cursor es la posición del siguiente resultado.
+     * @param texto Términos a buscar.
+     * @param after Posición recibida en la página anterior; null para empezar desde el principio.
+     * @param limit Cantidad máxima de productos de la página (se acota a [1, 500]).
+     * @return Página de productos encontrados y la posición siguiente.
+     * @throws ValidacionNegocioException si el texto está vacío o es demasiado largo, o la posición no es válida.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<ProductoDTO> buscarProductos(String texto, Long after, int limit) {
+        if (texto == null || texto.isBlank()) {
+            throw new ValidacionNegocioException("El texto de búsqueda es obligatorio");
+        }
+        if (texto.length() > LONGITUD_MAXIMA_BUSQUEDA) {
+            throw new ValidacionNegocioException("El texto de búsqueda no puede superar los "
+                    + LONGITUD_MAXIMA_BUSQUEDA + " caracteres");
+        }
+        long posicion = Paginacion.normalizarCursor(after);
+        if (posicion < 0 || posicion > Integer.MAX_VALUE) {
+            throw new ValidacionNegocioException("Posición inválida: " + after);
+        }
+        int limite = Paginacion.normalizarLimite(limit);
+        List<Long> ids = productoRepository.buscarIdsPorTexto(texto.trim(), (int) posicion, limite + 1);
+        Map<Long, Producto> productos = productoRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Producto::getId, Function.identity()));
+        List<Producto> filas = ids.stream().map(productos::get).filter(Objects::nonNull).toList();
+        return Paginacion.armarPaginaPorPosicion(filas, limite, posicion, productoMapper::toDTO);
+    }
+
+    /**
+     * Crea al arrancar el índice de texto completo usado por {@link #buscarProductos}, si todavía no existe.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void crearIndiceBusqueda() {
+        productoRepository.crearIndiceBusqueda();
+    }
+
     /**
      * Crea un nuevo producto junto con su registro de inventario asociado.
      * @param request DTO que contiene los datos del producto y el stock inicial.
@@ -87,6 +233,42 @@ public class ProductoService {
         Categoria categoria = categoriaRepository.findByNombre(request.getCategoriaNombre())
                 .orElseThrow(() -> new CategoriaNoEncontradaException("No se encontro la categoria con el nombre: " + request.getCategoriaNombre()));
 
+        Producto producto = construirProducto(request, categoria);
+        Producto productoGuardado = productoRepository.save(producto);
+        movimientoInventarioRepository.save(movimientoDeAlta(producto));
+        cambioCatalogoRepository.registrar(cambiosDeAlta(productoGuardado));
+
+        return productoMapper.toDTO(productoGuardado);
+    }
+
+    /**
+     * Construye el movimiento de historial que registra el stock inicial de un producto recién persistido.
+     * @param producto Producto ya persistido, con su inventario.
+     * @return Movimiento de alta sin persistir.
+     */
+    static MovimientoInventario movimientoDeAlta(Producto producto) {
+        Inventario inventario = producto.getInventario();
+        return MovimientoInventario.de(producto.getId(), inventario.getCantidad(), TipoMovimiento.ALTA,
+                inventario.getFechaActualizacion());
+    }
+
+    /**
+     * Construye los cambios que publican en el feed un producto recién persistido y su inventario.
+     * @param producto Producto ya persistido, con su inventario.
+     * @return Cambios sin persistir.
+     */
+    static List<CambioCatalogo> cambiosDeAlta(Producto producto) {
+        return List.of(CambioCatalogo.upsert(EntidadCambio.PRODUCTO, producto.getId()),
+                CambioCatalogo.upsert(EntidadCambio.INVENTARIO, producto.getInventario().getId()));
+    }
+
+    /**
+     * Construye un producto nuevo junto con su registro de inventario inicial.
+     * @param request DTO con los datos del producto y el stock inicial.
+     * @param categoria Categoría ya resuelta a la que pertenece el producto.
+     * @return Producto sin persistir, con el inventario asociado en ambos sentidos.
+     */
+    static Producto construirProducto(ProductoRequest request, Categoria categoria) {
         Producto producto = new Producto();
         producto.setNombre(request.getNombre());
         producto.setDescripcion(request.getDescripcion());
@@ -95,19 +277,17 @@ public class ProductoService {
 
         Inventario inventario = new Inventario();
         inventario.setCantidad(request.getStock());
-        inventario.setStockMinimo(10);
+        inventario.setStockMinimo(STOCK_MINIMO_POR_DEFECTO);
         inventario.setFechaActualizacion(LocalDateTime.now());
         inventario.setProducto(producto);
 
         producto.setInventario(inventario);
-
-        Producto productoGuardado = productoRepository.save(producto);
-
-        return productoMapper.toDTO(productoGuardado);
+        return producto;
     }
 
     /**
      * Actualiza un producto existente identificado por su ID.
+     * Si otra transacción modifica el producto al mismo tiempo, la actualización se reintenta sobre la versión nueva.
      * @param id Identificador del producto a actualizar.
      * @param request DTO con los nuevos datos.
      * @return Producto actualizado, convertido a DTO.
@@ -115,10 +295,38 @@ public class ProductoService {
      * @throws ValidacionNegocioException si el nuevo stock es negativo.
      * @throws CategoriaNoEncontradaException si la nueva categoría no existe.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductoDTO actualizarProducto(Long id, ProductoRequest request) {
+        return actualizarProducto(id, request, null);
+    }
+
+    /**
+     * Actualiza un producto existente solo si su versión actual coincide con la esperada (compare-and-set).
+     * Sin versión esperada, los conflictos con escrituras concurrentes se reintentan; con versión esperada
+     * no se reintenta, porque el cliente tiene que volver a leer el producto antes de decidir.
+     * @param id Identificador del producto a actualizar.
+     * @param request DTO con los nuevos datos.
+     * @param versionEsperada Versión del producto leída por el cliente (ETag), o null para no verificarla.
+     * @return Producto actualizado, convertido a DTO.
+     * @throws ConflictoDeVersionException si la versión actual no coincide con la esperada.
+     * @throws ProductoNoEncontradoException si el producto ID no existe.
+     * @throws ValidacionNegocioException si el nuevo stock es negativo.
+     * @throws CategoriaNoEncontradaException si la nueva categoría no existe.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductoDTO actualizarProducto(Long id, ProductoRequest request, Long versionEsperada) {
+        return reintentoOptimista.ejecutar(() -> aplicarActualizacion(id, request, versionEsperada));
+    }
+
+    private ProductoDTO aplicarActualizacion(Long id, ProductoRequest request, Long versionEsperada) {
         Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado con ID: " + id));
 
+        if (versionEsperada != null && !versionEsperada.equals(ProductoMapper.versionDe(producto))) {
+            throw new ConflictoDeVersionException("El producto " + id + " fue modificado: versión actual "
+                    + ProductoMapper.versionDe(producto) + ", esperada " + versionEsperada);
+        }
+
         if (request.getStock() < 0) {
             throw new ValidacionNegocioException("El stock no puede ser negativo");
         }
@@ -132,16 +340,32 @@ public class ProductoService {
         producto.setCategoria(categoria);
 
         Inventario inventario = producto.getInventario();
+        LocalDateTime fecha = LocalDateTime.now();
+        int delta = request.getStock() - Objects.requireNonNullElse(inventario.getCantidad(), 0);
         inventario.setCantidad(request.getStock());
-        inventario.setFechaActualizacion(LocalDateTime.now());
+        inventario.setFechaActualizacion(fecha);
 
         Producto productoActualizado = productoRepository.save(producto);
+        cambioCatalogoRepository.registrar(CambioCatalogo.upsert(EntidadCambio.PRODUCTO, id));
+        if (delta != 0) {
+            movimientoInventarioRepository.save(MovimientoInventario.de(id, delta, TipoMovimiento.AJUSTE, fecha));
+            cambioCatalogoRepository.registrar(CambioCatalogo.upsert(EntidadCambio.INVENTARIO, inventario.getId()));
+        }
+        try {
+            // El flush verifica las versiones y las incrementa antes de armar el DTO (y su ETag).
+            productoRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            if (versionEsperada != null) {
+                throw new ConflictoDeVersionException("El producto " + id + " fue modificado por otra operación");
+            }
+            throw e;
+        }
 
         return productoMapper.toDTO(productoActualizado);
     }
 
     /**
-     * Elimina un producto por su identificador único.
+     * Elimina un producto por su identificador único, publicando el borrado del producto y de su inventario.
      * @param id Identificador del producto a eliminar.
      * @throws ProductoNoEncontradoException si el producto no existe.
      */
@@ -149,6 +373,11 @@ public class ProductoService {
         if (!productoRepository.existsById(id)) {
             throw new ProductoNoEncontradoException("Producto no encontrado con ID: " + id);
         }
+        productoRepository.findById(id)
+                .map(Producto::getInventario)
+                .ifPresent(inventario -> cambioCatalogoRepository.registrar(
+                        CambioCatalogo.borrado(EntidadCambio.INVENTARIO, inventario.getId())));
         productoRepository.deleteById(id);
+        cambioCatalogoRepository.registrar(CambioCatalogo.borrado(EntidadCambio.PRODUCTO, id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.dataservice.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta escrituras con bloqueo optimista, reintentando cuando otra transacción confirmó antes
+ * una versión distinta de la misma fila.
+ * Cada intento corre en su propia transacción, por lo que quien lo invoca no debe estar dentro de una.
+ * Entre intentos se espera un tiempo aleatorio (backoff exponencial con jitter completo) para que
+ * los escritores en conflicto no vuelvan a chocar al mismo tiempo.
+ */
+@Component
+public class ReintentoOptimista {
+
+    static final int MAX_INTENTOS = 5;
+    static final long ESPERA_BASE_MS = 5;
+    static final long ESPERA_MAXIMA_MS = 200;
+
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong reintentos = new AtomicLong();
+
+    /**
+     * Constructor para la inyección de dependencias.
+     * @param transactionManager Gestor de transacciones usado para abrir una transacción por intento.
+     */
+    public ReintentoOptimista(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ejecuta la operación en una transacción, reintentándola ante un conflicto de versión.
+     * @param operacion Operación a ejecutar; debe releer las entidades en cada intento.
+     * @return El resultado del primer intento que confirma.
+     * @throws OptimisticLockingFailureException si el conflicto persiste tras {@link #MAX_INTENTOS} intentos.
+     */
+    public <T> T ejecutar(Supplier<T> operacion) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(status -> operacion.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (intento >= MAX_INTENTOS) {
+                    throw e;
+                }
+                reintentos.incrementAndGet();
+                esperar(intento, e);
+            }
+        }
+    }
+
+    /**
+     * @return Cantidad total de reintentos realizados desde el arranque.
+     */
+    public long getReintentos() {
+        return reintentos.get();
+    }
+
+    private static void esperar(int intento, OptimisticLockingFailureException causa) {
+        long tope = Math.min(ESPERA_MAXIMA_MS, ESPERA_BASE_MS << intento);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(tope + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw causa;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.dataservice.config;
+
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.repository.CategoriaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simula una base con datos previos a las secuencias: filas insertadas con IDs altos mientras la secuencia sigue
+ * al principio. Sin transacción de test, porque {@code ALTER SEQUENCE} confirma la transacción en curso.
+ */
+@DataJpaTest
+@Import(AjusteSecuencias.class)
+@TestPropertySource(properties = "catalogo.secuencias.ajustar-al-iniciar=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AjusteSecuenciasTest {
+
+    @Autowired
+    private AjusteSecuencias ajusteSecuencias;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        categoriaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("ajustar: con IDs existentes por encima de la secuencia, las altas siguientes no los repiten")
+    void ajustar_IdsExistentesPorEncima_AltasSinDuplicados() {
+        jdbcTemplate.update("INSERT INTO categorias (id, nombre, descripcion) VALUES (1000, 'Previa', 'Desc')");
+
+        ajusteSecuencias.ajustar();
+        Categoria nueva = categoriaRepository.save(new Categoria(null, "Nueva", "Desc", null));
+
+        assertTrue(nueva.getId() > 1000, "ID asignado: " + nueva.getId());
+    }
+
+    @Test
+    @DisplayName("ajustar: una secuencia que ya está por encima de los IDs no retrocede ni avanza")
+    void ajustar_SecuenciaPorEncima_NoRetrocede() {
+        Categoria primera = categoriaRepository.save(new Categoria(null, "Primera", "Desc", null));
+        jdbcTemplate.execute("ALTER SEQUENCE categorias_seq RESTART WITH 5000");
+
+        ajusteSecuencias.ajustar();
+
+        Long siguiente = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR categorias_seq", Long.class);
+        assertEquals(5000L, siguiente);
+        assertTrue(primera.getId() < 5000, "ID asignado: " + primera.getId());
+    }
+
+    @Test
+    @DisplayName("ajustar: con la secuencia justo en el mayor ID, el bloque siguiente no incluye IDs existentes")
+    void ajustar_SecuenciaEnElMaximo_AltasSinDuplicados() {
+        jdbcTemplate.execute("ALTER SEQUENCE categorias_seq RESTART WITH 1000");
+        jdbcTemplate.update("INSERT INTO categorias (id, nombre, descripcion) VALUES (1000, 'Previa', 'Desc')");
+
+        ajusteSecuencias.ajustar();
+        Categoria nueva = categoriaRepository.save(new Categoria(null, "Nueva", "Desc", null));
+
+        assertTrue(nueva.getId() > 1000, "ID asignado: " + nueva.getId());
+    }
+}
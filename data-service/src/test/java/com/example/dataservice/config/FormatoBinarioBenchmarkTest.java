@@ -0,0 +1,112 @@
+package com.example.dataservice.config;
+
+import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark del formato de las respuestas entre servicios para 10.000 productos y 10.000 registros de inventario
+ * (que incluyen el producto completo): tamaño del payload con y sin gzip, y tiempo de serialización y
+ * deserialización en JSON y en Smile.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class FormatoBinarioBenchmarkTest {
+
+    private static final int CANTIDAD = 10_000;
+    private static final int RONDAS = 5;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper smile = new SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS))
+            .getObjectMapper();
+
+    @Test
+    @DisplayName("Smile vs JSON: tamaño y tiempo de serialización de 10.000 productos e inventarios")
+    void smile_VsJson() throws IOException {
+        List<ProductoDTO> productos = new ArrayList<>();
+        List<InventarioDTO> inventarios = new ArrayList<>();
+        LocalDateTime fecha = LocalDateTime.of(2024, 5, 1, 10, 30, 15);
+        for (int i = 0; i < CANTIDAD; i++) {
+            ProductoDTO producto = new ProductoDTO((long) i, "Producto " + i, "Descripción del producto " + i,
+                    new BigDecimal("199.99").add(BigDecimal.valueOf(i)), "Categoría " + (i % 20), i % 50, i % 50 < 5, 3L);
+            productos.add(producto);
+            inventarios.add(new InventarioDTO((long) i, producto, i % 50, 5, fecha.plusMinutes(i), 7L));
+        }
+
+        medir("productos", productos, ProductoDTO.class);
+        medir("inventario", inventarios, InventarioDTO.class);
+    }
+
+    private <T> void medir(String nombre, List<T> datos, Class<T> tipo) throws IOException {
+        Resultado enJson = medir(json, datos, tipo);
+        Resultado enSmile = medir(smile, datos, tipo);
+
+        System.out.printf("%n[benchmark] %d %s (mejor de %d rondas)%n", CANTIDAD, nombre, RONDAS);
+        imprimir("JSON ", enJson);
+        imprimir("Smile", enSmile);
+
+        assertTrue(enSmile.bytes() < enJson.bytes());
+    }
+
+    private <T> Resultado medir(ObjectMapper mapper, List<T> datos, Class<T> tipo) throws IOException {
+        JavaType tipoLista = mapper.getTypeFactory().constructCollectionType(List.class, tipo);
+        byte[] cuerpo = mapper.writeValueAsBytes(datos);
+        assertEquals(datos, mapper.readValue(cuerpo, tipoLista));
+
+        long mejorEscritura = Long.MAX_VALUE;
+        long mejorLectura = Long.MAX_VALUE;
+        long mejorGzip = Long.MAX_VALUE;
+        byte[] comprimido = null;
+        for (int i = 0; i < RONDAS; i++) {
+            long inicio = System.nanoTime();
+            cuerpo = mapper.writeValueAsBytes(datos);
+            mejorEscritura = Math.min(mejorEscritura, System.nanoTime() - inicio);
+
+            inicio = System.nanoTime();
+            mapper.readValue(cuerpo, tipoLista);
+            mejorLectura = Math.min(mejorLectura, System.nanoTime() - inicio);
+
+            inicio = System.nanoTime();
+            comprimido = gzip(cuerpo);
+            mejorGzip = Math.min(mejorGzip, System.nanoTime() - inicio);
+        }
+        return new Resultado(cuerpo.length, comprimido.length, mejorEscritura / 1_000_000.0, mejorLectura / 1_000_000.0,
+                mejorGzip / 1_000_000.0);
+    }
+
+    private static void imprimir(String formato, Resultado resultado) {
+        System.out.printf("[benchmark] %s: %8d bytes, %7d bytes con gzip (%5.1f ms), escritura %6.1f ms, lectura %6.1f ms%n",
+                formato, resultado.bytes(), resultado.bytesGzip(), resultado.gzipMs(), resultado.escrituraMs(),
+                resultado.lecturaMs());
+    }
+
+    private static byte[] gzip(byte[] cuerpo) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(cuerpo);
+        }
+        return salida.toByteArray();
+    }
+
+    private record Resultado(int bytes, int bytesGzip, double escrituraMs, double lecturaMs, double gzipMs) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.dataservice.config;
+
+import com.example.dataservice.dto.CategoriaRequest;
+import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import com.example.dataservice.service.CategoriaService;
+import com.example.dataservice.service.ProductoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica el ruteo de lecturas y escrituras con dos bases H2: la réplica sólo recibe los datos de la primaria
+ * cuando el test la "replica", de modo que lo que se lee muestra a qué base fue cada transacción.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria;DB_CLOSE_DELAY=-1",
+        "datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "datasource.replica.username=sa",
+        "datasource.replica.retraso-maximo=PT1M",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class RuteoDataSourceTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Autowired
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    @Autowired
+    @Qualifier("primariaDataSource")
+    private DataSource primaria;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        categoriaRepository.save(new Categoria(null, "Tecno", "Desc", null));
+        replicar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movimientoInventarioRepository.deleteAllInBatch();
+        cambioCatalogoRepository.deleteAllInBatch();
+        inventarioRepository.deleteAllInBatch();
+        productoRepository.deleteAllInBatch();
+        categoriaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Las escrituras van a la primaria y las lecturas readOnly a la réplica")
+    void lecturasALaReplica_EscriturasALaPrimaria() {
+        productoService.crearProducto(new ProductoRequest("Mouse", "Desc", BigDecimal.TEN, "Tecno", 5));
+
+        assertEquals(1, contarProductos(primaria));
+        assertTrue(productoService.obtenerTodos().isEmpty());
+
+        replicar();
+
+        assertEquals(1, productoService.obtenerTodos().size());
+    }
+
+    @Test
+    @DisplayName("ContextoRuteo.enPrimaria lee las propias escrituras antes de que lleguen a la réplica")
+    void enPrimaria_LeeLasPropiasEscrituras() {
+        productoService.crearProducto(new ProductoRequest("Mouse", "Desc", BigDecimal.TEN, "Tecno", 5));
+
+        assertEquals(1, ContextoRuteo.enPrimaria(productoService::obtenerTodos).size());
+        assertFalse(ContextoRuteo.esPrimariaForzada());
+    }
+
+    @Test
+    @DisplayName("Una lectura con X-Ultima-Escritura reciente se resuelve en la primaria")
+    void lecturaConUltimaEscrituraReciente_VaALaPrimaria() throws Exception {
+        String ultimaEscritura = mockMvc.perform(post("/data/productos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ProductoRequest("Mouse", "Desc", BigDecimal.TEN, "Tecno", 5))))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(LecturaConsistenteFilter.HEADER_ULTIMA_ESCRITURA))
+                .andReturn().getResponse().getHeader(LecturaConsistenteFilter.HEADER_ULTIMA_ESCRITURA);
+
+        mockMvc.perform(get("/data/productos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/data/productos").header(LecturaConsistenteFilter.HEADER_ULTIMA_ESCRITURA, ultimaEscritura))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/data/productos").header(LecturaConsistenteFilter.HEADER_ULTIMA_ESCRITURA, "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Lo leído en la réplica no entra a la cache de segundo nivel que usan las lecturas de la primaria")
+    void lecturaEnLaReplica_NoLlenaLaCache() {
+        Long id = categoriaRepository.findAll().get(0).getId();
+        categoriaService.actualizarCategoria(id, new CategoriaRequest("Tecno", "Nueva"));
+        // Como si las entradas que dejó la escritura hubieran vencido
+        entityManagerFactory.getCache().evict(Categoria.class);
+
+        assertEquals("Desc", categoriaService.buscarPorId(id).getDescripcion());
+        assertEquals("Desc", categoriaService.obtenerTodas().get(0).getDescripcion());
+
+        assertEquals("Nueva", ContextoRuteo.enPrimaria(() -> categoriaService.buscarPorId(id)).getDescripcion());
+        assertEquals("Nueva", ContextoRuteo.enPrimaria(categoriaService::obtenerTodas).get(0).getDescripcion());
+    }
+
+    /**
+     * Simula la replicación copiando el esquema y los datos de la primaria en la réplica.
+     */
+    private void replicar() {
+        List<String> script = new JdbcTemplate(primaria).queryForList("SCRIPT", String.class);
+        try (Connection conexion = replica.getConnection(); Statement sentencia = conexion.createStatement()) {
+            conexion.setReadOnly(false);
+            sentencia.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                sentencia.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int contarProductos(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM productos", Integer.class);
+    }
+}
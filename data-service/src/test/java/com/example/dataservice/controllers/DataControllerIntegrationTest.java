@@ -99,8 +99,8 @@ class DataControllerIntegrationTest {
         Categoria cat = new Categoria(null, "UpdateTest", "Desc", null);
         categoriaRepository.save(cat);
 
-        Producto original = new Producto(null, "Original", "Desc", BigDecimal.valueOf(100), cat, null);
-        Inventario inv = new Inventario(null, original, 10, 5, null);
+        Producto original = new Producto(null, "Original", "Desc", BigDecimal.valueOf(100), cat, null, null);
+        Inventario inv = new Inventario(null, original, 10, 5, null, null, null);
         original.setInventario(inv);
         productoRepository.save(original); // Guardamos directamente en repo para preparar el escenario
 
@@ -128,7 +128,7 @@ class DataControllerIntegrationTest {
         // Arrange
         Categoria cat = new Categoria(null, "DeleteTest", "Desc", null);
         categoriaRepository.save(cat);
-        Producto p = productoRepository.save(new Producto(null, "Borrar", "Desc", BigDecimal.TEN, cat, null));
+        Producto p = productoRepository.save(new Producto(null, "Borrar", "Desc", BigDecimal.TEN, cat, null, null));
 
         // Act
         restTemplate.delete("/data/productos/" + p.getId());
@@ -144,8 +144,8 @@ class DataControllerIntegrationTest {
         Categoria c1 = categoriaRepository.save(new Categoria(null, "Cat A", "Desc", null));
         Categoria c2 = categoriaRepository.save(new Categoria(null, "Cat B", "Desc", null));
 
-        productoRepository.save(new Producto(null, "Prod A", "Desc", BigDecimal.TEN, c1, null));
-        productoRepository.save(new Producto(null, "Prod B", "Desc", BigDecimal.TEN, c2, null));
+        productoRepository.save(new Producto(null, "Prod A", "Desc", BigDecimal.TEN, c1, null, null));
+        productoRepository.save(new Producto(null, "Prod B", "Desc", BigDecimal.TEN, c2, null, null));
 
         // Act
         ResponseEntity<Producto[]> response = restTemplate.getForEntity("/data/productos/categoria/Cat A", Producto[].class);
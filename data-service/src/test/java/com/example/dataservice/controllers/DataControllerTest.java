@@ -1,31 +1,61 @@
 package com.example.dataservice.controller;
 
+import com.example.dataservice.dto.AjusteStockDTO;
+import com.example.dataservice.dto.CambioDTO;
+import com.example.dataservice.dto.CategoriaDTO;
+import com.example.dataservice.dto.EstadisticasCacheDTO;
+import com.example.dataservice.dto.EstadisticasCategoriaDTO;
+import com.example.dataservice.dto.FiltroProductosDTO;
 import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.PaginaCambiosDTO;
+import com.example.dataservice.dto.PaginaDTO;
 import com.example.dataservice.dto.ProductoDTO;
 import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.dto.ResultadoFilaDTO;
+import com.example.dataservice.dto.ResumenActualizacionStockDTO;
+import com.example.dataservice.dto.StockEnFechaDTO;
+import com.example.dataservice.exception.ConflictoDeVersionException;
+import com.example.dataservice.exception.InventarioNoEncontradoException;
+import com.example.dataservice.exception.StockInsuficienteException;
+import com.example.dataservice.exception.ValidacionNegocioException;
+import com.example.dataservice.service.CambiosCatalogoService;
 import com.example.dataservice.service.CategoriaService;
+import com.example.dataservice.service.EstadisticasCacheService;
+import com.example.dataservice.service.HistorialInventarioService;
 import com.example.dataservice.service.InventarioService;
+import com.example.dataservice.service.ProductoExportacionService;
+import com.example.dataservice.service.ProductoLoteService;
 import com.example.dataservice.service.ProductoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -49,13 +79,28 @@ class DataControllerTest {
     @MockBean
     private CategoriaService categoriaService;
 
+    @MockBean
+    private ProductoExportacionService productoExportacionService;
+
+    @MockBean
+    private ProductoLoteService productoLoteService;
+
+    @MockBean
+    private HistorialInventarioService historialInventarioService;
+
+    @MockBean
+    private EstadisticasCacheService estadisticasCacheService;
+
+    @MockBean
+    private CambiosCatalogoService cambiosCatalogoService;
+
 
     @Test
     @DisplayName("GET /data/productos: Retorna 200 y lista de productos")
     void obtenerTodosLosProductos_RetornaLista() throws Exception {
         // Arrange
-        ProductoDTO p1 = new ProductoDTO(1L, "Laptop", "Gamer", BigDecimal.valueOf(1000), "Tecno", 10, false);
-        ProductoDTO p2 = new ProductoDTO(2L, "Mouse", "Optico", BigDecimal.valueOf(20), "Tecno", 50, false);
+        ProductoDTO p1 = new ProductoDTO(1L, "Laptop", "Gamer", BigDecimal.valueOf(1000), "Tecno", 10, false, null);
+        ProductoDTO p2 = new ProductoDTO(2L, "Mouse", "Optico", BigDecimal.valueOf(20), "Tecno", 50, false, null);
         List<ProductoDTO> lista = Arrays.asList(p1, p2);
 
         when(productoService.obtenerTodos()).thenReturn(lista);
@@ -70,12 +115,104 @@ class DataControllerTest {
                 .andExpect(jsonPath("$[1].nombre", is("Mouse")));
     }
 
+    @Test
+    @DisplayName("GET /data/productos con Accept Smile: Responde en Smile; sin Accept sigue respondiendo JSON")
+    void obtenerTodosLosProductos_AcceptSmile_RespondeSmile() throws Exception {
+        ProductoDTO p1 = new ProductoDTO(1L, "Laptop", "Gamer", new BigDecimal("1000.50"), "Tecno", 10, false, null);
+        when(productoService.obtenerTodos()).thenReturn(List.of(p1));
+
+        byte[] smile = mockMvc.perform(get("/data/productos").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        mockMvc.perform(get("/data/productos"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        ProductoDTO[] leidos = new ObjectMapper(new SmileFactory()).readValue(smile, ProductoDTO[].class);
+        assertEquals(p1, leidos[0]);
+    }
+
+    @Test
+    @DisplayName("GET /data/productos: Informa la versión del catálogo como ETag")
+    void obtenerTodosLosProductos_ConVersion_RetornaETag() throws Exception {
+        when(cambiosCatalogoService.obtenerVersionCatalogo()).thenReturn(42L);
+        when(productoService.obtenerTodos()).thenReturn(List.of(new ProductoDTO()));
+
+        mockMvc.perform(get("/data/productos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("GET /data/productos con If-None-Match vigente: Retorna 304 sin consultar los productos")
+    void obtenerTodosLosProductos_ETagVigente_RetornaNotModified() throws Exception {
+        when(cambiosCatalogoService.obtenerVersionCatalogo()).thenReturn(42L);
+
+        mockMvc.perform(get("/data/productos").header(HttpHeaders.IF_NONE_MATCH, "\"42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42\""))
+                .andExpect(content().string(""));
+
+        verify(productoService, never()).obtenerTodos();
+    }
+
+    @Test
+    @DisplayName("GET /data/productos con If-None-Match vencido: Retorna el listado con la versión nueva")
+    void obtenerTodosLosProductos_ETagVencido_RetornaListado() throws Exception {
+        when(cambiosCatalogoService.obtenerVersionCatalogo()).thenReturn(43L);
+        when(productoService.obtenerTodos()).thenReturn(List.of(new ProductoDTO()));
+
+        mockMvc.perform(get("/data/productos").header(HttpHeaders.IF_NONE_MATCH, "\"42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"43\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("GET /data/productos?after=&limit=: Retorna página con cursor siguiente")
+    void obtenerPaginaDeProductos_RetornaPagina() throws Exception {
+        // Arrange
+        ProductoDTO p1 = new ProductoDTO(6L, "Laptop", "Gamer", BigDecimal.valueOf(1000), "Tecno", 10, false, null);
+        when(productoService.obtenerPagina(5L, 1)).thenReturn(new PaginaDTO<>(List.of(p1), 6L));
+
+        // Act & Assert
+        mockMvc.perform(get("/data/productos").param("after", "5").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(jsonPath("$.contenido[0].nombre", is("Laptop")))
+                .andExpect(jsonPath("$.siguienteCursor", is(6)));
+    }
+
+    @Test
+    @DisplayName("GET /data/productos/export: Retorna NDJSON en streaming")
+    void exportarProductos_RetornaNdjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream salida = invocation.getArgument(0);
+            salida.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(productoExportacionService).exportarProductos(any());
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/data/productos/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
     @Test
     @DisplayName("GET /data/productos/{id}: Retorna 200 y el producto")
     void obtenerProductoPorId_RetornaProducto() throws Exception {
         // Arrange
         Long id = 1L;
-        ProductoDTO p1 = new ProductoDTO(id, "Laptop", "Gamer", BigDecimal.valueOf(1000), "Tecno", 5, true); // stockBajo = true
+        ProductoDTO p1 = new ProductoDTO(id, "Laptop", "Gamer", BigDecimal.valueOf(1000), "Tecno", 5, true, null); // stockBajo = true
 
         when(productoService.buscarPorId(id)).thenReturn(p1);
 
@@ -93,7 +230,7 @@ class DataControllerTest {
         // Arrange
         ProductoRequest request = new ProductoRequest("Teclado", "Mecánico", BigDecimal.valueOf(50), "Tecno", 10);
         // El DTO de respuesta simula lo que devolvería el servicio tras guardar
-        ProductoDTO respuesta = new ProductoDTO(1L, "Teclado", "Mecánico", BigDecimal.valueOf(50), "Tecno", 10, false);
+        ProductoDTO respuesta = new ProductoDTO(1L, "Teclado", "Mecánico", BigDecimal.valueOf(50), "Tecno", 10, false, null);
 
         when(productoService.crearProducto(any(ProductoRequest.class))).thenReturn(respuesta);
 
@@ -106,15 +243,39 @@ class DataControllerTest {
                 .andExpect(jsonPath("$.stock", is(10)));
     }
 
+    @Test
+    @DisplayName("POST /data/productos/batch: Retorna un resultado por fila")
+    void crearProductosEnLote_RetornaResultados() throws Exception {
+        // Arrange
+        List<ProductoRequest> requests = List.of(
+                new ProductoRequest("Teclado", "Mecánico", BigDecimal.valueOf(50), "Tecno", 10),
+                new ProductoRequest("Mouse", "Optico", BigDecimal.valueOf(20), "Inexistente", 5));
+        ProductoDTO creado = new ProductoDTO(1L, "Teclado", "Mecánico", BigDecimal.valueOf(50), "Tecno", 10, false, null);
+        when(productoLoteService.crearProductos(any())).thenReturn(List.of(
+                ResultadoFilaDTO.exito(0, creado),
+                ResultadoFilaDTO.fallo(1, "No se encontro la categoria con el nombre: Inexistente")));
+
+        // Act & Assert
+        mockMvc.perform(post("/data/productos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].exitoso", is(true)))
+                .andExpect(jsonPath("$[0].producto.id", is(1)))
+                .andExpect(jsonPath("$[1].exitoso", is(false)))
+                .andExpect(jsonPath("$[1].indice", is(1)));
+    }
+
     @Test
     @DisplayName("PUT /data/productos/{id}: Retorna 200 y producto actualizado")
     void actualizarProducto_RetornaActualizado() throws Exception {
         // Arrange
         Long id = 1L;
         ProductoRequest request = new ProductoRequest("Teclado v2", "RGB", BigDecimal.valueOf(60), "Tecno", 10);
-        ProductoDTO respuesta = new ProductoDTO(id, "Teclado v2", "RGB", BigDecimal.valueOf(60), "Tecno", 10, false);
+        ProductoDTO respuesta = new ProductoDTO(id, "Teclado v2", "RGB", BigDecimal.valueOf(60), "Tecno", 10, false, null);
 
-        when(productoService.actualizarProducto(eq(id), any(ProductoRequest.class))).thenReturn(respuesta);
+        when(productoService.actualizarProducto(eq(id), any(ProductoRequest.class), isNull())).thenReturn(respuesta);
 
         // Act & Assert
         mockMvc.perform(put("/data/productos/{id}", id)
@@ -167,6 +328,29 @@ class DataControllerTest {
                 .andExpect(jsonPath("$[0].cantidad", is(2)));
     }
 
+    @Test
+    @DisplayName("GET /data/inventario/stock-bajo con If-None-Match vigente: Retorna 304 sin calcular el reporte")
+    void obtenerProductosConStockBajo_ETagVigente_RetornaNotModified() throws Exception {
+        when(cambiosCatalogoService.obtenerVersionCatalogo()).thenReturn(7L);
+
+        mockMvc.perform(get("/data/inventario/stock-bajo").header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isNotModified());
+
+        verify(inventarioService, never()).obtenerProductosConStockBajo();
+    }
+
+    @Test
+    @DisplayName("GET /data/categorias: Retorna las categorías con la versión del catálogo como ETag")
+    void obtenerTodasLasCategorias_RetornaListaConETag() throws Exception {
+        when(cambiosCatalogoService.obtenerVersionCatalogo()).thenReturn(7L);
+        when(categoriaService.obtenerTodas()).thenReturn(List.of(new CategoriaDTO(1L, "Tecno", "Desc")));
+
+        mockMvc.perform(get("/data/categorias"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(jsonPath("$[0].nombre", is("Tecno")));
+    }
+
     @Test
     @DisplayName("GET /data/inventario: Retorna todo el inventario")
     void obtenerTodoElInventario_RetornaLista() throws Exception {
@@ -176,6 +360,31 @@ class DataControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("GET /data/inventario/producto/{productoId}: Retorna el inventario del producto con su versión como ETag")
+    void obtenerInventarioPorProductoId_RetornaInventario() throws Exception {
+        InventarioDTO dto = new InventarioDTO();
+        dto.setId(3L);
+        dto.setCantidad(8);
+        dto.setVersion(2L);
+        when(inventarioService.obtenerPorProductoId(1L)).thenReturn(dto);
+
+        mockMvc.perform(get("/data/inventario/producto/{productoId}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.cantidad", is(8)));
+    }
+
+    @Test
+    @DisplayName("GET /data/inventario/producto/{productoId}: Retorna 404 si el producto no tiene inventario")
+    void obtenerInventarioPorProductoId_NoExiste_RetornaNotFound() throws Exception {
+        when(inventarioService.obtenerPorProductoId(99L))
+                .thenThrow(new InventarioNoEncontradoException("Inventario no encontrado para producto ID: 99"));
+
+        mockMvc.perform(get("/data/inventario/producto/{productoId}", 99L))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("PUT /data/inventario/{id}/stock: Actualiza stock simple")
     void actualizarStock_RetornaDTO() throws Exception {
@@ -185,7 +394,7 @@ class DataControllerTest {
         InventarioDTO dto = new InventarioDTO();
         dto.setId(id);
         dto.setCantidad(nuevoStock);
-        when(inventarioService.actualizarStock(any(), any())).thenReturn(dto);
+        when(inventarioService.actualizarStock(any(), any(), isNull())).thenReturn(dto);
 
         // Act & Assert
         mockMvc.perform(put("/data/inventario/{id}/stock", id)
@@ -194,4 +403,188 @@ class DataControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.cantidad", is(50)));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("PUT /data/inventario/stock: Actualiza stock en lote y retorna resumen")
+    void actualizarStockEnLote_RetornaResumen() throws Exception {
+        List<AjusteStockDTO> ajustes = List.of(new AjusteStockDTO(1L, 5), new AjusteStockDTO(99L, 7));
+        when(inventarioService.actualizarStockEnLote(any()))
+                .thenReturn(new ResumenActualizacionStockDTO(2, 1, List.of(99L), LocalDateTime.now()));
+
+        mockMvc.perform(put("/data/inventario/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ajustes)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actualizados", is(1)))
+                .andExpect(jsonPath("$.productosNoEncontrados[0]", is(99)));
+    }
+
+    @Test
+    @DisplayName("POST /data/inventario/movimientos: Aplica el movimiento y retorna la cantidad resultante")
+    void registrarMovimiento_RetornaInventario() throws Exception {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(1L);
+        InventarioDTO movimiento = new InventarioDTO(null, producto, -2, null, null, null);
+        InventarioDTO resultado = new InventarioDTO(10L, producto, 8, 5, LocalDateTime.now(), null);
+        when(inventarioService.registrarMovimiento(1L, -2)).thenReturn(resultado);
+
+        mockMvc.perform(post("/data/inventario/movimientos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movimiento)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidad", is(8)));
+    }
+
+    @Test
+    @DisplayName("POST /data/inventario/movimientos: El stock insuficiente retorna 400 con su código en X-Codigo-Error")
+    void registrarMovimiento_StockInsuficiente_Retorna400ConCodigo() throws Exception {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(1L);
+        InventarioDTO movimiento = new InventarioDTO(null, producto, -20, null, null, null);
+        when(inventarioService.registrarMovimiento(1L, -20))
+                .thenThrow(new StockInsuficienteException("Stock insuficiente para el producto 1"));
+
+        mockMvc.perform(post("/data/inventario/movimientos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movimiento)))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("X-Codigo-Error", "STOCK_INSUFICIENTE"));
+    }
+
+    @Test
+    @DisplayName("POST /data/inventario/movimientos: Las demás validaciones retornan 400 sin código de error")
+    void registrarMovimiento_Invalido_Retorna400SinCodigo() throws Exception {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(1L);
+        InventarioDTO movimiento = new InventarioDTO(null, producto, 0, null, null, null);
+        when(inventarioService.registrarMovimiento(1L, 0))
+                .thenThrow(new ValidacionNegocioException("La cantidad del movimiento debe ser distinta de cero"));
+
+        mockMvc.perform(post("/data/inventario/movimientos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movimiento)))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist("X-Codigo-Error"));
+    }
+
+    @Test
+    @DisplayName("PUT /data/productos/{id}: Con If-Match actualiza de forma condicional y retorna el nuevo ETag")
+    void actualizarProducto_ConIfMatch_RetornaEtag() throws Exception {
+        ProductoRequest request = new ProductoRequest("Teclado", "RGB", BigDecimal.valueOf(60), "Tecno", 10);
+        ProductoDTO respuesta = new ProductoDTO(1L, "Teclado", "RGB", BigDecimal.valueOf(60), "Tecno", 10, false, 4L);
+        when(productoService.actualizarProducto(1L, request, 3L)).thenReturn(respuesta);
+
+        mockMvc.perform(put("/data/productos/{id}", 1L)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    @DisplayName("PUT /data/productos/{id}: Con If-Match desactualizado retorna 412")
+    void actualizarProducto_IfMatchDesactualizado_Retorna412() throws Exception {
+        ProductoRequest request = new ProductoRequest("Teclado", "RGB", BigDecimal.valueOf(60), "Tecno", 10);
+        when(productoService.actualizarProducto(1L, request, 3L))
+                .thenThrow(new ConflictoDeVersionException("El producto 1 fue modificado"));
+
+        mockMvc.perform(put("/data/productos/{id}", 1L)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("GET /data/inventario/{id}/stock?fecha=: Retorna el stock reconstruido en esa fecha")
+    void obtenerStockEnFecha_RetornaStock() throws Exception {
+        LocalDateTime fecha = LocalDateTime.of(2024, 5, 1, 10, 0);
+        when(historialInventarioService.obtenerStockEnFecha(1L, fecha)).thenReturn(new StockEnFechaDTO(1L, fecha, 42));
+
+        mockMvc.perform(get("/data/inventario/1/stock").param("fecha", "2024-05-01T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productoId", is(1)))
+                .andExpect(jsonPath("$.cantidad", is(42)));
+    }
+
+    @Test
+    @DisplayName("GET /data/cache/estadisticas: Retorna los aciertos y fallos de cache")
+    void obtenerEstadisticasCache_RetornaContadores() throws Exception {
+        when(estadisticasCacheService.obtenerEstadisticas()).thenReturn(new EstadisticasCacheDTO(8, 2, 2, 5, 1, 1, 10));
+
+        mockMvc.perform(get("/data/cache/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aciertosEntidades", is(8)))
+                .andExpect(jsonPath("$.aciertosConsultas", is(5)))
+                .andExpect(jsonPath("$.fallosConsultas", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /data/changes?since=&limit=: Retorna los cambios y la última secuencia")
+    void obtenerCambios_RetornaPagina() throws Exception {
+        ProductoDTO producto = new ProductoDTO();
+        producto.setId(7L);
+        CambioDTO upsert = new CambioDTO(11L, "PRODUCTO", 7L, "UPSERT", LocalDateTime.now(), producto, null, null);
+        CambioDTO borrado = new CambioDTO(12L, "CATEGORIA", 3L, "BORRADO", LocalDateTime.now(), null, null, null);
+        when(cambiosCatalogoService.obtenerCambios(10L, 2)).thenReturn(new PaginaCambiosDTO(List.of(upsert, borrado), 12L, true));
+
+        mockMvc.perform(get("/data/changes").param("since", "10").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cambios", hasSize(2)))
+                .andExpect(jsonPath("$.cambios[0].producto.id", is(7)))
+                .andExpect(jsonPath("$.cambios[1].tipo", is("BORRADO")))
+                .andExpect(jsonPath("$.ultimaSecuencia", is(12)))
+                .andExpect(jsonPath("$.hayMas", is(true)));
+    }
+
+    @Test
+    @DisplayName("GET /data/inventario/stock-bajo?limit=: Retorna la página del reporte filtrada y ordenada")
+    void obtenerPaginaStockBajo_RetornaPagina() throws Exception {
+        when(inventarioService.obtenerPaginaStockBajo("Tecno", "faltante", null, 20))
+                .thenReturn(new PaginaDTO<>(List.of(new InventarioDTO()), 20L));
+
+        mockMvc.perform(get("/data/inventario/stock-bajo")
+                        .param("categoria", "Tecno")
+                        .param("orden", "faltante")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(jsonPath("$.siguienteCursor", is(20)));
+    }
+
+    @Test
+    @DisplayName("GET /data/categorias/{nombre}/estadisticas: Retorna las métricas agregadas de la categoría")
+    void obtenerEstadisticasCategoria_RetornaMetricas() throws Exception {
+        when(categoriaService.obtenerEstadisticas("Tecno")).thenReturn(new EstadisticasCategoriaDTO("Tecno", 3L, 32L,
+                new BigDecimal("5101.00"), new BigDecimal("116.83"), new BigDecimal("50.50"), new BigDecimal("200.00"), 1L, 33.33));
+
+        mockMvc.perform(get("/data/categorias/Tecno/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProductos", is(3)))
+                .andExpect(jsonPath("$.precioPromedio", is(116.83)))
+                .andExpect(jsonPath("$.productosConStockBajo", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /data/productos/filtros: Vincula los parámetros de consulta al filtro")
+    void obtenerProductosFiltrados_VinculaParametros() throws Exception {
+        FiltroProductosDTO esperado = new FiltroProductosDTO(new BigDecimal("10"), new BigDecimal("50"), "Tecno", true, "Mo", "-precio", 20);
+        when(productoService.filtrarProductos(esperado)).thenReturn(List.of(new ProductoDTO()));
+
+        mockMvc.perform(get("/data/productos/filtros?precioMin=10&precioMax=50&categoria=Tecno&stockBajo=true&nombre=Mo&orden=-precio&limit=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("GET /data/productos/buscar: Devuelve la página de resultados con el límite por defecto")
+    void buscarProductos_LimitePorDefecto() throws Exception {
+        when(productoService.buscarProductos("mouse", null, 20)).thenReturn(new PaginaDTO<>(List.of(new ProductoDTO()), 20L));
+
+        mockMvc.perform(get("/data/productos/buscar?q=mouse"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(jsonPath("$.siguienteCursor", is(20)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.repository.InventarioRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que la actualización masiva de stock se resuelva con una única sentencia UPDATE
+ * y que cada producto reciba su propia cantidad.
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ActualizacionStockEnLoteTest {
+
+    private static final int CANTIDAD_PRODUCTOS = 40;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    private final List<Long> productoIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Categoria categoria = new Categoria(null, "Tecno", "Desc", null);
+        entityManager.persist(categoria);
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i++) {
+            Producto producto = new Producto(null, "Prod " + i, "Desc", BigDecimal.TEN, categoria, null, null);
+            producto.setInventario(new Inventario(null, producto, 1, 10, LocalDateTime.now().minusDays(1), null, null));
+            entityManager.persist(producto);
+            productoIds.add(producto.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("actualizarCantidades: una sola sentencia UPDATE con una cantidad distinta por producto")
+    void actualizarCantidades_UnaSolaSentencia() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Map<Long, Integer> cantidades = new LinkedHashMap<>();
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i += 2) {
+            cantidades.put(productoIds.get(i), 100 + i);
+        }
+        LocalDateTime fecha = LocalDateTime.now().withNano(0);
+        statistics.clear();
+
+        int actualizados = inventarioRepository.actualizarCantidades(cantidades, fecha);
+
+        assertEquals(CANTIDAD_PRODUCTOS / 2, actualizados);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i++) {
+            Inventario inventario = inventarioRepository.findByProductoId(productoIds.get(i)).orElseThrow();
+            if (i % 2 == 0) {
+                assertEquals(100 + i, inventario.getCantidad());
+                assertEquals(fecha, inventario.getFechaActualizacion());
+            } else {
+                assertEquals(1, inventario.getCantidad());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("findParaActualizarPorProductoIds: devuelve solo los inventarios existentes")
+    void paraActualizarPorProductoIds_FiltraInexistentes() {
+        List<Inventario> existentes = inventarioRepository.findParaActualizarPorProductoIds(List.of(productoIds.get(0), -1L));
+
+        assertEquals(1, existentes.size());
+        assertEquals(productoIds.get(0), existentes.get(0).getProducto().getId());
+        assertEquals(1, existentes.get(0).getCantidad());
+    }
+}
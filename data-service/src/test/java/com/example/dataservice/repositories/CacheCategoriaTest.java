@@ -0,0 +1,122 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la cache de segundo nivel y de consultas de Categoria: las búsquedas repetidas no van a la
+ * base de datos y cualquier escritura sobre categorías invalida los resultados guardados. El listado sin cache
+ * ve además lo escrito por fuera de Hibernate, como lo haría otra instancia.
+ * Cada llamada al repositorio corre en su propia transacción, como desde los servicios.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheCategoriaTest {
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    private Categoria categoria;
+
+    @BeforeEach
+    void setUp() {
+        categoria = categoriaRepository.save(new Categoria(null, "Cacheada", "Desc", null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoriaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("findByNombre: la segunda búsqueda se resuelve desde la cache sin sentencias SQL")
+    void findByNombre_SegundaBusqueda_SinSentencias() {
+        categoriaRepository.findByNombre("Cacheada").orElseThrow();
+        long sentencias = statistics.getPrepareStatementCount();
+
+        Categoria encontrada = categoriaRepository.findByNombre("Cacheada").orElseThrow();
+
+        assertEquals("Desc", encontrada.getDescripcion());
+        assertEquals(sentencias, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("findById: la entidad se resuelve desde la cache de segundo nivel")
+    void findById_EntidadEnCache_SinSentencias() {
+        categoriaRepository.findById(categoria.getId()).orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    @DisplayName("findByNombre y findAll: una escritura de categoría invalida los resultados en cache")
+    void escrituraCategoria_InvalidaConsultas() {
+        assertEquals(1, categoriaRepository.findAll().size());
+        categoriaRepository.findByNombre("Cacheada").orElseThrow();
+
+        categoria.setDescripcion("Nueva");
+        categoriaRepository.save(categoria);
+        categoriaRepository.save(new Categoria(null, "Otra", "Desc", null));
+
+        assertEquals("Nueva", categoriaRepository.findByNombre("Cacheada").orElseThrow().getDescripcion());
+        assertEquals(2, categoriaRepository.findAll().size());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("buscarTodasSinCache: ve los cambios escritos fuera de esta instancia aunque estén en cache")
+    void buscarTodasSinCache_CambioExterno_LeeLaBase() {
+        categoriaRepository.findAll();
+        categoriaRepository.findById(categoria.getId()).orElseThrow();
+
+        jdbcTemplate.update("UPDATE categorias SET descripcion = 'Externa' WHERE id = ?", categoria.getId());
+
+        assertEquals("Desc", categoriaRepository.findAll().get(0).getDescripcion());
+        assertEquals("Externa", categoriaRepository.buscarTodasSinCache().get(0).getDescripcion());
+    }
+
+    @Test
+    @DisplayName("Regiones: las entradas de categorías expiran, para ver los cambios hechos por otras instancias")
+    void regionesCategorias_ExpiranTrasLaEscritura() {
+        categoriaRepository.findByNombre("Cacheada").orElseThrow();
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+        for (String region : List.of("categorias", "categorias-consultas")) {
+            CaffeineConfiguration<?, ?> configuracion = cacheManager.getCache(region)
+                    .getConfiguration(CaffeineConfiguration.class);
+            assertTrue(configuracion.getExpireAfterWrite().isPresent(), "La región " + region + " no expira");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.mapper.InventarioMapper;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
+import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el camino de lectura JDBC devuelva exactamente los mismos DTOs que el camino JPA + mappers,
+ * incluidos los productos sin inventario o sin categoría.
+ */
+@DataJpaTest
+@Import({CatalogoJdbcRepository.class, ProductoMapper.class, InventarioMapper.class})
+class CatalogoJdbcRepositoryTest {
+
+    @Autowired
+    private CatalogoJdbcRepository catalogoJdbcRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoMapper productoMapper;
+
+    @Autowired
+    private InventarioMapper inventarioMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Categoria tecno = new Categoria(null, "Tecno", "Desc", null);
+        entityManager.persist(tecno);
+        LocalDateTime fecha = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 5; i++) {
+            Producto producto = new Producto(null, "Prod " + i, "Desc " + i, new BigDecimal("10.50"), tecno, null, null);
+            producto.setInventario(new Inventario(null, producto, i * 5, 10, fecha, null, null));
+            entityManager.persist(producto);
+        }
+        entityManager.persist(new Producto(null, "Sin inventario", null, BigDecimal.ONE, tecno, null, null));
+        entityManager.persist(new Producto(null, "Sin categoría", "Desc", BigDecimal.ONE, null, null, null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("listarProductos: mismos DTOs que findAll + ProductoMapper")
+    void listarProductos_IgualQueJpa() {
+        List<ProductoDTO> jpa = productoRepository.findAll().stream()
+                .map(productoMapper::toDTO)
+                .sorted(Comparator.comparing(ProductoDTO::getId))
+                .toList();
+
+        assertEquals(7, jpa.size());
+        assertEquals(jpa, catalogoJdbcRepository.listarProductos());
+    }
+
+    @Test
+    @DisplayName("listarProductosPorCategoria: mismos DTOs que findByCategoriaNombre + ProductoMapper")
+    void listarProductosPorCategoria_IgualQueJpa() {
+        List<ProductoDTO> jpa = productoRepository.findByCategoriaNombre("Tecno").stream()
+                .map(productoMapper::toDTO)
+                .sorted(Comparator.comparing(ProductoDTO::getId))
+                .toList();
+
+        assertEquals(6, jpa.size());
+        assertEquals(jpa, catalogoJdbcRepository.listarProductosPorCategoria("Tecno"));
+    }
+
+    @Test
+    @DisplayName("listarInventario: mismos DTOs que findAll + InventarioMapper")
+    void listarInventario_IgualQueJpa() {
+        List<InventarioDTO> jpa = inventarioRepository.findAll().stream()
+                .map(inventarioMapper::toDTO)
+                .sorted(Comparator.comparing(InventarioDTO::getId))
+                .toList();
+
+        assertEquals(5, jpa.size());
+        assertEquals(jpa, catalogoJdbcRepository.listarInventario());
+    }
+}
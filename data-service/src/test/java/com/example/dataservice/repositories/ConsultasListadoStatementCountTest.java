@@ -0,0 +1,132 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.mapper.InventarioMapper;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los listados se resuelvan con un número fijo de sentencias SQL,
+ * sin importar la cantidad de filas (sin N+1 sobre categoria/inventario/producto).
+ */
+@DataJpaTest
+@Import({ProductoMapper.class, InventarioMapper.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ConsultasListadoStatementCountTest {
+
+    private static final int CANTIDAD_PRODUCTOS = 30;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoMapper productoMapper;
+
+    @Autowired
+    private InventarioMapper inventarioMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Categoria tecno = new Categoria(null, "Tecno", "Desc", null);
+        Categoria hogar = new Categoria(null, "Hogar", "Desc", null);
+        entityManager.persist(tecno);
+        entityManager.persist(hogar);
+
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i++) {
+            Producto producto = new Producto(null, "Prod " + i, "Desc", BigDecimal.TEN, i % 2 == 0 ? tecno : hogar, null, null);
+            Inventario inventario = new Inventario(null, producto, i, 10, LocalDateTime.now(), null, null);
+            producto.setInventario(inventario);
+            entityManager.persist(producto);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findAll de productos: una sola sentencia incluyendo categoria e inventario")
+    void productosFindAll_UnaSolaSentencia() {
+        List<ProductoDTO> dtos = productoRepository.findAll().stream().map(productoMapper::toDTO).toList();
+
+        assertEquals(CANTIDAD_PRODUCTOS, dtos.size());
+        assertNotNull(dtos.get(0).getCategoriaNombre());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("findByCategoriaNombre: una sola sentencia incluyendo inventario")
+    void productosPorCategoria_UnaSolaSentencia() {
+        List<ProductoDTO> dtos = productoRepository.findByCategoriaNombre("Tecno").stream().map(productoMapper::toDTO).toList();
+
+        assertEquals(CANTIDAD_PRODUCTOS / 2, dtos.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("findAll de inventario: una sola sentencia incluyendo producto, categoria e inventario del producto")
+    void inventarioFindAll_UnaSolaSentencia() {
+        List<InventarioDTO> dtos = inventarioRepository.findAll().stream().map(inventarioMapper::toDTO).toList();
+
+        assertEquals(CANTIDAD_PRODUCTOS, dtos.size());
+        assertNotNull(dtos.get(0).getProducto().getCategoriaNombre());
+        assertNotNull(dtos.get(0).getProducto().getStock());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("findProductosConStockBajo: una sola sentencia incluyendo producto y categoria")
+    void stockBajo_UnaSolaSentencia() {
+        List<InventarioDTO> dtos = inventarioRepository.findProductosConStockBajo().stream().map(inventarioMapper::toDTO).toList();
+
+        assertEquals(10, dtos.size());
+        assertTrue(dtos.stream().allMatch(dto -> dto.getProducto().getStockBajo()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("findByIdGreaterThanOrderByIdAsc: página por cursor ordenada en una sola sentencia")
+    void paginaPorCursor_UnaSolaSentencia() {
+        long primerId = productoRepository.findAll().stream().mapToLong(Producto::getId).min().orElseThrow();
+        statistics.clear();
+
+        List<Producto> pagina = productoRepository.findByIdGreaterThanOrderByIdAsc(primerId + 9, Limit.of(5));
+        List<ProductoDTO> dtos = pagina.stream().map(productoMapper::toDTO).toList();
+
+        assertEquals(5, dtos.size());
+        assertEquals(primerId + 10, dtos.get(0).getId());
+        assertEquals(primerId + 14, dtos.get(4).getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
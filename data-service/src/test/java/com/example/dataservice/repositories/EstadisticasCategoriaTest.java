@@ -0,0 +1,93 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.EstadisticasCategoriaProyeccion;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que las estadísticas de una categoría se calculen en la base de datos con una sola sentencia.
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EstadisticasCategoriaTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @BeforeEach
+    void setUp() {
+        Categoria tecno = new Categoria(null, "Tecno", "Desc", null);
+        Categoria hogar = new Categoria(null, "Hogar", "Desc", null);
+        entityManager.persist(tecno);
+        entityManager.persist(hogar);
+        entityManager.persist(new Categoria(null, "Vacia", "Desc", null));
+
+        persistirProducto(tecno, "100.00", 10, 20);
+        persistirProducto(tecno, "200.00", 20, 5);
+        persistirProducto(tecno, "50.50", 2, 5);
+        persistirProducto(hogar, "999.99", 1, 0);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("calcularEstadisticas: agrega totales, precios y stock bajo en una sola sentencia")
+    void calcularEstadisticas_UnaSolaSentencia() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        EstadisticasCategoriaProyeccion estadisticas = categoriaRepository.calcularEstadisticas("Tecno").orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Tecno", estadisticas.getCategoriaNombre());
+        assertEquals(3L, estadisticas.getTotalProductos());
+        assertEquals(32L, estadisticas.getTotalStock());
+        // 100*10 + 200*20 + 50.50*2
+        assertEquals(0, new BigDecimal("5101.00").compareTo(estadisticas.getValorTotalInventario()));
+        assertEquals(0, new BigDecimal("350.50").compareTo(estadisticas.getSumaPrecios()));
+        assertEquals(3L, estadisticas.getProductosConPrecio());
+        assertEquals(0, new BigDecimal("50.50").compareTo(estadisticas.getPrecioMinimo()));
+        assertEquals(0, new BigDecimal("200.00").compareTo(estadisticas.getPrecioMaximo()));
+        assertEquals(2L, estadisticas.getProductosConStockBajo());
+    }
+
+    @Test
+    @DisplayName("calcularEstadisticas: una categoría sin productos devuelve una fila con ceros")
+    void calcularEstadisticas_SinProductos_FilaVacia() {
+        EstadisticasCategoriaProyeccion estadisticas = categoriaRepository.calcularEstadisticas("Vacia").orElseThrow();
+
+        assertEquals(0L, estadisticas.getTotalProductos());
+        assertNull(estadisticas.getPrecioMinimo());
+    }
+
+    @Test
+    @DisplayName("calcularEstadisticas: una categoría inexistente no devuelve filas")
+    void calcularEstadisticas_CategoriaInexistente_Vacio() {
+        assertTrue(categoriaRepository.calcularEstadisticas("Inexistente").isEmpty());
+    }
+
+    private void persistirProducto(Categoria categoria, String precio, int cantidad, int stockMinimo) {
+        Producto producto = new Producto(null, "Prod", "Desc", new BigDecimal(precio), categoria, null, null);
+        producto.setInventario(new Inventario(null, producto, cantidad, stockMinimo, LocalDateTime.now(), null, null));
+        entityManager.persist(producto);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de inserción de productos (con su inventario) sobre H2.
+ * Compara la inserción fila por fila (batch de JDBC deshabilitado, como ocurría con IDENTITY)
+ * contra la inserción en lotes habilitada por los generadores de secuencia pooled.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class InsercionBatchBenchmarkTest {
+
+    private static final int CANTIDAD_PRODUCTOS = 5_000;
+    private static final int RONDAS = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Inserción en lotes vs fila por fila")
+    void insercionEnLotes_VsFilaPorFila() {
+        Categoria categoria = new Categoria(null, "Bench", "Desc", null);
+        entityManager.persist(categoria);
+        entityManager.flush();
+
+        // Calentamiento de JIT y del pool de conexiones
+        insertar(categoria, 1);
+        insertar(categoria, 50);
+
+        Resultado filaPorFila = null;
+        Resultado enLotes = null;
+        for (int i = 0; i < RONDAS; i++) {
+            filaPorFila = Resultado.mejor(filaPorFila, insertar(categoria, 1));
+            enLotes = Resultado.mejor(enLotes, insertar(categoria, 50));
+        }
+
+        System.out.printf("%n[benchmark] %d productos + inventario (mejor de %d rondas)%n", CANTIDAD_PRODUCTOS, RONDAS);
+        System.out.printf("[benchmark] fila por fila: %6d ms, %7.0f productos/s, %6d sentencias%n",
+                filaPorFila.millis(), filaPorFila.productosPorSegundo(), filaPorFila.sentencias());
+        System.out.printf("[benchmark] batch 50     : %6d ms, %7.0f productos/s, %6d sentencias%n",
+                enLotes.millis(), enLotes.productosPorSegundo(), enLotes.sentencias());
+
+        assertTrue(enLotes.sentencias() < filaPorFila.sentencias() / 10);
+    }
+
+    private Resultado insertar(Categoria categoria, int batchSize) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        statistics.clear();
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i++) {
+            Producto producto = new Producto(null, "Prod " + i, "Desc", BigDecimal.TEN, categoria, null, null);
+            producto.setInventario(new Inventario(null, producto, i, 10, LocalDateTime.now(), null, null));
+            entityManager.persist(producto);
+            if (i % 500 == 499) {
+                entityManager.flush();
+                entityManager.clear();
+                categoria = entityManager.getReference(Categoria.class, categoria.getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        return new Resultado(millis, statistics.getPrepareStatementCount());
+    }
+
+    private record Resultado(long millis, long sentencias) {
+
+        double productosPorSegundo() {
+            return CANTIDAD_PRODUCTOS * 1000.0 / Math.max(1, millis);
+        }
+
+        static Resultado mejor(Resultado actual, Resultado nuevo) {
+            return actual == null || nuevo.millis() < actual.millis() ? nuevo : actual;
+        }
+    }
+}
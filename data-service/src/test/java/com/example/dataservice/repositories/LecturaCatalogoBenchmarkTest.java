@@ -0,0 +1,146 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark del listado completo del catálogo sobre H2 con {@value #CANTIDAD_PRODUCTOS} productos.
+ * Compara el camino JPA (entidades administradas + {@link ProductoMapper}) contra el camino JDBC
+ * ({@link CatalogoJdbcRepository}), midiendo latencia y bytes asignados por el hilo en cada lectura.
+ * Ambos caminos se ejecutan en una transacción de solo lectura, como en el servicio.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Import({CatalogoJdbcRepository.class, ProductoMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class LecturaCatalogoBenchmarkTest {
+
+    private static final int CANTIDAD_PRODUCTOS = 100_000;
+    private static final int RONDAS = 5;
+    /** Los IDs se asignan fuera del rango de las secuencias para insertar con JDBC en lotes. */
+    private static final long PRIMER_ID = 10_000_000L;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private CatalogoJdbcRepository catalogoJdbcRepository;
+
+    @Autowired
+    private ProductoMapper productoMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate soloLectura;
+
+    @BeforeEach
+    void setUp() {
+        soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+
+        Categoria categoria = categoriaRepository.save(new Categoria(null, "Bench lectura", "Desc", null));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> productos = new ArrayList<>(CANTIDAD_PRODUCTOS);
+        List<Object[]> inventarios = new ArrayList<>(CANTIDAD_PRODUCTOS);
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i++) {
+            long id = PRIMER_ID + i;
+            productos.add(new Object[]{id, "Prod " + i, "Descripción del producto " + i, BigDecimal.valueOf(i % 1_000, 2), categoria.getId()});
+            inventarios.add(new Object[]{id, id, i % 50, 10, ahora, i % 50 < 10});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO productos (id, nombre, descripcion, precio, categoria_id, version) VALUES (?, ?, ?, ?, ?, 0)", productos);
+        jdbcTemplate.batchUpdate("INSERT INTO inventario (id, producto_id, cantidad, stock_minimo, fecha_actualizacion, version, stock_bajo) VALUES (?, ?, ?, ?, ?, 0, ?)", inventarios);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM inventario WHERE id >= ?", PRIMER_ID);
+        jdbcTemplate.update("DELETE FROM productos WHERE id >= ?", PRIMER_ID);
+        categoriaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Listado completo: JPA + mapper vs JDBC directo a DTOs")
+    void listadoCompleto_JpaVsJdbc() {
+        Supplier<List<ProductoDTO>> jpa = () -> productoRepository.findAll().stream().map(productoMapper::toDTO).toList();
+        Supplier<List<ProductoDTO>> jdbc = catalogoJdbcRepository::listarProductos;
+
+        // Calentamiento de JIT y del pool de conexiones
+        medir(jpa);
+        medir(jdbc);
+
+        Resultado porJpa = null;
+        Resultado porJdbc = null;
+        for (int i = 0; i < RONDAS; i++) {
+            porJpa = Resultado.mejor(porJpa, medir(jpa));
+            porJdbc = Resultado.mejor(porJdbc, medir(jdbc));
+        }
+
+        System.out.printf("%n[benchmark] listado de %d productos (mejor de %d rondas)%n", CANTIDAD_PRODUCTOS, RONDAS);
+        System.out.printf("[benchmark] JPA + mapper: %6d ms, %8.1f MB asignados%n", porJpa.millis(), porJpa.megabytes());
+        System.out.printf("[benchmark] JDBC        : %6d ms, %8.1f MB asignados%n", porJdbc.millis(), porJdbc.megabytes());
+
+        assertEquals(CANTIDAD_PRODUCTOS, porJpa.filas());
+        assertEquals(CANTIDAD_PRODUCTOS, porJdbc.filas());
+        assertTrue(porJdbc.bytes() < porJpa.bytes());
+    }
+
+    private Resultado medir(Supplier<List<ProductoDTO>> lectura) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytesAntes = threads.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        List<ProductoDTO> dtos = soloLectura.execute(status -> lectura.get());
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+        return new Resultado(millis, threads.getCurrentThreadAllocatedBytes() - bytesAntes, dtos.size());
+    }
+
+    private record Resultado(long millis, long bytes, int filas) {
+
+        double megabytes() {
+            return bytes / (1024.0 * 1024.0);
+        }
+
+        static Resultado mejor(Resultado actual, Resultado nuevo) {
+            return actual == null || nuevo.millis() < actual.millis() ? nuevo : actual;
+        }
+    }
+}
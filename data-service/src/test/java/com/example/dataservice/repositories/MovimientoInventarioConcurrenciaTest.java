@@ -0,0 +1,106 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los movimientos concurrentes sobre un mismo producto no pierdan actualizaciones
+ * y que el stock nunca quede negativo. Cada movimiento se confirma en su propia transacción.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MovimientoInventarioConcurrenciaTest {
+
+    private static final int STOCK_INICIAL = 150;
+    private static final int HILOS = 8;
+    private static final int EGRESOS_POR_HILO = 25;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long productoId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        productoId = transactionTemplate.execute(status -> {
+            Categoria categoria = categoriaRepository.save(new Categoria(null, "Concurrencia", "Desc", null));
+            Producto producto = new Producto(null, "Prod", "Desc", BigDecimal.TEN, categoria, null, null);
+            producto.setInventario(new Inventario(null, producto, STOCK_INICIAL, 10, LocalDateTime.now(), null, null));
+            return productoRepository.save(producto).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            inventarioRepository.deleteAllInBatch();
+            productoRepository.deleteAllInBatch();
+            categoriaRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    @DisplayName("aplicarMovimiento: egresos concurrentes descuentan exactamente el stock disponible")
+    void aplicarMovimiento_Concurrente_SinActualizacionesPerdidas() throws Exception {
+        AtomicInteger aplicados = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                tareas.add(executor.submit(() -> {
+                    for (int i = 0; i < EGRESOS_POR_HILO; i++) {
+                        Integer filas = transactionTemplate.execute(status ->
+                                inventarioRepository.aplicarMovimiento(productoId, -1, LocalDateTime.now()));
+                        aplicados.addAndGet(filas);
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Inventario inventario = inventarioRepository.findByProductoId(productoId).orElseThrow();
+        assertEquals(STOCK_INICIAL, aplicados.get());
+        assertEquals(0, inventario.getCantidad());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.dataservice.repositories;
+
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.repository.InventarioRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que la marca {@code stock_bajo} se mantenga en todas las escrituras de stock
+ * y que el reporte se resuelva en una sola sentencia, ordenado por faltante y filtrado por categoría.
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StockBajoReporteTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    private final List<Long> productoIds = new ArrayList<>();
+
+    /**
+     * Stock mínimo 10 para todos. Cantidades: 9, 2, 15, 5, 0 → faltantes 1, 8, -, 5, 10.
+     * Los índices pares son de "Tecno" y los impares de "Hogar".
+     */
+    @BeforeEach
+    void setUp() {
+        Categoria tecno = new Categoria(null, "Tecno", "Desc", null);
+        Categoria hogar = new Categoria(null, "Hogar", "Desc", null);
+        entityManager.persist(tecno);
+        entityManager.persist(hogar);
+        int[] cantidades = {9, 2, 15, 5, 0};
+        for (int i = 0; i < cantidades.length; i++) {
+            Producto producto = new Producto(null, "Prod " + i, "Desc", BigDecimal.TEN, i % 2 == 0 ? tecno : hogar, null, null);
+            producto.setInventario(new Inventario(null, producto, cantidades[i], 10, LocalDateTime.now(), null, null));
+            entityManager.persist(producto);
+            productoIds.add(producto.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("buscarStockBajo: ordena por faltante descendente en una sola sentencia")
+    void buscarStockBajo_PorFaltante_UnaSolaSentencia() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Inventario> reporte = inventarioRepository.buscarStockBajo(null, true, 0, 10);
+
+        assertEquals(List.of(productoIds.get(4), productoIds.get(1), productoIds.get(3), productoIds.get(0)), productoIdsDe(reporte));
+        assertEquals("Tecno", reporte.get(0).getProducto().getCategoria().getNombre());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("buscarStockBajo: filtra por categoría y pagina por posición")
+    void buscarStockBajo_PorCategoriaYPosicion() {
+        assertEquals(List.of(productoIds.get(4), productoIds.get(0)),
+                productoIdsDe(inventarioRepository.buscarStockBajo("Tecno", true, 0, 10)));
+        assertEquals(List.of(productoIds.get(3)),
+                productoIdsDe(inventarioRepository.buscarStockBajo("Hogar", true, 1, 10)));
+        assertEquals(List.of(productoIds.get(0), productoIds.get(1)),
+                productoIdsDe(inventarioRepository.buscarStockBajo(null, false, 0, 2)));
+    }
+
+    @Test
+    @DisplayName("stockBajo: se recalcula en movimientos, actualizaciones masivas y escrituras de la entidad")
+    void stockBajo_SeMantieneEnCadaEscritura() {
+        inventarioRepository.aplicarMovimiento(productoIds.get(0), 1, LocalDateTime.now());
+        inventarioRepository.aplicarMovimiento(productoIds.get(2), -6, LocalDateTime.now());
+        inventarioRepository.actualizarCantidades(Map.of(productoIds.get(1), 20, productoIds.get(3), 7), LocalDateTime.now());
+        Inventario inventario = inventarioRepository.findByProductoId(productoIds.get(4)).orElseThrow();
+        inventario.setCantidad(10);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(productoIds.get(2), productoIds.get(3)),
+                productoIdsDe(inventarioRepository.buscarStockBajo(null, false, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("completarStockBajo: calcula la marca de las filas que no la tienen")
+    void completarStockBajo_FilasSinMarca() {
+        entityManager.createNativeQuery("UPDATE inventario SET stock_bajo = NULL").executeUpdate();
+
+        assertEquals(5, inventarioRepository.completarStockBajo());
+        assertEquals(4, inventarioRepository.findProductosConStockBajo().size());
+        assertEquals(0, inventarioRepository.completarStockBajo());
+    }
+
+    private static List<Long> productoIdsDe(List<Inventario> inventarios) {
+        return inventarios.stream().map(i -> i.getProducto().getId()).toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.dataservice.services;
+
+import com.example.dataservice.dto.PaginaDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.exception.ValidacionNegocioException;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
+import com.example.dataservice.service.ProductoService;
+import com.example.dataservice.service.ReintentoOptimista;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la búsqueda de texto sobre nombre y descripción con el motor H2: ranking por relevancia,
+ * paginación por posición y resultados al día con las escrituras.
+ */
+@DataJpaTest
+@Import({ProductoService.class, ProductoMapper.class, ReintentoOptimista.class,
+        CatalogoJdbcRepository.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BusquedaProductosTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Categoria tecno;
+
+    @BeforeEach
+    void setUp() {
+        tecno = new Categoria(null, "Tecno", "Desc", null);
+        entityManager.persist(tecno);
+        persistirProducto("Mouse inalámbrico", "Mouse óptico con receptor USB");
+        persistirProducto("Teclado", "Teclado mecánico, incluye mouse pad");
+        persistirProducto("Monitor", "Monitor 24 pulgadas");
+        persistirProducto("Cable 100%", "Cable USB");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("buscarProductos: ordena por relevancia, con más peso en el nombre, en dos sentencias")
+    void buscarProductos_OrdenaPorRelevancia() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PaginaDTO<ProductoDTO> pagina = productoService.buscarProductos("MOUSE", null, 10);
+
+        assertEquals(List.of("Mouse inalámbrico", "Teclado"), nombres(pagina));
+        assertEquals("Tecno", pagina.getContenido().get(0).getCategoriaNombre());
+        assertNull(pagina.getSiguienteCursor());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("buscarProductos: cada término suma relevancia y la posición permite pedir la página siguiente")
+    void buscarProductos_VariosTerminos_Pagina() {
+        PaginaDTO<ProductoDTO> primera = productoService.buscarProductos("usb mouse", null, 1);
+        PaginaDTO<ProductoDTO> segunda = productoService.buscarProductos("usb mouse", primera.getSiguienteCursor(), 2);
+
+        assertEquals(List.of("Mouse inalámbrico"), nombres(primera));
+        assertEquals(1L, primera.getSiguienteCursor());
+        assertEquals(List.of("Teclado", "Cable 100%"), nombres(segunda));
+        assertNull(segunda.getSiguienteCursor());
+    }
+
+    @Test
+    @DisplayName("buscarProductos: los comodines de LIKE se buscan como texto")
+    void buscarProductos_Comodines_SeTratanComoTexto() {
+        assertEquals(List.of("Cable 100%"), nombres(productoService.buscarProductos("100%", null, 10)));
+        assertTrue(productoService.buscarProductos("_", null, 10).getContenido().isEmpty());
+    }
+
+    @Test
+    @DisplayName("buscarProductos: refleja los productos modificados")
+    void buscarProductos_ReflejaModificaciones() {
+        Producto monitor = entityManager.createQuery("SELECT p FROM Producto p WHERE p.nombre = 'Monitor'", Producto.class)
+                .getSingleResult();
+        monitor.setDescripcion("Monitor curvo con parlantes");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of("Monitor"), nombres(productoService.buscarProductos("parlantes", null, 10)));
+    }
+
+    @Test
+    @DisplayName("buscarProductos: rechaza un texto vacío")
+    void buscarProductos_TextoVacio_LanzaValidacion() {
+        assertThrows(ValidacionNegocioException.class, () -> productoService.buscarProductos("  ", null, 10));
+    }
+
+    private void persistirProducto(String nombre, String descripcion) {
+        Producto producto = new Producto(null, nombre, descripcion, BigDecimal.TEN, tecno, null, null);
+        producto.setInventario(new Inventario(null, producto, 20, 10, LocalDateTime.now(), null, null));
+        entityManager.persist(producto);
+    }
+
+    private static List<String> nombres(PaginaDTO<ProductoDTO> pagina) {
+        return pagina.getContenido().stream().map(ProductoDTO::getNombre).toList();
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.dataservice.services;
+
+import com.example.dataservice.dto.CambioDTO;
+import com.example.dataservice.dto.CategoriaDTO;
+import com.example.dataservice.dto.CategoriaRequest;
+import com.example.dataservice.dto.PaginaCambiosDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.exception.ValidacionNegocioException;
+import com.example.dataservice.mapper.CategoriaMapper;
+import com.example.dataservice.mapper.InventarioMapper;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import com.example.dataservice.service.CambiosCatalogoService;
+import com.example.dataservice.service.CategoriaService;
+import com.example.dataservice.service.InventarioService;
+import com.example.dataservice.service.ProductoService;
+import com.example.dataservice.service.ReintentoOptimista;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica el feed de cambios del catálogo contra la base de datos: cada escritura de los servicios
+ * deja su cambio, y el feed los devuelve en orden, con el estado actual de las entidades y paginado por secuencia.
+ * Sin transacción de test, porque los cambios se registran al confirmar cada transacción.
+ */
+@DataJpaTest
+@Import({CambiosCatalogoService.class, ProductoService.class, InventarioService.class, CategoriaService.class,
+        ProductoMapper.class, InventarioMapper.class, CategoriaMapper.class, ReintentoOptimista.class,
+        CatalogoJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CambiosCatalogoServiceTest {
+
+    @Autowired
+    private CambiosCatalogoService cambiosCatalogoService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long inicio;
+
+    @BeforeEach
+    void setUp() {
+        inicio = ultimaSecuencia(0);
+        categoriaService.crearCategoria(new CategoriaRequest("Tecno", "Desc"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        movimientoInventarioRepository.deleteAllInBatch();
+        cambioCatalogoRepository.deleteAllInBatch();
+        inventarioRepository.deleteAllInBatch();
+        productoRepository.deleteAllInBatch();
+        categoriaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("obtenerCambios: el alta de un producto registra el producto y su inventario con el estado actual")
+    void obtenerCambios_AltaDeProducto_RegistraProductoEInventario() {
+        long desde = ultimaSecuencia(inicio);
+        ProductoDTO producto = productoService.crearProducto(new ProductoRequest("Mouse", "Desc", BigDecimal.TEN, "Tecno", 5));
+
+        PaginaCambiosDTO pagina = cambiosCatalogoService.obtenerCambios(desde, 100);
+
+        assertEquals(List.of("PRODUCTO", "INVENTARIO"), entidades(pagina));
+        CambioDTO alta = pagina.getCambios().get(0);
+        assertEquals("UPSERT", alta.getTipo());
+        assertEquals(producto.getId(), alta.getEntidadId());
+        assertEquals("Mouse", alta.getProducto().getNombre());
+        CambioDTO inventario = pagina.getCambios().get(1);
+        assertEquals(5, inventario.getInventario().getCantidad());
+        assertEquals(producto.getId(), inventario.getInventario().getProducto().getId());
+        assertEquals(inventario.getSecuencia(), pagina.getUltimaSecuencia());
+        assertFalse(pagina.isHayMas());
+    }
+
+    @Test
+    @DisplayName("obtenerCambios: varios cambios de la misma entidad devuelven el estado vigente y el borrado no trae estado")
+    void obtenerCambios_ActualizacionYBorrado_EstadoVigenteYTombstone() {
+        ProductoDTO producto = productoService.crearProducto(new ProductoRequest("Mouse", "Desc", BigDecimal.TEN, "Tecno", 5));
+        long desde = ultimaSecuencia(inicio);
+
+        inventarioService.registrarMovimiento(producto.getId(), 3);
+        inventarioService.registrarMovimiento(producto.getId(), -3);
+        productoService.eliminarProducto(producto.getId());
+
+        PaginaCambiosDTO pagina = cambiosCatalogoService.obtenerCambios(desde, 100);
+
+        assertEquals(List.of("INVENTARIO", "INVENTARIO", "INVENTARIO", "PRODUCTO"), entidades(pagina));
+        assertEquals(List.of("UPSERT", "UPSERT", "BORRADO", "BORRADO"),
+                pagina.getCambios().stream().map(CambioDTO::getTipo).toList());
+        assertTrue(pagina.getCambios().stream().allMatch(cambio -> cambio.getInventario() == null && cambio.getProducto() == null));
+        assertEquals(producto.getId(), pagina.getCambios().get(3).getEntidadId());
+    }
+
+    @Test
+    @DisplayName("obtenerCambios: renombrar una categoría registra sus productos con el nombre nuevo")
+    void obtenerCambios_RenombrarCategoria_RegistraSusProductos() {
+        ProductoDTO producto = productoService.crearProducto(new ProductoRequest("Mouse", "Desc", BigDecimal.TEN, "Tecno", 5));
+        Long categoriaId = categoriaRepository.findByNombre("Tecno").orElseThrow().getId();
+        long desde = ultimaSecuencia(inicio);
+
+        categoriaService.actualizarCategoria(categoriaId, new CategoriaRequest("Tecnologia", "Desc"));
+        categoriaService.actualizarCategoria(categoriaId, new CategoriaRequest("Tecnologia", "Otra desc"));
+
+        PaginaCambiosDTO pagina = cambiosCatalogoService.obtenerCambios(desde, 100);
+
+        assertEquals(List.of("CATEGORIA", "PRODUCTO", "CATEGORIA"), entidades(pagina));
+        CambioDTO renombrado = pagina.getCambios().get(1);
+        assertEquals(producto.getId(), renombrado.getEntidadId());
+        assertEquals("Tecnologia", renombrado.getProducto().getCategoriaNombre());
+    }
+
+    @Test
+    @DisplayName("obtenerCambios: el límite corta la página y la última secuencia permite continuar sin repetir ni saltear")
+    void obtenerCambios_Limite_PaginaPorSecuencia() {
+        long desde = ultimaSecuencia(inicio);
+        productoService.crearProducto(new ProductoRequest("Mouse", "Desc", BigDecimal.TEN, "Tecno", 5));
+        categoriaService.crearCategoria(new CategoriaRequest("Hogar", "Desc"));
+
+        PaginaCambiosDTO primera = cambiosCatalogoService.obtenerCambios(desde, 2);
+        PaginaCambiosDTO segunda = cambiosCatalogoService.obtenerCambios(primera.getUltimaSecuencia(), 2);
+        PaginaCambiosDTO vacia = cambiosCatalogoService.obtenerCambios(segunda.getUltimaSecuencia(), 2);
+
+        assertEquals(List.of("PRODUCTO", "INVENTARIO"), entidades(primera));
+        assertTrue(primera.isHayMas());
+        assertEquals(List.of("CATEGORIA"), entidades(segunda));
+        assertEquals("Hogar", segunda.getCambios().get(0).getCategoria().getNombre());
+        assertFalse(segunda.isHayMas());
+        assertTrue(vacia.getCambios().isEmpty());
+        assertEquals(segunda.getUltimaSecuencia(), vacia.getUltimaSecuencia());
+    }
+
+    @Test
+    @DisplayName("obtenerCambios: una transacción que registra antes pero confirma después no queda detrás del cursor")
+    void obtenerCambios_ConfirmacionTardia_NoSeSaltea() throws Exception {
+        long desde = ultimaSecuencia(inicio);
+        CountDownLatch registrada = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> lenta = executor.submit(() -> transaccion.executeWithoutResult(status -> {
+                categoriaService.crearCategoria(new CategoriaRequest("Lenta", "Desc"));
+                registrada.countDown();
+                esperar(confirmar);
+            }));
+            assertTrue(registrada.await(10, TimeUnit.SECONDS));
+            categoriaService.crearCategoria(new CategoriaRequest("Rapida", "Desc"));
+
+            PaginaCambiosDTO antes = cambiosCatalogoService.obtenerCambios(desde, 100);
+            confirmar.countDown();
+            lenta.get(10, TimeUnit.SECONDS);
+            PaginaCambiosDTO despues = cambiosCatalogoService.obtenerCambios(antes.getUltimaSecuencia(), 100);
+
+            assertEquals(List.of("Rapida"), nombresDeCategoria(antes));
+            assertEquals(List.of("Lenta"), nombresDeCategoria(despues));
+        }
+    }
+
+    @Test
+    @DisplayName("obtenerCambios: los cambios de una transacción revertida no se registran")
+    void obtenerCambios_TransaccionRevertida_SinCambios() {
+        long desde = ultimaSecuencia(inicio);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            categoriaService.crearCategoria(new CategoriaRequest("Revertida", "Desc"));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(cambiosCatalogoService.obtenerCambios(desde, 100).getCambios().isEmpty());
+    }
+
+    @Test
+    @DisplayName("obtenerVersionCatalogo: es la secuencia del último cambio y avanza con cada escritura")
+    void obtenerVersionCatalogo_AvanzaConCadaEscritura() {
+        long antes = cambiosCatalogoService.obtenerVersionCatalogo();
+        categoriaService.crearCategoria(new CategoriaRequest("Hogar", "Desc"));
+
+        long despues = cambiosCatalogoService.obtenerVersionCatalogo();
+
+        assertTrue(despues > antes);
+        assertEquals(ultimaSecuencia(inicio), despues);
+    }
+
+    @Test
+    @DisplayName("obtenerVersionCatalogo: una transacción sin confirmar no mueve la versión hasta su commit")
+    void obtenerVersionCatalogo_ConfirmacionTardia_AvanzaAlConfirmar() throws Exception {
+        CountDownLatch registrada = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> lenta = executor.submit(() -> transaccion.executeWithoutResult(status -> {
+                categoriaService.crearCategoria(new CategoriaRequest("Lenta", "Desc"));
+                registrada.countDown();
+                esperar(confirmar);
+            }));
+            assertTrue(registrada.await(10, TimeUnit.SECONDS));
+            categoriaService.crearCategoria(new CategoriaRequest("Rapida", "Desc"));
+
+            long antes = cambiosCatalogoService.obtenerVersionCatalogo();
+            List<String> listadoAntes = categoriaService.obtenerTodas().stream().map(CategoriaDTO::getNombre).toList();
+            confirmar.countDown();
+            lenta.get(10, TimeUnit.SECONDS);
+            long despues = cambiosCatalogoService.obtenerVersionCatalogo();
+
+            assertFalse(listadoAntes.contains("Lenta"));
+            assertEquals(ultimaSecuencia(inicio) - 1, antes);
+            assertEquals(ultimaSecuencia(inicio), despues);
+        }
+    }
+
+    @Test
+    @DisplayName("obtenerCambios: una secuencia negativa lanza ValidacionNegocioException")
+    void obtenerCambios_SecuenciaNegativa_LanzaExcepcion() {
+        assertThrows(ValidacionNegocioException.class, () -> cambiosCatalogoService.obtenerCambios(-1, 10));
+    }
+
+    /**
+     * Recorre el feed hasta el final y devuelve la última secuencia disponible.
+     */
+    private long ultimaSecuencia(long desde) {
+        PaginaCambiosDTO pagina;
+        do {
+            pagina = cambiosCatalogoService.obtenerCambios(desde, 500);
+            desde = pagina.getUltimaSecuencia();
+        } while (pagina.isHayMas());
+        return desde;
+    }
+
+    private static List<String> nombresDeCategoria(PaginaCambiosDTO pagina) {
+        return pagina.getCambios().stream().map(cambio -> cambio.getCategoria().getNombre()).toList();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> entidades(PaginaCambiosDTO pagina) {
+        return pagina.getCambios().stream().map(CambioDTO::getEntidad).toList();
+    }
+}
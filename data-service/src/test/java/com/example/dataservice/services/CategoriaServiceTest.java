@@ -2,12 +2,15 @@ package com.example.dataservice.services;
 
 import com.example.dataservice.dto.CategoriaDTO;
 import com.example.dataservice.dto.CategoriaRequest;
+import com.example.dataservice.dto.EstadisticasCategoriaDTO;
 import com.example.dataservice.entity.Categoria;
 import com.example.dataservice.entity.Producto;
 import com.example.dataservice.exception.CategoriaNoEncontradaException;
 import com.example.dataservice.exception.ValidacionNegocioException;
 import com.example.dataservice.mapper.CategoriaMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
 import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.EstadisticasCategoriaProyeccion;
 import com.example.dataservice.repository.ProductoRepository;
 import com.example.dataservice.service.CategoriaService;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +20,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -37,6 +41,9 @@ class CategoriaServiceTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
     @InjectMocks
     private CategoriaService categoriaService;
 
@@ -52,7 +59,7 @@ class CategoriaServiceTest {
         CategoriaDTO dto1 = new CategoriaDTO(1L, "Electrónica", "Desc 1");
         CategoriaDTO dto2 = new CategoriaDTO(2L, "Hogar", "Desc 2");
 
-        when(categoriaRepository.findAll()).thenReturn(categorias);
+        when(categoriaRepository.buscarTodasSinCache()).thenReturn(categorias);
         when(categoriaMapper.toDTO(cat1)).thenReturn(dto1);
         when(categoriaMapper.toDTO(cat2)).thenReturn(dto2);
 
@@ -63,7 +70,7 @@ class CategoriaServiceTest {
         assertNotNull(resultado);
         assertEquals(2, resultado.size());
         assertEquals("Electrónica", resultado.get(0).getNombre());
-        verify(categoriaRepository).findAll();
+        verify(categoriaRepository).buscarTodasSinCache();
     }
 
 
@@ -222,4 +229,38 @@ class CategoriaServiceTest {
         assertTrue(excepcion.getMessage().contains("Existen productos asociados"));
         verify(categoriaRepository, never()).deleteById(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("obtenerEstadisticas: Calcula promedio y porcentaje a partir de los agregados de la consulta")
+    void obtenerEstadisticas_ConAgregados_CalculaDerivados() {
+        // Arrange
+        EstadisticasCategoriaProyeccion agregados = mock(EstadisticasCategoriaProyeccion.class);
+        when(agregados.getCategoriaNombre()).thenReturn("Tecno");
+        when(agregados.getTotalProductos()).thenReturn(3L);
+        when(agregados.getTotalStock()).thenReturn(32L);
+        when(agregados.getValorTotalInventario()).thenReturn(new BigDecimal("5101"));
+        when(agregados.getSumaPrecios()).thenReturn(new BigDecimal("350.50"));
+        when(agregados.getProductosConPrecio()).thenReturn(3L);
+        when(agregados.getPrecioMinimo()).thenReturn(new BigDecimal("50.50"));
+        when(agregados.getPrecioMaximo()).thenReturn(new BigDecimal("200.00"));
+        when(agregados.getProductosConStockBajo()).thenReturn(1L);
+        when(categoriaRepository.calcularEstadisticas("Tecno")).thenReturn(Optional.of(agregados));
+
+        // Act
+        EstadisticasCategoriaDTO estadisticas = categoriaService.obtenerEstadisticas("Tecno");
+
+        // Assert
+        assertEquals(new BigDecimal("116.83"), estadisticas.getPrecioPromedio());
+        assertEquals(new BigDecimal("5101.00"), estadisticas.getValorTotalInventario());
+        assertEquals(33.33, estadisticas.getPorcentajeProductosConStockBajo());
+        assertEquals(32L, estadisticas.getTotalStock());
+    }
+
+    @Test
+    @DisplayName("obtenerEstadisticas: Lanza excepción si la categoría no existe")
+    void obtenerEstadisticas_CategoriaInexistente_LanzaExcepcion() {
+        when(categoriaRepository.calcularEstadisticas("X")).thenReturn(Optional.empty());
+
+        assertThrows(CategoriaNoEncontradaException.class, () -> categoriaService.obtenerEstadisticas("X"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.dataservice.services;
+
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.mapper.InventarioMapper;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import com.example.dataservice.service.InventarioService;
+import com.example.dataservice.service.ProductoService;
+import com.example.dataservice.service.ReintentoOptimista;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de contención: varios escritores actualizan el stock del mismo producto con bloqueo optimista
+ * y reintento con jitter. Informa el throughput, los reintentos y las escrituras que agotaron los intentos
+ * con 1, 8 y 64 escritores concurrentes.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductoService.class, InventarioService.class, ProductoMapper.class, InventarioMapper.class, ReintentoOptimista.class,
+        CatalogoJdbcRepository.class})
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=64")
+class ContencionOptimistaBenchmarkTest {
+
+    private static final int ESCRITURAS_POR_ESCRITOR = 40;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Autowired
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    @AfterEach
+    void tearDown() {
+        movimientoInventarioRepository.deleteAllInBatch();
+        cambioCatalogoRepository.deleteAllInBatch();
+        inventarioRepository.deleteAllInBatch();
+        productoRepository.deleteAllInBatch();
+        categoriaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Throughput de escrituras optimistas sobre un mismo producto con 1, 8 y 64 escritores")
+    void contencion_1_8_64_Escritores() throws Exception {
+        categoriaRepository.save(new Categoria(null, "Bench", "Desc", null));
+        ProductoDTO producto = productoService.crearProducto(new ProductoRequest("Prod", "Desc", BigDecimal.TEN, "Bench", 0));
+
+        // Calentamiento de JIT y del pool de conexiones
+        medir(producto.getId(), 8);
+
+        System.out.printf("%n[benchmark] %d escrituras por escritor sobre el mismo producto%n", ESCRITURAS_POR_ESCRITOR);
+        for (int escritores : new int[]{1, 8, 64}) {
+            Resultado resultado = medir(producto.getId(), escritores);
+            System.out.printf("[benchmark] %2d escritores: %6d ms, %7.0f escrituras/s, %5d reintentos, %4d agotadas%n",
+                    escritores, resultado.millis(), resultado.escriturasPorSegundo(), resultado.reintentos(), resultado.agotadas());
+            assertTrue(resultado.exitosas() > 0);
+        }
+    }
+
+    private Resultado medir(Long productoId, int escritores) throws Exception {
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger agotadas = new AtomicInteger();
+        long reintentosIniciales = reintentoOptimista.getReintentos();
+        ExecutorService executor = Executors.newFixedThreadPool(escritores);
+        long inicio = System.nanoTime();
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int e = 0; e < escritores; e++) {
+                int escritor = e;
+                tareas.add(executor.submit(() -> {
+                    for (int i = 0; i < ESCRITURAS_POR_ESCRITOR; i++) {
+                        try {
+                            inventarioService.actualizarStock(productoId, escritor * 1000 + i);
+                            exitosas.incrementAndGet();
+                        } catch (OptimisticLockingFailureException ex) {
+                            agotadas.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+        return new Resultado(millis, exitosas.get(), agotadas.get(), reintentoOptimista.getReintentos() - reintentosIniciales);
+    }
+
+    private record Resultado(long millis, int exitosas, int agotadas, long reintentos) {
+
+        double escriturasPorSegundo() {
+            return exitosas * 1000.0 / Math.max(1, millis);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.dataservice.services;
+
+import com.example.dataservice.dto.FiltroProductosDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.exception.ValidacionNegocioException;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
+import com.example.dataservice.service.ProductoService;
+import com.example.dataservice.service.ReintentoOptimista;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la búsqueda filtrada de productos contra la base de datos: filtros combinados, orden y límite
+ * se resuelven en una sola sentencia, respaldada por los índices sobre precio.
+ */
+@DataJpaTest
+@Import({ProductoService.class, ProductoMapper.class, ReintentoOptimista.class,
+        CatalogoJdbcRepository.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FiltroProductosTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Categoria tecno = new Categoria(null, "Tecno", "Desc", null);
+        Categoria hogar = new Categoria(null, "Hogar", "Desc", null);
+        entityManager.persist(tecno);
+        entityManager.persist(hogar);
+        persistirProducto("Mouse", "20.00", tecno, 50);
+        persistirProducto("Monitor", "300.00", tecno, 2);
+        persistirProducto("Mousepad", "5.00", tecno, 1);
+        persistirProducto("Teclado", "45.00", tecno, 30);
+        persistirProducto("Mo%de", "25.00", hogar, 30);
+        persistirProducto("Mesa", "150.00", hogar, 3);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("filtrarProductos: combina rango de precio y categoría, ordena y limita en una sola sentencia")
+    void filtrarProductos_PrecioYCategoria_UnaSolaSentencia() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ProductoDTO> productos = productoService.filtrarProductos(
+                new FiltroProductosDTO(new BigDecimal("10"), new BigDecimal("300"), "Tecno", null, null, "-precio", 2));
+
+        assertEquals(List.of("Monitor", "Teclado"), nombres(productos));
+        assertEquals("Tecno", productos.get(0).getCategoriaNombre());
+        assertEquals(2, productos.get(0).getStock());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("filtrarProductos: filtra por stock bajo y prefijo de nombre, tratando los comodines como texto")
+    void filtrarProductos_StockBajoYPrefijo() {
+        assertEquals(List.of("Monitor", "Mousepad"),
+                nombres(productoService.filtrarProductos(new FiltroProductosDTO(null, null, null, true, "Mo", "nombre", null))));
+        assertEquals(List.of("Mo%de"),
+                nombres(productoService.filtrarProductos(new FiltroProductosDTO(null, null, null, null, "Mo%", null, null))));
+    }
+
+    @Test
+    @DisplayName("filtrarProductos: sin limit devuelve todos los productos que cumplen el filtro")
+    void filtrarProductos_SinLimit_DevuelveTodos() {
+        Categoria varios = new Categoria(null, "Varios", "Desc", null);
+        entityManager.persist(varios);
+        for (int i = 0; i < 600; i++) {
+            persistirProducto("Articulo " + i, "1.00", varios, 10);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(600, productoService.filtrarProductos(
+                new FiltroProductosDTO(null, null, "Varios", null, null, null, null)).size());
+        assertEquals(500, productoService.filtrarProductos(
+                new FiltroProductosDTO(null, null, "Varios", null, null, null, 1_000)).size());
+    }
+
+    @Test
+    @DisplayName("filtrarProductos: rechaza un rango de precios invertido o un orden desconocido")
+    void filtrarProductos_ParametrosInvalidos_LanzaValidacion() {
+        assertThrows(ValidacionNegocioException.class, () -> productoService.filtrarProductos(
+                new FiltroProductosDTO(new BigDecimal("10"), new BigDecimal("1"), null, null, null, null, null)));
+        assertThrows(ValidacionNegocioException.class, () -> productoService.filtrarProductos(
+                new FiltroProductosDTO(null, null, null, null, null, "stock", null)));
+    }
+
+    @Test
+    @DisplayName("Esquema: existen los índices sobre precio y sobre (categoria_id, precio)")
+    void esquema_IndicesDePrecio() {
+        List<?> indices = entityManager.createNativeQuery(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'PRODUCTOS'").getResultList();
+
+        assertTrue(indices.contains("IDX_PRODUCTOS_PRECIO"));
+        assertTrue(indices.contains("IDX_PRODUCTOS_CATEGORIA_PRECIO"));
+    }
+
+    private void persistirProducto(String nombre, String precio, Categoria categoria, int cantidad) {
+        Producto producto = new Producto(null, nombre, "Desc", new BigDecimal(precio), categoria, null, null);
+        producto.setInventario(new Inventario(null, producto, cantidad, 10, LocalDateTime.now(), null, null));
+        entityManager.persist(producto);
+    }
+
+    private static List<String> nombres(List<ProductoDTO> productos) {
+        return productos.stream().map(ProductoDTO::getNombre).toList();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.dataservice.services;
+
+import com.example.dataservice.dto.StockEnFechaDTO;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.MovimientoInventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.entity.SnapshotInventario;
+import com.example.dataservice.entity.TipoMovimiento;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import com.example.dataservice.repository.SnapshotInventarioRepository;
+import com.example.dataservice.service.HistorialInventarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra la base de datos que el stock en una fecha se reconstruye igual
+ * antes y después de compactar el historial, y que la compactación no borra movimientos.
+ */
+@DataJpaTest
+@Import(HistorialInventarioService.class)
+class HistorialInventarioServiceTest {
+
+    private static final Long PRODUCTO_ID = 9_001L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Autowired
+    private HistorialInventarioService historialInventarioService;
+
+    @Autowired
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Autowired
+    private SnapshotInventarioRepository snapshotInventarioRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        movimientoInventarioRepository.saveAll(List.of(
+                MovimientoInventario.de(PRODUCTO_ID, 10, TipoMovimiento.ALTA, T0),
+                MovimientoInventario.de(PRODUCTO_ID, -3, TipoMovimiento.MOVIMIENTO, T0.plusHours(1)),
+                MovimientoInventario.de(PRODUCTO_ID, 5, TipoMovimiento.AJUSTE, T0.plusHours(2)),
+                MovimientoInventario.de(PRODUCTO_ID + 1, 7, TipoMovimiento.ALTA, T0)));
+    }
+
+    @Test
+    @DisplayName("obtenerStockEnFecha: suma los deltas hasta la fecha incluida")
+    void obtenerStockEnFecha_SinSnapshots_SumaDeltas() {
+        assertEquals(0, stockEn(T0.minusSeconds(1)));
+        assertEquals(10, stockEn(T0));
+        assertEquals(7, stockEn(T0.plusMinutes(90)));
+        assertEquals(12, stockEn(T0.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("compactar: crea un snapshot por producto y el stock reconstruido no cambia")
+    void compactar_CreaSnapshots_StockIgual() {
+        int creados = historialInventarioService.compactar(T0.plusHours(1));
+
+        assertEquals(2, creados);
+        SnapshotInventario snapshot = snapshotInventarioRepository
+                .findFirstByProductoIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(PRODUCTO_ID, T0.plusDays(1))
+                .orElseThrow();
+        assertEquals(7, snapshot.getCantidad());
+        assertEquals(4, movimientoInventarioRepository.count());
+
+        assertEquals(10, stockEn(T0));
+        assertEquals(7, stockEn(T0.plusMinutes(90)));
+        assertEquals(12, stockEn(T0.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("compactar: solo agrega snapshots para los productos con movimientos nuevos desde el último corte")
+    void compactar_Incremental_SoloProductosConMovimientosNuevos() {
+        historialInventarioService.compactar(T0.plusHours(1));
+
+        assertEquals(0, historialInventarioService.compactar(T0.plusHours(1)));
+        assertEquals(1, historialInventarioService.compactar(T0.plusHours(3)));
+
+        assertEquals(12, snapshotInventarioRepository
+                .findFirstByProductoIdAndFechaCorteLessThanEqualOrderByFechaCorteDesc(PRODUCTO_ID, T0.plusDays(1))
+                .orElseThrow().getCantidad());
+        assertEquals(7, stockEn(T0.plusMinutes(90)));
+        assertEquals(12, stockEn(T0.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("crearSnapshotsDeApertura: el stock cargado antes del historial se reconstruye desde la cantidad actual")
+    void crearSnapshotsDeApertura_StockPrevioAlHistorial_ParteDeLaCantidadActual() {
+        Long productoId = productoSinHistorial(20);
+        movimientoInventarioRepository.saveAll(List.of(
+                MovimientoInventario.de(productoId, -5, TipoMovimiento.MOVIMIENTO, T0.plusHours(1)),
+                MovimientoInventario.de(productoId, 3, TipoMovimiento.MOVIMIENTO, T0.plusHours(2))));
+        assertNull(historialInventarioService.obtenerStockEnFecha(productoId, T0.plusDays(1)).getCantidad());
+
+        historialInventarioService.crearSnapshotsDeApertura();
+        historialInventarioService.crearSnapshotsDeApertura();
+
+        assertEquals(1, snapshotInventarioRepository.count());
+        assertEquals(22, snapshotInventarioRepository.findAll().get(0).getCantidad());
+        assertNull(historialInventarioService.obtenerStockEnFecha(productoId, T0.plusMinutes(59)).getCantidad());
+        assertEquals(17, historialInventarioService.obtenerStockEnFecha(productoId, T0.plusHours(1)).getCantidad());
+        assertEquals(20, historialInventarioService.obtenerStockEnFecha(productoId, T0.plusDays(1)).getCantidad());
+    }
+
+    @Test
+    @DisplayName("crearSnapshotsDeApertura: sin movimientos, la apertura es la cantidad actual desde ahora")
+    void crearSnapshotsDeApertura_SinMovimientos_CantidadActual() {
+        Long productoId = productoSinHistorial(8);
+        LocalDateTime antes = LocalDateTime.now().minusSeconds(1);
+
+        historialInventarioService.crearSnapshotsDeApertura();
+
+        assertNull(historialInventarioService.obtenerStockEnFecha(productoId, antes).getCantidad());
+        assertEquals(8, historialInventarioService.obtenerStockEnFecha(productoId, LocalDateTime.now().plusSeconds(1))
+                .getCantidad());
+    }
+
+    /**
+     * Producto con inventario pero sin movimiento de alta, como los cargados antes de que existiera el historial.
+     */
+    private Long productoSinHistorial(int cantidad) {
+        Producto producto = entityManager.persist(new Producto(null, "Previo", "Desc", BigDecimal.ONE, null, null, null));
+        entityManager.persist(new Inventario(null, producto, cantidad, 5, LocalDateTime.now(), null, null));
+        return producto.getId();
+    }
+
+    private int stockEn(LocalDateTime fecha) {
+        StockEnFechaDTO dto = historialInventarioService.obtenerStockEnFecha(PRODUCTO_ID, fecha);
+        return dto.getCantidad();
+    }
+}
@@ -1,20 +1,36 @@
 package com.example.dataservice.services;
 
+import com.example.dataservice.dto.AjusteStockDTO;
 import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.PaginaDTO;
+import com.example.dataservice.dto.ResumenActualizacionStockDTO;
 import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.MovimientoInventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.exception.InventarioNoEncontradoException;
 import com.example.dataservice.exception.ProductoNoEncontradoException;
+import com.example.dataservice.exception.StockInsuficienteException;
+import com.example.dataservice.exception.ValidacionNegocioException;
 import com.example.dataservice.mapper.InventarioMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
 import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
 import com.example.dataservice.service.InventarioService;
+import com.example.dataservice.service.ReintentoOptimista;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,10 +45,33 @@ class InventarioServiceTest {
     @Mock
     private InventarioMapper inventarioMapper;
 
+    @Mock
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    @Mock
+    private CatalogoJdbcRepository catalogoJdbcRepository;
+
+    @Spy
+    private ReintentoOptimista reintentoOptimista = new ReintentoOptimista(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private InventarioService inventarioService;
 
 
+    @Test
+    @DisplayName("obtenerTodo: Con la lectura JDBC habilitada, no hidrata entidades ni usa el mapper")
+    void obtenerTodo_LecturaJdbc_UsaCatalogoJdbc() {
+        List<InventarioDTO> dtos = List.of(new InventarioDTO());
+        when(catalogoJdbcRepository.habilitado()).thenReturn(true);
+        when(catalogoJdbcRepository.listarInventario()).thenReturn(dtos);
+
+        assertSame(dtos, inventarioService.obtenerTodo());
+        verifyNoInteractions(inventarioRepository, inventarioMapper);
+    }
+
     @Test
     @DisplayName("obtenerTodo: Debería retornar lista de DTOs cuando hay datos")
     void obtenerTodo_ConDatos_RetornaLista() {
@@ -69,6 +108,25 @@ class InventarioServiceTest {
     }
 
 
+    @Test
+    @DisplayName("obtenerPorProductoId: Debería retornar el inventario del producto")
+    void obtenerPorProductoId_Existe_RetornaDTO() {
+        Inventario inventario = new Inventario();
+        InventarioDTO dto = new InventarioDTO();
+        when(inventarioRepository.findByProductoId(1L)).thenReturn(Optional.of(inventario));
+        when(inventarioMapper.toDTO(inventario)).thenReturn(dto);
+
+        assertSame(dto, inventarioService.obtenerPorProductoId(1L));
+    }
+
+    @Test
+    @DisplayName("obtenerPorProductoId: Debería lanzar excepción si el producto no tiene inventario")
+    void obtenerPorProductoId_NoExiste_LanzaExcepcion() {
+        when(inventarioRepository.findByProductoId(999L)).thenReturn(Optional.empty());
+
+        assertThrows(InventarioNoEncontradoException.class, () -> inventarioService.obtenerPorProductoId(999L));
+    }
+
     @Test
     @DisplayName("actualizarStock: Debería actualizar cantidad y fecha cuando el producto existe")
     void actualizarStock_ProductoExiste_ActualizaCorrectamente() {
@@ -152,4 +210,136 @@ class InventarioServiceTest {
         assertTrue(resultado.isEmpty());
         verify(inventarioMapper, never()).toDTO(any());
     }
+
+    @Test
+    @DisplayName("obtenerPaginaStockBajo: Lee una fila extra para saber si hay otra página y devuelve la posición siguiente")
+    void obtenerPaginaStockBajo_HayMas_RetornaPosicionSiguiente() {
+        // Arrange
+        Inventario a = new Inventario();
+        Inventario b = new Inventario();
+        Inventario c = new Inventario();
+        when(inventarioRepository.buscarStockBajo("Tecno", true, 4, 3)).thenReturn(List.of(a, b, c));
+        when(inventarioMapper.toDTO(any())).thenReturn(new InventarioDTO());
+
+        // Act
+        PaginaDTO<InventarioDTO> pagina = inventarioService.obtenerPaginaStockBajo("Tecno", null, 4L, 2);
+
+        // Assert
+        assertEquals(2, pagina.getContenido().size());
+        assertEquals(6L, pagina.getSiguienteCursor());
+    }
+
+    @Test
+    @DisplayName("obtenerPaginaStockBajo: Lanza excepción si el orden no es válido")
+    void obtenerPaginaStockBajo_OrdenInvalido_LanzaValidacion() {
+        assertThrows(ValidacionNegocioException.class,
+                () -> inventarioService.obtenerPaginaStockBajo(null, "precio", null, 10));
+        verifyNoInteractions(inventarioRepository);
+    }
+
+    @Test
+    @DisplayName("actualizarStockEnLote: Actualiza los existentes en una sentencia e informa los no encontrados")
+    void actualizarStockEnLote_ConProductoInexistente_InformaNoEncontrado() {
+        // Arrange
+        List<AjusteStockDTO> ajustes = List.of(
+                new AjusteStockDTO(1L, 5), new AjusteStockDTO(2L, 8), new AjusteStockDTO(1L, 9), new AjusteStockDTO(3L, 0));
+        when(inventarioRepository.findParaActualizarPorProductoIds(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(inventarioDe(1L, 4), inventarioDe(3L, 0)));
+        when(inventarioRepository.actualizarCantidades(eq(Map.of(1L, 9, 3L, 0)), any())).thenReturn(2);
+
+        // Act
+        ResumenActualizacionStockDTO resumen = inventarioService.actualizarStockEnLote(ajustes);
+
+        // Assert
+        assertEquals(4, resumen.getSolicitados());
+        assertEquals(2, resumen.getActualizados());
+        assertEquals(List.of(2L), resumen.getProductosNoEncontrados());
+        assertNotNull(resumen.getFechaActualizacion());
+        verify(inventarioRepository, never()).save(any());
+        verify(movimientoInventarioRepository).saveAll(argThat((List<MovimientoInventario> movimientos) ->
+                movimientos.size() == 1 && movimientos.get(0).getProductoId() == 1L && movimientos.get(0).getDelta() == 5));
+    }
+
+    private static Inventario inventarioDe(Long productoId, int cantidad) {
+        Producto producto = new Producto();
+        producto.setId(productoId);
+        Inventario inventario = new Inventario();
+        inventario.setProducto(producto);
+        inventario.setCantidad(cantidad);
+        return inventario;
+    }
+
+    @Test
+    @DisplayName("actualizarStockEnLote: Lanza excepción si alguna cantidad es negativa")
+    void actualizarStockEnLote_CantidadNegativa_LanzaValidacion() {
+        List<AjusteStockDTO> ajustes = List.of(new AjusteStockDTO(1L, 5), new AjusteStockDTO(2L, -1));
+
+        assertThrows(ValidacionNegocioException.class, () -> inventarioService.actualizarStockEnLote(ajustes));
+        verifyNoInteractions(inventarioRepository);
+    }
+
+    @Test
+    @DisplayName("registrarMovimiento: Aplica el delta con un UPDATE y retorna el inventario resultante")
+    void registrarMovimiento_StockSuficiente_RetornaInventario() {
+        // Arrange
+        Inventario inventario = new Inventario();
+        inventario.setCantidad(7);
+        InventarioDTO dto = new InventarioDTO();
+        dto.setCantidad(7);
+        when(inventarioRepository.aplicarMovimiento(eq(1L), eq(-3), any())).thenReturn(1);
+        when(inventarioRepository.findByProductoId(1L)).thenReturn(Optional.of(inventario));
+        when(inventarioMapper.toDTO(inventario)).thenReturn(dto);
+
+        // Act
+        InventarioDTO resultado = inventarioService.registrarMovimiento(1L, -3);
+
+        // Assert
+        assertEquals(7, resultado.getCantidad());
+        verify(inventarioRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("registrarMovimiento: Lanza excepción si el stock no alcanza")
+    void registrarMovimiento_StockInsuficiente_LanzaValidacion() {
+        Inventario inventario = new Inventario();
+        inventario.setCantidad(2);
+        when(inventarioRepository.aplicarMovimiento(eq(1L), eq(-3), any())).thenReturn(0);
+        when(inventarioRepository.findByProductoId(1L)).thenReturn(Optional.of(inventario));
+
+        StockInsuficienteException excepcion = assertThrows(StockInsuficienteException.class,
+                () -> inventarioService.registrarMovimiento(1L, -3));
+
+        assertTrue(excepcion.getMessage().contains("Stock insuficiente"));
+    }
+
+    @Test
+    @DisplayName("registrarMovimiento: Lanza excepción si el producto no tiene inventario")
+    void registrarMovimiento_ProductoInexistente_LanzaExcepcion() {
+        when(inventarioRepository.aplicarMovimiento(eq(99L), eq(5), any())).thenReturn(0);
+        when(inventarioRepository.findByProductoId(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ProductoNoEncontradoException.class, () -> inventarioService.registrarMovimiento(99L, 5));
+    }
+
+    @Test
+    @DisplayName("actualizarStock: Reintenta releyendo el inventario cuando otra transacción confirmó antes")
+    void actualizarStock_ConflictoDeVersion_Reintenta() {
+        // Arrange
+        Inventario inventario = new Inventario();
+        InventarioDTO dto = new InventarioDTO();
+        when(inventarioRepository.findByProductoId(1L)).thenReturn(Optional.of(inventario));
+        when(inventarioRepository.save(inventario)).thenReturn(inventario);
+        doThrow(new ObjectOptimisticLockingFailureException(Inventario.class, 1L))
+                .doNothing()
+                .when(inventarioRepository).flush();
+        when(inventarioMapper.toDTO(inventario)).thenReturn(dto);
+
+        // Act
+        InventarioDTO resultado = inventarioService.actualizarStock(1L, 15);
+
+        // Assert
+        assertSame(dto, resultado);
+        verify(inventarioRepository, times(2)).findByProductoId(1L);
+        assertEquals(1, reintentoOptimista.getReintentos());
+    }
 }
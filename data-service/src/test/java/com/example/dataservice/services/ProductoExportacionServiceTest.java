@@ -0,0 +1,87 @@
+package com.example.dataservice.services;
+
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Inventario;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.service.ProductoExportacionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({ProductoExportacionService.class, ProductoMapper.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ProductoExportacionServiceTest {
+
+    private static final int CANTIDAD_PRODUCTOS = 1200;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductoExportacionService exportacionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        Categoria categoria = new Categoria(null, "Tecno", "Desc", null);
+        entityManager.persist(categoria);
+        for (int i = 0; i < CANTIDAD_PRODUCTOS; i++) {
+            Producto producto = new Producto(null, "Prod " + i, "Desc", BigDecimal.valueOf(i + 1), categoria, null, null);
+            producto.setInventario(new Inventario(null, producto, i, 10, LocalDateTime.now(), null, null));
+            entityManager.persist(producto);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("exportarProductos: Escribe una línea JSON por producto, en orden y con asociaciones")
+    void exportarProductos_EscribeNdjsonCompleto() throws Exception {
+        // Act
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long exportados = exportacionService.exportarProductos(salida);
+
+        // Assert
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(CANTIDAD_PRODUCTOS, exportados);
+        assertEquals(CANTIDAD_PRODUCTOS, lineas.length);
+
+        JsonNode primera = objectMapper.readTree(lineas[0]);
+        JsonNode ultima = objectMapper.readTree(lineas[CANTIDAD_PRODUCTOS - 1]);
+        assertEquals("Prod 0", primera.get("nombre").asText());
+        assertEquals("Tecno", primera.get("categoriaNombre").asText());
+        assertEquals("Prod " + (CANTIDAD_PRODUCTOS - 1), ultima.get("nombre").asText());
+        assertEquals(CANTIDAD_PRODUCTOS - 1, ultima.get("stock").asInt());
+        assertTrue(ultima.get("id").asLong() > primera.get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("exportarProductos: Libera el contexto de persistencia durante el recorrido")
+    void exportarProductos_NoRetieneEntidades() {
+        // Act
+        exportacionService.exportarProductos(new ByteArrayOutputStream());
+
+        // Assert: solo quedan gestionadas las entidades del último lote parcial
+        assertTrue(entityManager.unwrap(Session.class).getStatistics().getEntityCount() < CANTIDAD_PRODUCTOS);
+    }
+}
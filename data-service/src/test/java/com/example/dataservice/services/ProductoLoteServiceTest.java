@@ -0,0 +1,127 @@
+package com.example.dataservice.services;
+
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.dto.ResultadoFilaDTO;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.entity.Producto;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import com.example.dataservice.service.ProductoLoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductoLoteServiceTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private CategoriaRepository categoriaRepository;
+
+    @Mock
+    private ProductoMapper productoMapper;
+
+    @Mock
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductoLoteService productoLoteService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        productoLoteService = new ProductoLoteService(productoRepository, categoriaRepository, productoMapper,
+                movimientoInventarioRepository, cambioCatalogoRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("crearProductos: Resuelve cada categoría una sola vez y reporta filas inválidas sin abortar el lote")
+    void crearProductos_FilasMixtas_ResultadosPorFila() {
+        // Arrange
+        List<ProductoRequest> requests = List.of(
+                new ProductoRequest("A", "Desc", BigDecimal.TEN, "Tecno", 5),
+                new ProductoRequest("B", "Desc", BigDecimal.TEN, "Inexistente", 5),
+                new ProductoRequest("C", "Desc", BigDecimal.TEN, "Tecno", -1),
+                new ProductoRequest("D", "Desc", BigDecimal.TEN, "Tecno", 7));
+        when(categoriaRepository.findByNombreIn(any())).thenReturn(List.of(new Categoria(1L, "Tecno", "Desc", null)));
+        when(productoRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productoMapper.toDTO(any(Producto.class))).thenAnswer(invocation -> {
+            Producto p = invocation.getArgument(0);
+            ProductoDTO dto = new ProductoDTO();
+            dto.setNombre(p.getNombre());
+            return dto;
+        });
+
+        // Act
+        List<ResultadoFilaDTO> resultados = productoLoteService.crearProductos(requests);
+
+        // Assert
+        assertEquals(4, resultados.size());
+        assertTrue(resultados.get(0).getExitoso());
+        assertEquals("A", resultados.get(0).getProducto().getNombre());
+        assertFalse(resultados.get(1).getExitoso());
+        assertTrue(resultados.get(1).getError().contains("Inexistente"));
+        assertFalse(resultados.get(2).getExitoso());
+        assertTrue(resultados.get(3).getExitoso());
+        assertEquals("D", resultados.get(3).getProducto().getNombre());
+
+        verify(categoriaRepository, times(1)).findByNombreIn(Set.of("Tecno", "Inexistente"));
+        verify(productoRepository, times(1)).saveAll(anyList());
+        verify(categoriaRepository, never()).findByNombre(any());
+    }
+
+    @Test
+    @DisplayName("crearProductos: Si falla la transacción del tramo, reintenta fila por fila y aísla el error")
+    void crearProductos_FallaTramo_AislaFilaConError() {
+        // Arrange
+        List<ProductoRequest> requests = List.of(
+                new ProductoRequest("Ok", "Desc", BigDecimal.TEN, "Tecno", 5),
+                new ProductoRequest("Duplicado", "Desc", BigDecimal.TEN, "Tecno", 5));
+        when(categoriaRepository.findByNombreIn(any())).thenReturn(List.of(new Categoria(1L, "Tecno", "Desc", null)));
+        when(productoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            Collection<Producto> productos = invocation.getArgument(0);
+            if (productos.stream().anyMatch(p -> p.getNombre().equals("Duplicado"))) {
+                throw new DataIntegrityViolationException("violación de restricción");
+            }
+            return new ArrayList<>(productos);
+        });
+        when(productoMapper.toDTO(any(Producto.class))).thenReturn(new ProductoDTO());
+
+        // Act
+        List<ResultadoFilaDTO> resultados = productoLoteService.crearProductos(requests);
+
+        // Assert
+        assertTrue(resultados.get(0).getExitoso());
+        assertFalse(resultados.get(1).getExitoso());
+        assertEquals("violación de restricción", resultados.get(1).getError());
+        verify(productoRepository, times(3)).saveAll(anyList());
+    }
+}
@@ -1,22 +1,30 @@
 package com.example.dataservice.service;
 
+import com.example.dataservice.dto.PaginaDTO;
 import com.example.dataservice.dto.ProductoDTO;
 import com.example.dataservice.dto.ProductoRequest;
 import com.example.dataservice.entity.Categoria;
 import com.example.dataservice.entity.Inventario;
 import com.example.dataservice.entity.Producto;
 import com.example.dataservice.exception.CategoriaNoEncontradaException;
+import com.example.dataservice.exception.ConflictoDeVersionException;
 import com.example.dataservice.exception.ProductoNoEncontradoException;
 import com.example.dataservice.exception.ValidacionNegocioException;
 import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
 import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
 import com.example.dataservice.repository.ProductoRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -39,10 +47,44 @@ class ProductoServiceTest {
     @Mock
     private CategoriaRepository categoriaRepository;
 
+    @Mock
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    @Mock
+    private CatalogoJdbcRepository catalogoJdbcRepository;
+
+    @Spy
+    private ReintentoOptimista reintentoOptimista = new ReintentoOptimista(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private ProductoService productoService;
 
 
+    @Test
+    @DisplayName("obtenerTodos: Con la lectura JDBC habilitada, no hidrata entidades ni usa el mapper")
+    void obtenerTodos_LecturaJdbc_UsaCatalogoJdbc() {
+        List<ProductoDTO> dtos = List.of(new ProductoDTO());
+        when(catalogoJdbcRepository.habilitado()).thenReturn(true);
+        when(catalogoJdbcRepository.listarProductos()).thenReturn(dtos);
+
+        assertSame(dtos, productoService.obtenerTodos());
+        verifyNoInteractions(productoRepository, productoMapper);
+    }
+
+    @Test
+    @DisplayName("buscarPorCategoria: Con la lectura JDBC habilitada, filtra por categoría en la consulta JDBC")
+    void buscarPorCategoria_LecturaJdbc_UsaCatalogoJdbc() {
+        List<ProductoDTO> dtos = List.of(new ProductoDTO());
+        when(catalogoJdbcRepository.habilitado()).thenReturn(true);
+        when(catalogoJdbcRepository.listarProductosPorCategoria("Tecno")).thenReturn(dtos);
+
+        assertSame(dtos, productoService.buscarPorCategoria("Tecno"));
+        verifyNoInteractions(productoRepository, productoMapper);
+    }
+
     @Test
     @DisplayName("obtenerTodos: Retorna lista de productos mapeados")
     void obtenerTodos_ExistenDatos_RetornaLista() {
@@ -95,6 +137,41 @@ class ProductoServiceTest {
     }
 
 
+    @Test
+    @DisplayName("obtenerPagina: Devuelve el cursor siguiente cuando hay más filas que el límite")
+    void obtenerPagina_HayMasFilas_RetornaCursorSiguiente() {
+        // Arrange
+        Producto p1 = new Producto(); p1.setId(11L);
+        Producto p2 = new Producto(); p2.setId(12L);
+        Producto p3 = new Producto(); p3.setId(13L);
+        when(productoRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3))).thenReturn(List.of(p1, p2, p3));
+        when(productoMapper.toDTO(any(Producto.class))).thenReturn(new ProductoDTO());
+
+        // Act
+        PaginaDTO<ProductoDTO> pagina = productoService.obtenerPagina(10L, 2);
+
+        // Assert
+        assertEquals(2, pagina.getContenido().size());
+        assertEquals(12L, pagina.getSiguienteCursor());
+    }
+
+    @Test
+    @DisplayName("obtenerPagina: Última página sin cursor siguiente y límite acotado")
+    void obtenerPagina_UltimaPagina_CursorNulo() {
+        // Arrange
+        Producto p1 = new Producto(); p1.setId(1L);
+        when(productoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(501))).thenReturn(List.of(p1));
+        when(productoMapper.toDTO(p1)).thenReturn(new ProductoDTO());
+
+        // Act
+        PaginaDTO<ProductoDTO> pagina = productoService.obtenerPagina(null, 10_000);
+
+        // Assert
+        assertEquals(1, pagina.getContenido().size());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+
     @Test
     @DisplayName("buscarPorCategoria: Retorna productos filtrados")
     void buscarPorCategoria_CategoriaExiste_RetornaLista() {
@@ -127,6 +204,7 @@ class ProductoServiceTest {
 
         Categoria categoriaMock = new Categoria();
         Producto productoGuardado = new Producto();
+        productoGuardado.setInventario(new Inventario());
         ProductoDTO dtoEsperado = new ProductoDTO();
 
         when(categoriaRepository.findByNombre(request.getCategoriaNombre())).thenReturn(Optional.of(categoriaMock));
@@ -247,4 +325,23 @@ class ProductoServiceTest {
         );
         verify(productoRepository, never()).deleteById(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("actualizarProducto: Lanza conflicto si la versión esperada no coincide con la actual")
+    void actualizarProducto_VersionDistinta_LanzaConflicto() {
+        // Arrange
+        Producto productoExistente = new Producto();
+        productoExistente.setVersion(3L);
+        Inventario inventario = new Inventario();
+        inventario.setVersion(2L);
+        productoExistente.setInventario(inventario);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(productoExistente));
+
+        ProductoRequest request = new ProductoRequest();
+        request.setStock(5);
+
+        // Act & Assert
+        assertThrows(ConflictoDeVersionException.class, () -> productoService.actualizarProducto(1L, request, 4L));
+        verify(productoRepository, never()).save(any());
+    }
+}
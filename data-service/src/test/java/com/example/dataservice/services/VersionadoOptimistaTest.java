@@ -0,0 +1,117 @@
+package com.example.dataservice.services;
+
+import com.example.dataservice.dto.InventarioDTO;
+import com.example.dataservice.dto.ProductoDTO;
+import com.example.dataservice.dto.ProductoRequest;
+import com.example.dataservice.entity.Categoria;
+import com.example.dataservice.exception.ConflictoDeVersionException;
+import com.example.dataservice.mapper.InventarioMapper;
+import com.example.dataservice.mapper.ProductoMapper;
+import com.example.dataservice.repository.CambioCatalogoRepository;
+import com.example.dataservice.repository.CatalogoJdbcRepository;
+import com.example.dataservice.repository.CategoriaRepository;
+import com.example.dataservice.repository.InventarioRepository;
+import com.example.dataservice.repository.MovimientoInventarioRepository;
+import com.example.dataservice.repository.ProductoRepository;
+import com.example.dataservice.service.InventarioService;
+import com.example.dataservice.service.ProductoService;
+import com.example.dataservice.service.ReintentoOptimista;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica el versionado optimista de Producto e Inventario contra la base de datos:
+ * cada escritura cambia la versión y una escritura condicional con una versión vieja se rechaza.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductoService.class, InventarioService.class, ProductoMapper.class, InventarioMapper.class, ReintentoOptimista.class,
+        CatalogoJdbcRepository.class})
+class VersionadoOptimistaTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Autowired
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    private ProductoDTO producto;
+
+    @BeforeEach
+    void setUp() {
+        categoriaRepository.save(new Categoria(null, "Versionado", "Desc", null));
+        producto = productoService.crearProducto(new ProductoRequest("Prod", "Desc", BigDecimal.TEN, "Versionado", 20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        movimientoInventarioRepository.deleteAllInBatch();
+        cambioCatalogoRepository.deleteAllInBatch();
+        inventarioRepository.deleteAllInBatch();
+        productoRepository.deleteAllInBatch();
+        categoriaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("actualizarProducto: con la versión vigente actualiza y devuelve una versión nueva")
+    void actualizarProducto_VersionVigente_IncrementaVersion() {
+        ProductoRequest cambio = new ProductoRequest("Prod v2", "Desc", BigDecimal.ONE, "Versionado", 25);
+
+        ProductoDTO actualizado = productoService.actualizarProducto(producto.getId(), cambio, producto.getVersion());
+
+        assertEquals("Prod v2", actualizado.getNombre());
+        assertTrue(actualizado.getVersion() > producto.getVersion());
+        assertEquals(actualizado.getVersion(), productoService.buscarPorId(producto.getId()).getVersion());
+    }
+
+    @Test
+    @DisplayName("actualizarProducto: con una versión vieja se rechaza sin modificar el producto")
+    void actualizarProducto_VersionVieja_LanzaConflicto() {
+        ProductoRequest cambio = new ProductoRequest("Prod v2", "Desc", BigDecimal.ONE, "Versionado", 25);
+        productoService.actualizarProducto(producto.getId(), cambio, producto.getVersion());
+
+        ProductoRequest cambioConcurrente = new ProductoRequest("Prod v3", "Desc", BigDecimal.ONE, "Versionado", 30);
+        assertThrows(ConflictoDeVersionException.class,
+                () -> productoService.actualizarProducto(producto.getId(), cambioConcurrente, producto.getVersion()));
+        assertEquals("Prod v2", productoService.buscarPorId(producto.getId()).getNombre());
+    }
+
+    @Test
+    @DisplayName("registrarMovimiento: incrementa la versión del inventario e invalida el ETag del producto")
+    void registrarMovimiento_IncrementaVersion() {
+        InventarioDTO antes = inventarioService.actualizarStock(producto.getId(), 20);
+
+        InventarioDTO despues = inventarioService.registrarMovimiento(producto.getId(), -5);
+
+        assertEquals(15, despues.getCantidad());
+        assertEquals(antes.getVersion() + 1, despues.getVersion());
+        assertThrows(ConflictoDeVersionException.class,
+                () -> inventarioService.actualizarStock(producto.getId(), 50, antes.getVersion()));
+    }
+}